@@ -60,6 +60,7 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                         .requestMatchers("/notice/list", "/notice/view/**", "/notice/image/**").permitAll()
                         .requestMatchers("/board/list", "/board/view/**", "/board/image/**").permitAll()
                         .requestMatchers("/notice/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/security/**").authenticated()
                         .requestMatchers("/memberOut**").authenticated()
                         .anyRequest().authenticated()
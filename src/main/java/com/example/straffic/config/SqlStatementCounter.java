@@ -0,0 +1,49 @@
+package com.example.straffic.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate 가 준비하는 SQL 문 수를 종류별로 센다 (hibernate.session_factory.statement_inspector 로 등록)
+ * 주차 시뮬레이터가 실행 전후 값을 비교해 요청당 DB 문 수를 계산한다.
+ * JdbcTemplate 으로 직접 실행하는 SQL(CSV 내보내기 등)은 포함되지 않는다.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicLong selects = new AtomicLong();
+    private static final AtomicLong inserts = new AtomicLong();
+    private static final AtomicLong updates = new AtomicLong();
+    private static final AtomicLong deletes = new AtomicLong();
+    private static final AtomicLong others = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        String head = sql.stripLeading();
+        if (head.regionMatches(true, 0, "select", 0, 6) || head.regionMatches(true, 0, "with", 0, 4)) {
+            selects.incrementAndGet();
+        } else if (head.regionMatches(true, 0, "insert", 0, 6)) {
+            inserts.incrementAndGet();
+        } else if (head.regionMatches(true, 0, "update", 0, 6)) {
+            updates.incrementAndGet();
+        } else if (head.regionMatches(true, 0, "delete", 0, 6)) {
+            deletes.incrementAndGet();
+        } else {
+            others.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("select", selects.get());
+        counts.put("insert", inserts.get());
+        counts.put("update", updates.get());
+        counts.put("delete", deletes.get());
+        counts.put("other", others.get());
+        counts.put("total", selects.get() + inserts.get() + updates.get() + deletes.get() + others.get());
+        return counts;
+    }
+}
@@ -11,6 +11,7 @@
 import com.example.straffic.board.repository.BoardRepository;
 import com.example.straffic.board.repository.CommentRepository;
 import com.example.straffic.parking.repository.ParkingRecordRepository;
+import com.example.straffic.parking.service.ParkingAnalyticsService;
 import com.example.straffic.notice.entity.NoticeEntity;
 import com.example.straffic.notice.repository.NoticeRepository;
 import com.example.straffic.member.entity.MemberEntity;
@@ -46,6 +47,7 @@ public class DashboardController {
     private final MemberRepository memberRepository;
     private final PageViewStatsService pageViewStatsService;
     private final PageViewHistoryRepository pageViewHistoryRepository;
+    private final ParkingAnalyticsService parkingAnalyticsService;
 
     @GetMapping("/admin/dashboard")
     public String dashboard(@RequestParam(value = "ktxPage", defaultValue = "1") int ktxPage,
@@ -150,6 +152,44 @@ public java.util.Map<String, Object> getStats(@RequestParam String type, @Reques
         return result;
     }
 
+    /**
+     * 주차 통계 (롤업 테이블 조회)
+     * type=hourly : date 하루의 시간대별 입/출차 수와 평균 점유 대수
+     * type=revenue : from~to 일자별 매출(차종별 포함)과 평균 체류 시간
+     * type=turnover : from~to 구역별 회전수
+     */
+    @GetMapping("/admin/dashboard/api/parking")
+    @org.springframework.web.bind.annotation.ResponseBody
+    public java.util.Map<String, Object> getParkingStats(@RequestParam String type,
+                                                         @RequestParam(required = false) String date,
+                                                         @RequestParam(required = false) String from,
+                                                         @RequestParam(required = false) String to) {
+        java.util.Map<String, Object> result = new java.util.HashMap<>();
+        LocalDate today = LocalDate.now();
+        LocalDate end = parseDateOr(to, today);
+        LocalDate start = parseDateOr(from, end.minusDays(6));
+        if (start.isAfter(end)) {
+            start = end;
+        }
+
+        if ("hourly".equals(type)) {
+            result.put("stats", parkingAnalyticsService.getHourlyStats(parseDateOr(date, today)));
+        } else if ("revenue".equals(type)) {
+            result.put("stats", parkingAnalyticsService.getRevenueStats(start, end));
+        } else if ("turnover".equals(type)) {
+            result.put("stats", parkingAnalyticsService.getTurnover(start, end));
+        }
+        return result;
+    }
+
+    private LocalDate parseDateOr(String value, LocalDate defaultDate) {
+        try {
+            return value == null || value.isBlank() ? defaultDate : LocalDate.parse(value);
+        } catch (Exception e) {
+            return defaultDate;
+        }
+    }
+
     private WeeklyStatsDTO buildWeeklyStats(String platform) {
         LocalDate today = LocalDate.now();
         int dayOfWeekValue = today.getDayOfWeek().getValue();
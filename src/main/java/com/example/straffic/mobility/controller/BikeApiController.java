@@ -0,0 +1,47 @@
+package com.example.straffic.mobility.controller;
+
+import com.example.straffic.mobility.service.BikeStationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 따릉이 대여소 현황 API
+ */
+@RestController
+@RequestMapping("/api/bike")
+@RequiredArgsConstructor
+public class BikeApiController {
+
+    private final BikeStationService bikeStationService;
+
+    /**
+     * 가까운 대여소 (mode=bike: 빌릴 자전거가 있는 곳, mode=dock: 반납할 빈 거치대가 있는 곳)
+     *
+     * @param radius 없으면 거리 제한 없음
+     */
+    @GetMapping("/stations/nearest")
+    public ResponseEntity<Map<String, Object>> getNearestStations(@RequestParam("x") double x,
+                                                                  @RequestParam("y") double y,
+                                                                  @RequestParam(value = "k", defaultValue = "5") int k,
+                                                                  @RequestParam(value = "mode", defaultValue = "bike") String mode,
+                                                                  @RequestParam(value = "min", defaultValue = "1") int min,
+                                                                  @RequestParam(value = "radius", required = false) Double radius) {
+        return ResponseEntity.ok(bikeStationService.nearest(x, y, k, mode, min, radius));
+    }
+
+    /**
+     * 최근 수집 때마다 바뀐 내용 (최신 순)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getChanges(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bikeStationService.getChanges(limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(bikeStationService.getStats());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.straffic.mobility.controller;
+
+import com.example.straffic.mobility.service.BikeStationService;
+import com.example.straffic.mobility.service.NearbyStopService;
+import com.example.straffic.mobility.service.OfflineRouteService;
+import com.example.straffic.mobility.service.RouteResultCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 경로·교통 데이터 관리 API (관리자 전용, /admin/** 은 ADMIN 권한)
+ * 캐시 비우기, 피드·색인 다시 만들기처럼 모든 사용자에게 영향을 주는 작업만 둔다.
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class MobilityAdminController {
+
+    private final RouteResultCache routeResultCache;
+    private final OfflineRouteService offlineRouteService;
+    private final NearbyStopService nearbyStopService;
+    private final BikeStationService bikeStationService;
+
+    @DeleteMapping("/route/cache")
+    public ResponseEntity<Map<String, Object>> clearRouteCache() {
+        routeResultCache.clear();
+        return ResponseEntity.ok(Map.of("success", true));
+    }
+
+    /**
+     * GTFS 피드를 다시 읽는다 (피드 파일을 바꾼 뒤)
+     */
+    @PostMapping("/route/offline/reload")
+    public ResponseEntity<Map<String, Object>> reloadOfflineFeed() {
+        return ResponseEntity.ok(offlineRouteService.reload());
+    }
+
+    /**
+     * 주변 정류장 색인을 지금 피드로 다시 만든다
+     */
+    @PostMapping("/stops/reload")
+    public ResponseEntity<Map<String, Object>> reloadStopIndex() {
+        return ResponseEntity.ok(nearbyStopService.rebuild());
+    }
+
+    /**
+     * 따릉이 현황을 지금 다시 받는다
+     */
+    @PostMapping("/bike/reload")
+    public ResponseEntity<Map<String, Object>> reloadBikeStations() {
+        try {
+            return ResponseEntity.ok(bikeStationService.ingest());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+}
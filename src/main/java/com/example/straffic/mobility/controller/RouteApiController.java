@@ -1,42 +1,233 @@
 package com.example.straffic.mobility.controller;
 
 import com.example.straffic.mobility.dto.RouteRequest;
+import com.example.straffic.mobility.service.BusLaneDetailCache;
+import com.example.straffic.mobility.service.DoorToDoorPlanner;
+import com.example.straffic.mobility.service.NearbyStopService;
+import com.example.straffic.mobility.service.OfflineRouteService;
+import com.example.straffic.mobility.service.PlaceSuggestService;
+import com.example.straffic.mobility.service.RealtimeArrivalCache;
+import com.example.straffic.mobility.service.RouteResultCache;
 import com.example.straffic.mobility.service.RouteService;
+import com.example.straffic.mobility.service.UpstreamCallCoalescer;
+import com.example.straffic.mobility.service.UpstreamGuard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
 public class RouteApiController {
 
+    private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+
     @Autowired
     private RouteService routeService;
 
+    @Autowired
+    private RouteResultCache routeResultCache;
+
+    @Autowired
+    private UpstreamCallCoalescer upstreamCallCoalescer;
+
+    @Autowired
+    private RealtimeArrivalCache realtimeArrivalCache;
+
+    @Autowired
+    private OfflineRouteService offlineRouteService;
+
+    @Autowired
+    private PlaceSuggestService placeSuggestService;
+
+    @Autowired
+    private NearbyStopService nearbyStopService;
+
+    @Autowired
+    private BusLaneDetailCache busLaneDetailCache;
+
+    @Autowired
+    private UpstreamGuard upstreamGuard;
+
+    @Autowired
+    private DoorToDoorPlanner doorToDoorPlanner;
+
     @PostMapping("/route/search")
-    public Mono<ResponseEntity<Map<String, Object>>> searchRoute(@RequestBody RouteRequest request) {
-        return routeService.searchRoute(request)
+    public Mono<ResponseEntity<Map<String, Object>>> searchRoute(@RequestBody RouteRequest request,
+                                                                 @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
+        return routeService.searchRoute(request, refresh)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 통합 검색 (전체·지하철·버스 동시 검색, 중복 제거 후 sort 기준 정렬)
+     */
+    @PostMapping("/route/combined")
+    public Mono<ResponseEntity<Map<String, Object>>> searchCombined(@RequestBody RouteRequest request,
+                                                                    @RequestParam(value = "sort", defaultValue = "time") String sort,
+                                                                    @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
+        return routeService.searchCombined(request, sort, refresh)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 출발지 → KTX → 도착지 연계 경로 (가까운 KTX 역까지·역에서 대중교통 + 시간표의 열차)
+     *
+     * @param date yyyy-MM-dd, 없으면 오늘
+     * @param time HH:mm 이후 출발, 없으면 오늘은 지금·이후 날짜는 0시
+     */
+    @PostMapping("/route/door-to-door")
+    public Mono<ResponseEntity<Map<String, Object>>> planDoorToDoor(@RequestBody RouteRequest request,
+                                                                    @RequestParam(value = "date", required = false) String date,
+                                                                    @RequestParam(value = "time", required = false) String time) {
+        // 시간표는 한국 시각이므로 서버 기본 시간대와 상관없이 서울 기준으로 본다
+        LocalDate today = LocalDate.now(SEOUL);
+        LocalDate travelDate;
+        LocalTime departAfter;
+        try {
+            travelDate = date == null || date.isBlank() ? today : LocalDate.parse(date.trim());
+            if (time != null && !time.isBlank()) {
+                departAfter = LocalTime.parse(time.trim());
+            } else {
+                departAfter = travelDate.isAfter(today) ? LocalTime.MIDNIGHT : LocalTime.now(SEOUL);
+            }
+        } catch (DateTimeParseException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("status", "failed", "error", "날짜(yyyy-MM-dd)·시각(HH:mm) 형식이 올바르지 않습니다.")));
+        }
+        return doorToDoorPlanner.plan(request, travelDate, departAfter)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * 오프라인 경로 검색 (로컬 GTFS 피드, ODsay 호출 없음)
+     *
+     * @param departureTime HH:mm, 없으면 지금
+     */
+    @PostMapping("/route/offline")
+    public ResponseEntity<Map<String, Object>> searchOffline(@RequestBody RouteRequest request,
+                                                             @RequestParam(value = "searchType", defaultValue = "ALL") String searchType,
+                                                             @RequestParam(value = "departureTime", required = false) String departureTime) {
+        return ResponseEntity.ok(offlineRouteService.search(request, searchType, departureTime));
+    }
+
+    @GetMapping("/route/offline/stats")
+    public ResponseEntity<Map<String, Object>> getOfflineStats() {
+        return ResponseEntity.ok(offlineRouteService.getStats());
+    }
+
     @PostMapping("/route/subway")
-    public Mono<ResponseEntity<Map<String, Object>>> searchSubway(@RequestBody RouteRequest request) {
-        return routeService.searchSubway(request)
+    public Mono<ResponseEntity<Map<String, Object>>> searchSubway(@RequestBody RouteRequest request,
+                                                                  @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
+        return routeService.searchSubway(request, refresh)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/route/bus")
-    public Mono<ResponseEntity<Map<String, Object>>> searchBus(@RequestBody RouteRequest request) {
-        return routeService.searchBus(request)
+    public Mono<ResponseEntity<Map<String, Object>>> searchBus(@RequestBody RouteRequest request,
+                                                               @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
+        return routeService.searchBus(request, refresh)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 경로 검색 캐시 적중률
+     */
+    @GetMapping("/route/cache/stats")
+    public ResponseEntity<Map<String, Object>> getRouteCacheStats() {
+        return ResponseEntity.ok(routeResultCache.getStats());
+    }
+
+    /**
+     * 외부 API 호출 합치기 현황 (실제 호출 수 / 진행 중인 호출에 합류한 수)
+     */
+    @GetMapping("/upstream/stats")
+    public ResponseEntity<Map<String, Object>> getUpstreamStats() {
+        return ResponseEntity.ok(upstreamCallCoalescer.getStats());
+    }
+
+    /**
+     * 외부 API 별 호출 정책 상태 (circuit breaker, p95, 시간 초과·hedge·차단 수)
+     */
+    @GetMapping("/upstream/health")
+    public ResponseEntity<Map<String, Object>> getUpstreamHealth() {
+        return ResponseEntity.ok(upstreamGuard.getStats());
+    }
+
+    /**
+     * 실시간 도착 정보 캐시 현황
+     */
+    @GetMapping("/realtime/cache/stats")
+    public ResponseEntity<Map<String, Object>> getRealtimeCacheStats() {
+        return ResponseEntity.ok(realtimeArrivalCache.getStats());
+    }
+
+    /**
+     * 역·정류장 자동완성 (앞부분, 초성, 오타 허용)
+     */
+    @GetMapping("/place/suggest")
+    public Mono<ResponseEntity<Map<String, Object>>> suggestPlace(@RequestParam("q") String keyword,
+                                                                  @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return routeService.searchPlace(keyword, limit)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * 자동완성 항목을 골랐을 때 (인기 순위에 반영, 사용자마다 이름당 색인 주기에 한 번)
+     */
+    @PostMapping("/place/select")
+    public ResponseEntity<Map<String, Object>> selectPlace(@RequestParam("name") String name, Authentication authentication) {
+        boolean counted = placeSuggestService.recordSelection(authentication == null ? null : authentication.getName(), name);
+        return ResponseEntity.ok(Map.of("success", true, "counted", counted));
+    }
+
+    @GetMapping("/place/stats")
+    public ResponseEntity<Map<String, Object>> getPlaceStats() {
+        return ResponseEntity.ok(placeSuggestService.getStats());
+    }
+
+    /**
+     * 좌표에서 가까운 정류장·역 k 개
+     *
+     * @param radius 없으면 거리 제한 없음
+     * @param type   BUS / SUBWAY / KTX, 없으면 모두
+     */
+    @GetMapping("/stops/nearest")
+    public ResponseEntity<Map<String, Object>> getNearestStops(@RequestParam("x") double x,
+                                                               @RequestParam("y") double y,
+                                                               @RequestParam(value = "k", defaultValue = "10") int k,
+                                                               @RequestParam(value = "radius", required = false) Double radius,
+                                                               @RequestParam(value = "type", required = false) String type) {
+        return ResponseEntity.ok(nearbyStopService.nearest(x, y, k, radius, type));
+    }
+
+    /**
+     * 반경(m) 안의 정류장·역 (가까운 순)
+     */
+    @GetMapping("/stops/within")
+    public ResponseEntity<Map<String, Object>> getStopsWithin(@RequestParam("x") double x,
+                                                              @RequestParam("y") double y,
+                                                              @RequestParam(value = "radius", defaultValue = "500") double radius,
+                                                              @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                                              @RequestParam(value = "type", required = false) String type) {
+        return ResponseEntity.ok(nearbyStopService.within(x, y, radius, limit, type));
+    }
+
+    @GetMapping("/stops/stats")
+    public ResponseEntity<Map<String, Object>> getStopIndexStats() {
+        return ResponseEntity.ok(nearbyStopService.getStats());
+    }
+
     @GetMapping("/bus/detail")
     public Mono<ResponseEntity<Map<String, Object>>> getBusLaneDetail(@RequestParam String busID) {
         return routeService.getBusLaneDetail(busID)
@@ -44,6 +235,14 @@ public Mono<ResponseEntity<Map<String, Object>>> getBusLaneDetail(@RequestParam
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 버스 노선 상세 캐시 현황 (메모리·디스크 적중, 갱신 시 내용 변경 여부)
+     */
+    @GetMapping("/bus/detail/cache/stats")
+    public ResponseEntity<Map<String, Object>> getBusLaneCacheStats() {
+        return ResponseEntity.ok(busLaneDetailCache.getStats());
+    }
+
     @GetMapping("/subway/realtime")
     public Mono<ResponseEntity<Map<String, Object>>> getSubwayRealtime(@RequestParam String stationName) {
         return routeService.getSeoulSubwayRealtime(stationName)
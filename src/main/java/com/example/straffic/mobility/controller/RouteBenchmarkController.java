@@ -0,0 +1,69 @@
+package com.example.straffic.mobility.controller;
+
+import com.example.straffic.mobility.dto.RouteBenchmarkConfigDTO;
+import com.example.straffic.mobility.service.RouteBenchmarkService;
+import com.example.straffic.mobility.service.UpstreamRecordReplay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 경로 API 벤치마크 (관리자 / 재생 모드 전용)
+ * route.upstream.mode=record 로 실제 API 응답을 녹화한 뒤, replay 로 띄운 서버에서 POST /run 으로 실행한다.
+ */
+@RestController
+@RequestMapping("/admin/route/benchmark")
+@RequiredArgsConstructor
+public class RouteBenchmarkController {
+
+    private final RouteBenchmarkService routeBenchmarkService;
+    private final UpstreamRecordReplay upstreamRecordReplay;
+
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Object>> run(@RequestBody(required = false) RouteBenchmarkConfigDTO config) {
+        try {
+            Map<String, Object> report = routeBenchmarkService.run(config != null ? config : new RouteBenchmarkConfigDTO());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("report", report);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().body(Map.of("success", false, "error", "벤치마크 실패: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 녹화·재생 현황 (모드, 녹화 수, 스텁 요청·주입 오류 수)
+     */
+    @GetMapping("/upstream")
+    public ResponseEntity<Map<String, Object>> getUpstreamStats() {
+        return ResponseEntity.ok(upstreamRecordReplay.getStats());
+    }
+
+    /**
+     * 스텁 지연·오류 주입만 바꾼다 (설정의 latency~stallMs 만 쓴다). 화면에서 직접 검색해 볼 때
+     */
+    @PutMapping("/upstream/faults")
+    public ResponseEntity<Map<String, Object>> applyFaults(@RequestBody RouteBenchmarkConfigDTO config) {
+        try {
+            return ResponseEntity.ok(routeBenchmarkService.applyFaults(config));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/upstream/reload")
+    public ResponseEntity<Map<String, Object>> reloadRecordings() {
+        try {
+            return ResponseEntity.ok(upstreamRecordReplay.reloadRecordings());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.straffic.mobility.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ODsay searchPubTransPathT 응답 중 화면(route.html)과 통합 검색에 쓰는 필드만 받는 모델
+ * 선언하지 않은 필드는 Jackson 이 파싱 중에 건너뛰므로 나머지 트리는 메모리에 만들어지지 않는다.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OdsayPathResponse {
+
+    private Result result;
+
+    /** 오류 응답은 {"error": {...}} 또는 {"error": [{...}]} 두 가지라 트리로 받는다 */
+    private JsonNode error;
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Result {
+        private Integer searchType;
+        private List<Path> path;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Path {
+        private Integer pathType;
+        private Info info;
+        private List<SubPath> subPath;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Info {
+        private Integer totalTime;
+        private Integer payment;
+        private Integer busTransitCount;
+        private Integer subwayTransitCount;
+        private Integer totalWalk;
+        private Double totalDistance;
+    }
+
+    /**
+     * trafficType 1 지하철, 2 버스, 3 도보
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class SubPath {
+        private Integer trafficType;
+        private Double distance;
+        private Integer sectionTime;
+        private Integer stationCount;
+        private List<Lane> lane;
+        private String startName;
+        private Double startX;
+        private Double startY;
+        private Integer startID;
+        private String endName;
+        private Double endX;
+        private Double endY;
+        private Integer endID;
+        private PassStopList passStopList;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Lane {
+        private String name;
+        private Integer subwayCode;
+        private String busNo;
+        private Integer busID;
+        private Integer type;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PassStopList {
+        private List<Station> stations;
+    }
+
+    /**
+     * 경유 정류장은 이름만 받는다 (좌표는 문자열이라 구간마다 수십 번 숫자 변환이 일어난다. 지도에는 구간 시작·끝 좌표를 쓴다)
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Station {
+        private String stationName;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.straffic.mobility.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 경로 API 벤치마크 설정
+ * 요청 대상(좌표·역·노선)은 재생 모드의 녹화에서 고르므로, 녹화에 없는 요청은 보내지 않는다.
+ */
+@Data
+@NoArgsConstructor
+public class RouteBenchmarkConfigDTO {
+
+    // 실행: 총 요청 수, 동시 요청 수, 요청 하나를 기다리는 최대 시간
+    private int requests = 500;
+    private int concurrency = 16;
+    private long requestTimeoutMs = 30_000;
+
+    // 요청 종류 비율 (combined, search, subway, bus, subwayRealtime, busDetail)
+    private Map<String, Double> mix = new LinkedHashMap<>(Map.of(
+            "combined", 0.5, "search", 0.2, "subwayRealtime", 0.2, "busDetail", 0.1));
+    // 녹화된 대상 중 앞에서 몇 개만 쓸지 (0 이면 모두). 작을수록 캐시 적중·호출 합치기가 많아진다
+    private int hotSet = 0;
+    // refresh=true(캐시 건너뛰기)로 보낼 비율
+    private double refreshRatio = 0;
+    // 시작 전에 경로 캐시를 비운다 (실시간·버스 노선 캐시는 그대로)
+    private boolean clearRouteCache = true;
+
+    // 재생 스텁 지연·오류 주입 (fixed / uniform / lognormal)
+    private String latency = "lognormal";
+    private double latencyMedianMs = 80;
+    private double latencySigma = 0.5;
+    private double latencyMinMs = 0;
+    private double latencyMaxMs = 2_000;
+    private double errorRate = 0;
+    private double stallRate = 0;
+    private long stallMs = 5_000;
+
+    private long seed = 42;
+}
@@ -0,0 +1,51 @@
+package com.example.straffic.mobility.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 서울시 realtimeStationArrival 응답 중 도착 안내에 쓰는 필드만 받는 모델
+ * 데이터가 없거나 인증키 오류일 때는 errorMessage 대신 최상위에 status/code/message 가 온다.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SeoulSubwayArrivalResponse {
+
+    private ErrorMessage errorMessage;
+    private List<Arrival> realtimeArrivalList;
+
+    private Integer status;
+    private String code;
+    private String message;
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ErrorMessage {
+        private Integer status;
+        private String code;
+        private String message;
+        private Integer total;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Arrival {
+        private String subwayId;
+        private String updnLine;
+        private String trainLineNm;
+        private String statnNm;
+        private String bstatnNm;
+        private String btrainSttus;
+        private String barvlDt;
+        private String arvlMsg2;
+        private String arvlMsg3;
+        private String arvlCd;
+        private String recptnDt;
+    }
+}
@@ -2,6 +2,7 @@
 
 import com.example.straffic.mobility.entity.KtxTrainEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -10,4 +11,9 @@
 @Repository
 public interface KtxTrainRepository extends JpaRepository<KtxTrainEntity, Long> {
     List<KtxTrainEntity> findByDepartureAndArrivalAndTravelDate(String departure, String arrival, LocalDate travelDate);
+
+    List<KtxTrainEntity> findByTravelDate(LocalDate travelDate);
+
+    @Query("select distinct t.departure from KtxTrainEntity t")
+    List<String> findDistinctDepartures();
 }
@@ -0,0 +1,306 @@
+package com.example.straffic.mobility.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * 따릉이 대여소 현황 (서울시 공공자전거 실시간 대여정보 bikeList)
+ * refresh-ms 마다 현황을 받아 새 BikeStationSnapshot 을 만들고 volatile 참조 하나로 바꿔 끼운다.
+ * 조회는 그 순간의 스냅샷만 읽으므로 수집 중에도 기다리지 않는다.
+ * 직전 스냅샷과 비교한 변화(새로 생긴·없어진 대여소, 자전거 수가 바뀐 대여소)를 최근 MAX_DIFFS 번 남긴다.
+ * feed-file 이 있으면 API 대신 그 파일(bikeList 응답과 같은 JSON)을 읽는다.
+ * 오류 응답(RESULT.CODE 가 INFO-000 이 아님)이나 첫 페이지에 대여소가 하나도 없는 응답은 실패로 보고 이전 스냅샷을 그대로 둔다.
+ */
+@Service
+public class BikeStationService {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_PAGES = 10;
+    private static final int MAX_RESULTS = 50;
+    private static final int MAX_DIFFS = 30;
+    private static final String OK = "INFO-000";
+    private static final String NO_DATA = "INFO-200";
+
+    private final Path feedFile;
+    private final String apiUrl;
+    private final String apiKey;
+    private final ObjectMapper objectMapper;
+    private final UpstreamGuard upstreamGuard;
+    private final WebClient webClient;
+
+    private volatile BikeStationSnapshot snapshot = BikeStationSnapshot.EMPTY;
+    private final ArrayDeque<BikeStationSnapshot.Diff> diffs = new ArrayDeque<>();
+
+    private volatile long lastIngestMillis;
+    private volatile String lastError;
+    private final AtomicLong ingests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+
+    public BikeStationService(@Value("${route.bike.feed-file:data/bike/station-status.json}") String feedFile,
+                              @Value("${api.seoul.bike.url:http://openapi.seoul.go.kr:8088}") String apiUrl,
+                              @Value("${api.seoul.bike.key:}") String apiKey,
+                              ObjectMapper objectMapper,
+                              UpstreamGuard upstreamGuard,
+                              UpstreamRecordReplay upstreamRecordReplay) {
+        this.feedFile = Paths.get(feedFile);
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.objectMapper = objectMapper;
+        this.upstreamGuard = upstreamGuard;
+        this.webClient = upstreamGuard.webClient(UpstreamGuard.BIKE, upstreamRecordReplay.filter());
+    }
+
+    @Scheduled(fixedDelayString = "${route.bike.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            ingest();
+        } catch (IllegalStateException e) {
+            System.out.println("[WARN] 따릉이 현황 수집 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 현황을 지금 받아 스냅샷을 바꾼다. 실패하면 이전 스냅샷을 그대로 둔다
+     */
+    public synchronized Map<String, Object> ingest() {
+        long started = System.currentTimeMillis();
+        List<JsonNode> rows;
+        try {
+            rows = fetchRows();
+        } catch (IllegalStateException e) {
+            failures.incrementAndGet();
+            lastError = e.getMessage();
+            throw e;
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            lastError = e.getMessage();
+            throw new IllegalStateException("따릉이 현황을 받지 못했습니다: " + e.getMessage(), e);
+        }
+
+        int n = rows.size();
+        String[] ids = new String[n];
+        String[] names = new String[n];
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        int[] bikes = new int[n];
+        int[] docks = new int[n];
+        int count = 0;
+        for (JsonNode row : rows) {
+            String id = row.path("stationId").asText("");
+            double y = row.path("stationLatitude").asDouble(0);
+            double x = row.path("stationLongitude").asDouble(0);
+            // 좌표가 없는 대여소(폐쇄·이전 중)는 뺀다
+            if (id.isEmpty() || y == 0 || x == 0) continue;
+            ids[count] = id;
+            names[count] = row.path("stationName").asText(id);
+            lat[count] = y;
+            lon[count] = x;
+            bikes[count] = Math.max(0, row.path("parkingBikeTotCnt").asInt(0));
+            docks[count] = Math.max(0, row.path("rackTotCnt").asInt(0) - bikes[count]);
+            count++;
+        }
+        if (count == 0) {
+            failures.incrementAndGet();
+            lastError = "좌표가 있는 대여소가 없습니다 (받은 행 " + n + ")";
+            throw new IllegalStateException("따릉이 현황이 비어 있습니다: " + lastError);
+        }
+        if (count < n) {
+            ids = Arrays.copyOf(ids, count);
+            names = Arrays.copyOf(names, count);
+            lat = Arrays.copyOf(lat, count);
+            lon = Arrays.copyOf(lon, count);
+            bikes = Arrays.copyOf(bikes, count);
+            docks = Arrays.copyOf(docks, count);
+        }
+
+        BikeStationSnapshot previous = snapshot;
+        BikeStationSnapshot next = new BikeStationSnapshot(ids, names, lat, lon, bikes, docks, System.currentTimeMillis());
+        if (previous.size() > 0) {
+            BikeStationSnapshot.Diff diff = next.diff(previous);
+            synchronized (diffs) {
+                diffs.addFirst(diff);
+                if (diffs.size() > MAX_DIFFS) {
+                    diffs.removeLast();
+                }
+            }
+        }
+        snapshot = next;
+        ingests.incrementAndGet();
+        lastError = null;
+        lastIngestMillis = System.currentTimeMillis() - started;
+        System.out.println("🚲 따릉이 현황: 대여소 " + count + "곳, 자전거 " + next.totalBikes() + "대 (" + lastIngestMillis + "ms)");
+        return getStats();
+    }
+
+    /**
+     * 가까운 순 k 곳
+     *
+     * @param x         경도
+     * @param y         위도
+     * @param mode      bike(빌릴 자전거가 있는 곳, 기본) / dock(반납할 빈 거치대가 있는 곳)
+     * @param min       자전거 또는 빈 거치대가 최소 이만큼 있는 곳만 (최소 1)
+     * @param maxMeters 없으면 거리 제한 없음
+     */
+    public Map<String, Object> nearest(double x, double y, int k, String mode, int min, Double maxMeters) {
+        long started = System.nanoTime();
+        BikeStationSnapshot current = snapshot;
+        boolean dock = "dock".equalsIgnoreCase(mode == null ? "" : mode.trim());
+        int[] counts = dock ? current.docks : current.bikes;
+        int threshold = Math.max(1, min);
+        IntPredicate available = id -> counts[id] >= threshold;
+
+        int limit = Math.max(1, Math.min(k, MAX_RESULTS));
+        int[] found = new int[limit];
+        double[] meters = new double[limit];
+        int count = current.index.nearest(y, x, limit,
+                maxMeters == null ? Double.POSITIVE_INFINITY : maxMeters, available, found, meters);
+        List<Map<String, Object>> items = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            int id = found[r];
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", current.ids[id]);
+            item.put("name", current.names[id]);
+            item.put("x", current.lon[id]);
+            item.put("y", current.lat[id]);
+            item.put("bikes", current.bikes[id]);
+            item.put("docks", current.docks[id]);
+            item.put("distance", (int) Math.round(meters[r]));
+            items.add(item);
+        }
+
+        long elapsed = System.nanoTime() - started;
+        queries.incrementAndGet();
+        queryNanos.addAndGet(elapsed);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("mode", dock ? "dock" : "bike");
+        response.put("x", x);
+        response.put("y", y);
+        response.put("stations", items);
+        response.put("fetchedAt", current.fetchedAt);
+        response.put("ageSeconds", current.fetchedAt == 0 ? null : (System.currentTimeMillis() - current.fetchedAt) / 1000);
+        response.put("elapsedMicros", elapsed / 1000);
+        return response;
+    }
+
+    /**
+     * 최근 수집 때마다의 변화 (최신 순)
+     */
+    public Map<String, Object> getChanges(int limit) {
+        List<BikeStationSnapshot.Diff> recent = new ArrayList<>();
+        synchronized (diffs) {
+            Iterator<BikeStationSnapshot.Diff> it = diffs.iterator();
+            while (it.hasNext() && recent.size() < Math.max(1, limit)) {
+                recent.add(it.next());
+            }
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("changes", recent);
+        return response;
+    }
+
+    public Map<String, Object> getStats() {
+        BikeStationSnapshot current = snapshot;
+        long count = queries.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", Files.isRegularFile(feedFile) ? feedFile.toAbsolutePath().toString() : apiUrl);
+        stats.put("stations", current.size());
+        stats.put("bikes", current.totalBikes());
+        stats.put("fetchedAt", current.fetchedAt);
+        stats.put("memoryBytes", current.memoryBytes());
+        stats.put("ingests", ingests.get());
+        stats.put("failures", failures.get());
+        stats.put("lastError", lastError);
+        stats.put("lastIngestMillis", lastIngestMillis);
+        stats.put("queries", count);
+        stats.put("avgQueryMicros", count == 0 ? 0.0 : Math.round(queryNanos.get() / (double) count / 100.0) / 10.0);
+        return stats;
+    }
+
+    /**
+     * 파일이 있으면 파일에서, 없으면 API 를 PAGE_SIZE 건씩 끝까지 받는다
+     */
+    private List<JsonNode> fetchRows() throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        if (Files.isRegularFile(feedFile)) {
+            addRows(objectMapper.readTree(feedFile.toFile()), rows, true);
+            return rows;
+        }
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("현황 파일(" + feedFile + ")도 API 키(api.seoul.bike.key)도 없습니다");
+        }
+        for (int page = 0; page < MAX_PAGES; page++) {
+            String url = String.format("%s/%s/json/bikeList/%d/%d/",
+                    apiUrl, apiKey, page * PAGE_SIZE + 1, (page + 1) * PAGE_SIZE);
+            JsonNode body = upstreamGuard.call(UpstreamGuard.BIKE, () -> webClient.get()
+                            .uri(url)
+                            .retrieve()
+                            .bodyToMono(JsonNode.class))
+                    .block();
+            if (addRows(body, rows, page == 0) < PAGE_SIZE) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * bikeList 응답({"rentBikeStatus":{"RESULT":{..},"row":[...]}}) 또는 row 배열
+     *
+     * @param first 첫 페이지면 행이 하나도 없을 때도 실패로 본다
+     * @return 추가한 행 수
+     */
+    private static int addRows(JsonNode body, List<JsonNode> rows, boolean first) {
+        if (body == null || body.isMissingNode() || body.isNull()) {
+            if (first) throw new IllegalStateException("따릉이 응답이 비어 있습니다");
+            return 0;
+        }
+        if (body.isArray()) {
+            if (first && body.isEmpty()) throw new IllegalStateException("따릉이 현황 행이 없습니다");
+            body.forEach(rows::add);
+            return body.size();
+        }
+
+        // 결과 코드는 정상이면 rentBikeStatus.RESULT, 오류면 최상위 RESULT 나 CODE 로 온다
+        JsonNode status = body.path("rentBikeStatus");
+        JsonNode result = status.has("RESULT") ? status.path("RESULT") : body.has("RESULT") ? body.path("RESULT") : body;
+        String code = result.path("CODE").asText("");
+        if (!code.isEmpty() && !OK.equals(code)) {
+            // 마지막 페이지 다음은 INFO-200 (데이터 없음) 으로 온다
+            if (NO_DATA.equals(code) && !first) {
+                return 0;
+            }
+            throw new IllegalStateException("따릉이 API 오류 " + code + ": " + result.path("MESSAGE").asText(""));
+        }
+        JsonNode list = status.path("row");
+        if (!list.isArray()) {
+            if (first) throw new IllegalStateException("따릉이 응답에 rentBikeStatus.row 가 없습니다");
+            return 0;
+        }
+        if (first && (list.isEmpty() || status.path("list_total_count").asInt(-1) == 0)) {
+            throw new IllegalStateException("따릉이 현황 행이 없습니다");
+        }
+        list.forEach(rows::add);
+        return list.size();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.straffic.mobility.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 따릉이 대여소 현황 한 벌 (배열 번호 = 대여소 번호)
+ * 한 번 만들면 바꾸지 않는다. 새 현황을 받으면 새 스냅샷을 만들어 통째로 바꾸므로 조회는 잠금 없이 읽는다.
+ */
+final class BikeStationSnapshot {
+
+    static final BikeStationSnapshot EMPTY = new BikeStationSnapshot(new String[0], new String[0],
+            new double[0], new double[0], new int[0], new int[0], 0);
+
+    final String[] ids;
+    final String[] names;
+    final double[] lat;
+    final double[] lon;
+    /** 대여 가능한 자전거 수 */
+    final int[] bikes;
+    /** 빈 거치대 수 (거치대 - 자전거, 0 미만이면 0) */
+    final int[] docks;
+    final long fetchedAt;
+    final SpatialIndex index;
+    private final Map<String, Integer> positions;
+
+    /**
+     * 현황 변화 요약
+     *
+     * @param changes 자전거 수가 바뀐 대여소 중 변화가 큰 순 최대 MAX_DIFF_ITEMS 곳 (id, name, before, after)
+     */
+    record Diff(long from, long to, int added, int removed, int changed, int bikesBefore, int bikesAfter,
+                List<Map<String, Object>> changes) {
+    }
+
+    static final int MAX_DIFF_ITEMS = 20;
+
+    BikeStationSnapshot(String[] ids, String[] names, double[] lat, double[] lon, int[] bikes, int[] docks, long fetchedAt) {
+        this.ids = ids;
+        this.names = names;
+        this.lat = lat;
+        this.lon = lon;
+        this.bikes = bikes;
+        this.docks = docks;
+        this.fetchedAt = fetchedAt;
+        this.index = SpatialIndex.build(lat, lon);
+        this.positions = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            positions.put(ids[i], i);
+        }
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    int totalBikes() {
+        int total = 0;
+        for (int b : bikes) {
+            total += b;
+        }
+        return total;
+    }
+
+    /**
+     * previous 에서 이 스냅샷으로 바뀐 내용
+     */
+    Diff diff(BikeStationSnapshot previous) {
+        int added = 0;
+        int changed = 0;
+        List<int[]> moved = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            Integer before = previous.positions.get(ids[i]);
+            if (before == null) {
+                added++;
+            } else if (previous.bikes[before] != bikes[i]) {
+                changed++;
+                moved.add(new int[]{i, previous.bikes[before]});
+            }
+        }
+        int removed = 0;
+        for (String id : previous.ids) {
+            if (!positions.containsKey(id)) {
+                removed++;
+            }
+        }
+
+        moved.sort((a, b) -> Integer.compare(Math.abs(bikes[b[0]] - b[1]), Math.abs(bikes[a[0]] - a[1])));
+        List<Map<String, Object>> changes = new ArrayList<>();
+        for (int[] m : moved.subList(0, Math.min(MAX_DIFF_ITEMS, moved.size()))) {
+            Map<String, Object> change = new LinkedHashMap<>();
+            change.put("id", ids[m[0]]);
+            change.put("name", names[m[0]]);
+            change.put("before", m[1]);
+            change.put("after", bikes[m[0]]);
+            changes.add(change);
+        }
+        return new Diff(previous.fetchedAt, fetchedAt, added, removed, changed,
+                previous.totalBikes(), totalBikes(), changes);
+    }
+
+    /**
+     * 숫자 배열과 색인 크기 (문자열 제외)
+     */
+    long memoryBytes() {
+        return (lat.length + lon.length) * 8L + (bikes.length + docks.length) * 4L + index.size() * 20L;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.straffic.mobility.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 버스 노선 상세(ODsay busLaneDetail) 2단 캐시
+ * <ul>
+ *   <li>1단: 메모리 LRU (max-size 개)</li>
+ *   <li>2단: 디스크 로그 파일(BusLaneDetailStore). 재시작해도 남아서 새 서버도 바로 디스크에서 답한다</li>
+ * </ul>
+ * 노선 정보는 한 달에 한 번 바뀔까 말까라, refresh-hours 가 지난 항목은 이전 값을 바로 돌려주고 백그라운드에서 다시 받는다.
+ * 다시 받은 내용의 crc 가 같으면(버전이 그대로면) 받은 시각만 기록하고, 달라졌을 때만 새 값을 쓴다.
+ */
+@Component
+public class BusLaneDetailCache {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final int maxSize;
+    private final long refreshMillis;
+    private final long compactMinBytes;
+
+    private final LinkedHashMap<String, Entry> memory;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private volatile BusLaneDetailStore store;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong diskErrors = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BusLaneDetailCache(ObjectMapper objectMapper,
+                              @Value("${route.bus-lane.file:data/cache/bus-lane-detail.log}") String file,
+                              @Value("${route.bus-lane.max-size:500}") int maxSize,
+                              @Value("${route.bus-lane.refresh-hours:24}") long refreshHours,
+                              @Value("${route.bus-lane.compact-min-bytes:4194304}") long compactMinBytes) {
+        this.objectMapper = objectMapper;
+        this.file = Paths.get(file);
+        this.maxSize = maxSize;
+        this.refreshMillis = refreshHours * 3_600_000;
+        this.compactMinBytes = compactMinBytes;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > BusLaneDetailCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            store = BusLaneDetailStore.open(file);
+            store.compactIfNeeded(compactMinBytes);
+            System.out.println("[INFO] 버스 노선 디스크 캐시: " + store.size() + "개 (" + file.toAbsolutePath() + ")");
+        } catch (Exception e) {
+            // 디스크를 못 쓰면 메모리 캐시만 쓴다
+            store = null;
+            System.out.println("[WARN] 버스 노선 디스크 캐시 비활성: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            if (store != null) store.close();
+        } catch (Exception e) {
+            System.out.println("[WARN] 버스 노선 디스크 캐시 닫기 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param loader ODsay 호출
+     */
+    public Mono<Map<String, Object>> get(String busID, Supplier<Mono<Map<String, Object>>> loader) {
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(busID);
+        }
+        if (entry != null) {
+            memoryHits.incrementAndGet();
+        } else {
+            entry = readDisk(busID);
+            if (entry != null) {
+                diskHits.incrementAndGet();
+                synchronized (memory) {
+                    memory.put(busID, entry);
+                }
+            }
+        }
+        if (entry != null) {
+            if (System.currentTimeMillis() - entry.fetchedAt > refreshMillis) {
+                refreshInBackground(busID, loader);
+            }
+            return Mono.just(entry.value);
+        }
+        misses.incrementAndGet();
+        return loader.get().doOnNext(value -> store(busID, value));
+    }
+
+    /**
+     * 덮어쓴 레코드가 많아진 로그 파일 정리
+     */
+    @Scheduled(fixedDelayString = "${route.bus-lane.compact-check-ms:3600000}")
+    public void compact() {
+        BusLaneDetailStore current = store;
+        if (current == null) return;
+        try {
+            if (current.compactIfNeeded(compactMinBytes)) {
+                System.out.println("[INFO] 버스 노선 디스크 캐시 정리: " + current.fileBytes() + " bytes");
+            }
+        } catch (Exception e) {
+            diskErrors.incrementAndGet();
+            System.out.println("[WARN] 버스 노선 디스크 캐시 정리 실패: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long total = memoryHits.get() + diskHits.get() + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (memory) {
+            stats.put("memorySize", memory.size());
+        }
+        stats.put("maxSize", maxSize);
+        BusLaneDetailStore current = store;
+        stats.put("diskEnabled", current != null);
+        if (current != null) {
+            stats.put("diskSize", current.size());
+            try {
+                stats.put("fileBytes", current.fileBytes());
+            } catch (Exception e) {
+                stats.put("fileBytes", -1);
+            }
+            stats.put("liveBytes", current.liveBytes());
+        }
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("misses", misses.get());
+        stats.put("refreshes", refreshes.get());
+        stats.put("unchanged", unchanged.get());
+        stats.put("changed", changed.get());
+        stats.put("refreshFailures", refreshFailures.get());
+        stats.put("diskErrors", diskErrors.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : Math.round((memoryHits.get() + diskHits.get()) * 1000.0 / total) / 1000.0);
+        return stats;
+    }
+
+    private Entry readDisk(String busID) {
+        BusLaneDetailStore current = store;
+        if (current == null) return null;
+        try {
+            BusLaneDetailStore.Slot slot = current.lookup(busID);
+            if (slot == null) return null;
+            byte[] json = current.read(slot);
+            if (json == null) return null;
+            return new Entry(objectMapper.readValue(json, MAP_TYPE), slot.fetchedAt());
+        } catch (Exception e) {
+            diskErrors.incrementAndGet();
+            System.out.println("[WARN] 버스 노선 디스크 캐시 읽기 실패 (" + busID + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void refreshInBackground(String busID, Supplier<Mono<Map<String, Object>>> loader) {
+        if (!refreshing.add(busID)) {
+            return;
+        }
+        refreshes.incrementAndGet();
+        loader.get()
+                .doFinally(signal -> refreshing.remove(busID))
+                .subscribe(value -> store(busID, value), error -> {
+                    // 이전 값을 계속 쓰고 다음 조회 때 다시 시도한다
+                    refreshFailures.incrementAndGet();
+                    System.err.println("❌ 버스 노선 상세 갱신 실패 (" + busID + "): " + error.getMessage());
+                });
+    }
+
+    private void store(String busID, Map<String, Object> value) {
+        // 오류 응답은 저장하지 않고 이전 값을 유지
+        if (CompactRouteResponses.isError(value) || !value.containsKey("result")) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            int crc = BusLaneDetailStore.crc(json);
+            BusLaneDetailStore current = store;
+            if (current != null) {
+                BusLaneDetailStore.Slot previous = current.lookup(busID);
+                if (previous != null && previous.crc() == crc) {
+                    current.touch(busID, now);
+                    unchanged.incrementAndGet();
+                } else {
+                    current.append(busID, json, now);
+                    if (previous != null) changed.incrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            diskErrors.incrementAndGet();
+            System.out.println("[WARN] 버스 노선 디스크 캐시 쓰기 실패 (" + busID + "): " + e.getMessage());
+        }
+        synchronized (memory) {
+            memory.put(busID, new Entry(value, now));
+        }
+    }
+
+    private static class Entry {
+        final Map<String, Object> value;
+        final long fetchedAt;
+
+        Entry(Map<String, Object> value, long fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
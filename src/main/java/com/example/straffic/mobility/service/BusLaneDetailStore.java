@@ -0,0 +1,255 @@
+package com.example.straffic.mobility.service;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 버스 노선 상세 디스크 저장소 (추가만 하는 로그 파일 + 메모리 색인)
+ * <ul>
+ *   <li>헤더: magic, version. 다르면 파일을 버리고 새로 만든다 (캐시라 잃어도 된다)</li>
+ *   <li>VALUE 레코드: type, key, fetchedAt, crc, 길이, 응답 JSON</li>
+ *   <li>TOUCH 레코드: 다시 받아 보니 내용(crc)이 같을 때 fetchedAt 만 남긴다 (JSON 을 다시 쓰지 않음)</li>
+ * </ul>
+ * 열 때 로그를 한 번 훑어 key → 위치 색인을 만들고, 읽기는 그 위치에서 바로 한다.
+ * 쓰다 끊긴 마지막 레코드는 잘라 내고, 덮어쓴 레코드가 절반을 넘으면 compact 로 새 파일에 다시 쓴다.
+ */
+final class BusLaneDetailStore implements Closeable {
+
+    static final int MAGIC = 0x424C4431; // "BLD1"
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 + 4;
+    private static final byte VALUE = 1;
+    private static final byte TOUCH = 2;
+    // type, keyLength, fetchedAt, crc, valueLength
+    private static final int RECORD_OVERHEAD = 1 + 2 + 8 + 4 + 4;
+
+    /** 값 위치 (offset 은 JSON 시작 위치) */
+    record Slot(long offset, int length, int crc, long fetchedAt) {
+    }
+
+    private final Path path;
+    private final Map<String, Slot> index = new HashMap<>();
+    private FileChannel channel;
+    private long liveBytes;
+
+    private BusLaneDetailStore(Path path) {
+        this.path = path;
+    }
+
+    static BusLaneDetailStore open(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        BusLaneDetailStore store = new BusLaneDetailStore(path);
+        store.load();
+        return store;
+    }
+
+    static int crc(byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+
+    synchronized Slot lookup(String key) {
+        return index.get(key);
+    }
+
+    /**
+     * @return 저장된 JSON. 내용이 crc 와 맞지 않으면 null
+     */
+    synchronized byte[] read(Slot slot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(slot.length());
+        long position = slot.offset();
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) return null;
+            position += n;
+        }
+        byte[] value = buffer.array();
+        return crc(value) == slot.crc() ? value : null;
+    }
+
+    synchronized Slot append(String key, byte[] value, long fetchedAt) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int crc = crc(value);
+        long start = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_OVERHEAD + keyBytes.length + value.length);
+        buffer.put(VALUE).putShort((short) keyBytes.length).put(keyBytes)
+                .putLong(fetchedAt).putInt(crc).putInt(value.length).put(value);
+        write(buffer.flip(), start);
+        Slot slot = new Slot(start + RECORD_OVERHEAD + keyBytes.length, value.length, crc, fetchedAt);
+        put(key, slot);
+        return slot;
+    }
+
+    /**
+     * 값은 그대로 두고 받은 시각만 바꾼다
+     */
+    synchronized Slot touch(String key, long fetchedAt) throws IOException {
+        Slot current = index.get(key);
+        if (current == null) return null;
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_OVERHEAD + keyBytes.length);
+        buffer.put(TOUCH).putShort((short) keyBytes.length).put(keyBytes)
+                .putLong(fetchedAt).putInt(current.crc()).putInt(0);
+        write(buffer.flip(), channel.size());
+        Slot slot = new Slot(current.offset(), current.length(), current.crc(), fetchedAt);
+        index.put(key, slot);
+        return slot;
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    synchronized long fileBytes() throws IOException {
+        return channel.size();
+    }
+
+    synchronized long liveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * 덮어쓴 레코드가 절반을 넘고 파일이 minBytes 보다 크면 살아 있는 값만 새 파일에 옮겨 쓴다
+     *
+     * @return compact 했으면 true
+     */
+    synchronized boolean compactIfNeeded(long minBytes) throws IOException {
+        long size = channel.size();
+        if (size < minBytes || liveBytes * 2 > size) {
+            return false;
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Map<String, Slot> compacted = new HashMap<>();
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            long position = writeHeader(out);
+            for (Map.Entry<String, Slot> e : index.entrySet()) {
+                byte[] value = read(e.getValue());
+                if (value == null) continue;
+                byte[] keyBytes = e.getKey().getBytes(StandardCharsets.UTF_8);
+                Slot slot = e.getValue();
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_OVERHEAD + keyBytes.length + value.length);
+                buffer.put(VALUE).putShort((short) keyBytes.length).put(keyBytes)
+                        .putLong(slot.fetchedAt()).putInt(slot.crc()).putInt(value.length).put(value);
+                buffer.flip();
+                compacted.put(e.getKey(), new Slot(position + RECORD_OVERHEAD + keyBytes.length, value.length, slot.crc(), slot.fetchedAt()));
+                while (buffer.hasRemaining()) {
+                    position += out.write(buffer, position);
+                }
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        liveBytes = 0;
+        compacted.forEach(this::put);
+        return true;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    // ------------------------------------------------------------------ 열기
+
+    private void load() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE || !headerMatches()) {
+            if (channel.size() > 0) {
+                System.out.println("[WARN] 버스 노선 캐시 파일 형식이 달라 새로 만듭니다: " + path);
+            }
+            channel.truncate(0);
+            writeHeader(channel);
+            return;
+        }
+        long position = HEADER_SIZE;
+        long good = position;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            in.skipNBytes(HEADER_SIZE);
+            while (true) {
+                byte type = in.readByte();
+                byte[] keyBytes = new byte[in.readUnsignedShort()];
+                in.readFully(keyBytes);
+                long fetchedAt = in.readLong();
+                int crc = in.readInt();
+                int length = in.readInt();
+                in.skipNBytes(length);
+                String key = new String(keyBytes, StandardCharsets.UTF_8);
+                long valueOffset = position + RECORD_OVERHEAD + keyBytes.length;
+                if (type == VALUE) {
+                    put(key, new Slot(valueOffset, length, crc, fetchedAt));
+                } else if (type == TOUCH) {
+                    Slot current = index.get(key);
+                    if (current != null && current.crc() == crc) {
+                        index.put(key, new Slot(current.offset(), current.length(), crc, fetchedAt));
+                    }
+                } else {
+                    break;
+                }
+                position = valueOffset + length;
+                good = position;
+            }
+        } catch (EOFException e) {
+            // 마지막 레코드를 쓰다 끊겼다
+        }
+        if (good < channel.size()) {
+            System.out.println("[WARN] 버스 노선 캐시 파일 끝의 깨진 레코드를 잘라 냅니다 (" + (channel.size() - good) + " bytes)");
+            channel.truncate(good);
+        }
+    }
+
+    private boolean headerMatches() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        return header.remaining() == HEADER_SIZE && header.getInt() == MAGIC && header.getInt() == VERSION;
+    }
+
+    private static long writeHeader(FileChannel out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += out.write(header, position);
+        }
+        return position;
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void put(String key, Slot slot) {
+        int keyLength = key.getBytes(StandardCharsets.UTF_8).length;
+        Slot previous = index.put(key, slot);
+        if (previous != null) {
+            liveBytes -= RECORD_OVERHEAD + keyLength + previous.length();
+        }
+        liveBytes += RECORD_OVERHEAD + keyLength + slot.length();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.dto.OdsayPathResponse;
+import com.example.straffic.mobility.dto.SeoulSubwayArrivalResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 외부 API 응답 모델 → 브라우저로 보내는 축약 응답
+ * 키 이름과 구조는 원래 응답과 같게 두고(route.html 이 그대로 읽는다) 값이 없는 필드는 넣지 않는다.
+ * 캐시·통합 검색도 이 축약 응답을 저장·병합한다.
+ */
+final class CompactRouteResponses {
+
+    /** 정상(INFO-000), 데이터 없음(INFO-200) 외의 서울시 응답 코드는 오류로 본다 */
+    private static final String SEOUL_OK = "INFO-000";
+    private static final String SEOUL_NO_DATA = "INFO-200";
+
+    private CompactRouteResponses() {
+    }
+
+    static Map<String, Object> route(OdsayPathResponse response) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        if (response == null) {
+            body.put("error", "빈 응답");
+            return body;
+        }
+        if (response.getError() != null && !response.getError().isNull()) {
+            body.put("error", odsayError(response.getError()));
+            return body;
+        }
+        if (response.getResult() == null) {
+            body.put("error", "검색 결과가 없습니다.");
+            return body;
+        }
+
+        List<OdsayPathResponse.Path> paths = response.getResult().getPath();
+        List<Map<String, Object>> compactPaths = new ArrayList<>(paths == null ? 0 : paths.size());
+        if (paths != null) {
+            for (OdsayPathResponse.Path path : paths) {
+                compactPaths.add(path(path));
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>(4);
+        put(result, "searchType", response.getResult().getSearchType());
+        result.put("path", compactPaths);
+        body.put("result", result);
+        return body;
+    }
+
+    static Map<String, Object> subwayArrivals(SeoulSubwayArrivalResponse response) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        if (response == null) {
+            body.put("error", "빈 응답");
+            return body;
+        }
+        String code = response.getErrorMessage() != null ? response.getErrorMessage().getCode() : response.getCode();
+        String message = response.getErrorMessage() != null ? response.getErrorMessage().getMessage() : response.getMessage();
+        if (code != null && !SEOUL_OK.equals(code) && !SEOUL_NO_DATA.equals(code)) {
+            body.put("error", code + " " + message);
+            return body;
+        }
+
+        Map<String, Object> errorMessage = new LinkedHashMap<>(4);
+        put(errorMessage, "code", code);
+        put(errorMessage, "message", message);
+        body.put("errorMessage", errorMessage);
+
+        List<SeoulSubwayArrivalResponse.Arrival> arrivals = response.getRealtimeArrivalList();
+        List<Map<String, Object>> list = new ArrayList<>(arrivals == null ? 0 : arrivals.size());
+        if (arrivals != null) {
+            for (SeoulSubwayArrivalResponse.Arrival a : arrivals) {
+                Map<String, Object> m = new LinkedHashMap<>(16);
+                put(m, "subwayId", a.getSubwayId());
+                put(m, "updnLine", a.getUpdnLine());
+                put(m, "trainLineNm", a.getTrainLineNm());
+                put(m, "statnNm", a.getStatnNm());
+                put(m, "bstatnNm", a.getBstatnNm());
+                put(m, "btrainSttus", a.getBtrainSttus());
+                put(m, "barvlDt", a.getBarvlDt());
+                put(m, "arvlMsg2", a.getArvlMsg2());
+                put(m, "arvlMsg3", a.getArvlMsg3());
+                put(m, "arvlCd", a.getArvlCd());
+                put(m, "recptnDt", a.getRecptnDt());
+                list.add(m);
+            }
+        }
+        body.put("realtimeArrivalList", list);
+        return body;
+    }
+
+    private static Map<String, Object> path(OdsayPathResponse.Path path) {
+        Map<String, Object> m = new LinkedHashMap<>(4);
+        put(m, "pathType", path.getPathType());
+        OdsayPathResponse.Info info = path.getInfo();
+        if (info != null) {
+            Map<String, Object> i = new LinkedHashMap<>(8);
+            put(i, "totalTime", info.getTotalTime());
+            put(i, "payment", info.getPayment());
+            put(i, "busTransitCount", info.getBusTransitCount());
+            put(i, "subwayTransitCount", info.getSubwayTransitCount());
+            put(i, "totalWalk", info.getTotalWalk());
+            put(i, "totalDistance", info.getTotalDistance());
+            m.put("info", i);
+        }
+        List<OdsayPathResponse.SubPath> subPaths = path.getSubPath();
+        List<Map<String, Object>> list = new ArrayList<>(subPaths == null ? 0 : subPaths.size());
+        if (subPaths != null) {
+            for (OdsayPathResponse.SubPath sub : subPaths) {
+                list.add(subPath(sub));
+            }
+        }
+        m.put("subPath", list);
+        return m;
+    }
+
+    private static Map<String, Object> subPath(OdsayPathResponse.SubPath sub) {
+        Map<String, Object> m = new LinkedHashMap<>(16);
+        put(m, "trafficType", sub.getTrafficType());
+        put(m, "distance", sub.getDistance());
+        put(m, "sectionTime", sub.getSectionTime());
+        put(m, "stationCount", sub.getStationCount());
+        if (sub.getLane() != null && !sub.getLane().isEmpty()) {
+            List<Map<String, Object>> lanes = new ArrayList<>(sub.getLane().size());
+            for (OdsayPathResponse.Lane lane : sub.getLane()) {
+                Map<String, Object> l = new LinkedHashMap<>(8);
+                put(l, "name", lane.getName());
+                put(l, "subwayCode", lane.getSubwayCode());
+                put(l, "busNo", lane.getBusNo());
+                put(l, "busID", lane.getBusID());
+                put(l, "type", lane.getType());
+                lanes.add(l);
+            }
+            m.put("lane", lanes);
+        }
+        put(m, "startName", sub.getStartName());
+        put(m, "startX", sub.getStartX());
+        put(m, "startY", sub.getStartY());
+        put(m, "startID", sub.getStartID());
+        put(m, "endName", sub.getEndName());
+        put(m, "endX", sub.getEndX());
+        put(m, "endY", sub.getEndY());
+        put(m, "endID", sub.getEndID());
+        if (sub.getPassStopList() != null && sub.getPassStopList().getStations() != null) {
+            List<Map<String, Object>> stations = new ArrayList<>(sub.getPassStopList().getStations().size());
+            for (OdsayPathResponse.Station s : sub.getPassStopList().getStations()) {
+                stations.add(Map.of("stationName", s.getStationName() == null ? "" : s.getStationName()));
+            }
+            m.put("passStopList", Map.of("stations", stations));
+        }
+        return m;
+    }
+
+    /**
+     * 캐시에 넣으면 안 되는 응답인지. ODsay 는 오류도 HTTP 200 으로 {"error": ...} 를 돌려주고,
+     * route()/subwayArrivals() 도 실패를 같은 모양으로 만든다.
+     */
+    static boolean isError(Map<String, Object> body) {
+        return body == null || body.containsKey("error");
+    }
+
+    private static String odsayError(JsonNode error) {
+        JsonNode first = error.isArray() && !error.isEmpty() ? error.get(0) : error;
+        String message = first.hasNonNull("msg") ? first.get("msg").asText()
+                : first.hasNonNull("message") ? first.get("message").asText() : first.toString();
+        return first.hasNonNull("code") ? "[" + first.get("code").asText() + "] " + message : message;
+    }
+
+    private static void put(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+}
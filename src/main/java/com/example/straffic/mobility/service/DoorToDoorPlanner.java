@@ -0,0 +1,327 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.dto.RouteRequest;
+import com.example.straffic.mobility.repository.KtxTrainRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 집 → KTX 역 → KTX → KTX 역 → 목적지 한 번에 찾기
+ * <ol>
+ *   <li>출발지·도착지에서 가까운 KTX 역을 station-candidates 곳씩 고른다 (max-station-km 안)</li>
+ *   <li>출발지→역(first mile), 역→도착지(last mile) 경로를 RouteService 로 동시에 검색한다 (경로 캐시·오프라인 대체 그대로).
+ *       walk-meters 안이면 걸어서 간다고 본다</li>
+ *   <li>역 조합마다 "출발 시각 + first mile + boarding-slack" 이후 첫 열차를 시간표에서 이분 탐색하고,
+ *       거기서 trains-per-pair 대까지만 본다. 돌려줄 일정 안에 들 수 없을 만큼 늦게 출발하는 열차는 보지 않는다</li>
+ *   <li>열차 도착 + exit-minutes + last mile 로 최종 도착 시각을 내고 빠른 순(같으면 싼 순)으로 돌려준다</li>
+ * </ol>
+ * 시간표는 날짜별로 timetable-ttl-seconds 동안 메모리에 둔다. 자정을 넘는 일정은 다루지 않는다.
+ */
+@Service
+public class DoorToDoorPlanner {
+
+    private static final int MAX_ITINERARIES = 5;
+    private static final double WALK_METERS_PER_MINUTE = 1.2 * 60;
+    private static final double WALK_DETOUR = 1.3;
+
+    private final RouteService routeService;
+    private final KtxTrainRepository ktxTrainRepository;
+    private final int stationCandidates;
+    private final double maxStationMeters;
+    private final int boardingSlackMinutes;
+    private final int exitMinutes;
+    private final int trainsPerPair;
+    private final double walkMeters;
+    private final long legTimeoutMs;
+    private final long timetableTtlMillis;
+
+    private final ConcurrentHashMap<LocalDate, KtxTimetable> timetables = new ConcurrentHashMap<>();
+
+    /** first / last mile 한 구간. minutes < 0 이면 경로를 못 찾은 것 */
+    private record Leg(String station, int minutes, int payment, String mode, Map<String, Object> path, String error) {
+    }
+
+    /** 역 조합 + 열차 하나로 만든 일정 */
+    private record Candidate(Leg firstMile, KtxTimetable.Train train, Leg lastMile, int leaveAt, int arriveAt, int price) {
+    }
+
+    public DoorToDoorPlanner(RouteService routeService, KtxTrainRepository ktxTrainRepository,
+                             @Value("${route.door.station-candidates:2}") int stationCandidates,
+                             @Value("${route.door.max-station-km:60}") double maxStationKm,
+                             @Value("${route.door.boarding-slack-minutes:15}") int boardingSlackMinutes,
+                             @Value("${route.door.exit-minutes:5}") int exitMinutes,
+                             @Value("${route.door.trains-per-pair:3}") int trainsPerPair,
+                             @Value("${route.door.walk-meters:700}") double walkMeters,
+                             @Value("${route.door.leg-timeout-ms:5000}") long legTimeoutMs,
+                             @Value("${route.door.timetable-ttl-seconds:600}") long timetableTtlSeconds) {
+        this.routeService = routeService;
+        this.ktxTrainRepository = ktxTrainRepository;
+        this.stationCandidates = stationCandidates;
+        this.maxStationMeters = maxStationKm * 1000;
+        this.boardingSlackMinutes = boardingSlackMinutes;
+        this.exitMinutes = exitMinutes;
+        this.trainsPerPair = trainsPerPair;
+        this.walkMeters = walkMeters;
+        this.legTimeoutMs = legTimeoutMs;
+        this.timetableTtlMillis = timetableTtlSeconds * 1000;
+    }
+
+    /**
+     * @param departAfter 이 시각 이후 출발
+     */
+    public Mono<Map<String, Object>> plan(RouteRequest request, LocalDate date, LocalTime departAfter) {
+        long started = System.currentTimeMillis();
+        double sx;
+        double sy;
+        double ex;
+        double ey;
+        try {
+            sx = Double.parseDouble(request.getStartX().trim());
+            sy = Double.parseDouble(request.getStartY().trim());
+            ex = Double.parseDouble(request.getEndX().trim());
+            ey = Double.parseDouble(request.getEndY().trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            return Mono.just(error("출발지·도착지 좌표가 올바르지 않습니다."));
+        }
+        List<String> origins = nearestStations(sx, sy);
+        List<String> destinations = nearestStations(ex, ey);
+        if (origins.isEmpty() || destinations.isEmpty()) {
+            return Mono.just(error("출발지 또는 도착지 " + (int) (maxStationMeters / 1000) + "km 안에 KTX 역이 없습니다."));
+        }
+        System.out.println("🚄 KTX 연계 경로: " + origins + " → " + destinations + " (" + date + " " + departAfter + " 이후)");
+
+        // 구간 검색과 시간표 읽기를 동시에 한다
+        Mono<Map<String, Leg>> firstMiles = Flux.fromIterable(origins)
+                .flatMap(station -> leg(sx, sy, KtxStations.COORDINATES.get(station), station, true))
+                .collectMap(Leg::station);
+        Mono<Map<String, Leg>> lastMiles = Flux.fromIterable(destinations)
+                .flatMap(station -> leg(ex, ey, KtxStations.COORDINATES.get(station), station, false))
+                .collectMap(Leg::station);
+        Mono<KtxTimetable> timetable = Mono.fromCallable(() -> timetable(date))
+                .subscribeOn(Schedulers.boundedElastic());
+
+        int after = departAfter.getHour() * 60 + departAfter.getMinute();
+        return Mono.zip(firstMiles, lastMiles, timetable)
+                .map(t -> combine(t.getT1(), t.getT2(), t.getT3(), origins, destinations, after, date, started))
+                .onErrorResume(e -> Mono.just(error("KTX 연계 경로 검색 실패: " + e.getMessage())));
+    }
+
+    /**
+     * 날짜별 시간표 (DB 에서 한 번 읽어 둔다)
+     */
+    private KtxTimetable timetable(LocalDate date) {
+        KtxTimetable cached = timetables.get(date);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < timetableTtlMillis) {
+            return cached;
+        }
+        KtxTimetable loaded = new KtxTimetable(ktxTrainRepository.findByTravelDate(date));
+        long now = System.currentTimeMillis();
+        timetables.values().removeIf(t -> now - t.loadedAt >= timetableTtlMillis);
+        timetables.put(date, loaded);
+        return loaded;
+    }
+
+    private Map<String, Object> combine(Map<String, Leg> firstMiles, Map<String, Leg> lastMiles, KtxTimetable timetable,
+                                        List<String> origins, List<String> destinations, int after, LocalDate date,
+                                        long started) {
+        List<Candidate> candidates = new ArrayList<>();
+        int cutoff = Integer.MAX_VALUE;
+        int trainsChecked = 0;
+        for (String origin : origins) {
+            Leg first = firstMiles.get(origin);
+            if (first == null || first.minutes() < 0) continue;
+            int ready = after + first.minutes() + boardingSlackMinutes;
+            for (String destination : destinations) {
+                Leg last = lastMiles.get(destination);
+                if (last == null || last.minutes() < 0 || origin.equals(destination)) continue;
+                for (KtxTimetable.Train train : timetable.departuresAfter(origin, destination, ready, trainsPerPair)) {
+                    trainsChecked++;
+                    // 돌려줄 일정 중 가장 늦은 도착보다 늦게 출발하면 그 안에 들 수 없다 (뒤 열차는 더 늦게 출발)
+                    if (train.departureMinute() >= cutoff) break;
+                    int arriveAt = train.arrivalMinute() + exitMinutes + last.minutes();
+                    if (train.arrivalMinute() < train.departureMinute() || arriveAt >= 24 * 60) continue;
+                    int leaveAt = train.departureMinute() - boardingSlackMinutes - first.minutes();
+                    candidates.add(new Candidate(first, train, last, leaveAt, arriveAt,
+                            train.price() + first.payment() + last.payment()));
+                    cutoff = cutoff(candidates);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingInt(Candidate::arriveAt).thenComparingInt(Candidate::price));
+
+        List<Map<String, Object>> itineraries = new ArrayList<>();
+        for (Candidate c : candidates.subList(0, Math.min(MAX_ITINERARIES, candidates.size()))) {
+            itineraries.add(itinerary(c));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("date", date.toString());
+        response.put("departAfter", KtxTimetable.format(after));
+        response.put("itineraries", itineraries);
+        List<Map<String, Object>> legs = new ArrayList<>();
+        firstMiles.values().forEach(l -> legs.add(legSummary("FIRST_MILE", l, false)));
+        lastMiles.values().forEach(l -> legs.add(legSummary("LAST_MILE", l, false)));
+        response.put("legsSearched", legs);
+        response.put("trainsChecked", trainsChecked);
+        response.put("timetableTrains", timetable.size);
+        response.put("elapsedMs", System.currentTimeMillis() - started);
+        if (itineraries.isEmpty()) {
+            response.put("message", "조건에 맞는 KTX 열차가 없습니다.");
+        }
+        return response;
+    }
+
+    /**
+     * @return MAX_ITINERARIES 번째로 빠른 도착 시각. 아직 그만큼 없으면 제한 없음
+     */
+    private static int cutoff(List<Candidate> candidates) {
+        if (candidates.size() < MAX_ITINERARIES) {
+            return Integer.MAX_VALUE;
+        }
+        int[] arrivals = new int[candidates.size()];
+        for (int i = 0; i < arrivals.length; i++) {
+            arrivals[i] = candidates.get(i).arriveAt();
+        }
+        Arrays.sort(arrivals);
+        return arrivals[MAX_ITINERARIES - 1];
+    }
+
+    /**
+     * 출발지(또는 도착지) ↔ 역 구간. 가까우면 도보, 아니면 대중교통 경로 중 가장 빠른 것
+     *
+     * @param toStation true 면 좌표 → 역, false 면 역 → 좌표
+     */
+    private Mono<Leg> leg(double x, double y, double[] station, String name, boolean toStation) {
+        double meters = OfflineRouteService.distanceMeters(y, x, station[1], station[0]);
+        if (meters <= walkMeters) {
+            int minutes = (int) Math.ceil(meters * WALK_DETOUR / WALK_METERS_PER_MINUTE);
+            return Mono.just(new Leg(name, minutes, 0, "WALK", null, null));
+        }
+        RouteRequest request = new RouteRequest();
+        request.setStartX(String.valueOf(toStation ? x : station[0]));
+        request.setStartY(String.valueOf(toStation ? y : station[1]));
+        request.setEndX(String.valueOf(toStation ? station[0] : x));
+        request.setEndY(String.valueOf(toStation ? station[1] : y));
+        return routeService.searchRoute(request)
+                .timeout(Duration.ofMillis(legTimeoutMs))
+                .map(body -> fastestPath(name, body))
+                .onErrorResume(e -> Mono.just(new Leg(name, -1, 0, null, null,
+                        e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage())));
+    }
+
+    private static Leg fastestPath(String station, Map<String, Object> body) {
+        Map<String, Object> fastest = null;
+        int minutes = Integer.MAX_VALUE;
+        if (body.get("result") instanceof Map<?, ?> result && result.get("path") instanceof List<?> paths) {
+            for (Object p : paths) {
+                if (p instanceof Map<?, ?> path && path.get("info") instanceof Map<?, ?> info
+                        && info.get("totalTime") instanceof Number time && time.intValue() < minutes) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> typed = (Map<String, Object>) path;
+                    fastest = typed;
+                    minutes = time.intValue();
+                }
+            }
+        }
+        if (fastest == null) {
+            Object error = body.getOrDefault("error", "검색 결과가 없습니다.");
+            return new Leg(station, -1, 0, null, null, String.valueOf(error));
+        }
+        int payment = ((Map<?, ?>) fastest.get("info")).get("payment") instanceof Number n ? n.intValue() : 0;
+        return new Leg(station, minutes, payment, "TRANSIT", fastest, null);
+    }
+
+    /**
+     * 가까운 KTX 역 (maxStationMeters 안, 가까운 순 stationCandidates 곳)
+     */
+    private List<String> nearestStations(double x, double y) {
+        List<Map.Entry<String, Double>> near = new ArrayList<>();
+        for (Map.Entry<String, double[]> station : KtxStations.COORDINATES.entrySet()) {
+            double meters = OfflineRouteService.distanceMeters(y, x, station.getValue()[1], station.getValue()[0]);
+            if (meters <= maxStationMeters) {
+                near.add(Map.entry(station.getKey(), meters));
+            }
+        }
+        near.sort(Map.Entry.comparingByValue());
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : near.subList(0, Math.min(stationCandidates, near.size()))) {
+            names.add(entry.getKey());
+        }
+        return names;
+    }
+
+    private Map<String, Object> itinerary(Candidate c) {
+        Map<String, Object> itinerary = new LinkedHashMap<>();
+        itinerary.put("leaveAt", KtxTimetable.format(Math.max(0, c.leaveAt())));
+        itinerary.put("arriveAt", KtxTimetable.format(c.arriveAt()));
+        itinerary.put("totalMinutes", c.arriveAt() - c.leaveAt());
+        itinerary.put("price", c.price());
+
+        List<Map<String, Object>> legs = new ArrayList<>();
+        Map<String, Object> first = legSummary("FIRST_MILE", c.firstMile(), true);
+        first.put("to", c.firstMile().station() + "역");
+        legs.add(first);
+
+        KtxTimetable.Train train = c.train();
+        Map<String, Object> ktx = new LinkedHashMap<>();
+        ktx.put("type", "KTX");
+        ktx.put("trainNo", train.trainNo());
+        ktx.put("from", train.departure() + "역");
+        ktx.put("to", train.arrival() + "역");
+        ktx.put("departureTime", KtxTimetable.format(train.departureMinute()));
+        ktx.put("arrivalTime", KtxTimetable.format(train.arrivalMinute()));
+        ktx.put("minutes", train.arrivalMinute() - train.departureMinute());
+        ktx.put("price", train.price());
+        ktx.put("slackMinutes", boardingSlackMinutes);
+        legs.add(ktx);
+
+        Map<String, Object> last = legSummary("LAST_MILE", c.lastMile(), true);
+        last.put("from", c.lastMile().station() + "역");
+        legs.add(last);
+        itinerary.put("legs", legs);
+        return itinerary;
+    }
+
+    /**
+     * @param withPath 대중교통이면 고른 경로(축약 응답의 path 하나)도 넣는다
+     */
+    private static Map<String, Object> legSummary(String type, Leg leg, boolean withPath) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("type", type);
+        m.put("station", leg.station());
+        if (leg.minutes() < 0) {
+            m.put("error", leg.error());
+            return m;
+        }
+        m.put("mode", leg.mode());
+        m.put("minutes", leg.minutes());
+        m.put("payment", leg.payment());
+        if (withPath && leg.path() != null) {
+            m.put("path", leg.path());
+        }
+        return m;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "failed");
+        response.put("error", message);
+        return response;
+    }
+}
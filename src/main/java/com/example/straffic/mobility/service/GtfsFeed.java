@@ -0,0 +1,565 @@
+package com.example.straffic.mobility.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GTFS 피드(stops, routes, trips, stop_times, transfers, calendar)를 RAPTOR 용 배열로 읽은 것
+ * <ul>
+ *   <li>정류장: 0..stopCount-1 번호, 이름·좌표 배열</li>
+ *   <li>패턴: 같은 노선에서 정류장 순서가 같은 운행(trip)을 묶은 것. 패턴 p 의 정류장은 patternStops[patternStopOffset[p] ..]</li>
+ *   <li>시각: 패턴 안 운행 t(첫 정류장 출발 순 정렬), 위치 i 의 도착/출발 초는 arrivals/departures[patternTimeOffset[p] + t * 길이 + i]</li>
+ *   <li>한 패턴 안에서는 운행끼리 앞지르지 않는다 (모든 위치에서 뒤 운행의 도착/출발이 앞 운행보다 이르지 않다).
+ *       앞지르는 운행이 있으면 같은 정류장 순서라도 패턴을 나눈다. RaptorRouter 의 운행 이진 탐색이 이것에 기댄다</li>
+ *   <li>정류장 → 지나는 패턴, 정류장 → 환승(도보) 목록은 offset + 값 배열</li>
+ * </ul>
+ * 한 번 만들면 바꾸지 않는다. 다시 읽을 때는 새 객체를 만들어 통째로 바꾼다.
+ */
+final class GtfsFeed {
+
+    /** GTFS route_type 0 트램, 1 지하철, 2 철도, 3 버스 */
+    static final int ROUTE_TYPE_BUS = 3;
+
+    final int stopCount;
+    final String[] stopIds;
+    final String[] stopNames;
+    final double[] stopLat;
+    final double[] stopLon;
+
+    final int patternCount;
+    final int[] patternStopOffset;
+    final int[] patternStops;
+    final int[] patternTripCount;
+    final int[] patternTimeOffset;
+    final int[] arrivals;
+    final int[] departures;
+    /** 운행별 요일 비트(월=1 .. 일=64). calendar.txt 에 없는 서비스는 매일 */
+    final byte[] tripDays;
+    final int[] patternTripOffset;
+    final String[] patternRouteName;
+    final int[] patternRouteType;
+
+    final int[] stopPatternOffset;
+    final int[] stopPatterns;
+    /** stopPatterns 와 같은 위치에, 그 패턴 안에서 정류장의 순번 */
+    final int[] stopPatternPos;
+
+    final int[] transferOffset;
+    final int[] transferTargets;
+    final int[] transferSeconds;
+
+    /** 정류장 좌표 색인 (번호 = 정류장 번호) */
+    final SpatialIndex stopIndex;
+
+    final long loadedAt;
+
+    private GtfsFeed(Builder b) {
+        this.stopCount = b.stopIds.size();
+        this.stopIds = b.stopIds.toArray(new String[0]);
+        this.stopNames = b.stopNames.toArray(new String[0]);
+        this.stopLat = b.stopLat.toArray();
+        this.stopLon = b.stopLon.toArray();
+        this.patternCount = b.patternCount;
+        this.patternStopOffset = b.patternStopOffset;
+        this.patternStops = b.patternStops;
+        this.patternTripCount = b.patternTripCount;
+        this.patternTimeOffset = b.patternTimeOffset;
+        this.arrivals = b.arrivals;
+        this.departures = b.departures;
+        this.tripDays = b.tripDays;
+        this.patternTripOffset = b.patternTripOffset;
+        this.patternRouteName = b.patternRouteName;
+        this.patternRouteType = b.patternRouteType;
+        this.stopPatternOffset = b.stopPatternOffset;
+        this.stopPatterns = b.stopPatterns;
+        this.stopPatternPos = b.stopPatternPos;
+        this.transferOffset = b.transferOffset;
+        this.transferTargets = b.transferTargets;
+        this.transferSeconds = b.transferSeconds;
+        this.stopIndex = SpatialIndex.build(stopLat, stopLon);
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    int patternLength(int p) {
+        return patternStopOffset[p + 1] - patternStopOffset[p];
+    }
+
+    int stopAt(int p, int pos) {
+        return patternStops[patternStopOffset[p] + pos];
+    }
+
+    int arrival(int p, int trip, int pos) {
+        return arrivals[patternTimeOffset[p] + trip * patternLength(p) + pos];
+    }
+
+    int departure(int p, int trip, int pos) {
+        return departures[patternTimeOffset[p] + trip * patternLength(p) + pos];
+    }
+
+    boolean runsOn(int p, int trip, int dayBit) {
+        return (tripDays[patternTripOffset[p] + trip] & dayBit) != 0;
+    }
+
+    /**
+     * 버스가 아닌 노선(지하철·철도)이 서는 정류장인지
+     */
+    boolean isRailStop(int s) {
+        for (int slot = stopPatternOffset[s]; slot < stopPatternOffset[s + 1]; slot++) {
+            if (patternRouteType[stopPatterns[slot]] != ROUTE_TYPE_BUS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int tripCount() {
+        return tripDays.length;
+    }
+
+    long memoryBytes() {
+        long ints = patternStopOffset.length + patternStops.length + patternTripCount.length + patternTimeOffset.length
+                + arrivals.length + departures.length + patternTripOffset.length + patternRouteType.length
+                + stopPatternOffset.length + stopPatterns.length + stopPatternPos.length
+                + transferOffset.length + transferTargets.length + transferSeconds.length;
+        return ints * 4L + tripDays.length + (stopLat.length + stopLon.length) * 8L + stopIndex.size() * 20L;
+    }
+
+    // ------------------------------------------------------------------ 읽기
+
+    /**
+     * @param dir stops.txt, trips.txt, stop_times.txt 는 필수. routes.txt, transfers.txt, calendar.txt 는 있으면 쓴다
+     */
+    static GtfsFeed load(Path dir) throws IOException {
+        Builder b = new Builder();
+
+        Map<String, Integer> stopIndex = new HashMap<>();
+        readCsv(dir.resolve("stops.txt"), true, row -> {
+            stopIndex.put(row.get("stop_id"), b.stopIds.size());
+            b.stopIds.add(row.get("stop_id"));
+            b.stopNames.add(row.get("stop_name"));
+            b.stopLat.add(parseDouble(row.get("stop_lat")));
+            b.stopLon.add(parseDouble(row.get("stop_lon")));
+        });
+
+        Map<String, String> routeNames = new HashMap<>();
+        Map<String, Integer> routeTypes = new HashMap<>();
+        readCsv(dir.resolve("routes.txt"), false, row -> {
+            String shortName = row.get("route_short_name");
+            routeNames.put(row.get("route_id"), shortName == null || shortName.isBlank() ? row.get("route_long_name") : shortName);
+            routeTypes.put(row.get("route_id"), parseInt(row.get("route_type"), ROUTE_TYPE_BUS));
+        });
+
+        Map<String, Byte> serviceDays = new HashMap<>();
+        String[] dayColumns = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+        readCsv(dir.resolve("calendar.txt"), false, row -> {
+            int bits = 0;
+            for (int d = 0; d < 7; d++) {
+                if ("1".equals(row.get(dayColumns[d]))) bits |= 1 << d;
+            }
+            serviceDays.put(row.get("service_id"), (byte) bits);
+        });
+
+        Map<String, Integer> tripIndex = new HashMap<>();
+        List<String> tripRoute = new ArrayList<>();
+        IntList tripDayBits = new IntList();
+        readCsv(dir.resolve("trips.txt"), true, row -> {
+            tripIndex.put(row.get("trip_id"), tripRoute.size());
+            tripRoute.add(row.get("route_id"));
+            // calendar.txt 에 없는 서비스(calendar_dates 만 있는 경우)는 매일 운행으로 본다
+            Byte days = serviceDays.get(row.get("service_id"));
+            tripDayBits.add(days == null ? 0x7F : days);
+        });
+
+        // stop_times 는 행이 가장 많아서 객체 없이 int 배열에 바로 쌓는다
+        IntList stTrip = new IntList();
+        IntList stSeq = new IntList();
+        IntList stStop = new IntList();
+        IntList stArr = new IntList();
+        IntList stDep = new IntList();
+        readCsv(dir.resolve("stop_times.txt"), true, row -> {
+            Integer trip = tripIndex.get(row.get("trip_id"));
+            Integer stop = stopIndex.get(row.get("stop_id"));
+            if (trip == null || stop == null) return;
+            int arr = parseTime(row.get("arrival_time"));
+            int dep = parseTime(row.get("departure_time"));
+            if (arr < 0 && dep < 0) return; // 시각이 없는 경유 정류장(보간 대상)은 건너뛴다
+            stTrip.add(trip);
+            stSeq.add(parseInt(row.get("stop_sequence"), 0));
+            stStop.add(stop);
+            stArr.add(arr < 0 ? dep : arr);
+            stDep.add(dep < 0 ? arr : dep);
+        });
+
+        b.buildPatterns(tripRoute, tripDayBits, routeNames, routeTypes, stTrip, stSeq, stStop, stArr, stDep);
+        b.buildStopPatterns();
+
+        IntList trFrom = new IntList();
+        IntList trTo = new IntList();
+        IntList trSec = new IntList();
+        readCsv(dir.resolve("transfers.txt"), false, row -> {
+            Integer from = stopIndex.get(row.get("from_stop_id"));
+            Integer to = stopIndex.get(row.get("to_stop_id"));
+            if (from == null || to == null || from.equals(to) || "3".equals(row.get("transfer_type"))) return;
+            trFrom.add(from);
+            trTo.add(to);
+            trSec.add(parseInt(row.get("min_transfer_time"), 120));
+        });
+        b.buildTransfers(trFrom, trTo, trSec);
+
+        return new GtfsFeed(b);
+    }
+
+    private static final class Builder {
+        final List<String> stopIds = new ArrayList<>();
+        final List<String> stopNames = new ArrayList<>();
+        final DoubleList stopLat = new DoubleList();
+        final DoubleList stopLon = new DoubleList();
+
+        int patternCount;
+        int[] patternStopOffset;
+        int[] patternStops;
+        int[] patternTripCount;
+        int[] patternTimeOffset;
+        int[] arrivals;
+        int[] departures;
+        byte[] tripDays;
+        int[] patternTripOffset;
+        String[] patternRouteName;
+        int[] patternRouteType;
+        int[] stopPatternOffset;
+        int[] stopPatterns;
+        int[] stopPatternPos;
+        int[] transferOffset;
+        int[] transferTargets;
+        int[] transferSeconds;
+
+        void buildPatterns(List<String> tripRoute, IntList tripDayBits, Map<String, String> routeNames,
+                           Map<String, Integer> routeTypes, IntList stTrip, IntList stSeq, IntList stStop,
+                           IntList stArr, IntList stDep) {
+            int tripTotal = tripRoute.size();
+            int rows = stTrip.size();
+
+            // 운행별로 행을 모은다 (계수 정렬), 운행 안에서는 stop_sequence 순
+            int[] tripOffset = new int[tripTotal + 1];
+            for (int r = 0; r < rows; r++) tripOffset[stTrip.get(r) + 1]++;
+            for (int t = 0; t < tripTotal; t++) tripOffset[t + 1] += tripOffset[t];
+            int[] order = new int[rows];
+            int[] fill = Arrays.copyOf(tripOffset, tripTotal);
+            for (int r = 0; r < rows; r++) order[fill[stTrip.get(r)]++] = r;
+            for (int t = 0; t < tripTotal; t++) {
+                for (int i = tripOffset[t] + 1; i < tripOffset[t + 1]; i++) {
+                    int r = order[i];
+                    int j = i - 1;
+                    while (j >= tripOffset[t] && stSeq.get(order[j]) > stSeq.get(r)) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = r;
+                }
+            }
+
+            // 노선 + 정류장 순서가 같은 운행끼리 패턴으로 묶는다
+            Map<String, Integer> patternIndex = new HashMap<>();
+            List<int[]> patternStopList = new ArrayList<>();
+            List<String> patternRoute = new ArrayList<>();
+            List<IntList> patternTrips = new ArrayList<>();
+            StringBuilder key = new StringBuilder();
+            for (int t = 0; t < tripTotal; t++) {
+                int len = tripOffset[t + 1] - tripOffset[t];
+                if (len < 2) continue;
+                int[] stops = new int[len];
+                key.setLength(0);
+                key.append(tripRoute.get(t)).append('|');
+                for (int i = 0; i < len; i++) {
+                    stops[i] = stStop.get(order[tripOffset[t] + i]);
+                    key.append(stops[i]).append(',');
+                }
+                Integer p = patternIndex.get(key.toString());
+                if (p == null) {
+                    p = patternStopList.size();
+                    patternIndex.put(key.toString(), p);
+                    patternStopList.add(stops);
+                    patternRoute.add(tripRoute.get(t));
+                    patternTrips.add(new IntList());
+                }
+                patternTrips.get(p).add(t);
+            }
+
+            // 첫 정류장 출발 순으로 늘어놓고, 앞 운행을 앞지르는 운행은 따로 패턴을 만든다 (first-fit)
+            List<int[]> laneStops = new ArrayList<>();
+            List<String> laneRoute = new ArrayList<>();
+            List<int[]> laneTrips = new ArrayList<>();
+            for (int g = 0; g < patternStopList.size(); g++) {
+                int[] trips = patternTrips.get(g).toArray();
+                Integer[] sorted = new Integer[trips.length];
+                for (int i = 0; i < trips.length; i++) sorted[i] = trips[i];
+                Arrays.sort(sorted, (x, y) -> Integer.compare(stDep.get(order[tripOffset[x]]), stDep.get(order[tripOffset[y]])));
+                int len = patternStopList.get(g).length;
+                List<IntList> lanes = new ArrayList<>();
+                for (int t : sorted) {
+                    IntList lane = null;
+                    for (IntList candidate : lanes) {
+                        if (notBefore(candidate.get(candidate.size() - 1), t, len, order, tripOffset, stArr, stDep)) {
+                            lane = candidate;
+                            break;
+                        }
+                    }
+                    if (lane == null) {
+                        lane = new IntList();
+                        lanes.add(lane);
+                    }
+                    lane.add(t);
+                }
+                for (IntList lane : lanes) {
+                    laneStops.add(patternStopList.get(g));
+                    laneRoute.add(patternRoute.get(g));
+                    laneTrips.add(lane.toArray());
+                }
+            }
+
+            patternCount = laneStops.size();
+            patternStopOffset = new int[patternCount + 1];
+            patternTripCount = new int[patternCount];
+            patternTimeOffset = new int[patternCount];
+            patternTripOffset = new int[patternCount + 1];
+            patternRouteName = new String[patternCount];
+            patternRouteType = new int[patternCount];
+            int stopTotal = 0;
+            int timeTotal = 0;
+            int tripSlots = 0;
+            for (int p = 0; p < patternCount; p++) {
+                patternStopOffset[p] = stopTotal;
+                patternTimeOffset[p] = timeTotal;
+                patternTripOffset[p] = tripSlots;
+                int len = laneStops.get(p).length;
+                int trips = laneTrips.get(p).length;
+                stopTotal += len;
+                timeTotal += len * trips;
+                tripSlots += trips;
+                patternTripCount[p] = trips;
+                String route = laneRoute.get(p);
+                patternRouteName[p] = routeNames.getOrDefault(route, route);
+                patternRouteType[p] = routeTypes.getOrDefault(route, ROUTE_TYPE_BUS);
+            }
+            patternStopOffset[patternCount] = stopTotal;
+            patternTripOffset[patternCount] = tripSlots;
+
+            patternStops = new int[stopTotal];
+            arrivals = new int[timeTotal];
+            departures = new int[timeTotal];
+            tripDays = new byte[tripSlots];
+            for (int p = 0; p < patternCount; p++) {
+                int[] stops = laneStops.get(p);
+                System.arraycopy(stops, 0, patternStops, patternStopOffset[p], stops.length);
+                int[] trips = laneTrips.get(p);
+                int len = stops.length;
+                for (int i = 0; i < trips.length; i++) {
+                    int t = trips[i];
+                    int base = patternTimeOffset[p] + i * len;
+                    for (int pos = 0; pos < len; pos++) {
+                        int r = order[tripOffset[t] + pos];
+                        arrivals[base + pos] = stArr.get(r);
+                        departures[base + pos] = stDep.get(r);
+                    }
+                    tripDays[patternTripOffset[p] + i] = (byte) tripDayBits.get(t);
+                }
+            }
+        }
+
+        /**
+         * 운행 b 가 모든 위치에서 운행 a 보다 일찍 도착하거나 출발하지 않는지 (a 뒤에 같은 패턴으로 놓을 수 있는지)
+         */
+        private static boolean notBefore(int a, int b, int len, int[] order, int[] tripOffset, IntList stArr, IntList stDep) {
+            for (int pos = 0; pos < len; pos++) {
+                int ra = order[tripOffset[a] + pos];
+                int rb = order[tripOffset[b] + pos];
+                if (stArr.get(rb) < stArr.get(ra) || stDep.get(rb) < stDep.get(ra)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void buildStopPatterns() {
+            int stops = stopIds.size();
+            stopPatternOffset = new int[stops + 1];
+            for (int p = 0; p < patternCount; p++) {
+                for (int i = patternStopOffset[p]; i < patternStopOffset[p + 1]; i++) stopPatternOffset[patternStops[i] + 1]++;
+            }
+            for (int s = 0; s < stops; s++) stopPatternOffset[s + 1] += stopPatternOffset[s];
+            stopPatterns = new int[stopPatternOffset[stops]];
+            stopPatternPos = new int[stopPatternOffset[stops]];
+            int[] fill = Arrays.copyOf(stopPatternOffset, stops);
+            for (int p = 0; p < patternCount; p++) {
+                for (int i = patternStopOffset[p]; i < patternStopOffset[p + 1]; i++) {
+                    int slot = fill[patternStops[i]]++;
+                    stopPatterns[slot] = p;
+                    stopPatternPos[slot] = i - patternStopOffset[p];
+                }
+            }
+        }
+
+        void buildTransfers(IntList from, IntList to, IntList seconds) {
+            int stops = stopIds.size();
+            transferOffset = new int[stops + 1];
+            for (int i = 0; i < from.size(); i++) transferOffset[from.get(i) + 1]++;
+            for (int s = 0; s < stops; s++) transferOffset[s + 1] += transferOffset[s];
+            transferTargets = new int[from.size()];
+            transferSeconds = new int[from.size()];
+            int[] fill = Arrays.copyOf(transferOffset, stops);
+            for (int i = 0; i < from.size(); i++) {
+                int slot = fill[from.get(i)]++;
+                transferTargets[slot] = to.get(i);
+                transferSeconds[slot] = seconds.get(i);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ CSV
+
+    interface RowHandler {
+        void accept(Row row);
+    }
+
+    static final class Row {
+        private final Map<String, Integer> columns;
+        private final List<String> values = new ArrayList<>();
+
+        Row(Map<String, Integer> columns) {
+            this.columns = columns;
+        }
+
+        String get(String column) {
+            Integer i = columns.get(column);
+            return i == null || i >= values.size() ? null : values.get(i);
+        }
+    }
+
+    static void readCsv(Path file, boolean required, RowHandler handler) throws IOException {
+        if (!Files.exists(file)) {
+            if (required) throw new IOException("GTFS 파일이 없습니다: " + file);
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) return;
+            if (header.startsWith("\uFEFF")) header = header.substring(1);
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            split(header, names);
+            for (int i = 0; i < names.size(); i++) columns.put(names.get(i).trim(), i);
+            Row row = new Row(columns);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                row.values.clear();
+                split(line, row.values);
+                handler.accept(row);
+            }
+        }
+    }
+
+    /** 따옴표로 감싼 값("a, b", "" 이스케이프)까지 처리하는 한 줄 분리 */
+    private static void split(String line, List<String> out) {
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        out.add(cell.toString());
+    }
+
+    /** HH:MM:SS → 자정부터 초 (24시 넘는 시각 허용), 비어 있으면 -1 */
+    static int parseTime(String value) {
+        if (value == null || value.isBlank()) return -1;
+        String v = value.trim();
+        int first = v.indexOf(':');
+        int second = v.indexOf(':', first + 1);
+        if (first < 0 || second < 0) return -1;
+        return Integer.parseInt(v.substring(0, first)) * 3600
+                + Integer.parseInt(v.substring(first + 1, second)) * 60
+                + Integer.parseInt(v.substring(second + 1));
+    }
+
+    static int parseInt(String value, int defaultValue) {
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    static double parseDouble(String value) {
+        if (value == null || value.isBlank()) return 0;
+        return Double.parseDouble(value.trim());
+    }
+
+    /** 상자(Integer) 없이 쌓는 int 목록 */
+    static final class IntList {
+        private int[] data = new int[16];
+        private int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+
+        int get(int i) {
+            return data[i];
+        }
+
+        void set(int i, int v) {
+            data[i] = v;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    private static final class DoubleList {
+        private double[] data = new double[16];
+        private int size;
+
+        void add(double v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
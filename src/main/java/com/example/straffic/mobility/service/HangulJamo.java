@@ -0,0 +1,101 @@
+package com.example.straffic.mobility.service;
+
+/**
+ * 한글 자모 분해 (자동완성 색인·검색용)
+ * 음절은 초성·중성·종성 호환 자모(ㄱ, ㅏ ..)로 풀고, 겹모음·겹받침은 입력 순서대로 다시 나눈다 (ㅘ → ㅗㅏ, ㄳ → ㄱㅅ).
+ * 그래서 "갑ㅅ"(입력 중)과 "값", "ㄱㅘ"와 "과"가 같은 자모열이 되어 앞부분 일치·오타 거리를 자모 단위로 잴 수 있다.
+ */
+final class HangulJamo {
+
+    private static final int SYLLABLE_BASE = 0xAC00;
+    private static final int SYLLABLE_LAST = 0xD7A3;
+
+    private static final char[] CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ".toCharArray();
+    private static final String[] JUNGSEONG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"
+    };
+    private static final String[] JONGSEONG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ",
+            "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+    /** 호환 자모 중 둘로 나누는 것 (겹받침, 겹모음) */
+    private static final String COMPOUND = "ㄳㄵㄶㄺㄻㄼㄽㄾㄿㅀㅄㅘㅙㅚㅝㅞㅟㅢ";
+    private static final String[] COMPOUND_PARTS = {
+            "ㄱㅅ", "ㄴㅈ", "ㄴㅎ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅂㅅ",
+            "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅡㅣ"
+    };
+
+    private HangulJamo() {
+    }
+
+    /**
+     * 검색용 정규화: 소문자, 공백·기호 제거
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || isJamo(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 정규화한 문자열 → 자모열
+     */
+    static String decompose(String normalized) {
+        StringBuilder sb = new StringBuilder(normalized.length() * 3);
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c >= SYLLABLE_BASE && c <= SYLLABLE_LAST) {
+                int index = c - SYLLABLE_BASE;
+                sb.append(CHOSEONG[index / 588]);
+                sb.append(JUNGSEONG[index % 588 / 28]);
+                sb.append(JONGSEONG[index % 28]);
+            } else {
+                int compound = COMPOUND.indexOf(c);
+                if (compound >= 0) {
+                    sb.append(COMPOUND_PARTS[compound]);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 정규화한 문자열 → 초성열 (한글이 아닌 글자는 그대로)
+     */
+    static String choseong(String normalized) {
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c >= SYLLABLE_BASE && c <= SYLLABLE_LAST) {
+                sb.append(CHOSEONG[(c - SYLLABLE_BASE) / 588]);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 모두 자음(ㄱ~ㅎ)으로만 된 입력인지 (초성 검색 대상)
+     */
+    static boolean isChoseongOnly(String normalized) {
+        if (normalized.isEmpty()) return false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c < 'ㄱ' || c > 'ㅎ') return false;
+        }
+        return true;
+    }
+
+    private static boolean isJamo(char c) {
+        return c >= 'ㄱ' && c <= 'ㅣ';
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.straffic.mobility.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * KTX 역 좌표 (KtxController 가 만드는 운행 데이터의 역들)
+ * 열차 테이블에는 역 이름만 있어서, 자동완성·지도 표시에 쓰는 좌표를 여기 둔다.
+ */
+final class KtxStations {
+
+    /** 역 이름 → {경도, 위도} */
+    static final Map<String, double[]> COORDINATES;
+
+    static {
+        Map<String, double[]> m = new LinkedHashMap<>();
+        m.put("서울", new double[]{126.9707, 37.5547});
+        m.put("용산", new double[]{126.9648, 37.5298});
+        m.put("광명", new double[]{126.8848, 37.4163});
+        m.put("수원", new double[]{127.0000, 37.2656});
+        m.put("천안아산", new double[]{127.1045, 36.7945});
+        m.put("대전", new double[]{127.4346, 36.3323});
+        m.put("동대구", new double[]{128.6286, 35.8794});
+        m.put("부산", new double[]{129.0422, 35.1151});
+        COORDINATES = Collections.unmodifiableMap(m);
+    }
+
+    private KtxStations() {
+    }
+}
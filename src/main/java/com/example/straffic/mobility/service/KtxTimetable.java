@@ -0,0 +1,102 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.entity.KtxTrainEntity;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 하루치 KTX 시간표 (출발역→도착역 구간마다 출발 시각 순 배열)
+ * 시각은 0시부터의 분. 이분 탐색으로 "이 시각 이후 첫 열차" 를 찾고 거기서부터만 본다.
+ */
+final class KtxTimetable {
+
+    /** 열차 하나 (시각은 분) */
+    record Train(String trainNo, String departure, String arrival, int departureMinute, int arrivalMinute, int price) {
+    }
+
+    private final Map<String, int[]> departureMinutes = new HashMap<>();
+    private final Map<String, Train[]> trains = new HashMap<>();
+    final long loadedAt = System.currentTimeMillis();
+    final int size;
+
+    KtxTimetable(List<KtxTrainEntity> entities) {
+        Map<String, List<Train>> byPair = new HashMap<>();
+        int count = 0;
+        for (KtxTrainEntity e : entities) {
+            int dep = minuteOf(e.getDepartureTime());
+            int arr = minuteOf(e.getArrivalTime());
+            if (dep < 0 || arr < 0) continue;
+            byPair.computeIfAbsent(key(e.getDeparture(), e.getArrival()), k -> new ArrayList<>())
+                    .add(new Train(e.getTrainNo(), e.getDeparture(), e.getArrival(), dep, arr,
+                            e.getPrice() == null ? 0 : e.getPrice()));
+            count++;
+        }
+        for (Map.Entry<String, List<Train>> entry : byPair.entrySet()) {
+            Train[] sorted = entry.getValue().toArray(new Train[0]);
+            Arrays.sort(sorted, Comparator.comparingInt(Train::departureMinute));
+            int[] minutes = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                minutes[i] = sorted[i].departureMinute();
+            }
+            trains.put(entry.getKey(), sorted);
+            departureMinutes.put(entry.getKey(), minutes);
+        }
+        size = count;
+    }
+
+    /**
+     * @return from 역에서 minute 이후(포함) 출발하는 열차들, 출발 순. 없으면 빈 배열
+     */
+    List<Train> departuresAfter(String from, String to, int minute, int limit) {
+        int[] minutes = departureMinutes.get(key(from, to));
+        if (minutes == null) {
+            return List.of();
+        }
+        Train[] pair = trains.get(key(from, to));
+        List<Train> result = new ArrayList<>(limit);
+        for (int i = lowerBound(minutes, minute); i < minutes.length && result.size() < limit; i++) {
+            result.add(pair[i]);
+        }
+        return result;
+    }
+
+    /**
+     * minute 이상인 첫 위치
+     */
+    static int lowerBound(int[] sorted, int minute) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < minute) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static String format(int minute) {
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+
+    private static int minuteOf(String time) {
+        try {
+            LocalTime t = LocalTime.parse(time.trim());
+            return t.getHour() * 60 + t.getMinute();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static String key(String from, String to) {
+        return from + ">" + to;
+    }
+}
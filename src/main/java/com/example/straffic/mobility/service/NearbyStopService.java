@@ -0,0 +1,185 @@
+package com.example.straffic.mobility.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * 좌표 주변 정류장·역 찾기 (지도 핀 주변 정류장, 캐시 예열 등)
+ * GTFS 피드의 정류장과 KTX 역을 SpatialIndex 하나에 넣어 메모리에서 k 개 최근접·반경 검색을 한다.
+ * 피드를 다시 읽으면 다음 refresh 때, 또는 rebuild 를 부르면 바로 새 색인으로 통째로 바꾼다.
+ */
+@Service
+public class NearbyStopService {
+
+    private static final int MAX_RESULTS = 100;
+    private static final double MAX_RADIUS_METERS = 5_000;
+
+    private final OfflineRouteService offlineRouteService;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long buildMillis;
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+
+    /** 색인 한 벌 (배열 번호 = 색인 점 번호) */
+    private record Snapshot(String[] ids, String[] names, String[] types, double[] lat, double[] lon,
+                            SpatialIndex index, long feedAt) {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new String[0], new double[0], new double[0],
+                SpatialIndex.build(new double[0], new double[0]), 0);
+    }
+
+    public NearbyStopService(OfflineRouteService offlineRouteService) {
+        this.offlineRouteService = offlineRouteService;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * GTFS 피드가 바뀌었으면 색인을 다시 만든다
+     */
+    @Scheduled(fixedDelayString = "${route.nearby.refresh-ms:60000}")
+    public void refresh() {
+        GtfsFeed feed = offlineRouteService.feed();
+        if ((feed == null ? 0 : feed.loadedAt) != snapshot.feedAt()) {
+            rebuild();
+        }
+    }
+
+    public synchronized Map<String, Object> rebuild() {
+        long started = System.currentTimeMillis();
+        GtfsFeed feed = offlineRouteService.feed();
+        int stops = feed == null ? 0 : feed.stopCount;
+        int n = stops + KtxStations.COORDINATES.size();
+        String[] ids = new String[n];
+        String[] names = new String[n];
+        String[] types = new String[n];
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+
+        for (int s = 0; s < stops; s++) {
+            ids[s] = feed.stopIds[s];
+            names[s] = feed.stopNames[s];
+            types[s] = feed.isRailStop(s) ? "SUBWAY" : "BUS";
+            lat[s] = feed.stopLat[s];
+            lon[s] = feed.stopLon[s];
+        }
+        int i = stops;
+        for (Map.Entry<String, double[]> station : KtxStations.COORDINATES.entrySet()) {
+            ids[i] = "KTX:" + station.getKey();
+            names[i] = station.getKey();
+            types[i] = "KTX";
+            lon[i] = station.getValue()[0];
+            lat[i] = station.getValue()[1];
+            i++;
+        }
+
+        snapshot = new Snapshot(ids, names, types, lat, lon, SpatialIndex.build(lat, lon), feed == null ? 0 : feed.loadedAt);
+        buildMillis = System.currentTimeMillis() - started;
+        System.out.println("[INFO] 주변 정류장 색인: " + snapshot.index().size() + "곳 (" + buildMillis + "ms)");
+        return getStats();
+    }
+
+    /**
+     * 가까운 순 k 개
+     *
+     * @param x         경도
+     * @param y         위도
+     * @param maxMeters 없으면 거리 제한 없음
+     * @param type      BUS / SUBWAY / KTX, 없으면 모두
+     */
+    public Map<String, Object> nearest(double x, double y, int k, Double maxMeters, String type) {
+        long started = System.nanoTime();
+        Snapshot current = snapshot;
+        int limit = Math.max(1, Math.min(k, MAX_RESULTS));
+        int[] found = new int[limit];
+        double[] meters = new double[limit];
+        int count = current.index().nearest(y, x, limit,
+                maxMeters == null ? Double.POSITIVE_INFINITY : maxMeters, typeFilter(current, type), found, meters);
+        List<Map<String, Object>> items = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            items.add(item(current, found[r], meters[r]));
+        }
+        return response(x, y, items, started);
+    }
+
+    /**
+     * 반경 안 (가까운 순, 최대 limit 개)
+     *
+     * @param radius 최대 5000m
+     */
+    public Map<String, Object> within(double x, double y, double radius, int limit, String type) {
+        long started = System.nanoTime();
+        Snapshot current = snapshot;
+        IntPredicate filter = typeFilter(current, type);
+        List<double[]> hits = new ArrayList<>();
+        current.index().within(y, x, Math.min(radius, MAX_RADIUS_METERS), (id, meters) -> {
+            if (filter == null || filter.test(id)) {
+                hits.add(new double[]{meters, id});
+            }
+        });
+        hits.sort((a, b) -> Double.compare(a[0], b[0]));
+        int count = Math.min(hits.size(), Math.max(1, Math.min(limit, MAX_RESULTS)));
+        List<Map<String, Object>> items = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            items.add(item(current, (int) hits.get(r)[1], hits.get(r)[0]));
+        }
+        Map<String, Object> response = response(x, y, items, started);
+        response.put("total", hits.size());
+        return response;
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        long count = queries.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("points", current.index().size());
+        stats.put("buildMillis", buildMillis);
+        stats.put("queries", count);
+        stats.put("avgQueryMicros", count == 0 ? 0.0 : Math.round(queryNanos.get() / (double) count / 100.0) / 10.0);
+        return stats;
+    }
+
+    private static IntPredicate typeFilter(Snapshot current, String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        String wanted = type.trim().toUpperCase();
+        return id -> wanted.equals(current.types()[id]);
+    }
+
+    private static Map<String, Object> item(Snapshot current, int id, double meters) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", current.ids()[id]);
+        item.put("name", current.names()[id]);
+        item.put("type", current.types()[id]);
+        item.put("x", current.lon()[id]);
+        item.put("y", current.lat()[id]);
+        item.put("distance", (int) Math.round(meters));
+        return item;
+    }
+
+    private Map<String, Object> response(double x, double y, List<Map<String, Object>> items, long started) {
+        long elapsed = System.nanoTime() - started;
+        queries.incrementAndGet();
+        queryNanos.addAndGet(elapsed);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("x", x);
+        response.put("y", y);
+        response.put("stops", items);
+        response.put("elapsedMicros", elapsed / 1000);
+        return response;
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.dto.RouteRequest;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 오프라인 경로 검색 (로컬 GTFS 피드 + RAPTOR)
+ * ODsay 에 닿지 못하거나 한도를 넘었을 때도 경로를 낼 수 있도록, 디스크의 GTFS 피드를 배열로 읽어 서버 안에서 검색한다.
+ * <ul>
+ *   <li>mode=off: 쓰지 않는다 (기본)</li>
+ *   <li>mode=fallback: ODsay 검색이 실패하면 이 결과로 대신한다</li>
+ *   <li>mode=primary: ODsay 를 부르지 않고 이 결과를 쓴다 (피드를 못 읽었으면 ODsay)</li>
+ * </ul>
+ * 응답은 ODsay 축약 응답과 같은 구조(result.path[].info, subPath)라 route.html 이 그대로 그린다.
+ */
+@Service
+public class OfflineRouteService {
+
+    private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+
+    private final String mode;
+    private final Path feedDir;
+    private final double walkRadiusMeters;
+    private final double walkSpeed;
+    private final int maxRounds;
+    private final int transferSlackSeconds;
+    private final int baseFare;
+
+    private volatile GtfsFeed feed;
+    private volatile String loadError;
+    private volatile long loadMillis;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong searchNanos = new AtomicLong();
+
+    public OfflineRouteService(@Value("${route.offline.mode:off}") String mode,
+                               @Value("${route.offline.feed-dir:data/gtfs}") String feedDir,
+                               @Value("${route.offline.walk-radius-m:800}") double walkRadiusMeters,
+                               @Value("${route.offline.walk-speed-mps:1.2}") double walkSpeed,
+                               @Value("${route.offline.max-rounds:5}") int maxRounds,
+                               @Value("${route.offline.transfer-slack-seconds:60}") int transferSlackSeconds,
+                               @Value("${route.offline.base-fare:1400}") int baseFare) {
+        this.mode = mode == null ? "off" : mode.trim().toLowerCase();
+        this.feedDir = Paths.get(feedDir);
+        this.walkRadiusMeters = walkRadiusMeters;
+        this.walkSpeed = walkSpeed;
+        this.maxRounds = maxRounds;
+        this.transferSlackSeconds = transferSlackSeconds;
+        this.baseFare = baseFare;
+    }
+
+    @PostConstruct
+    public void init() {
+        if ("off".equals(mode)) {
+            return;
+        }
+        if (!Files.isDirectory(feedDir)) {
+            loadError = "GTFS 폴더가 없습니다: " + feedDir.toAbsolutePath();
+            System.out.println("[WARN] 오프라인 경로 검색 비활성: " + loadError);
+            return;
+        }
+        reload();
+    }
+
+    /**
+     * 피드를 다시 읽어 통째로 바꾼다. 실패하면 이전 피드를 계속 쓴다
+     */
+    public synchronized Map<String, Object> reload() {
+        long started = System.currentTimeMillis();
+        try {
+            GtfsFeed loaded = GtfsFeed.load(feedDir);
+            feed = loaded;
+            loadError = null;
+            loadMillis = System.currentTimeMillis() - started;
+            System.out.println("[INFO] GTFS 피드 로드: 정류장 " + loaded.stopCount + ", 패턴 " + loaded.patternCount
+                    + ", 운행 " + loaded.tripCount() + " (" + loadMillis + "ms)");
+        } catch (Exception e) {
+            loadError = e.getMessage();
+            System.out.println("[WARN] GTFS 피드 로드 실패: " + e.getMessage());
+        }
+        return getStats();
+    }
+
+    /**
+     * 지금 쓰는 피드 (자동완성 색인이 정류장 목록을 읽는다). 없으면 null
+     */
+    GtfsFeed feed() {
+        return feed;
+    }
+
+    public boolean isReady() {
+        return feed != null;
+    }
+
+    public boolean isPrimary() {
+        return "primary".equals(mode) && isReady();
+    }
+
+    public boolean isFallback() {
+        return "fallback".equals(mode) && isReady();
+    }
+
+    /**
+     * ODsay 실패 응답 대신 오프라인 결과를 돌려준다
+     */
+    public Map<String, Object> fallback(RouteRequest request, String searchType, Object upstreamError) {
+        fallbacks.incrementAndGet();
+        Map<String, Object> response = search(request, searchType, null);
+        response.put("fallbackReason", upstreamError);
+        return response;
+    }
+
+    /**
+     * @param searchType     ALL / SUBWAY / BUS
+     * @param departureTime  HH:mm, 없으면 지금
+     */
+    public Map<String, Object> search(RouteRequest request, String searchType, String departureTime) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        GtfsFeed current = feed;
+        if (current == null) {
+            response.put("error", loadError == null ? "오프라인 경로 검색을 쓰지 않습니다." : loadError);
+            return response;
+        }
+        double startLon;
+        double startLat;
+        double endLon;
+        double endLat;
+        try {
+            startLon = Double.parseDouble(request.getStartX().trim());
+            startLat = Double.parseDouble(request.getStartY().trim());
+            endLon = Double.parseDouble(request.getEndX().trim());
+            endLat = Double.parseDouble(request.getEndY().trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            response.put("error", "출발/도착 좌표가 올바르지 않습니다.");
+            return response;
+        }
+
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(SEOUL);
+        int departure;
+        try {
+            departure = departureTime == null || departureTime.isBlank()
+                    ? now.toLocalTime().toSecondOfDay()
+                    : LocalTime.parse(departureTime.trim()).toSecondOfDay();
+        } catch (Exception e) {
+            response.put("error", "출발 시각 형식은 HH:mm 입니다.");
+            return response;
+        }
+
+        List<int[]> access = nearbyStops(current, startLat, startLon);
+        List<int[]> egress = nearbyStops(current, endLat, endLon);
+        if (access.isEmpty() || egress.isEmpty()) {
+            response.put("error", "출발지 또는 도착지 근처(" + (int) walkRadiusMeters + "m)에 정류장이 없습니다.");
+            return response;
+        }
+
+        RaptorRouter.Query query = new RaptorRouter.Query(
+                column(access, 0), column(access, 1), column(egress, 0), column(egress, 1),
+                departure, 1 << (now.getDayOfWeek().getValue() - 1), modes(searchType), maxRounds, transferSlackSeconds);
+        List<RaptorRouter.Journey> journeys = RaptorRouter.route(current, query);
+
+        List<Map<String, Object>> paths = new ArrayList<>(journeys.size());
+        for (RaptorRouter.Journey journey : journeys) {
+            paths.add(toPath(current, journey, startLat, startLon, endLat, endLon));
+        }
+        long elapsed = System.nanoTime() - started;
+        searches.incrementAndGet();
+        searchNanos.addAndGet(elapsed);
+
+        if (paths.isEmpty()) {
+            response.put("error", "오프라인 경로를 찾지 못했습니다.");
+            return response;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("searchType", "offline");
+        result.put("path", paths);
+        response.put("result", result);
+        response.put("offline", true);
+        response.put("elapsedMicros", elapsed / 1000);
+        return response;
+    }
+
+    public Map<String, Object> getStats() {
+        GtfsFeed current = feed;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode);
+        stats.put("ready", current != null);
+        stats.put("feedDir", feedDir.toAbsolutePath().toString());
+        if (current != null) {
+            stats.put("stops", current.stopCount);
+            stats.put("patterns", current.patternCount);
+            stats.put("trips", current.tripCount());
+            stats.put("memoryBytes", current.memoryBytes());
+            stats.put("loadMillis", loadMillis);
+        }
+        if (loadError != null) {
+            stats.put("loadError", loadError);
+        }
+        long count = searches.get();
+        stats.put("searches", count);
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("avgSearchMicros", count == 0 ? 0 : searchNanos.get() / count / 1000);
+        return stats;
+    }
+
+    private Map<String, Object> toPath(GtfsFeed f, RaptorRouter.Journey journey,
+                                       double startLat, double startLon, double endLat, double endLon) {
+        List<Map<String, Object>> subPaths = new ArrayList<>();
+        int busRides = 0;
+        int railRides = 0;
+        int totalWalk = 0;
+        for (RaptorRouter.Leg leg : journey.legs()) {
+            Map<String, Object> sub = new LinkedHashMap<>();
+            if (leg.walk()) {
+                double fromLat = leg.fromStop() < 0 ? startLat : f.stopLat[leg.fromStop()];
+                double fromLon = leg.fromStop() < 0 ? startLon : f.stopLon[leg.fromStop()];
+                double toLat = leg.toStop() < 0 ? endLat : f.stopLat[leg.toStop()];
+                double toLon = leg.toStop() < 0 ? endLon : f.stopLon[leg.toStop()];
+                int distance = (int) Math.round(distanceMeters(fromLat, fromLon, toLat, toLon));
+                totalWalk += distance;
+                sub.put("trafficType", 3);
+                sub.put("distance", distance);
+                sub.put("sectionTime", minutes(leg.arrival() - leg.departure()));
+            } else {
+                boolean bus = f.patternRouteType[leg.pattern()] == GtfsFeed.ROUTE_TYPE_BUS;
+                if (bus) busRides++;
+                else railRides++;
+                String name = f.patternRouteName[leg.pattern()];
+                sub.put("trafficType", bus ? 2 : 1);
+                sub.put("sectionTime", minutes(leg.arrival() - leg.departure()));
+                sub.put("stationCount", leg.toPos() - leg.fromPos());
+                sub.put("lane", List.of(bus ? Map.of("busNo", name == null ? "" : name) : Map.of("name", name == null ? "" : name)));
+                sub.put("startName", f.stopNames[leg.fromStop()]);
+                sub.put("startX", f.stopLon[leg.fromStop()]);
+                sub.put("startY", f.stopLat[leg.fromStop()]);
+                sub.put("endName", f.stopNames[leg.toStop()]);
+                sub.put("endX", f.stopLon[leg.toStop()]);
+                sub.put("endY", f.stopLat[leg.toStop()]);
+                sub.put("departureTime", clock(leg.departure()));
+                sub.put("arrivalTime", clock(leg.arrival()));
+                List<Map<String, Object>> stations = new ArrayList<>(leg.toPos() - leg.fromPos() + 1);
+                for (int pos = leg.fromPos(); pos <= leg.toPos(); pos++) {
+                    stations.add(Map.of("stationName", f.stopNames[f.stopAt(leg.pattern(), pos)]));
+                }
+                sub.put("passStopList", Map.of("stations", stations));
+            }
+            subPaths.add(sub);
+        }
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("totalTime", minutes(journey.arrival() - journey.departure()));
+        // 서울 통합 환승 요금은 거리 비례라 정확히 낼 수 없어 기본요금만 표시한다
+        info.put("payment", baseFare);
+        info.put("busTransitCount", busRides);
+        info.put("subwayTransitCount", railRides);
+        info.put("totalWalk", totalWalk);
+        info.put("departureTime", clock(journey.departure()));
+        info.put("arrivalTime", clock(journey.arrival()));
+
+        Map<String, Object> path = new LinkedHashMap<>();
+        path.put("pathType", busRides == 0 ? 1 : railRides == 0 ? 2 : 3);
+        path.put("info", info);
+        path.put("subPath", subPaths);
+        return path;
+    }
+
+    /**
+     * walk-radius-m 안의 정류장과 걷는 시간(초)
+     */
+    private List<int[]> nearbyStops(GtfsFeed f, double lat, double lon) {
+        List<int[]> stops = new ArrayList<>();
+        f.stopIndex.within(lat, lon, walkRadiusMeters, (s, meters) -> stops.add(new int[]{s, (int) Math.ceil(meters / walkSpeed)}));
+        return stops;
+    }
+
+    private static int modes(String searchType) {
+        if ("SUBWAY".equalsIgnoreCase(searchType)) return RaptorRouter.MODE_RAIL;
+        if ("BUS".equalsIgnoreCase(searchType)) return RaptorRouter.MODE_BUS;
+        return RaptorRouter.MODE_ALL;
+    }
+
+    private static int[] column(List<int[]> rows, int index) {
+        int[] values = new int[rows.size()];
+        for (int i = 0; i < values.length; i++) values[i] = rows.get(i)[index];
+        return values;
+    }
+
+    /** 짧은 거리용 근사 (등장방형 투영) */
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * 6_371_000;
+    }
+
+    private static int minutes(int seconds) {
+        return (seconds + 59) / 60;
+    }
+
+    private static String clock(int seconds) {
+        return String.format("%02d:%02d", seconds / 3600, seconds % 3600 / 60);
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.straffic.mobility.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 역·정류장 자동완성 색인 (만든 뒤 바꾸지 않는다)
+ * <ul>
+ *   <li>이름 트라이: 정규화한 이름의 자모열. 입력 중인 음절("강ㄴ")도 앞부분 일치로 찾는다</li>
+ *   <li>초성 트라이: 초성열. 자음만 입력하면("ㄱㄴ") 여기서 찾는다</li>
+ *   <li>오타: 앞부분 일치가 모자라면 이름 트라이를 자모 편집 거리(1~2) 안에서 훑는다</li>
+ * </ul>
+ * 트라이는 배열(노드 글자, 첫 자식, 자식 수)로 펴 두고, 노드마다 아래에 있는 장소 중 인기 상위 K 개를 미리 계산해 둔다.
+ * 그래서 앞부분 일치는 입력 길이만큼 내려가서 목록을 읽기만 하면 된다.
+ */
+final class PlaceSuggestIndex {
+
+    static final int TOP_K = 20;
+
+    /**
+     * @param x      경도 (모르면 NaN)
+     * @param y      위도 (모르면 NaN)
+     * @param weight 인기 가중치 (클수록 위)
+     */
+    record Place(String name, String type, double x, double y, int weight) {
+    }
+
+    /**
+     * @param match prefix / initial / fuzzy
+     * @param edits 오타 수 (fuzzy 만)
+     */
+    record Suggestion(Place place, String match, int edits) {
+    }
+
+    private final Place[] places;
+    private final Trie names;
+    private final Trie initials;
+
+    private PlaceSuggestIndex(Place[] places, Trie names, Trie initials) {
+        this.places = places;
+        this.names = names;
+        this.initials = initials;
+    }
+
+    /**
+     * 역(지하철·KTX)은 "강남"과 "강남역" 둘 다로 찾을 수 있게 별칭을 함께 넣는다
+     */
+    static PlaceSuggestIndex build(List<Place> placeList) {
+        Place[] places = placeList.toArray(new Place[0]);
+        int[] weights = new int[places.length];
+        List<String> nameKeys = new ArrayList<>();
+        List<String> initialKeys = new ArrayList<>();
+        GtfsFeed.IntList nameEntries = new GtfsFeed.IntList();
+        GtfsFeed.IntList initialEntries = new GtfsFeed.IntList();
+        for (int i = 0; i < places.length; i++) {
+            weights[i] = places[i].weight();
+            for (String key : keysOf(places[i])) {
+                nameKeys.add(HangulJamo.decompose(key));
+                nameEntries.add(i);
+                initialKeys.add(HangulJamo.choseong(key));
+                initialEntries.add(i);
+            }
+        }
+        return new PlaceSuggestIndex(places,
+                Trie.build(nameKeys, nameEntries, weights),
+                Trie.build(initialKeys, initialEntries, weights));
+    }
+
+    int size() {
+        return places.length;
+    }
+
+    int nodeCount() {
+        return names.label.length + initials.label.length;
+    }
+
+    List<Suggestion> suggest(String query, int limit) {
+        String normalized = HangulJamo.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        limit = Math.min(limit, TOP_K);
+        String jamo = HangulJamo.decompose(normalized);
+        Map<Integer, Suggestion> found = new LinkedHashMap<>();
+
+        // 1. 앞부분 일치. 이름이 입력과 똑같은 곳을 맨 앞에
+        int node = names.find(jamo);
+        if (node >= 0) {
+            List<Integer> exact = new ArrayList<>();
+            List<Integer> rest = new ArrayList<>();
+            for (int i = names.topOffset[node]; i < names.topOffset[node + 1]; i++) {
+                int entry = names.top[i];
+                (isExact(places[entry], normalized) ? exact : rest).add(entry);
+            }
+            for (int entry : exact) found.putIfAbsent(entry, new Suggestion(places[entry], "prefix", 0));
+            for (int entry : rest) found.putIfAbsent(entry, new Suggestion(places[entry], "prefix", 0));
+        }
+
+        // 2. 초성
+        if (found.size() < limit && HangulJamo.isChoseongOnly(normalized)) {
+            int initialNode = initials.find(normalized);
+            if (initialNode >= 0) {
+                for (int i = initials.topOffset[initialNode]; i < initials.topOffset[initialNode + 1]; i++) {
+                    int entry = initials.top[i];
+                    found.putIfAbsent(entry, new Suggestion(places[entry], "initial", 0));
+                }
+            }
+        }
+
+        // 3. 오타 허용 (짧은 입력은 후보가 너무 많아져서 하지 않는다)
+        if (found.size() < limit && jamo.length() >= 4) {
+            int maxEdits = jamo.length() >= 8 ? 2 : 1;
+            int[] bestEdits = new int[places.length];
+            Arrays.fill(bestEdits, Integer.MAX_VALUE);
+            List<Integer> candidates = new ArrayList<>();
+            names.fuzzy(jamo, maxEdits, (entry, edits) -> {
+                if (bestEdits[entry] == Integer.MAX_VALUE) candidates.add(entry);
+                bestEdits[entry] = Math.min(bestEdits[entry], edits);
+            });
+            candidates.sort(Comparator.<Integer>comparingInt(e -> bestEdits[e]).thenComparing(e -> -places[e].weight()));
+            for (int entry : candidates) {
+                found.putIfAbsent(entry, new Suggestion(places[entry], "fuzzy", bestEdits[entry]));
+            }
+        }
+
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, found.size()));
+        for (Suggestion suggestion : found.values()) {
+            if (result.size() >= limit) break;
+            result.add(suggestion);
+        }
+        return result;
+    }
+
+    private static boolean isExact(Place place, String normalized) {
+        for (String key : keysOf(place)) {
+            if (key.equals(normalized)) return true;
+        }
+        return false;
+    }
+
+    private static List<String> keysOf(Place place) {
+        String key = HangulJamo.normalize(place.name());
+        if (key.isEmpty()) return List.of();
+        if ("SUBWAY".equals(place.type()) || "KTX".equals(place.type())) {
+            return key.endsWith("역") && key.length() > 1
+                    ? List.of(key, key.substring(0, key.length() - 1))
+                    : List.of(key, key + "역");
+        }
+        return List.of(key);
+    }
+
+    interface Hit {
+        void accept(int entry, int edits);
+    }
+
+    /**
+     * 배열로 편 트라이. 노드 0 이 뿌리, 자식은 연속 번호이고 글자 순이라 이분 탐색으로 찾는다
+     */
+    static final class Trie {
+        final char[] label;
+        final int[] firstChild;
+        final int[] childCount;
+        final int[] topOffset;
+        final int[] top;
+        final int maxDepth;
+
+        private Trie(char[] label, int[] firstChild, int[] childCount, int[] topOffset, int[] top, int maxDepth) {
+            this.label = label;
+            this.firstChild = firstChild;
+            this.childCount = childCount;
+            this.topOffset = topOffset;
+            this.top = top;
+            this.maxDepth = maxDepth;
+        }
+
+        /**
+         * 정렬한 키 묶음을 너비 우선으로 나눠 노드를 만든다 (한 노드의 자식이 연속 번호가 된다)
+         */
+        static Trie build(List<String> keys, GtfsFeed.IntList entries, int[] weights) {
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparing(keys::get));
+
+            StringBuilder labels = new StringBuilder();
+            GtfsFeed.IntList firstChild = new GtfsFeed.IntList();
+            GtfsFeed.IntList childCount = new GtfsFeed.IntList();
+            GtfsFeed.IntList termFrom = new GtfsFeed.IntList();
+            GtfsFeed.IntList termTo = new GtfsFeed.IntList();
+            labels.append('\0');
+            firstChild.add(0);
+            childCount.add(0);
+            termFrom.add(0);
+            termTo.add(0);
+
+            // (노드, 키 범위 lo..hi, 깊이)
+            int[] queue = new int[16];
+            int head = 0;
+            int tail = 0;
+            queue = push(queue, tail, 0, 0, order.length, 0);
+            tail += 4;
+            int maxDepth = 0;
+            while (head < tail) {
+                int node = queue[head];
+                int lo = queue[head + 1];
+                int hi = queue[head + 2];
+                int depth = queue[head + 3];
+                head += 4;
+                maxDepth = Math.max(maxDepth, depth);
+
+                // 길이가 깊이와 같은 키(여기서 끝나는 이름)는 정렬상 앞에 모인다
+                int i = lo;
+                while (i < hi && keys.get(order[i]).length() == depth) i++;
+                termFrom.set(node, lo);
+                termTo.set(node, i);
+
+                int first = labels.length();
+                int count = 0;
+                while (i < hi) {
+                    char c = keys.get(order[i]).charAt(depth);
+                    int j = i;
+                    while (j < hi && keys.get(order[j]).charAt(depth) == c) j++;
+                    int child = labels.length();
+                    labels.append(c);
+                    firstChild.add(0);
+                    childCount.add(0);
+                    termFrom.add(0);
+                    termTo.add(0);
+                    queue = push(queue, tail, child, i, j, depth + 1);
+                    tail += 4;
+                    count++;
+                    i = j;
+                }
+                firstChild.set(node, first);
+                childCount.set(node, count);
+            }
+
+            // 자식이 부모보다 번호가 크므로 뒤에서부터 상위 K 개를 모은다
+            int nodes = labels.length();
+            int[][] tops = new int[nodes][];
+            for (int node = nodes - 1; node >= 0; node--) {
+                List<Integer> candidates = new ArrayList<>();
+                for (int k = termFrom.get(node); k < termTo.get(node); k++) candidates.add(entries.get(order[k]));
+                for (int c = firstChild.get(node); c < firstChild.get(node) + childCount.get(node); c++) {
+                    for (int entry : tops[c]) candidates.add(entry);
+                }
+                candidates.sort((a, b) -> Integer.compare(weights[b], weights[a]));
+                int[] best = new int[Math.min(TOP_K, candidates.size())];
+                int filled = 0;
+                for (int entry : candidates) {
+                    if (filled == best.length) break;
+                    boolean duplicate = false;
+                    for (int k = 0; k < filled; k++) {
+                        if (best[k] == entry) {
+                            duplicate = true;
+                            break;
+                        }
+                    }
+                    if (!duplicate) best[filled++] = entry;
+                }
+                tops[node] = filled == best.length ? best : Arrays.copyOf(best, filled);
+            }
+            int[] topOffset = new int[nodes + 1];
+            for (int node = 0; node < nodes; node++) topOffset[node + 1] = topOffset[node] + tops[node].length;
+            int[] top = new int[topOffset[nodes]];
+            for (int node = 0; node < nodes; node++) System.arraycopy(tops[node], 0, top, topOffset[node], tops[node].length);
+
+            char[] label = new char[nodes];
+            labels.getChars(0, nodes, label, 0);
+            return new Trie(label, firstChild.toArray(), childCount.toArray(), topOffset, top, maxDepth);
+        }
+
+        private static int[] push(int[] queue, int tail, int node, int lo, int hi, int depth) {
+            if (tail + 4 > queue.length) queue = Arrays.copyOf(queue, queue.length * 2);
+            queue[tail] = node;
+            queue[tail + 1] = lo;
+            queue[tail + 2] = hi;
+            queue[tail + 3] = depth;
+            return queue;
+        }
+
+        /**
+         * @return key 로 끝나는 노드, 없으면 -1
+         */
+        int find(String key) {
+            int node = 0;
+            for (int i = 0; i < key.length() && node >= 0; i++) {
+                node = child(node, key.charAt(i));
+            }
+            return node;
+        }
+
+        private int child(int node, char c) {
+            int lo = firstChild[node];
+            int hi = lo + childCount[node] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (label[mid] < c) lo = mid + 1;
+                else if (label[mid] > c) hi = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+
+        /**
+         * 앞부분이 query 와 편집 거리 maxEdits 이하인 노드를 찾아, 그 아래 상위 K 개를 넘긴다 (레벤슈타인 행을 깊이마다 이어 계산)
+         */
+        void fuzzy(String query, int maxEdits, Hit hit) {
+            int m = query.length();
+            int[][] rows = new int[maxDepth + 1][m + 1];
+            for (int j = 0; j <= m; j++) rows[0][j] = j;
+            fuzzy(0, 1, query, maxEdits, rows, hit);
+        }
+
+        private void fuzzy(int node, int depth, String query, int maxEdits, int[][] rows, Hit hit) {
+            int m = query.length();
+            int[] prev = rows[depth - 1];
+            int[] row = rows[depth];
+            for (int c = firstChild[node]; c < firstChild[node] + childCount[node]; c++) {
+                char ch = label[c];
+                row[0] = prev[0] + 1;
+                int rowMin = row[0];
+                for (int j = 1; j <= m; j++) {
+                    int cost = query.charAt(j - 1) == ch ? 0 : 1;
+                    row[j] = Math.min(Math.min(row[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                    rowMin = Math.min(rowMin, row[j]);
+                }
+                if (row[m] <= maxEdits) {
+                    for (int i = topOffset[c]; i < topOffset[c + 1]; i++) hit.accept(top[i], row[m]);
+                    continue;
+                }
+                if (rowMin <= maxEdits && depth < maxDepth) {
+                    fuzzy(c, depth + 1, query, maxEdits, rows, hit);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.repository.KtxTrainRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 역·정류장 자동완성
+ * KTX 역, GTFS 피드의 지하철역·버스 정류장, 장소 파일(place-file)로 색인(PlaceSuggestIndex)을 만들어 메모리에서 바로 답한다.
+ * 입력할 때마다 외부 API 를 부르지 않는다.
+ * 인기 가중치 = 종류별 기본값 + 지나는 노선 수 + 사용자가 고른 횟수. 고른 횟수는 rebuild-ms 마다 색인을 다시 만들 때 반영한다.
+ * 고른 횟수는 색인에 있는 이름만, 사용자마다 이름당 rebuild-ms 에 한 번만 세고, 이름마다 max-selections-per-key 까지만 더한다.
+ */
+@Service
+public class PlaceSuggestService {
+
+    private static final int KTX_WEIGHT = 1000;
+    private static final int SUBWAY_WEIGHT = 300;
+    private static final int BUS_WEIGHT = 50;
+    private static final int PATTERN_WEIGHT = 10;
+    /** 고른 횟수를 세는 이름 수 상한 (아무 이름이나 보내서 메모리를 늘리지 못하게) */
+    private static final int MAX_SELECTION_KEYS = 50_000;
+    /** 이번 주기에 (사용자, 이름)을 센 기록 수 상한 */
+    private static final int MAX_PICKS_PER_ROUND = 200_000;
+
+    private final OfflineRouteService offlineRouteService;
+    private final KtxTrainRepository ktxTrainRepository;
+    private final Path placeFile;
+    private final int selectionWeight;
+    private final int maxSelectionsPerKey;
+
+    private volatile PlaceSuggestIndex index = PlaceSuggestIndex.build(List.of());
+    private volatile long builtFeedAt;
+    private volatile long buildMillis;
+
+    private final ConcurrentHashMap<String, AtomicInteger> selections = new ConcurrentHashMap<>();
+    private final AtomicBoolean selectionsChanged = new AtomicBoolean();
+    // 색인에 있는 이름 (정규화)
+    private volatile Set<String> knownNames = Set.of();
+    // 이번 주기에 이미 센 "사용자|이름"
+    private final Set<String> picked = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+
+    public PlaceSuggestService(OfflineRouteService offlineRouteService,
+                               KtxTrainRepository ktxTrainRepository,
+                               @Value("${route.place.file:data/places.csv}") String placeFile,
+                               @Value("${route.place.selection-weight:20}") int selectionWeight,
+                               @Value("${route.place.max-selections-per-key:100}") int maxSelectionsPerKey) {
+        this.offlineRouteService = offlineRouteService;
+        this.ktxTrainRepository = ktxTrainRepository;
+        this.placeFile = Paths.get(placeFile);
+        this.selectionWeight = selectionWeight;
+        this.maxSelectionsPerKey = maxSelectionsPerKey;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * 사용자가 고른 횟수나 GTFS 피드가 바뀌었으면 색인을 다시 만든다
+     */
+    @Scheduled(fixedDelayString = "${route.place.rebuild-ms:600000}")
+    public void refresh() {
+        picked.clear();
+        GtfsFeed feed = offlineRouteService.feed();
+        long feedAt = feed == null ? 0 : feed.loadedAt;
+        if (selectionsChanged.getAndSet(false) || feedAt != builtFeedAt) {
+            rebuild();
+        }
+    }
+
+    public synchronized Map<String, Object> rebuild() {
+        long started = System.currentTimeMillis();
+        GtfsFeed feed = offlineRouteService.feed();
+        Map<String, PlaceSuggestIndex.Place> places = new LinkedHashMap<>();
+
+        KtxStations.COORDINATES.forEach((name, xy) -> add(places, name, "KTX", xy[0], xy[1], KTX_WEIGHT));
+        try {
+            for (String name : ktxTrainRepository.findDistinctDepartures()) {
+                add(places, name, "KTX", Double.NaN, Double.NaN, KTX_WEIGHT);
+            }
+        } catch (Exception e) {
+            System.out.println("[WARN] KTX 역 목록 조회 실패 (기본 역만 색인): " + e.getMessage());
+        }
+
+        if (feed != null) {
+            for (int s = 0; s < feed.stopCount; s++) {
+                boolean rail = feed.isRailStop(s);
+                int patterns = feed.stopPatternOffset[s + 1] - feed.stopPatternOffset[s];
+                add(places, feed.stopNames[s], rail ? "SUBWAY" : "BUS", feed.stopLon[s], feed.stopLat[s],
+                        (rail ? SUBWAY_WEIGHT : BUS_WEIGHT) + patterns * PATTERN_WEIGHT);
+            }
+        }
+
+        try {
+            // name,type,x,y,weight (type·좌표·가중치는 비워도 된다)
+            GtfsFeed.readCsv(placeFile, false, row -> add(places, row.get("name"),
+                    row.get("type") == null || row.get("type").isBlank() ? "PLACE" : row.get("type").trim().toUpperCase(),
+                    row.get("x") == null || row.get("x").isBlank() ? Double.NaN : GtfsFeed.parseDouble(row.get("x")),
+                    row.get("y") == null || row.get("y").isBlank() ? Double.NaN : GtfsFeed.parseDouble(row.get("y")),
+                    GtfsFeed.parseInt(row.get("weight"), BUS_WEIGHT)));
+        } catch (Exception e) {
+            System.out.println("[WARN] 장소 파일 읽기 실패: " + e.getMessage());
+        }
+
+        List<PlaceSuggestIndex.Place> list = new ArrayList<>(places.size());
+        Set<String> names = new HashSet<>();
+        for (PlaceSuggestIndex.Place place : places.values()) {
+            String name = HangulJamo.normalize(place.name());
+            names.add(name);
+            AtomicInteger count = selections.get(name);
+            list.add(count == null ? place : new PlaceSuggestIndex.Place(place.name(), place.type(), place.x(), place.y(),
+                    place.weight() + Math.min(count.get(), maxSelectionsPerKey) * selectionWeight));
+        }
+        index = PlaceSuggestIndex.build(list);
+        knownNames = names;
+        builtFeedAt = feed == null ? 0 : feed.loadedAt;
+        buildMillis = System.currentTimeMillis() - started;
+        System.out.println("[INFO] 자동완성 색인: 장소 " + list.size() + ", 노드 " + index.nodeCount() + " (" + buildMillis + "ms)");
+        return getStats();
+    }
+
+    /**
+     * @param limit 최대 20
+     */
+    public Map<String, Object> suggest(String keyword, int limit) {
+        long started = System.nanoTime();
+        List<PlaceSuggestIndex.Suggestion> suggestions = index.suggest(keyword, limit);
+        long elapsed = System.nanoTime() - started;
+        queries.incrementAndGet();
+        queryNanos.addAndGet(elapsed);
+
+        List<Map<String, Object>> items = new ArrayList<>(suggestions.size());
+        for (PlaceSuggestIndex.Suggestion suggestion : suggestions) {
+            PlaceSuggestIndex.Place place = suggestion.place();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", place.name());
+            item.put("type", place.type());
+            if (!Double.isNaN(place.x()) && !Double.isNaN(place.y())) {
+                item.put("x", place.x());
+                item.put("y", place.y());
+            }
+            item.put("match", suggestion.match());
+            if (suggestion.edits() > 0) {
+                item.put("edits", suggestion.edits());
+            }
+            items.add(item);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("keyword", keyword);
+        response.put("status", "success");
+        response.put("suggestions", items);
+        response.put("elapsedMicros", elapsed / 1000);
+        return response;
+    }
+
+    /**
+     * 사용자가 자동완성 항목을 골랐다 (다음 색인부터 순위가 오른다)
+     *
+     * @param user 고른 사용자 (같은 사용자가 같은 이름을 여러 번 보내도 주기마다 한 번만 센다)
+     * @return 센 경우 true
+     */
+    public boolean recordSelection(String user, String name) {
+        String key = HangulJamo.normalize(name);
+        if (key.isEmpty() || !knownNames.contains(key)) {
+            return false;
+        }
+        if (selections.size() >= MAX_SELECTION_KEYS && !selections.containsKey(key)) {
+            return false;
+        }
+        if (picked.size() >= MAX_PICKS_PER_ROUND || !picked.add((user == null ? "" : user) + "|" + key)) {
+            return false;
+        }
+        AtomicInteger count = selections.computeIfAbsent(key, k -> new AtomicInteger());
+        if (count.getAndUpdate(c -> Math.min(c + 1, maxSelectionsPerKey)) >= maxSelectionsPerKey) {
+            return false;
+        }
+        selectionsChanged.set(true);
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        long count = queries.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("places", index.size());
+        stats.put("nodes", index.nodeCount());
+        stats.put("buildMillis", buildMillis);
+        stats.put("selections", selections.size());
+        stats.put("queries", count);
+        stats.put("avgQueryMicros", count == 0 ? 0.0 : Math.round(queryNanos.get() / (double) count / 100.0) / 10.0);
+        return stats;
+    }
+
+    /**
+     * 이름·종류가 같으면 하나로 합친다 (방향별 버스 정류장 등). 좌표는 먼저 들어온 것, 가중치는 더한다
+     */
+    private static void add(Map<String, PlaceSuggestIndex.Place> places, String name, String type, double x, double y, int weight) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String key = type + ":" + HangulJamo.normalize(name);
+        PlaceSuggestIndex.Place existing = places.get(key);
+        if (existing == null) {
+            places.put(key, new PlaceSuggestIndex.Place(name.trim(), type, x, y, weight));
+        } else if ("KTX".equals(type)) {
+            // 같은 KTX 역이 기본 목록과 운행 데이터에 모두 있으면 좌표 있는 쪽을 둔다
+            if (Double.isNaN(existing.x()) && !Double.isNaN(x)) {
+                places.put(key, new PlaceSuggestIndex.Place(existing.name(), type, x, y, existing.weight()));
+            }
+        } else {
+            places.put(key, new PlaceSuggestIndex.Place(existing.name(), type,
+                    Double.isNaN(existing.x()) ? x : existing.x(), Double.isNaN(existing.y()) ? y : existing.y(),
+                    existing.weight() + weight));
+        }
+    }
+}
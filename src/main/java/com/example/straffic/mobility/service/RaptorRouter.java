@@ -0,0 +1,301 @@
+package com.example.straffic.mobility.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * RAPTOR (Round-bAsed Public Transit Optimized Router) 경로 탐색
+ * k 번째 라운드에서 "k 번 탑승해서 각 정류장에 가장 빨리 도착하는 시각"을 구한다.
+ * 라운드마다 앞 라운드에서 도착 시각이 좋아진 정류장을 지나는 패턴만 한 번씩 훑고, 이어서 도보 환승을 적용한다.
+ * 결과는 탑승 횟수별로 도착이 더 빨라지는 경로들(환승 수 ↔ 도착 시각 파레토)이다.
+ * 모든 상태가 정류장·패턴 번호로 된 int 배열이라 서울 규모 피드에서도 한 코어로 수 ms 안에 끝난다.
+ */
+final class RaptorRouter {
+
+    static final int INF = Integer.MAX_VALUE;
+
+    private static final byte NONE = 0;
+    private static final byte ACCESS = 1;
+    private static final byte TRANSIT = 2;
+    private static final byte TRANSFER = 3;
+
+    /** 허용 수단 */
+    static final int MODE_BUS = 1;
+    static final int MODE_RAIL = 2;
+    static final int MODE_ALL = MODE_BUS | MODE_RAIL;
+
+    private RaptorRouter() {
+    }
+
+    /**
+     * @param accessStops    출발지에서 걸어갈 수 있는 정류장
+     * @param accessSeconds  각 정류장까지 걷는 시간(초)
+     * @param egressStops    목적지까지 걸어갈 수 있는 정류장
+     * @param egressSeconds  각 정류장에서 목적지까지 걷는 시간(초)
+     * @param departure      출발 시각 (자정부터 초)
+     * @param dayBit         요일 비트 (월=1 .. 일=64)
+     * @param transferSlack  같은 정류장에서 갈아탈 때 최소 여유(초)
+     */
+    record Query(int[] accessStops, int[] accessSeconds, int[] egressStops, int[] egressSeconds,
+                 int departure, int dayBit, int modes, int maxRounds, int transferSlack) {
+    }
+
+    /**
+     * 경로의 한 구간. 도보면 pattern = -1
+     */
+    record Leg(int pattern, int trip, int fromPos, int toPos, int fromStop, int toStop, int departure, int arrival) {
+        boolean walk() {
+            return pattern < 0;
+        }
+    }
+
+    /**
+     * @param legs 처음(출발지 → 첫 정류장 도보)부터 마지막(정류장 → 목적지 도보)까지
+     */
+    record Journey(int rides, int departure, int arrival, List<Leg> legs) {
+    }
+
+    static List<Journey> route(GtfsFeed feed, Query q) {
+        int n = feed.stopCount;
+        int rounds = Math.max(1, q.maxRounds());
+        int[][] arrival = new int[rounds + 1][];
+        byte[][] kind = new byte[rounds + 1][];
+        // 구간 정보: TRANSIT 이면 (패턴, 운행, 탄 위치, 내린 위치), TRANSFER 면 (-, -, 출발 정류장, 걷는 초), ACCESS 면 (-, -, -, 걷는 초)
+        int[][] labelPattern = new int[rounds + 1][];
+        int[][] labelTrip = new int[rounds + 1][];
+        int[][] labelFrom = new int[rounds + 1][];
+        int[][] labelTo = new int[rounds + 1][];
+
+        int[] best = new int[n];
+        Arrays.fill(best, INF);
+        boolean[] marked = new boolean[n];
+        int[] markedStops = new int[n];
+        int markedCount = 0;
+
+        allocateRound(0, n, arrival, kind, labelPattern, labelTrip, labelFrom, labelTo);
+        for (int i = 0; i < q.accessStops().length; i++) {
+            int s = q.accessStops()[i];
+            int t = q.departure() + q.accessSeconds()[i];
+            if (t < arrival[0][s]) {
+                arrival[0][s] = t;
+                best[s] = t;
+                kind[0][s] = ACCESS;
+                labelTo[0][s] = q.accessSeconds()[i];
+                if (!marked[s]) {
+                    marked[s] = true;
+                    markedStops[markedCount++] = s;
+                }
+            }
+        }
+
+        // 목적지 도착 시각 상한 (이보다 늦은 정류장 도착은 더 볼 필요가 없다). 걷기만 하는 경로는 다루지 않으므로 0 라운드는 빼고 시작
+        int targetBest = INF;
+
+        int[] patternFrom = new int[feed.patternCount];
+        Arrays.fill(patternFrom, -1);
+        int[] queued = new int[feed.patternCount];
+        int[] transitMarked = new int[n];
+        int lastRound = 0;
+
+        for (int k = 1; k <= rounds && markedCount > 0; k++) {
+            allocateRound(k, n, arrival, kind, labelPattern, labelTrip, labelFrom, labelTo);
+            int[] prev = arrival[k - 1];
+            int[] cur = arrival[k];
+
+            // 1. 좋아진 정류장을 지나는 패턴을, 그 정류장 중 가장 앞 위치부터 훑도록 모은다
+            int queuedCount = 0;
+            for (int m = 0; m < markedCount; m++) {
+                int s = markedStops[m];
+                marked[s] = false;
+                for (int slot = feed.stopPatternOffset[s]; slot < feed.stopPatternOffset[s + 1]; slot++) {
+                    int p = feed.stopPatterns[slot];
+                    if (!allowed(feed, p, q.modes())) continue;
+                    int pos = feed.stopPatternPos[slot];
+                    if (patternFrom[p] < 0) {
+                        queued[queuedCount++] = p;
+                        patternFrom[p] = pos;
+                    } else if (pos < patternFrom[p]) {
+                        patternFrom[p] = pos;
+                    }
+                }
+            }
+            markedCount = 0;
+
+            // 2. 패턴 훑기: 타고 있는 운행으로 도착 시각을 갱신하고, 더 이른 운행을 탈 수 있으면 갈아탄다
+            int transitCount = 0;
+            for (int qi = 0; qi < queuedCount; qi++) {
+                int p = queued[qi];
+                int len = feed.patternLength(p);
+                int trip = -1;
+                int boardPos = -1;
+                for (int pos = patternFrom[p]; pos < len; pos++) {
+                    int s = feed.stopAt(p, pos);
+                    if (trip >= 0) {
+                        int a = feed.arrival(p, trip, pos);
+                        if (a < best[s] && a < targetBest) {
+                            cur[s] = a;
+                            best[s] = a;
+                            kind[k][s] = TRANSIT;
+                            labelPattern[k][s] = p;
+                            labelTrip[k][s] = trip;
+                            labelFrom[k][s] = boardPos;
+                            labelTo[k][s] = pos;
+                            if (!marked[s]) {
+                                marked[s] = true;
+                                markedStops[markedCount++] = s;
+                                transitMarked[transitCount++] = s;
+                            }
+                        }
+                    }
+                    if (prev[s] == INF || pos == len - 1) continue;
+                    int ready = prev[s] + (kind[k - 1][s] == TRANSIT ? q.transferSlack() : 0);
+                    if (trip >= 0 && ready > feed.departure(p, trip, pos)) continue;
+                    int earlier = earliestTrip(feed, p, pos, ready, trip < 0 ? feed.patternTripCount[p] : trip + 1, q.dayBit());
+                    if (earlier >= 0 && earlier != trip) {
+                        trip = earlier;
+                        boardPos = pos;
+                    }
+                }
+                patternFrom[p] = -1;
+            }
+
+            // 3. 이번 라운드에 차로 도착한 정류장에서 도보 환승
+            for (int m = 0; m < transitCount; m++) {
+                int s = transitMarked[m];
+                if (cur[s] == INF) continue;
+                for (int slot = feed.transferOffset[s]; slot < feed.transferOffset[s + 1]; slot++) {
+                    int to = feed.transferTargets[slot];
+                    int t = cur[s] + feed.transferSeconds[slot];
+                    if (t < best[to] && t < targetBest) {
+                        cur[to] = t;
+                        best[to] = t;
+                        kind[k][to] = TRANSFER;
+                        labelFrom[k][to] = s;
+                        labelTo[k][to] = feed.transferSeconds[slot];
+                        if (!marked[to]) {
+                            marked[to] = true;
+                            markedStops[markedCount++] = to;
+                        }
+                    }
+                }
+            }
+
+            targetBest = Math.min(targetBest, targetArrival(cur, q));
+            lastRound = k;
+        }
+
+        // 탑승 횟수가 늘 때 도착이 더 빨라지는 라운드만 결과로 남긴다
+        List<Journey> journeys = new ArrayList<>();
+        int previousBest = INF;
+        for (int k = 1; k <= lastRound; k++) {
+            int bestStop = -1;
+            int bestArrival = INF;
+            for (int i = 0; i < q.egressStops().length; i++) {
+                int s = q.egressStops()[i];
+                if (arrival[k][s] == INF || kind[k][s] == NONE) continue;
+                int t = arrival[k][s] + q.egressSeconds()[i];
+                if (t < bestArrival) {
+                    bestArrival = t;
+                    bestStop = i;
+                }
+            }
+            if (bestStop < 0 || bestArrival >= previousBest) continue;
+            previousBest = bestArrival;
+            journeys.add(reconstruct(feed, q, k, q.egressStops()[bestStop], q.egressSeconds()[bestStop],
+                    arrival, kind, labelPattern, labelTrip, labelFrom, labelTo));
+        }
+        return journeys;
+    }
+
+    private static Journey reconstruct(GtfsFeed feed, Query q, int round, int egressStop, int egressSeconds,
+                                       int[][] arrival, byte[][] kind, int[][] labelPattern, int[][] labelTrip,
+                                       int[][] labelFrom, int[][] labelTo) {
+        LinkedList<Leg> legs = new LinkedList<>();
+        int end = arrival[round][egressStop];
+        legs.addFirst(new Leg(-1, -1, -1, -1, egressStop, -1, end, end + egressSeconds));
+
+        int s = egressStop;
+        int k = round;
+        int rides = 0;
+        while (true) {
+            byte type = kind[k][s];
+            if (type == TRANSIT) {
+                int p = labelPattern[k][s];
+                int trip = labelTrip[k][s];
+                int from = labelFrom[k][s];
+                int to = labelTo[k][s];
+                int boardStop = feed.stopAt(p, from);
+                legs.addFirst(new Leg(p, trip, from, to, boardStop, s,
+                        feed.departure(p, trip, from), feed.arrival(p, trip, to)));
+                rides++;
+                s = boardStop;
+                k--;
+            } else if (type == TRANSFER) {
+                int from = labelFrom[k][s];
+                legs.addFirst(new Leg(-1, -1, -1, -1, from, s, arrival[k][s] - labelTo[k][s], arrival[k][s]));
+                s = from;
+            } else if (type == ACCESS) {
+                // 첫 차 출발에 맞춰 나선다고 보고 출발 시각을 늦춘다
+                int walk = labelTo[k][s];
+                int leave = legs.isEmpty() || legs.getFirst().walk() ? arrival[k][s] - walk : legs.getFirst().departure() - walk;
+                legs.addFirst(new Leg(-1, -1, -1, -1, -1, s, leave, leave + walk));
+                break;
+            } else {
+                throw new IllegalStateException("RAPTOR 경로 복원 실패: round=" + k + ", stop=" + s);
+            }
+        }
+        return new Journey(rides, legs.getFirst().departure(), legs.getLast().arrival(), new ArrayList<>(legs));
+    }
+
+    /**
+     * [0, limit) 운행 중 pos 에서 ready 이후 출발하고 그 요일에 다니는 첫 운행. 없으면 -1
+     * 패턴 안 운행이 서로 앞지르지 않아 어느 위치에서나 출발 시각이 운행 순으로 정렬돼 있다고 보고 이진 탐색한다 (GtfsFeed 가 보장)
+     */
+    private static int earliestTrip(GtfsFeed feed, int p, int pos, int ready, int limit, int dayBit) {
+        int lo = 0;
+        int hi = limit;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (feed.departure(p, mid, pos) < ready) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int t = lo; t < limit; t++) {
+            if (feed.runsOn(p, t, dayBit) && feed.departure(p, t, pos) >= ready) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean allowed(GtfsFeed feed, int p, int modes) {
+        int mode = feed.patternRouteType[p] == GtfsFeed.ROUTE_TYPE_BUS ? MODE_BUS : MODE_RAIL;
+        return (modes & mode) != 0;
+    }
+
+    private static int targetArrival(int[] arrival, Query q) {
+        int best = INF;
+        for (int i = 0; i < q.egressStops().length; i++) {
+            int a = arrival[q.egressStops()[i]];
+            if (a != INF) {
+                best = Math.min(best, a + q.egressSeconds()[i]);
+            }
+        }
+        return best;
+    }
+
+    private static void allocateRound(int k, int n, int[][] arrival, byte[][] kind, int[][] labelPattern,
+                                      int[][] labelTrip, int[][] labelFrom, int[][] labelTo) {
+        arrival[k] = new int[n];
+        Arrays.fill(arrival[k], INF);
+        kind[k] = new byte[n];
+        labelPattern[k] = new int[n];
+        labelTrip[k] = new int[n];
+        labelFrom[k] = new int[n];
+        labelTo[k] = new int[n];
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.straffic.mobility.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 실시간 도착 정보 공용 캐시 (역·정류장별, stale-while-revalidate)
+ * <ul>
+ *   <li>fresh-seconds 안: 메모리 값을 그대로 돌려준다</li>
+ *   <li>max-stale-seconds 안: 이전 값을 바로 돌려주고, 백그라운드 갱신을 한 번만 건다 (모든 조회자가 그 결과를 공유)</li>
+ *   <li>그보다 오래됐거나 없으면: 외부 API 를 호출해서 기다린다 (같은 키 동시 호출은 UpstreamCallCoalescer 가 합친다)</li>
+ * </ul>
+ * idle-seconds 동안 아무도 조회하지 않은 역·정류장은 지워서, 보는 사람이 없는 곳은 갱신하지 않는다.
+ * max-entries 는 새 키를 넣을 때마다 지켜서, 마지막 조회가 오래된 것부터 지운다.
+ */
+@Component
+public class RealtimeArrivalCache {
+
+    private final long freshMillis;
+    private final long maxStaleMillis;
+    private final long idleMillis;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong freshHits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RealtimeArrivalCache(@Value("${route.realtime.fresh-seconds:15}") long freshSeconds,
+                                @Value("${route.realtime.max-stale-seconds:120}") long maxStaleSeconds,
+                                @Value("${route.realtime.idle-seconds:300}") long idleSeconds,
+                                @Value("${route.realtime.max-entries:5000}") int maxEntries) {
+        this.freshMillis = freshSeconds * 1000;
+        this.maxStaleMillis = Math.max(maxStaleSeconds, freshSeconds) * 1000;
+        this.idleMillis = idleSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param loader 외부 API 호출 (실패는 오류 신호로 보낸다)
+     */
+    public Mono<Map<String, Object>> get(String key, Supplier<Mono<Map<String, Object>>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = now;
+            long age = now - entry.fetchedAt;
+            if (age <= freshMillis) {
+                freshHits.incrementAndGet();
+                return Mono.just(entry.value);
+            }
+            if (age <= maxStaleMillis) {
+                staleHits.incrementAndGet();
+                refreshInBackground(key, entry, loader);
+                return Mono.just(entry.value);
+            }
+        }
+        misses.incrementAndGet();
+        return loader.get().doOnNext(value -> store(key, value));
+    }
+
+    /**
+     * 오래 조회되지 않은 항목 정리, 개수 상한을 넘으면 마지막 조회가 오래된 것부터 지운다
+     */
+    @Scheduled(fixedDelayString = "${route.realtime.sweep-ms:30000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> {
+            boolean idle = now - e.getValue().lastAccess > idleMillis;
+            if (idle) evictions.incrementAndGet();
+            return idle;
+        });
+        evictExcess(null);
+    }
+
+    public Map<String, Object> getStats() {
+        long total = freshHits.get() + staleHits.get() + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("freshHits", freshHits.get());
+        stats.put("staleHits", staleHits.get());
+        stats.put("misses", misses.get());
+        stats.put("refreshes", refreshes.get());
+        stats.put("refreshFailures", refreshFailures.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : Math.round((freshHits.get() + staleHits.get()) * 1000.0 / total) / 1000.0);
+        return stats;
+    }
+
+    private void refreshInBackground(String key, Entry entry, Supplier<Mono<Map<String, Object>>> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshes.incrementAndGet();
+        loader.get()
+                .doFinally(signal -> entry.refreshing.set(false))
+                .subscribe(value -> store(key, value), error -> {
+                    // 이전 값을 max-stale 까지 계속 쓴다
+                    refreshFailures.incrementAndGet();
+                    System.err.println("❌ 실시간 정보 갱신 실패 (" + key + "): " + error.getMessage());
+                });
+    }
+
+    private void store(String key, Map<String, Object> value) {
+        // 오류 응답은 저장하지 않고 이전 값을 유지
+        if (CompactRouteResponses.isError(value)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        boolean[] added = {false};
+        entries.compute(key, (k, current) -> {
+            if (current == null) {
+                added[0] = true;
+                return new Entry(value, now);
+            }
+            current.value = value;
+            current.fetchedAt = now;
+            return current;
+        });
+        // 아무 역 이름으로나 조회하면 (INFO-200 도 저장하므로) 키가 계속 늘어난다. sweep 을 기다리지 않고 바로 줄인다
+        if (added[0]) {
+            evictExcess(key);
+        }
+    }
+
+    /**
+     * 개수 상한을 넘은 만큼 마지막 조회가 오래된 것부터 지운다 (keep 은 방금 넣은 키라 남긴다)
+     */
+    private void evictExcess(String keep) {
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .filter(e -> !e.getKey().equals(keep))
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(k -> {
+                    if (entries.remove(k) != null) evictions.incrementAndGet();
+                });
+    }
+
+    private static class Entry {
+        volatile Map<String, Object> value;
+        volatile long fetchedAt;
+        volatile long lastAccess;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(Map<String, Object> value, long now) {
+            this.value = value;
+            this.fetchedAt = now;
+            this.lastAccess = now;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.controller.RouteApiController;
+import com.example.straffic.mobility.dto.RouteBenchmarkConfigDTO;
+import com.example.straffic.mobility.dto.RouteRequest;
+import com.example.straffic.parking.service.LatencyRecorder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 경로 API 벤치마크 (재생 모드 전용)
+ * 녹화에서 경로 검색 좌표·역 이름·버스 노선을 뽑아 요청 목록을 seed 로 만들고, concurrency 개 스레드가 RouteApiController 를 직접 호출한다.
+ * 스텁의 지연·오류 주입은 설정대로 바꾼 뒤 실행하고, 경로 캐시·호출 합치기·실시간 캐시·버스 노선 캐시 통계는 실행 전후 차이를 보고한다.
+ * 같은 녹화, 같은 seed 로 변경 전후를 돌려 비교하는 용도이다 (스텁 지연은 난수라 표본 값은 매번 조금씩 다르다).
+ */
+@Service
+public class RouteBenchmarkService {
+
+    private static final String ROUTE_SEARCH = "/searchPubTransPathT?";
+    private static final String SUBWAY_REALTIME = "/realtimeStationArrival/0/10/";
+    private static final String BUS_DETAIL = "/busLaneDetail?";
+    private static final String BUS_REALTIME = "/realtimeStation?";
+
+    private final UpstreamRecordReplay upstreamRecordReplay;
+    private final RouteApiController routeApiController;
+    private final RouteResultCache routeResultCache;
+    private final UpstreamCallCoalescer upstreamCallCoalescer;
+    private final RealtimeArrivalCache realtimeArrivalCache;
+    private final BusLaneDetailCache busLaneDetailCache;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RouteBenchmarkService(UpstreamRecordReplay upstreamRecordReplay,
+                                 RouteApiController routeApiController,
+                                 RouteResultCache routeResultCache,
+                                 UpstreamCallCoalescer upstreamCallCoalescer,
+                                 RealtimeArrivalCache realtimeArrivalCache,
+                                 BusLaneDetailCache busLaneDetailCache) {
+        this.upstreamRecordReplay = upstreamRecordReplay;
+        this.routeApiController = routeApiController;
+        this.routeResultCache = routeResultCache;
+        this.upstreamCallCoalescer = upstreamCallCoalescer;
+        this.realtimeArrivalCache = realtimeArrivalCache;
+        this.busLaneDetailCache = busLaneDetailCache;
+    }
+
+    /** 요청 하나 (종류, 대상, refresh 여부) */
+    private record Call(String op, RouteRequest trip, String target, boolean refresh) {
+    }
+
+    /** 녹화에서 뽑은 요청 대상 */
+    private record Targets(List<RouteRequest> trips, List<String> stations, List<String> busIds, List<String> busStations) {
+    }
+
+    /**
+     * 재생 스텁의 지연·오류 주입만 바꾼다
+     */
+    public Map<String, Object> applyFaults(RouteBenchmarkConfigDTO config) {
+        upstreamRecordReplay.setFaults(faultsOf(config));
+        return upstreamRecordReplay.getStats();
+    }
+
+    public Map<String, Object> run(RouteBenchmarkConfigDTO config) throws Exception {
+        if (!upstreamRecordReplay.isReplay()) {
+            throw new IllegalStateException("벤치마크는 재생 모드(route.upstream.mode=replay)에서만 실행합니다");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("이미 벤치마크가 실행 중입니다");
+        }
+        try {
+            return execute(config);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Map<String, Object> execute(RouteBenchmarkConfigDTO config) throws Exception {
+        Targets targets = targets(upstreamRecordReplay.recordedKeys(), config.getHotSet());
+        List<Call> calls = plan(config, targets, new Random(config.getSeed()));
+        if (calls.isEmpty()) {
+            throw new IllegalStateException("녹화에 벤치마크할 요청이 없습니다. record 모드로 먼저 경로 검색·실시간 조회를 녹화하세요");
+        }
+
+        upstreamRecordReplay.setFaults(faultsOf(config));
+        if (config.isClearRouteCache()) {
+            routeResultCache.clear();
+        }
+
+        Map<String, LatencyRecorder> latency = new ConcurrentHashMap<>();
+        Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+        Map<String, Object> routeCacheBefore = routeResultCache.getStats();
+        Map<String, Object> coalescerBefore = upstreamCallCoalescer.getStats();
+        Map<String, Object> realtimeBefore = realtimeArrivalCache.getStats();
+        Map<String, Object> busLaneBefore = busLaneDetailCache.getStats();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stubBefore = (Map<String, Object>) upstreamRecordReplay.getStats().get("stub");
+
+        int threads = Math.max(1, config.getConcurrency());
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long wallStart = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < calls.size(); i = next.getAndIncrement()) {
+                        Call call = calls.get(i);
+                        long t0 = System.nanoTime();
+                        String outcome = send(call, config.getRequestTimeoutMs());
+                        latency.computeIfAbsent(call.op(), k -> new LatencyRecorder()).record(System.nanoTime() - t0);
+                        outcomes.computeIfAbsent(call.op() + "." + outcome, k -> new AtomicLong()).incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", calls.size());
+        report.put("concurrency", threads);
+        report.put("targets", Map.of("trips", targets.trips().size(), "stations", targets.stations().size(),
+                "busIds", targets.busIds().size(), "busStations", targets.busStations().size()));
+        report.put("wallMillis", Duration.ofNanos(wallNanos).toMillis());
+        report.put("requestsPerSecond", wallNanos == 0 ? 0 : Math.round(calls.size() * 1e10 / wallNanos) / 10.0);
+        Map<String, Object> latencySummary = new LinkedHashMap<>();
+        for (String op : new TreeSet<>(latency.keySet())) {
+            latencySummary.put(op, latency.get(op).summary());
+        }
+        report.put("latency", latencySummary);
+        Map<String, Long> outcomeCounts = new TreeMap<>();
+        outcomes.forEach((k, v) -> outcomeCounts.put(k, v.get()));
+        report.put("outcomes", outcomeCounts);
+        report.put("routeCache", delta(routeCacheBefore, routeResultCache.getStats()));
+        report.put("coalescer", delta(coalescerBefore, upstreamCallCoalescer.getStats()));
+        report.put("realtimeCache", delta(realtimeBefore, realtimeArrivalCache.getStats()));
+        report.put("busLaneCache", delta(busLaneBefore, busLaneDetailCache.getStats()));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stubAfter = (Map<String, Object>) upstreamRecordReplay.getStats().get("stub");
+        report.put("stub", delta(stubBefore, stubAfter));
+
+        System.out.println("[INFO] 경로 벤치마크 완료: 요청 " + calls.size() + "건, " + report.get("wallMillis") + "ms, "
+                + report.get("requestsPerSecond") + " req/s");
+        return report;
+    }
+
+    /**
+     * @return ok / error / partial(통합 검색 일부 실패) / timeout(기다리기 포기) / notFound
+     */
+    private String send(Call call, long timeoutMs) {
+        Mono<ResponseEntity<Map<String, Object>>> mono = switch (call.op()) {
+            case "combined" -> routeApiController.searchCombined(call.trip(), "time", call.refresh());
+            case "search" -> routeApiController.searchRoute(call.trip(), call.refresh());
+            case "subway" -> routeApiController.searchSubway(call.trip(), call.refresh());
+            case "bus" -> routeApiController.searchBus(call.trip(), call.refresh());
+            case "subwayRealtime" -> routeApiController.getSubwayRealtime(call.target());
+            case "busRealtime" -> routeApiController.getBusStationRealtime(call.target());
+            default -> routeApiController.getBusLaneDetail(call.target());
+        };
+        try {
+            ResponseEntity<Map<String, Object>> response = mono.block(Duration.ofMillis(timeoutMs));
+            Map<String, Object> body = response == null ? null : response.getBody();
+            if (body == null) return "notFound";
+            if (body.containsKey("error")) return "error";
+            if (Boolean.TRUE.equals(body.get("partial"))) return "partial";
+            return "ok";
+        } catch (IllegalStateException e) {
+            // block 시간 초과
+            return "timeout";
+        } catch (Exception e) {
+            return "error";
+        }
+    }
+
+    private static List<Call> plan(RouteBenchmarkConfigDTO config, Targets targets, Random random) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        config.getMix().forEach((op, weight) -> {
+            boolean available = switch (op) {
+                case "combined", "search", "subway", "bus" -> !targets.trips().isEmpty();
+                case "subwayRealtime" -> !targets.stations().isEmpty();
+                case "busRealtime" -> !targets.busStations().isEmpty();
+                case "busDetail" -> !targets.busIds().isEmpty();
+                default -> false;
+            };
+            if (available && weight != null && weight > 0) weights.put(op, weight);
+        });
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        List<Call> calls = new ArrayList<>(Math.max(0, config.getRequests()));
+        if (total <= 0) return calls;
+        for (int i = 0; i < config.getRequests(); i++) {
+            double pick = random.nextDouble() * total;
+            String op = null;
+            for (Map.Entry<String, Double> e : weights.entrySet()) {
+                op = e.getKey();
+                pick -= e.getValue();
+                if (pick < 0) break;
+            }
+            boolean refresh = random.nextDouble() < config.getRefreshRatio();
+            calls.add(switch (op) {
+                case "subwayRealtime" -> new Call(op, null, pickOne(targets.stations(), random), false);
+                case "busRealtime" -> new Call(op, null, pickOne(targets.busStations(), random), false);
+                case "busDetail" -> new Call(op, null, pickOne(targets.busIds(), random), false);
+                default -> new Call(op, pickOne(targets.trips(), random), null, refresh);
+            });
+        }
+        return calls;
+    }
+
+    /**
+     * 녹화 키에서 요청 대상을 뽑는다 (키 순으로 정렬해서 같은 녹화면 같은 목록)
+     */
+    private static Targets targets(List<String> keys, int hotSet) {
+        List<String> sorted = new ArrayList<>(keys);
+        Collections.sort(sorted);
+        LinkedHashSet<String> tripKeys = new LinkedHashSet<>();
+        LinkedHashSet<String> stations = new LinkedHashSet<>();
+        LinkedHashSet<String> busIds = new LinkedHashSet<>();
+        LinkedHashSet<String> busStations = new LinkedHashSet<>();
+        for (String key : sorted) {
+            int at;
+            if ((at = key.indexOf(ROUTE_SEARCH)) >= 0) {
+                Map<String, String> q = query(key.substring(at + ROUTE_SEARCH.length()));
+                if (q.containsKey("SX") && q.containsKey("SY") && q.containsKey("EX") && q.containsKey("EY")) {
+                    tripKeys.add(q.get("SX") + "," + q.get("SY") + "," + q.get("EX") + "," + q.get("EY"));
+                }
+            } else if ((at = key.indexOf(SUBWAY_REALTIME)) >= 0) {
+                stations.add(URLDecoder.decode(key.substring(at + SUBWAY_REALTIME.length()), StandardCharsets.UTF_8));
+            } else if ((at = key.indexOf(BUS_DETAIL)) >= 0) {
+                String busID = query(key.substring(at + BUS_DETAIL.length())).get("busID");
+                if (busID != null) busIds.add(busID);
+            } else if ((at = key.indexOf(BUS_REALTIME)) >= 0) {
+                String stationID = query(key.substring(at + BUS_REALTIME.length())).get("stationID");
+                if (stationID != null) busStations.add(stationID);
+            }
+        }
+        List<RouteRequest> trips = new ArrayList<>();
+        for (String trip : tripKeys) {
+            String[] xy = trip.split(",");
+            RouteRequest request = new RouteRequest();
+            request.setStartX(xy[0]);
+            request.setStartY(xy[1]);
+            request.setEndX(xy[2]);
+            request.setEndY(xy[3]);
+            trips.add(request);
+        }
+        return new Targets(limit(trips, hotSet), limit(new ArrayList<>(stations), hotSet),
+                limit(new ArrayList<>(busIds), hotSet), limit(new ArrayList<>(busStations), hotSet));
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static <T> List<T> limit(List<T> list, int hotSet) {
+        return hotSet > 0 && list.size() > hotSet ? list.subList(0, hotSet) : list;
+    }
+
+    private static <T> T pickOne(List<T> list, Random random) {
+        return list.get(random.nextInt(list.size()));
+    }
+
+    private static UpstreamStubServer.Faults faultsOf(RouteBenchmarkConfigDTO config) {
+        return new UpstreamStubServer.Faults(config.getLatency(), config.getLatencyMedianMs(), config.getLatencySigma(),
+                config.getLatencyMinMs(), config.getLatencyMaxMs(), config.getErrorRate(), config.getStallRate(),
+                config.getStallMs());
+    }
+
+    /**
+     * 정수 값은 실행 전후 차이, 문자열·설정 값은 실행 후 값. 비율(실수)은 누적값이라 뺀다
+     */
+    private static Map<String, Object> delta(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (after == null) return result;
+        after.forEach((key, value) -> {
+            Object previous = before == null ? null : before.get(key);
+            if (value instanceof Long || value instanceof Integer) {
+                long base = previous instanceof Number n ? n.longValue() : 0;
+                result.put(key, ((Number) value).longValue() - base);
+            } else if (!(value instanceof Double)) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.straffic.mobility.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 통합 검색 결과 합치기
+ * 검색 종류별(전체·지하철·버스) ODsay 응답의 result.path 를 모아 같은 경로(탑승 구간의 노선·승하차 정류장이 같은 것)를 하나로 합치고,
+ * 정렬 기준(time / fare / transfers)으로 순위를 매긴다. 나머지 기준은 동점일 때 순서대로 쓴다.
+ * 응답 구조(result.path[].info, subPath)는 그대로 두므로 route.html 이 같은 코드로 그린다.
+ */
+final class RoutePathMerger {
+
+    private RoutePathMerger() {
+    }
+
+    /**
+     * 검색 종류 하나의 결과
+     *
+     * @param status ok / error / timeout
+     */
+    record Branch(String type, Map<String, Object> body, String status, long elapsedMs) {
+    }
+
+    static Map<String, Object> merge(List<Branch> branches, String sort, long elapsedMs) {
+        Map<String, Map<String, Object>> unique = new LinkedHashMap<>();
+        Map<String, Set<String>> sources = new HashMap<>();
+        Map<String, Object> branchStatus = new LinkedHashMap<>();
+        boolean partial = false;
+
+        for (Branch branch : branches) {
+            List<Map<String, Object>> paths = paths(branch.body());
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("status", branch.status());
+            status.put("count", paths.size());
+            status.put("elapsedMs", branch.elapsedMs());
+            branchStatus.put(branch.type(), status);
+            if (!"ok".equals(branch.status())) {
+                partial = true;
+            }
+            for (Map<String, Object> path : paths) {
+                String signature = signature(path);
+                // 캐시에 있는 응답을 바꾸지 않도록 복사해서 쓴다
+                unique.putIfAbsent(signature, new HashMap<>(path));
+                sources.computeIfAbsent(signature, k -> new LinkedHashSet<>()).add(branch.type());
+            }
+        }
+
+        List<Map<String, Object>> merged = new ArrayList<>(unique.size());
+        unique.forEach((signature, path) -> {
+            path.put("sources", new ArrayList<>(sources.get(signature)));
+            merged.add(path);
+        });
+        merged.sort(comparator(sort));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (!merged.isEmpty()) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("searchType", "combined");
+            result.put("path", merged);
+            response.put("result", result);
+        }
+        response.put("sort", sort);
+        response.put("branches", branchStatus);
+        response.put("partial", partial);
+        response.put("elapsedMs", elapsedMs);
+        return response;
+    }
+
+    static Comparator<Map<String, Object>> comparator(String sort) {
+        Comparator<Map<String, Object>> time = Comparator.comparingInt(p -> info(p, "totalTime"));
+        Comparator<Map<String, Object>> fare = Comparator.comparingInt(p -> info(p, "payment"));
+        Comparator<Map<String, Object>> transfers = Comparator.comparingInt(RoutePathMerger::transfers);
+        if ("fare".equalsIgnoreCase(sort)) {
+            return fare.thenComparing(time).thenComparing(transfers);
+        }
+        if ("transfers".equalsIgnoreCase(sort)) {
+            return transfers.thenComparing(time).thenComparing(fare);
+        }
+        return time.thenComparing(transfers).thenComparing(fare);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> paths(Map<String, Object> body) {
+        if (body == null || !(body.get("result") instanceof Map<?, ?> result)
+                || !(result.get("path") instanceof List<?> paths)) {
+            return List.of();
+        }
+        List<Map<String, Object>> list = new ArrayList<>(paths.size());
+        for (Object path : paths) {
+            if (path instanceof Map<?, ?>) {
+                list.add((Map<String, Object>) path);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 탑승 구간(지하철 1, 버스 2)의 노선과 승하차 정류장을 이은 문자열. 도보 구간은 무시한다
+     */
+    private static String signature(Map<String, Object> path) {
+        StringBuilder sb = new StringBuilder();
+        if (path.get("subPath") instanceof List<?> subPaths) {
+            for (Object o : subPaths) {
+                if (!(o instanceof Map<?, ?> sub)) continue;
+                Object trafficType = sub.get("trafficType");
+                if (!(trafficType instanceof Number type) || (type.intValue() != 1 && type.intValue() != 2)) continue;
+                String lane = "";
+                if (sub.get("lane") instanceof List<?> lanes && !lanes.isEmpty() && lanes.get(0) instanceof Map<?, ?> first) {
+                    Object name = type.intValue() == 1 ? first.get("name") : first.get("busNo");
+                    lane = String.valueOf(name);
+                }
+                sb.append(type.intValue()).append(':').append(lane).append(':')
+                        .append(sub.get("startName")).append('>').append(sub.get("endName")).append('|');
+            }
+        }
+        return sb.length() == 0 ? "WALK:" + info(path, "totalTime") : sb.toString();
+    }
+
+    private static int transfers(Map<String, Object> path) {
+        return info(path, "busTransitCount") + info(path, "subwayTransitCount");
+    }
+
+    private static int info(Map<String, Object> path, String field) {
+        if (path.get("info") instanceof Map<?, ?> info && info.get(field) instanceof Number n) {
+            return n.intValue();
+        }
+        return Integer.MAX_VALUE / 4;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.dto.RouteRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ODsay 경로 검색 결과 캐시
+ * 키는 검색 종류 + 출발/도착 좌표를 grid-degrees 격자에 맞춘 값이라, 같은 정류장 앞에서 몇 m 떨어져 검색해도 같은 결과를 쓴다.
+ * (0.001도 ≈ 위도 111m, 서울 경도 89m)
+ * TTL 과 크기(LRU)로 만료시키고, 오류 응답은 저장하지 않는다.
+ * TTL 이 지난 항목도 stale-seconds 동안은 지우지 않고 두었다가, ODsay 가 실패하거나 차단(UpstreamGuard)됐을 때 getStale 로 내준다.
+ */
+@Component
+public class RouteResultCache {
+
+    private final boolean enabled;
+    private final double gridDegrees;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long staleMillis;
+
+    private final LinkedHashMap<String, CachedRoute> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypasses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+
+    public RouteResultCache(@Value("${route.cache.enabled:true}") boolean enabled,
+                            @Value("${route.cache.grid-degrees:0.001}") double gridDegrees,
+                            @Value("${route.cache.max-size:2000}") int maxSize,
+                            @Value("${route.cache.ttl-seconds:600}") long ttlSeconds,
+                            @Value("${route.cache.stale-seconds:3600}") long staleSeconds) {
+        this.enabled = enabled && maxSize > 0;
+        this.gridDegrees = gridDegrees;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.staleMillis = staleSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRoute> eldest) {
+                if (size() > RouteResultCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return 캐시 키. 캐시를 껐거나 좌표가 숫자가 아니면 null (캐시하지 않음)
+     */
+    public String keyOf(String searchType, RouteRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            return searchType + ":" + snap(request.getStartX()) + "," + snap(request.getStartY())
+                    + ":" + snap(request.getEndX()) + "," + snap(request.getEndY());
+        } catch (NumberFormatException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    public Map<String, Object> get(String key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (entries) {
+            CachedRoute cached = entries.get(key);
+            if (cached != null) {
+                long age = System.currentTimeMillis() - cached.createdAt;
+                if (age <= ttlMillis) {
+                    hits.incrementAndGet();
+                    Map<String, Object> copy = new HashMap<>(cached.result);
+                    copy.put("cached", true);
+                    return copy;
+                }
+                if (age > ttlMillis + staleMillis) {
+                    entries.remove(key);
+                }
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * TTL 이 지났어도 stale-seconds 안이면 돌려준다 (외부 API 장애 때만 쓴다)
+     *
+     * @return stale(TTL 지남 여부), ageSeconds 를 붙인 사본. 없으면 null
+     */
+    public Map<String, Object> getStale(String key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (entries) {
+            CachedRoute cached = entries.get(key);
+            if (cached == null) {
+                return null;
+            }
+            long age = System.currentTimeMillis() - cached.createdAt;
+            if (age > ttlMillis + staleMillis) {
+                entries.remove(key);
+                return null;
+            }
+            staleServed.incrementAndGet();
+            Map<String, Object> copy = new HashMap<>(cached.result);
+            copy.put("cached", true);
+            copy.put("stale", age > ttlMillis);
+            copy.put("ageSeconds", age / 1000);
+            return copy;
+        }
+    }
+
+    public void put(String key, Map<String, Object> result) {
+        // result 가 있는 응답만 저장한다
+        if (key == null || CompactRouteResponses.isError(result) || !result.containsKey("result")) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new CachedRoute(result, System.currentTimeMillis()));
+        }
+    }
+
+    public void bypassed() {
+        bypasses.incrementAndGet();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long total = hits.get() + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("enabled", enabled);
+        stats.put("maxSize", maxSize);
+        stats.put("gridDegrees", gridDegrees);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("bypasses", bypasses.get());
+        stats.put("expirations", expirations.get());
+        stats.put("evictions", evictions.get());
+        stats.put("staleServed", staleServed.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : Math.round(hits.get() * 1000.0 / total) / 1000.0);
+        return stats;
+    }
+
+    private long snap(String coordinate) {
+        return Math.round(Double.parseDouble(coordinate.trim()) / gridDegrees);
+    }
+
+    private static class CachedRoute {
+        final Map<String, Object> result;
+        final long createdAt;
+
+        CachedRoute(Map<String, Object> result, long createdAt) {
+            this.result = result;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package com.example.straffic.mobility.service;
 
+import com.example.straffic.mobility.dto.OdsayPathResponse;
 import com.example.straffic.mobility.dto.RouteRequest;
+import com.example.straffic.mobility.dto.SeoulSubwayArrivalResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class RouteService {
@@ -30,30 +33,54 @@ public class RouteService {
     @Value("${api.seoul.url}")
     private String seoulApiUrl;
 
-    private final WebClient webClient;
+    @Value("${route.combined.branch-timeout-ms:3000}")
+    private long combinedBranchTimeoutMs;
 
-    public RouteService() {
-        this.webClient = WebClient.builder()
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+    private final WebClient odsayWebClient;
+    private final WebClient seoulWebClient;
+    private final UpstreamGuard upstreamGuard;
+    private final RouteResultCache routeResultCache;
+    private final UpstreamCallCoalescer upstreamCallCoalescer;
+    private final RealtimeArrivalCache realtimeArrivalCache;
+    private final OfflineRouteService offlineRouteService;
+    private final PlaceSuggestService placeSuggestService;
+    private final BusLaneDetailCache busLaneDetailCache;
+
+    public RouteService(RouteResultCache routeResultCache, UpstreamCallCoalescer upstreamCallCoalescer,
+                        RealtimeArrivalCache realtimeArrivalCache, OfflineRouteService offlineRouteService,
+                        PlaceSuggestService placeSuggestService, BusLaneDetailCache busLaneDetailCache,
+                        UpstreamRecordReplay upstreamRecordReplay, UpstreamGuard upstreamGuard) {
+        // 외부 API 마다 연결 풀·시간 초과를 따로 둬서 한쪽이 느려져도 다른 쪽 호출은 막히지 않게 한다
+        this.odsayWebClient = upstreamGuard.webClient(UpstreamGuard.ODSAY, upstreamRecordReplay.filter());
+        this.seoulWebClient = upstreamGuard.webClient(UpstreamGuard.SEOUL, upstreamRecordReplay.filter());
+        this.upstreamGuard = upstreamGuard;
+        this.routeResultCache = routeResultCache;
+        this.upstreamCallCoalescer = upstreamCallCoalescer;
+        this.realtimeArrivalCache = realtimeArrivalCache;
+        this.offlineRouteService = offlineRouteService;
+        this.placeSuggestService = placeSuggestService;
+        this.busLaneDetailCache = busLaneDetailCache;
     }
 
     /**
-     * 서울시 실시간 지하철 도착 정보 조회
+     * 서울시 실시간 지하철 도착 정보 조회 (도착 안내에 쓰는 필드만 남긴 응답)
      */
     public Mono<Map<String, Object>> getSeoulSubwayRealtime(String stationName) {
-        System.out.println("🚇 실시간 지하철 도착 정보: " + stationName);
-        
         // 서울시 API는 역명 끝에 '역'을 제외해야 하는 경우가 많음
         String cleanName = stationName.endsWith("역") ? stationName.substring(0, stationName.length() - 1) : stationName;
         
         String url = String.format("%s/%s/json/realtimeStationArrival/0/10/%s",
                 seoulApiUrl, seoulApiKey, cleanName);
 
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+        // 같은 역을 보는 사용자들은 캐시 한 항목을 공유한다 (갱신도 한 번)
+        return realtimeArrivalCache.get("subway:" + cleanName, () -> upstreamCallCoalescer.call(url, () -> {
+                    System.out.println("🚇 실시간 지하철 도착 정보: " + stationName);
+                    return upstreamGuard.call(UpstreamGuard.SEOUL, () -> seoulWebClient.get()
+                            .uri(url)
+                            .retrieve()
+                            .bodyToMono(SeoulSubwayArrivalResponse.class)
+                            .map(CompactRouteResponses::subwayArrivals));
+                }))
                 .onErrorResume(error -> {
                     Map<String, Object> errorResponse = new HashMap<>();
                     errorResponse.put("error", error.getMessage());
@@ -65,15 +92,16 @@ public Mono<Map<String, Object>> getSeoulSubwayRealtime(String stationName) {
      * 버스 정류장 실시간 도착 정보 조회 (ODsay)
      */
     public Mono<Map<String, Object>> getBusStationRealtime(String stationID) {
-        System.out.println("🚌 버스 정류장 도착 정보: " + stationID);
-        
         String url = String.format("%s/realtimeStation?stationID=%s&apiKey=%s",
                 odsayApiUrl, stationID, odsayApiKey);
         
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+        return realtimeArrivalCache.get("bus:" + stationID, () -> upstreamCallCoalescer.call(url, () -> {
+                    System.out.println("🚌 버스 정류장 도착 정보: " + stationID);
+                    return upstreamGuard.call(UpstreamGuard.ODSAY, () -> odsayWebClient.get()
+                            .uri(url)
+                            .retrieve()
+                            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {}));
+                }))
                 .onErrorResume(error -> {
                     Map<String, Object> errorResponse = new HashMap<>();
                     errorResponse.put("error", error.getMessage());
@@ -83,8 +111,24 @@ public Mono<Map<String, Object>> getBusStationRealtime(String stationID) {
 
     /**
      * 통합 대중교통 경로 검색 (지하철, 버스, KTX 모두 포함)
+     * 경로 검색 응답은 OdsayPathResponse 로 필요한 필드만 읽어서 축약 응답(CompactRouteResponses)으로 돌려준다.
      */
     public Mono<Map<String, Object>> searchRoute(RouteRequest request) {
+        return searchRoute(request, false);
+    }
+
+    /**
+     * @param bypassCache true 면 캐시를 읽지 않고 ODsay 를 호출한다 (결과는 캐시에 다시 저장)
+     */
+    public Mono<Map<String, Object>> searchRoute(RouteRequest request, boolean bypassCache) {
+        if (offlineRouteService.isPrimary()) {
+            return Mono.fromSupplier(() -> offlineRouteService.search(request, "ALL", null));
+        }
+        String cacheKey = routeResultCache.keyOf("ALL", request);
+        Map<String, Object> cached = readCache(cacheKey, bypassCache);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
         System.out.println("🔍 경로 검색 시작: " + request);
 
         // ODsay API 경로 검색 엔드포인트
@@ -99,10 +143,13 @@ public Mono<Map<String, Object>> searchRoute(RouteRequest request) {
 
         System.out.println("📡 API URL: " + url);
 
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+        // 캐시 저장은 공유 호출 안에서 한다 (통합 검색이 시간 초과로 기다리기를 그만둬도 결과는 남는다)
+        return upstreamCallCoalescer.call(url, () -> upstreamGuard.call(UpstreamGuard.ODSAY, () -> odsayWebClient.get()
+                                .uri(url)
+                                .retrieve()
+                                .bodyToMono(OdsayPathResponse.class)
+                                .map(CompactRouteResponses::route))
+                        .doOnSuccess(response -> routeResultCache.put(cacheKey, response)))
                 .doOnSuccess(response -> {
                     System.out.println("✅ API 응답 성공");
                     // System.out.println("Response: " + response);
@@ -115,13 +162,26 @@ public Mono<Map<String, Object>> searchRoute(RouteRequest request) {
                     errorResponse.put("error", error.getMessage());
                     errorResponse.put("status", "failed");
                     return Mono.just(errorResponse);
-                });
+                })
+                .map(response -> offlineFallback(response, cacheKey, request, "ALL"));
     }
 
     /**
      * 버스 전용 검색
      */
     public Mono<Map<String, Object>> searchBus(RouteRequest request) {
+        return searchBus(request, false);
+    }
+
+    public Mono<Map<String, Object>> searchBus(RouteRequest request, boolean bypassCache) {
+        if (offlineRouteService.isPrimary()) {
+            return Mono.fromSupplier(() -> offlineRouteService.search(request, "BUS", null));
+        }
+        String cacheKey = routeResultCache.keyOf("BUS", request);
+        Map<String, Object> cached = readCache(cacheKey, bypassCache);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
         System.out.println("🚌 버스 경로 검색: " + request);
 
         String url = String.format("%s/searchPubTransPathT?SX=%s&SY=%s&EX=%s&EY=%s&SearchType=2&apiKey=%s",
@@ -133,21 +193,36 @@ public Mono<Map<String, Object>> searchBus(RouteRequest request) {
                 odsayApiKey
         );
 
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+        return upstreamCallCoalescer.call(url, () -> upstreamGuard.call(UpstreamGuard.ODSAY, () -> odsayWebClient.get()
+                                .uri(url)
+                                .retrieve()
+                                .bodyToMono(OdsayPathResponse.class)
+                                .map(CompactRouteResponses::route))
+                        .doOnSuccess(response -> routeResultCache.put(cacheKey, response)))
                 .onErrorResume(error -> {
                     Map<String, Object> errorResponse = new HashMap<>();
                     errorResponse.put("error", error.getMessage());
                     return Mono.just(errorResponse);
-                });
+                })
+                .map(response -> offlineFallback(response, cacheKey, request, "BUS"));
     }
 
     /**
      * 지하철 전용 검색
      */
     public Mono<Map<String, Object>> searchSubway(RouteRequest request) {
+        return searchSubway(request, false);
+    }
+
+    public Mono<Map<String, Object>> searchSubway(RouteRequest request, boolean bypassCache) {
+        if (offlineRouteService.isPrimary()) {
+            return Mono.fromSupplier(() -> offlineRouteService.search(request, "SUBWAY", null));
+        }
+        String cacheKey = routeResultCache.keyOf("SUBWAY", request);
+        Map<String, Object> cached = readCache(cacheKey, bypassCache);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
         System.out.println("🚇 지하철 경로 검색: " + request);
 
         String url = String.format("%s/searchPubTransPathT?SX=%s&SY=%s&EX=%s&EY=%s&SearchType=1&apiKey=%s",
@@ -159,47 +234,104 @@ public Mono<Map<String, Object>> searchSubway(RouteRequest request) {
                 odsayApiKey
         );
 
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+        return upstreamCallCoalescer.call(url, () -> upstreamGuard.call(UpstreamGuard.ODSAY, () -> odsayWebClient.get()
+                                .uri(url)
+                                .retrieve()
+                                .bodyToMono(OdsayPathResponse.class)
+                                .map(CompactRouteResponses::route))
+                        .doOnSuccess(response -> routeResultCache.put(cacheKey, response)))
                 .onErrorResume(error -> {
                     Map<String, Object> errorResponse = new HashMap<>();
                     errorResponse.put("error", error.getMessage());
                     return Mono.just(errorResponse);
-                });
+                })
+                .map(response -> offlineFallback(response, cacheKey, request, "SUBWAY"));
     }
 
     /**
-     * 장소 검색 (Kakao API 활용 가능)
+     * 통합 검색: 전체·지하철·버스 검색을 동시에 보내고 결과를 합친다.
+     * 종류마다 branch-timeout-ms 까지만 기다리고, 늦거나 실패한 종류는 빼고 나머지로 응답한다 (partial=true).
+     *
+     * @param sort time(기본) / fare / transfers
+     */
+    public Mono<Map<String, Object>> searchCombined(RouteRequest request, String sort, boolean bypassCache) {
+        long started = System.currentTimeMillis();
+        return Mono.zip(
+                        branch("ALL", searchRoute(request, bypassCache), started),
+                        branch("SUBWAY", searchSubway(request, bypassCache), started),
+                        branch("BUS", searchBus(request, bypassCache), started))
+                .map(t -> RoutePathMerger.merge(List.of(t.getT1(), t.getT2(), t.getT3()),
+                        sort == null || sort.isBlank() ? "time" : sort.trim(), System.currentTimeMillis() - started));
+    }
+
+    private Mono<RoutePathMerger.Branch> branch(String type, Mono<Map<String, Object>> search, long started) {
+        return search
+                .timeout(Duration.ofMillis(combinedBranchTimeoutMs))
+                .map(body -> new RoutePathMerger.Branch(type, body, CompactRouteResponses.isError(body) ? "error" : "ok",
+                        System.currentTimeMillis() - started))
+                .onErrorResume(TimeoutException.class, e -> Mono.just(
+                        new RoutePathMerger.Branch(type, null, "timeout", System.currentTimeMillis() - started)))
+                .onErrorResume(e -> Mono.just(
+                        new RoutePathMerger.Branch(type, null, "error", System.currentTimeMillis() - started)));
+    }
+
+    /**
+     * 장소 검색 (역·정류장 자동완성 색인, 외부 API 호출 없음)
      */
     public Mono<Map<String, Object>> searchPlace(String keyword) {
-        System.out.println("📍 장소 검색: " + keyword);
-        
-        // 여기서는 간단한 응답 반환
-        Map<String, Object> response = new HashMap<>();
-        response.put("keyword", keyword);
-        response.put("status", "success");
-        
-        return Mono.just(response);
+        return searchPlace(keyword, 10);
+    }
+
+    public Mono<Map<String, Object>> searchPlace(String keyword, int limit) {
+        return Mono.just(placeSuggestService.suggest(keyword, limit));
     }
 
     /**
      * 버스 노선 상세 정보 조회
      */
     public Mono<Map<String, Object>> getBusLaneDetail(String busID) {
-        System.out.println("🚌 버스 상세 정보 조회: " + busID);
         String url = String.format("%s/busLaneDetail?busID=%s&apiKey=%s",
                 odsayApiUrl, busID, odsayApiKey);
-        
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+
+        // 노선 정보는 거의 바뀌지 않아 메모리·디스크 캐시에서 답하고, 오래된 항목만 백그라운드에서 다시 받는다
+        return busLaneDetailCache.get(busID, () -> upstreamCallCoalescer.call(url, () -> {
+                    System.out.println("🚌 버스 상세 정보 조회: " + busID);
+                    return upstreamGuard.call(UpstreamGuard.ODSAY, () -> odsayWebClient.get()
+                            .uri(url)
+                            .retrieve()
+                            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {}));
+                }))
                 .onErrorResume(error -> {
                     Map<String, Object> errorResponse = new HashMap<>();
                     errorResponse.put("error", error.getMessage());
                     return Mono.just(errorResponse);
                 });
     }
+
+    /**
+     * ODsay 가 실패(시간 초과·차단 포함)하면 만료된 캐시 결과로, 그것도 없고 오프라인 검색이 fallback 모드면 오프라인 결과로 바꾼다
+     */
+    private Map<String, Object> offlineFallback(Map<String, Object> response, String cacheKey, RouteRequest request, String searchType) {
+        if (!CompactRouteResponses.isError(response)) {
+            return response;
+        }
+        Map<String, Object> stale = routeResultCache.getStale(cacheKey);
+        if (stale != null) {
+            System.out.println("🗂️ ODsay 실패, 캐시된 경로로 대체: " + response.get("error"));
+            return stale;
+        }
+        if (!offlineRouteService.isFallback()) {
+            return response;
+        }
+        System.out.println("🗺️ ODsay 실패, 오프라인 경로로 대체: " + response.get("error"));
+        return offlineRouteService.fallback(request, searchType, response.get("error"));
+    }
+
+    private Map<String, Object> readCache(String cacheKey, boolean bypassCache) {
+        if (bypassCache) {
+            routeResultCache.bypassed();
+            return null;
+        }
+        return routeResultCache.get(cacheKey);
+    }
 }
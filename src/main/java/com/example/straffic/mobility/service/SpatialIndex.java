@@ -0,0 +1,247 @@
+package com.example.straffic.mobility.service;
+
+import java.util.function.IntPredicate;
+
+/**
+ * 좌표 점(정류장·역) 공간 색인 (정적 KD 트리)
+ * 점 번호·위도·경도를 배열 하나씩에 두고, 구간 가운데 점을 기준으로 경도/위도를 번갈아 나눠 제자리 정렬한다.
+ * 트리 노드 객체가 없어 점 10만 개도 배열 세 개이고, 바꿀 때는 새로 만들어 통째로 갈아 끼운다.
+ * <p>
+ * 거리는 OfflineRouteService.distanceMeters 와 같은 등장방형 근사이며, 경도 축척은 질의 지점 위도로 잡는다.
+ */
+final class SpatialIndex {
+
+    /** 이 개수 이하 구간은 더 나누지 않고 훑는다 */
+    private static final int LEAF_SIZE = 16;
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * 6_371_000;
+
+    /** 찾은 점 하나 (번호, 거리 m) */
+    interface Hit {
+        void accept(int id, double meters);
+    }
+
+    private final int[] ids;
+    private final double[] lat;
+    private final double[] lon;
+
+    private SpatialIndex(int[] ids, double[] lat, double[] lon) {
+        this.ids = ids;
+        this.lat = lat;
+        this.lon = lon;
+    }
+
+    /**
+     * @return 좌표가 NaN 인 점은 빼고 0..n-1 번호로 색인
+     */
+    static SpatialIndex build(double[] lat, double[] lon) {
+        int n = 0;
+        for (int i = 0; i < lat.length; i++) {
+            if (!Double.isNaN(lat[i]) && !Double.isNaN(lon[i])) n++;
+        }
+        int[] ids = new int[n];
+        double[] ys = new double[n];
+        double[] xs = new double[n];
+        int k = 0;
+        for (int i = 0; i < lat.length; i++) {
+            if (!Double.isNaN(lat[i]) && !Double.isNaN(lon[i])) {
+                ids[k] = i;
+                ys[k] = lat[i];
+                xs[k] = lon[i];
+                k++;
+            }
+        }
+        SpatialIndex index = new SpatialIndex(ids, ys, xs);
+        index.sort(0, n - 1, 0);
+        return index;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * 반경 안의 점을 모두 넘긴다 (순서 없음)
+     *
+     * @return 찾은 개수
+     */
+    int within(double qLat, double qLon, double radiusMeters, Hit hit) {
+        if (ids.length == 0) return 0;
+        double kx = METERS_PER_DEGREE * Math.cos(Math.toRadians(qLat));
+        double r2 = radiusMeters * radiusMeters;
+        int found = 0;
+        // 한 번에 한 가지씩 내려가므로 깊이(log2(n/16))의 몇 배면 충분하다
+        int[] stack = new int[3 * 128];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = ids.length - 1;
+        stack[top++] = 0;
+        while (top > 0) {
+            int axis = stack[--top];
+            int right = stack[--top];
+            int left = stack[--top];
+            if (right - left <= LEAF_SIZE) {
+                for (int i = left; i <= right; i++) {
+                    double d2 = dist2(i, qLat, qLon, kx);
+                    if (d2 <= r2) {
+                        hit.accept(ids[i], Math.sqrt(d2));
+                        found++;
+                    }
+                }
+                continue;
+            }
+            int m = (left + right) >>> 1;
+            double d2 = dist2(m, qLat, qLon, kx);
+            if (d2 <= r2) {
+                hit.accept(ids[m], Math.sqrt(d2));
+                found++;
+            }
+            double diff = axis == 0 ? (qLon - lon[m]) * kx : (qLat - lat[m]) * METERS_PER_DEGREE;
+            if (diff <= radiusMeters) {
+                stack[top++] = left;
+                stack[top++] = m - 1;
+                stack[top++] = 1 - axis;
+            }
+            if (diff >= -radiusMeters) {
+                stack[top++] = m + 1;
+                stack[top++] = right;
+                stack[top++] = 1 - axis;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 가까운 순으로 최대 k 개
+     *
+     * @param maxMeters 이보다 먼 점은 뺀다 (제한 없으면 Double.POSITIVE_INFINITY)
+     * @param filter    점 번호로 거른다 (null 이면 모두)
+     * @param outIds    길이 k 이상
+     * @param outMeters 길이 k 이상
+     * @return 찾은 개수 (outIds/outMeters 앞부분이 가까운 순)
+     */
+    int nearest(double qLat, double qLon, int k, double maxMeters, IntPredicate filter, int[] outIds, double[] outMeters) {
+        if (ids.length == 0 || k <= 0) return 0;
+        Nearest search = new Nearest(qLat, qLon, k, maxMeters, filter, outIds, outMeters);
+        search.visit(0, ids.length - 1, 0);
+        for (int i = 0; i < search.count; i++) {
+            outMeters[i] = Math.sqrt(outMeters[i]);
+        }
+        return search.count;
+    }
+
+    /** k 개까지 거리 제곱 오름차순으로 담아 두고, 가장 먼 것보다 먼 가지는 건너뛴다 */
+    private final class Nearest {
+        final double qLat;
+        final double qLon;
+        final double kx;
+        final int k;
+        final double limit2;
+        final IntPredicate filter;
+        final int[] outIds;
+        final double[] outDist2;
+        int count;
+
+        Nearest(double qLat, double qLon, int k, double maxMeters, IntPredicate filter, int[] outIds, double[] outDist2) {
+            this.qLat = qLat;
+            this.qLon = qLon;
+            this.kx = METERS_PER_DEGREE * Math.cos(Math.toRadians(qLat));
+            this.k = k;
+            this.limit2 = maxMeters * maxMeters;
+            this.filter = filter;
+            this.outIds = outIds;
+            this.outDist2 = outDist2;
+        }
+
+        double worst() {
+            return count < k ? limit2 : outDist2[k - 1];
+        }
+
+        void offer(int i) {
+            double d2 = dist2(i, qLat, qLon, kx);
+            if (d2 > worst() || (filter != null && !filter.test(ids[i]))) return;
+            int pos = Math.min(count, k - 1);
+            while (pos > 0 && outDist2[pos - 1] > d2) {
+                outDist2[pos] = outDist2[pos - 1];
+                outIds[pos] = outIds[pos - 1];
+                pos--;
+            }
+            outDist2[pos] = d2;
+            outIds[pos] = ids[i];
+            if (count < k) count++;
+        }
+
+        void visit(int left, int right, int axis) {
+            if (left > right) return;
+            if (right - left <= LEAF_SIZE) {
+                for (int i = left; i <= right; i++) offer(i);
+                return;
+            }
+            int m = (left + right) >>> 1;
+            offer(m);
+            double diff = axis == 0 ? (qLon - lon[m]) * kx : (qLat - lat[m]) * METERS_PER_DEGREE;
+            // 질의 점이 있는 쪽을 먼저 보고, 가르는 선까지 거리가 지금 k 번째보다 가까울 때만 반대쪽을 본다
+            if (diff <= 0) {
+                visit(left, m - 1, 1 - axis);
+                if (diff * diff <= worst()) visit(m + 1, right, 1 - axis);
+            } else {
+                visit(m + 1, right, 1 - axis);
+                if (diff * diff <= worst()) visit(left, m - 1, 1 - axis);
+            }
+        }
+    }
+
+    private double dist2(int i, double qLat, double qLon, double kx) {
+        double dx = (lon[i] - qLon) * kx;
+        double dy = (lat[i] - qLat) * METERS_PER_DEGREE;
+        return dx * dx + dy * dy;
+    }
+
+    // ------------------------------------------------------------------ 만들기
+
+    /** 가운데 자리에 그 축의 중앙값이 오도록 고르고 양쪽을 다른 축으로 나눈다 */
+    private void sort(int left, int right, int axis) {
+        if (right - left <= LEAF_SIZE) return;
+        int m = (left + right) >>> 1;
+        select(m, left, right, axis);
+        sort(left, m - 1, 1 - axis);
+        sort(m + 1, right, 1 - axis);
+    }
+
+    private void select(int k, int left, int right, int axis) {
+        double[] key = axis == 0 ? lon : lat;
+        while (right > left) {
+            int mid = (left + right) >>> 1;
+            // 세 값의 중앙값을 기준으로 (정렬된 입력에서도 깊어지지 않게)
+            if (key[mid] < key[left]) swap(mid, left);
+            if (key[right] < key[left]) swap(right, left);
+            if (key[right] < key[mid]) swap(right, mid);
+            double pivot = key[mid];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (key[i] < pivot) i++;
+                while (key[j] > pivot) j--;
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double y = lat[i];
+        lat[i] = lat[j];
+        lat[j] = y;
+        double x = lon[i];
+        lon[i] = lon[j];
+        lon[j] = x;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.straffic.mobility.service;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 같은 외부 API 호출 합치기 (single-flight)
+ * 같은 키(요청 URL)로 진행 중인 호출이 있으면 새로 보내지 않고 그 결과를 함께 기다린다.
+ * 실패도 기다리던 모두에게 그대로 전달되고(각자 onErrorResume 으로 처리), 호출이 끝나면 키를 지워서 다음 요청은 새로 보낸다.
+ * 외부 호출 수가 사용자 수가 아니라 동시에 조회되는 역·정류장 수만큼만 늘어난다.
+ */
+@Component
+public class UpstreamCallCoalescer {
+
+    private final ConcurrentHashMap<String, Mono<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong upstreamCalls = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+
+    /**
+     * @param key      호출을 구분하는 키 (보통 요청 URL)
+     * @param upstream 실제 호출. 진행 중인 같은 키가 없을 때만 구독된다
+     */
+    public Mono<Map<String, Object>> call(String key, Supplier<Mono<Map<String, Object>>> upstream) {
+        return Mono.defer(() -> {
+            boolean[] created = {false};
+            Mono<Map<String, Object>> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                AtomicReference<Mono<Map<String, Object>>> self = new AtomicReference<>();
+                // share(): 첫 구독 때 한 번만 호출하고, 그 사이 구독자는 같은 결과를 받는다 (취소해도 다른 구독자의 호출은 계속)
+                Mono<Map<String, Object>> mono = upstream.get()
+                        .doFinally(signal -> inFlight.remove(k, self.get()))
+                        .share();
+                self.set(mono);
+                return mono;
+            });
+            (created[0] ? upstreamCalls : joined).incrementAndGet();
+            return shared;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        long total = upstreamCalls.get() + joined.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("upstreamCalls", upstreamCalls.get());
+        stats.put("joined", joined.get());
+        stats.put("joinRatio", total == 0 ? 0.0 : Math.round(joined.get() * 1000.0 / total) / 1000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.straffic.mobility.service;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 외부 API 별(odsay, seoul, bike) 호출 정책
+ * <ul>
+ *   <li>deadline-ms: 호출 하나가 이보다 길면 시간 초과로 끊는다 (느린 외부 API 가 사용자 요청을 붙잡지 않게)</li>
+ *   <li>연결 풀: 외부 API 마다 따로, max-connections 개까지. 빈 연결을 pending-acquire-timeout-ms 넘게 기다리면 실패</li>
+ *   <li>hedge: 최근 성공 응답의 p95(최소 hedge-min-ms)가 지나도 답이 없으면 같은 요청을 한 번 더 보내 먼저 온 쪽을 쓴다.
+ *       전체 호출의 hedge-max-ratio 를 넘게 보내지 않는다. 첫 요청의 오류는 기다리지 않고 그대로 돌려주고, hedge 쪽 오류는 무시한다</li>
+ *   <li>circuit breaker: 최근 breaker-window 번 중 실패율이 breaker-failure-rate 이상이면 breaker-open-ms 동안
+ *       호출하지 않고 바로 실패한다. 그 뒤 한 번 시험 호출해서 성공하면 다시 닫는다.
+ *       4xx(429 제외)는 요청 문제라 성공도 실패도 아닌 것으로 보고 세지 않는다</li>
+ * </ul>
+ * 바로 실패한 호출은 RouteService 가 만료된 캐시나 오프라인 경로로 대신 답한다.
+ * 설정은 route.upstream.{이름}.{항목} 이다.
+ */
+@Component
+public class UpstreamGuard {
+
+    public static final String ODSAY = "odsay";
+    public static final String SEOUL = "seoul";
+    public static final String BIKE = "bike";
+
+    private final Environment environment;
+    private final ConcurrentHashMap<String, Policy> policies = new ConcurrentHashMap<>();
+
+    public UpstreamGuard(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * 이 외부 API 전용 연결 풀·연결 시간 초과를 쓰는 WebClient
+     */
+    WebClient webClient(String upstream, ExchangeFilterFunction filter) {
+        Policy policy = policy(upstream);
+        ConnectionProvider pool = ConnectionProvider.builder("upstream-" + upstream)
+                .maxConnections(policy.maxConnections)
+                .pendingAcquireMaxCount(policy.pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(policy.pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, policy.connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(policy.deadlineMs));
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .filter(filter)
+                .build();
+    }
+
+    /**
+     * 정책을 적용해서 호출한다
+     *
+     * @param attempt 실제 호출 (hedge 하면 두 번 구독될 수 있으니 조회처럼 반복해도 되는 요청만)
+     */
+    public <T> Mono<T> call(String upstream, Supplier<Mono<T>> attempt) {
+        Policy policy = policy(upstream);
+        return Mono.defer(() -> {
+            if (!policy.allowCall()) {
+                policy.rejected.incrementAndGet();
+                return Mono.error(new IllegalStateException(upstream + " 응답 지연·오류가 많아 잠시 호출을 멈췄습니다 (circuit open)"));
+            }
+            policy.calls.incrementAndGet();
+            long started = System.nanoTime();
+            Mono<T> primary = attempt.get();
+            Mono<T> guarded = primary;
+            long hedgeAfter = policy.hedgeDelayMillis();
+            if (hedgeAfter > 0) {
+                // hedge 를 보내지 않았거나 hedge 가 실패하면 끝나지 않는 쪽으로 두어, 경주는 첫 요청 결과(오류 포함) 아니면 hedge 성공으로만 끝난다
+                Mono<T> hedge = Mono.delay(Duration.ofMillis(hedgeAfter))
+                        .filter(tick -> policy.takeHedge())
+                        .flatMap(tick -> attempt.get())
+                        .onErrorResume(error -> Mono.never())
+                        .switchIfEmpty(Mono.never());
+                guarded = Mono.firstWithSignal(primary, hedge);
+            }
+            return guarded
+                    .timeout(Duration.ofMillis(policy.deadlineMs))
+                    .doOnSuccess(value -> policy.record(true, System.nanoTime() - started))
+                    .doOnError(error -> {
+                        if (isTimeout(error)) {
+                            policy.timeouts.incrementAndGet();
+                        }
+                        // 4xx(429 제외)는 요청 문제라 외부 API 상태로 치지 않는다
+                        if (error instanceof WebClientResponseException e
+                                && e.getStatusCode().is4xxClientError() && e.getStatusCode().value() != 429) {
+                            policy.neutral();
+                        } else {
+                            policy.record(false, System.nanoTime() - started);
+                        }
+                    })
+                    .doOnCancel(policy::cancelled);
+        });
+    }
+
+    /**
+     * 우리 쪽 deadline 이든 연결의 응답 시간 초과(netty)든 원인 어딘가에 시간 초과가 있으면
+     */
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof io.netty.handler.timeout.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isOpen(String upstream) {
+        return policy(upstream).state() == Policy.OPEN;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (String upstream : new String[]{ODSAY, SEOUL, BIKE}) {
+            stats.put(upstream, policy(upstream).getStats());
+        }
+        return stats;
+    }
+
+    private Policy policy(String upstream) {
+        return policies.computeIfAbsent(upstream, name -> new Policy(name, environment));
+    }
+
+    /** 외부 API 하나의 설정과 상태 */
+    private static final class Policy {
+
+        static final int CLOSED = 0;
+        static final int OPEN = 1;
+        static final int HALF_OPEN = 2;
+        private static final int LATENCY_SAMPLES = 256;
+
+        final String name;
+        final long deadlineMs;
+        final int connectTimeoutMs;
+        final int maxConnections;
+        final int pendingAcquireMax;
+        final long pendingAcquireTimeoutMs;
+        final boolean hedgeEnabled;
+        final long hedgeMinMs;
+        final double hedgeMaxRatio;
+        final int window;
+        final int minCalls;
+        final double failureRate;
+        final long openMs;
+
+        // 최근 성공 응답 시간 (원형 버퍼) 과 그걸로 계산한 p95
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+        private int latencyCount;
+        private int latencyNext;
+        private volatile long p95Millis;
+
+        // 최근 window 번 결과 (원형 버퍼)
+        private final boolean[] outcomes;
+        private int outcomeCount;
+        private int outcomeNext;
+        private int failures;
+        private volatile int state = CLOSED;
+        private volatile long openedAt;
+        private final AtomicBoolean probing = new AtomicBoolean();
+
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong succeeded = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong clientErrors = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong hedges = new AtomicLong();
+        final AtomicLong opens = new AtomicLong();
+
+        Policy(String name, Environment env) {
+            this.name = name;
+            String prefix = "route.upstream." + name + ".";
+            deadlineMs = env.getProperty(prefix + "deadline-ms", Long.class, 4000L);
+            connectTimeoutMs = env.getProperty(prefix + "connect-timeout-ms", Integer.class, 1000);
+            maxConnections = env.getProperty(prefix + "max-connections", Integer.class, 50);
+            pendingAcquireMax = env.getProperty(prefix + "pending-acquire-max", Integer.class, 200);
+            pendingAcquireTimeoutMs = env.getProperty(prefix + "pending-acquire-timeout-ms", Long.class, 1000L);
+            hedgeEnabled = env.getProperty(prefix + "hedge-enabled", Boolean.class, false);
+            hedgeMinMs = env.getProperty(prefix + "hedge-min-ms", Long.class, 200L);
+            hedgeMaxRatio = env.getProperty(prefix + "hedge-max-ratio", Double.class, 0.1);
+            window = Math.max(1, env.getProperty(prefix + "breaker-window", Integer.class, 20));
+            minCalls = env.getProperty(prefix + "breaker-min-calls", Integer.class, 10);
+            failureRate = env.getProperty(prefix + "breaker-failure-rate", Double.class, 0.5);
+            openMs = env.getProperty(prefix + "breaker-open-ms", Long.class, 15_000L);
+            outcomes = new boolean[window];
+        }
+
+        /**
+         * 열려 있으면 open-ms 가 지난 뒤 시험 호출 하나만 통과시킨다
+         */
+        boolean allowCall() {
+            if (state == CLOSED) return true;
+            if (state == OPEN && System.currentTimeMillis() - openedAt < openMs) return false;
+            synchronized (this) {
+                if (state == OPEN && System.currentTimeMillis() - openedAt >= openMs) {
+                    state = HALF_OPEN;
+                }
+            }
+            return probing.compareAndSet(false, true);
+        }
+
+        int state() {
+            return state;
+        }
+
+        /**
+         * @return hedge 를 보낼 때까지 기다릴 시간, 0 이면 보내지 않는다
+         */
+        long hedgeDelayMillis() {
+            if (!hedgeEnabled || state != CLOSED) return 0;
+            return Math.max(hedgeMinMs, p95Millis);
+        }
+
+        boolean takeHedge() {
+            if (hedges.get() + 1 > Math.max(1, calls.get() * hedgeMaxRatio)) return false;
+            hedges.incrementAndGet();
+            return true;
+        }
+
+        /**
+         * 시험 호출이 결과 없이 취소되면 다음 호출이 다시 시험하게 둔다
+         */
+        void cancelled() {
+            if (state == HALF_OPEN) {
+                probing.set(false);
+            }
+        }
+
+        /**
+         * 4xx: 성공·실패 어느 쪽으로도 세지 않는다. 시험 호출이었으면 다음 호출이 다시 시험하게 둔다
+         */
+        void neutral() {
+            clientErrors.incrementAndGet();
+            if (state == HALF_OPEN) {
+                probing.set(false);
+            }
+        }
+
+        synchronized void record(boolean success, long nanos) {
+            (success ? succeeded : failed).incrementAndGet();
+            if (success) {
+                latencies[latencyNext] = nanos / 1_000_000;
+                latencyNext = (latencyNext + 1) % LATENCY_SAMPLES;
+                latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+                if (latencyNext % 16 == 0) {
+                    long[] sorted = Arrays.copyOf(latencies, latencyCount);
+                    Arrays.sort(sorted);
+                    p95Millis = sorted[(int) Math.ceil(0.95 * sorted.length) - 1];
+                }
+            }
+
+            if (state == HALF_OPEN) {
+                probing.set(false);
+                if (success) {
+                    close();
+                } else {
+                    open();
+                }
+                return;
+            }
+            if (outcomeCount == window && !outcomes[outcomeNext]) failures--;
+            outcomes[outcomeNext] = success;
+            if (!success) failures++;
+            outcomeNext = (outcomeNext + 1) % window;
+            outcomeCount = Math.min(outcomeCount + 1, window);
+            if (state == CLOSED && outcomeCount >= minCalls && failures >= failureRate * outcomeCount) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = OPEN;
+            openedAt = System.currentTimeMillis();
+            opens.incrementAndGet();
+            System.out.println("[WARN] " + name + " 호출 차단 (circuit open): 최근 " + outcomeCount + "번 중 실패 " + failures);
+        }
+
+        private void close() {
+            state = CLOSED;
+            outcomeCount = 0;
+            outcomeNext = 0;
+            failures = 0;
+            System.out.println("[INFO] " + name + " 호출 차단 해제 (circuit closed)");
+        }
+
+        Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("state", state == CLOSED ? "closed" : state == OPEN ? "open" : "half-open");
+            stats.put("deadlineMs", deadlineMs);
+            stats.put("maxConnections", maxConnections);
+            stats.put("p95Ms", p95Millis);
+            stats.put("hedgeEnabled", hedgeEnabled);
+            stats.put("calls", calls.get());
+            stats.put("succeeded", succeeded.get());
+            stats.put("failed", failed.get());
+            stats.put("timeouts", timeouts.get());
+            stats.put("clientErrors", clientErrors.get());
+            stats.put("rejected", rejected.get());
+            stats.put("hedges", hedges.get());
+            stats.put("opens", opens.get());
+            return stats;
+        }
+    }
+}
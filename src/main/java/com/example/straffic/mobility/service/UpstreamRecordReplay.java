@@ -0,0 +1,169 @@
+package com.example.straffic.mobility.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 외부 API(ODsay, 서울시) 녹화·재생
+ * <ul>
+ *   <li>mode=live: 그대로 호출한다 (기본)</li>
+ *   <li>mode=record: 그대로 호출하고 요청·응답을 recordings-dir 에 파일로 남긴다</li>
+ *   <li>mode=replay: 외부로 나가지 않고 내장 스텁 서버(UpstreamStubServer)가 녹화 파일로 답한다. 지연·오류 주입 가능</li>
+ * </ul>
+ * RouteService 의 WebClient 에 filter() 를 걸어 쓰므로 캐시·호출 합치기·시간 초과는 실제 호출과 똑같이 동작한다.
+ * 키가 없는 격리된 장비에서 같은 녹화로 반복 측정(RouteBenchmarkService)하는 용도.
+ */
+@Component
+public class UpstreamRecordReplay {
+
+    private final String mode;
+    private final Path recordingsDir;
+    private final int stubPort;
+    private final int stubThreads;
+    private final List<String> secrets;
+    private final ObjectMapper objectMapper;
+
+    private volatile UpstreamStubServer stub;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong recordFailures = new AtomicLong();
+
+    public UpstreamRecordReplay(@Value("${route.upstream.mode:live}") String mode,
+                                @Value("${route.upstream.recordings-dir:data/upstream-recordings}") String recordingsDir,
+                                @Value("${route.upstream.stub-port:0}") int stubPort,
+                                @Value("${route.upstream.stub-threads:64}") int stubThreads,
+                                @Value("${api.odsay.key:}") String odsayApiKey,
+                                @Value("${api.seoul.key:}") String seoulApiKey,
+                                ObjectMapper objectMapper) {
+        this.mode = mode == null ? "live" : mode.trim().toLowerCase();
+        this.recordingsDir = Paths.get(recordingsDir);
+        this.stubPort = stubPort;
+        this.stubThreads = stubThreads;
+        this.secrets = List.of(odsayApiKey, seoulApiKey);
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!"replay".equals(mode)) {
+            if ("record".equals(mode)) {
+                System.out.println("[INFO] 외부 API 녹화 중: " + recordingsDir.toAbsolutePath());
+            }
+            return;
+        }
+        try {
+            stub = UpstreamStubServer.start(stubPort, stubThreads, UpstreamRecordings.load(recordingsDir, objectMapper));
+            System.out.println("[INFO] 외부 API 재생 모드: " + stub.baseUrl() + " (녹화 " + stub.recordings().size() + "건)");
+        } catch (Exception e) {
+            throw new IllegalStateException("재생 스텁 서버를 시작하지 못했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stub != null) {
+            stub.stop();
+        }
+    }
+
+    /**
+     * WebClient 에 거는 필터 (live 면 아무것도 하지 않는다)
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            if ("replay".equals(mode)) {
+                String key = UpstreamRecordings.keyOf(request.url(), secrets);
+                return next.exchange(ClientRequest.from(request).url(URI.create(stub.baseUrl() + "/" + key)).build());
+            }
+            if (!"record".equals(mode)) {
+                return next.exchange(request);
+            }
+            return next.exchange(request).flatMap(response -> response.bodyToMono(String.class)
+                    .defaultIfEmpty("")
+                    .map(body -> {
+                        record(request, response.statusCode().value(),
+                                response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_TYPE), body);
+                        return response.mutate().body(body).build();
+                    }));
+        };
+    }
+
+    public boolean isReplay() {
+        return stub != null;
+    }
+
+    /**
+     * 재생 스텁의 지연·오류 주입 설정을 바꾼다 (다음 요청부터)
+     */
+    void setFaults(UpstreamStubServer.Faults faults) {
+        requireReplay().setFaults(faults);
+    }
+
+    /**
+     * 녹화 폴더를 다시 읽는다
+     */
+    public Map<String, Object> reloadRecordings() {
+        try {
+            requireReplay().setRecordings(UpstreamRecordings.load(recordingsDir, objectMapper));
+        } catch (Exception e) {
+            throw new IllegalStateException("녹화 파일을 읽지 못했습니다: " + e.getMessage(), e);
+        }
+        return getStats();
+    }
+
+    /**
+     * 녹화된 요청 키 목록 (재생 모드일 때만)
+     */
+    List<String> recordedKeys() {
+        UpstreamStubServer current = stub;
+        return current == null ? List.of() : new ArrayList<>(current.recordings().keySet());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode);
+        stats.put("recordingsDir", recordingsDir.toAbsolutePath().toString());
+        stats.put("recorded", recorded.get());
+        stats.put("recordFailures", recordFailures.get());
+        UpstreamStubServer current = stub;
+        if (current != null) {
+            stats.put("stub", current.getStats());
+        }
+        return stats;
+    }
+
+    private UpstreamStubServer requireReplay() {
+        UpstreamStubServer current = stub;
+        if (current == null) {
+            throw new IllegalStateException("재생 모드(route.upstream.mode=replay)가 아닙니다");
+        }
+        return current;
+    }
+
+    private void record(ClientRequest request, int status, String contentType, String body) {
+        String key = UpstreamRecordings.keyOf(request.url(), secrets);
+        try {
+            UpstreamRecordings.save(recordingsDir, new UpstreamRecordings.Recording(key, request.method().name(), status,
+                    contentType, body, System.currentTimeMillis()), objectMapper);
+            recorded.incrementAndGet();
+        } catch (Exception e) {
+            recordFailures.incrementAndGet();
+            System.out.println("[WARN] 외부 API 녹화 실패 (" + key + "): " + e.getMessage());
+        }
+    }
+}
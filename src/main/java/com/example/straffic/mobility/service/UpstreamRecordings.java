@@ -0,0 +1,86 @@
+package com.example.straffic.mobility.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 외부 API 녹화 파일 (요청 하나 = JSON 파일 하나)
+ * 키는 "호스트/경로?쿼리" 에서 API 키를 _KEY_ 로 바꾼 문자열이라, 녹화 파일과 재생 서버 어디에도 키가 남지 않는다.
+ * 파일 이름은 키의 SHA-1 이라 같은 요청을 다시 녹화하면 덮어쓴다.
+ */
+final class UpstreamRecordings {
+
+    static final String KEY_PLACEHOLDER = "_KEY_";
+
+    /** 녹화한 요청·응답 한 쌍 */
+    record Recording(String key, String method, int status, String contentType, String body, long recordedAt) {
+    }
+
+    private UpstreamRecordings() {
+    }
+
+    /**
+     * @param secrets URL 에 들어가는 API 키들 (그대로, URL 인코딩한 것 모두 가린다)
+     */
+    static String keyOf(URI uri, List<String> secrets) {
+        String key = uri.getRawAuthority() + uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        for (String secret : secrets) {
+            if (secret == null || secret.isBlank()) continue;
+            key = key.replace(secret, KEY_PLACEHOLDER)
+                    .replace(URLEncoder.encode(secret, StandardCharsets.UTF_8), KEY_PLACEHOLDER);
+        }
+        return key;
+    }
+
+    static void save(Path dir, Recording recording, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(fileName(recording.key()));
+        Path tmp = dir.resolve(file.getFileName() + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), recording);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return 키 → 녹화. 폴더가 없으면 빈 맵, 읽지 못한 파일은 건너뛴다
+     */
+    static Map<String, Recording> load(Path dir, ObjectMapper objectMapper) throws IOException {
+        Map<String, Recording> recordings = new HashMap<>();
+        if (!Files.isDirectory(dir)) {
+            return recordings;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".json"))::iterator) {
+                try {
+                    Recording recording = objectMapper.readValue(file.toFile(), Recording.class);
+                    recordings.put(recording.key(), recording);
+                } catch (IOException e) {
+                    System.out.println("[WARN] 녹화 파일 읽기 실패: " + file.getFileName() + " (" + e.getMessage() + ")");
+                }
+            }
+        }
+        return recordings;
+    }
+
+    private static String fileName(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash) + ".json";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.straffic.mobility.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 녹화한 외부 API 응답을 돌려주는 내장 HTTP 서버 (JDK HttpServer, 127.0.0.1 전용)
+ * 요청 경로는 "/{호스트}/{원래 경로}?{쿼리}" 이고, 그 키로 녹화를 찾는다. 없으면 404.
+ * 응답마다 faults 설정대로 지연을 넣고, 일부는 503 오류나 stall(오래 멈춤)로 바꿔 시간 초과·실패 처리를 잴 수 있게 한다.
+ * 지연은 요청 스레드에서 sleep 하므로 threads 가 동시에 지연 중일 수 있는 요청 수의 상한이다.
+ */
+final class UpstreamStubServer {
+
+    /**
+     * 지연·오류 주입 설정
+     *
+     * @param latency   fixed(medianMs) / uniform(minMs~maxMs) / lognormal(중앙값 medianMs, 로그 표준편차 sigma, 상한 maxMs)
+     * @param errorRate 503 으로 답할 비율
+     * @param stallRate stallMs 동안 멈췄다가 답할 비율 (호출 쪽 시간 초과 확인용)
+     */
+    record Faults(String latency, double medianMs, double sigma, double minMs, double maxMs,
+                  double errorRate, double stallRate, long stallMs) {
+
+        static final Faults NONE = new Faults("fixed", 0, 0, 0, 0, 0, 0, 0);
+
+        long sampleDelayMillis() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double ms = switch (latency == null ? "fixed" : latency.toLowerCase()) {
+                case "uniform" -> minMs + random.nextDouble() * Math.max(0, maxMs - minMs);
+                case "lognormal" -> Math.min(medianMs * Math.exp(sigma * random.nextGaussian()), maxMs > 0 ? maxMs : Double.MAX_VALUE);
+                default -> medianMs;
+            };
+            return Math.max(0, Math.round(ms));
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile Map<String, UpstreamRecordings.Recording> recordings;
+    private volatile Faults faults = Faults.NONE;
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong delayMillis = new AtomicLong();
+
+    private UpstreamStubServer(HttpServer server, ExecutorService executor, Map<String, UpstreamRecordings.Recording> recordings) {
+        this.server = server;
+        this.executor = executor;
+        this.recordings = recordings;
+    }
+
+    /**
+     * @param port 0 이면 빈 포트
+     */
+    static UpstreamStubServer start(int port, int threads, Map<String, UpstreamRecordings.Recording> recordings) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "upstream-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        UpstreamStubServer stub = new UpstreamStubServer(server, executor, recordings);
+        server.createContext("/", stub::handle);
+        server.setExecutor(executor);
+        server.start();
+        return stub;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    void setRecordings(Map<String, UpstreamRecordings.Recording> recordings) {
+        this.recordings = recordings;
+    }
+
+    Map<String, UpstreamRecordings.Recording> recordings() {
+        return recordings;
+    }
+
+    void setFaults(Faults faults) {
+        this.faults = faults == null ? Faults.NONE : faults;
+    }
+
+    Faults faults() {
+        return faults;
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    Map<String, Object> getStats() {
+        long count = served.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("baseUrl", baseUrl());
+        stats.put("recordings", recordings.size());
+        stats.put("faults", faults);
+        stats.put("served", count);
+        stats.put("unmatched", unmatched.get());
+        stats.put("injectedErrors", injectedErrors.get());
+        stats.put("stalls", stalls.get());
+        stats.put("avgDelayMs", count == 0 ? 0.0 : Math.round(delayMillis.get() * 10.0 / count) / 10.0);
+        return stats;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getRawPath();
+            String query = exchange.getRequestURI().getRawQuery();
+            String key = path.substring(1) + (query == null ? "" : "?" + query);
+            served.incrementAndGet();
+
+            Faults current = faults;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = current.sampleDelayMillis();
+            boolean stall = current.stallRate() > 0 && random.nextDouble() < current.stallRate();
+            if (stall) {
+                stalls.incrementAndGet();
+                delay = Math.max(delay, current.stallMs());
+            }
+            delayMillis.addAndGet(delay);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+
+            if (current.errorRate() > 0 && random.nextDouble() < current.errorRate()) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 503, "application/json", "{\"error\":{\"code\":\"503\",\"msg\":\"injected error\"}}");
+                return;
+            }
+            UpstreamRecordings.Recording recording = recordings.get(key);
+            if (recording == null) {
+                unmatched.incrementAndGet();
+                send(exchange, 404, "application/json", "{\"error\":{\"code\":\"404\",\"msg\":\"no recording\"}}");
+                return;
+            }
+            send(exchange, recording.status(), recording.contentType(), recording.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType == null ? "application/json" : contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -1,16 +1,37 @@
 package com.example.straffic.parking.controller;
 
+import com.example.straffic.parking.dto.GateEventDTO;
+import com.example.straffic.parking.dto.GateEventResultDTO;
+import com.example.straffic.parking.dto.ParkingStatusDTO;
 import com.example.straffic.parking.entity.ParkingRecordEntity;
 import com.example.straffic.parking.entity.ParkingSpotEntity;
-import com.example.straffic.parking.repository.ParkingRecordRepository;
 import com.example.straffic.parking.repository.ParkingSpotRepository;
+import com.example.straffic.parking.service.OcrGatewayService;
+import com.example.straffic.parking.service.OcrOverloadedException;
+import com.example.straffic.parking.service.ParkingGateService;
+import com.example.straffic.parking.service.ParkingPlateListService;
+import com.example.straffic.parking.service.ParkingReservationService;
+import com.example.straffic.parking.service.ParkingStatusService;
+import com.example.straffic.parking.service.PlateMatchIndex;
+import com.example.straffic.parking.service.SpotLockTimeoutException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.time.Duration;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -20,12 +41,22 @@
 @RequiredArgsConstructor
 public class ParkingApiController {
 
+    @Value("${parking.ingest.batch-size:500}")
+    private int ingestBatchSize;
+
     private final ParkingSpotRepository parkingSpotRepository;
-    private final ParkingRecordRepository parkingRecordRepository;
+    private final ParkingGateService parkingGateService;
+    private final ParkingStatusService parkingStatusService;
+    private final ParkingReservationService parkingReservationService;
+    private final ParkingPlateListService parkingPlateListService;
+    private final OcrGatewayService ocrGatewayService;
+    private final ObjectMapper objectMapper;
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @PostConstruct
     public void init() {
+        parkingSpotRepository.initializeMissingVersions();
+
         // 기존 50개 등 불필요한 구역 데이터 정리 (A-1 ~ A-10 이외의 데이터 삭제)
         List<ParkingSpotEntity> allSpots = parkingSpotRepository.findAll();
         for (ParkingSpotEntity spot : allSpots) {
@@ -54,28 +85,35 @@ public void init() {
                 parkingSpotRepository.save(new ParkingSpotEntity(spotId));
             }
         }
+
+        parkingGateService.rebuildPlateIndex();
+        parkingStatusService.reload();
+        parkingReservationService.reload();
+        parkingPlateListService.reload();
     }
 
+    /**
+     * 주차 현황. since(마지막으로 받은 version)를 보내면 그 뒤에 바뀐 구역만 돌려준다 (full=false).
+     * 너무 오래된 version 이면 전체 현황(full=true)을 돌려준다.
+     */
     @GetMapping("/status")
-    public ResponseEntity<Map<String, Object>> getStatus() {
-        List<ParkingSpotEntity> spots = parkingSpotRepository.findAll(Sort.by("spotId"));
-        
-        Map<String, Object> spotsMap = new HashMap<>();
-        for (ParkingSpotEntity spot : spots) {
-            spotsMap.put(spot.getSpotId(), spot);
-        }
+    public ResponseEntity<Map<String, Object>> getStatus(@RequestParam(value = "since", required = false) String since) {
+        ParkingStatusDTO status = parkingStatusService.getStatus(since);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("spots", spotsMap);
-        
+        response.put("version", status.getVersion());
+        response.put("full", status.isFull());
+        response.put("spots", status.getSpots());
+        if (!status.isFull()) {
+            response.put("removed", status.getRemoved());
+        }
+
         // 통계 정보
-        long occupied = spots.stream().filter(ParkingSpotEntity::isOccupied).count();
-        long total = spots.size();
         response.put("statistics", Map.of(
-            "total", total,
-            "occupied", occupied,
-            "available", total - occupied
+            "total", status.getTotal(),
+            "occupied", status.getOccupied(),
+            "available", status.getTotal() - status.getOccupied()
         ));
 
         return ResponseEntity.ok(response);
@@ -95,36 +133,17 @@ public ResponseEntity<Map<String, Object>> entry(@RequestBody Map<String, String
             return ResponseEntity.badRequest().body(Map.of("success", false, "error", "주차 구역을 선택하세요"));
         }
 
-        Optional<ParkingSpotEntity> spotOpt = parkingSpotRepository.findById(spotId);
         ParkingSpotEntity spot;
-
-        if (spotOpt.isEmpty()) {
-            // 구역이 DB에 없는 경우, 유효한 구역(A-1 ~ A-10)이면 즉시 생성하여 복구
-            if (isValidSpotId(spotId)) {
-                System.out.println("[INFO] 구역 [" + spotId + "]이 DB에 없어 새로 생성합니다.");
-                spot = new ParkingSpotEntity(spotId);
-                parkingSpotRepository.save(spot);
-            } else {
-                return ResponseEntity.badRequest().body(Map.of("success", false, "error", "존재하지 않는 구역입니다 (" + spotId + ")"));
-            }
-        } else {
-            spot = spotOpt.get();
-        }
-
-        if (spot.isOccupied()) {
-            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "이미 주차된 구역입니다 (" + spot.getPlateNumber() + ")"));
-        }
-
         try {
             // 입차 처리
-            spot.setOccupied(true);
-            spot.setPlateNumber(plateNumber.trim());
-            spot.setEntryTime(LocalDateTime.now());
-            parkingSpotRepository.save(spot);
-            
-            // 확실한 저장을 위해 flush
-            parkingSpotRepository.flush();
+            spot = parkingGateService.entry(spotId, plateNumber, LocalDateTime.now());
             System.out.println("[SUCCESS] 입차 완료 - " + spotId + " : " + plateNumber);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict();
+        } catch (SpotLockTimeoutException e) {
+            return busy(e);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().body(Map.of("success", false, "error", "DB 저장 중 오류 발생: " + e.getMessage()));
@@ -135,71 +154,173 @@ public ResponseEntity<Map<String, Object>> entry(@RequestBody Map<String, String
         response.put("message", spotId + " 구역에 입차 완료");
         response.put("spot", spot);
         response.put("entryTime", spot.getEntryTime().format(formatter));
+        response.put("seasonPass", parkingPlateListService.isSeasonPass(spot.getPlateNumber(), spot.getEntryTime()));
 
         return ResponseEntity.ok(response);
     }
 
-    private boolean isValidSpotId(String spotId) {
-        if (spotId == null || !spotId.startsWith("A-")) return false;
-        try {
-            int num = Integer.parseInt(spotId.substring(2));
-            return num >= 1 && num <= 10;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-
     @PostMapping("/exit")
     public ResponseEntity<Map<String, Object>> exit(@RequestBody Map<String, String> request) {
         String spotId = request.get("spotId");
+        String plateNumber = request.get("plateNumber");
+        PlateMatchIndex.Candidate match = null;
 
-        if (spotId == null || spotId.trim().isEmpty()) {
+        if ((spotId == null || spotId.trim().isEmpty()) && (plateNumber == null || plateNumber.trim().isEmpty())) {
             return ResponseEntity.badRequest().body(Map.of("success", false, "error", "주차 구역을 선택하세요"));
         }
 
-        Optional<ParkingSpotEntity> spotOpt = parkingSpotRepository.findById(spotId);
-        if (spotOpt.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "존재하지 않는 구역입니다"));
+        ParkingRecordEntity record;
+        try {
+            // 구역 없이 인식된 번호판만 온 경우 번호판 인덱스로 구역을 찾는다
+            if (spotId == null || spotId.trim().isEmpty()) {
+                match = parkingGateService.resolveParked(plateNumber);
+                spotId = match.getSpotId();
+            }
+            // 인덱스로 찾은 경우 잠금을 잡은 뒤 그 구역에 아직 같은 차가 있는지 다시 확인한다
+            record = parkingGateService.exit(spotId, match != null ? match.getPlateNumber() : null,
+                    request.get("carType"), LocalDateTime.now());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict();
+        } catch (SpotLockTimeoutException e) {
+            return busy(e);
         }
 
-        ParkingSpotEntity spot = spotOpt.get();
-        if (!spot.isOccupied()) {
-            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "주차된 차량이 없습니다"));
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "출차 완료");
+        response.put("plateNumber", record.getCarNumber());
+        response.put("duration", record.getDurationMinutes() + "분");
+        response.put("fee", record.getFee());
+        response.put("exitTime", record.getExitTime().format(formatter));
+        if (match != null) {
+            response.put("spotId", spotId);
+            response.put("recognizedPlate", plateNumber);
+            response.put("matchDistance", match.getDistance());
         }
 
-        // 주차 요금 계산 (분당 50원)
-        LocalDateTime entryTime = spot.getEntryTime();
-        LocalDateTime now = LocalDateTime.now();
-        long minutes = Duration.between(entryTime, now).toMinutes();
-        if (minutes < 1) minutes = 1; 
-        int fee = (int) (minutes * 50);
-
-        // 기록 저장
-        ParkingRecordEntity record = new ParkingRecordEntity();
-        record.setParkingSpot(spotId);
-        record.setCarNumber(spot.getPlateNumber());
-        record.setCarType("일반"); // 기본값
-        record.setEntryTime(entryTime);
-        record.setExitTime(now);
-        record.setDurationMinutes(minutes);
-        record.setFee(fee);
-        parkingRecordRepository.save(record);
-
-        // 출차 처리 (Spot 초기화)
-        String plateNumber = spot.getPlateNumber();
-        spot.setOccupied(false);
-        spot.setPlateNumber(null);
-        spot.setEntryTime(null);
-        parkingSpotRepository.save(spot);
+        return ResponseEntity.ok(response);
+    }
 
+    /**
+     * 번호판 후보 조회 (OCR 오인식 허용). 출차 화면에서 인식 결과가 애매할 때 후보를 보여주는 용도
+     */
+    @GetMapping("/plates/suggest")
+    public ResponseEntity<Map<String, Object>> suggestPlates(@RequestParam("plate") String plate,
+                                                             @RequestParam(value = "limit", defaultValue = "5") int limit,
+                                                             @RequestParam(value = "parkedOnly", defaultValue = "true") boolean parkedOnly) {
+        List<PlateMatchIndex.Candidate> candidates = parkingGateService.suggestPlates(plate, Math.max(1, Math.min(limit, 20)), parkedOnly);
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("message", "출차 완료");
-        response.put("plateNumber", plateNumber);
-        response.put("duration", minutes + "분");
-        response.put("fee", fee);
-        response.put("exitTime", now.format(formatter));
+        response.put("plate", plate);
+        response.put("candidates", candidates);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 게이트 이벤트 일괄 수집 (NDJSON, 한 줄에 이벤트 하나)
+     * 본문을 줄 단위로 읽어 batch-size 만큼 모이면 한 트랜잭션으로 처리하고, 이벤트별 결과를 요청 순서대로 돌려준다.
+     */
+    @PostMapping(value = "/events", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<Map<String, Object>> ingestEvents(HttpServletRequest request) throws IOException {
+        List<GateEventResultDTO> results = new ArrayList<>();
+        Map<Integer, GateEventDTO> batch = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int index = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.put(index, objectMapper.readValue(line, GateEventDTO.class));
+                } catch (JsonProcessingException e) {
+                    results.add(GateEventResultDTO.failure(index, null, "이벤트 형식이 올바르지 않습니다"));
+                }
+                index++;
+
+                if (batch.size() >= ingestBatchSize) {
+                    results.addAll(ingestBatch(batch));
+                    batch = new LinkedHashMap<>();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            results.addAll(ingestBatch(batch));
+        }
+        results.sort(Comparator.comparingInt(GateEventResultDTO::getIndex));
 
+        long succeeded = results.stream().filter(GateEventResultDTO::isSuccess).count();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", succeeded == results.size());
+        response.put("total", results.size());
+        response.put("succeeded", succeeded);
+        response.put("failed", results.size() - succeeded);
+        response.put("results", results);
         return ResponseEntity.ok(response);
     }
+
+    private ResponseEntity<Map<String, Object>> conflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("success", false, "error", "다른 게이트에서 먼저 처리된 구역입니다. 현황을 새로고침하세요"));
+    }
+
+    /**
+     * 구역 락 대기 시간 초과 (잠시 후 재시도)
+     */
+    private ResponseEntity<Map<String, Object>> busy(SpotLockTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("success", false, "error", e.getMessage()));
+    }
+
+    private List<GateEventResultDTO> ingestBatch(Map<Integer, GateEventDTO> batch) {
+        try {
+            return parkingGateService.ingest(batch);
+        } catch (SpotLockTimeoutException e) {
+            // 락을 못 잡았으면 아무것도 쓰지 않았다 (게이트가 재전송)
+            List<GateEventResultDTO> busy = new ArrayList<>();
+            batch.forEach((index, event) -> busy.add(GateEventResultDTO.failure(index, event, e.getMessage())));
+            return busy;
+        } catch (Exception e) {
+            // 묶음 트랜잭션이 롤백되면 그 묶음의 이벤트는 모두 실패로 응답한다 (게이트가 재전송)
+            e.printStackTrace();
+            List<GateEventResultDTO> failed = new ArrayList<>();
+            batch.forEach((index, event) ->
+                    failed.add(GateEventResultDTO.failure(index, event, "DB 저장 중 오류 발생: " + e.getMessage())));
+            return failed;
+        }
+    }
+
+    /**
+     * 번호판 인식 (OCR 게이트웨이 경유)
+     * 브라우저가 OCR 서버를 직접 호출하지 않고 이 API 를 통해 동시 요청 수를 제한받는다.
+     */
+    @PostMapping("/ocr/recognize")
+    public ResponseEntity<Map<String, Object>> recognizePlate(@RequestParam(value = "image", required = false) MultipartFile image,
+                                                              @RequestParam(value = "file", required = false) MultipartFile file) throws IOException {
+        MultipartFile upload = image != null ? image : file;
+        if (upload == null || upload.isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("error", "파일 없음 (image or file required)");
+            error.put("plateNumber", null);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        try {
+            return ResponseEntity.ok(ocrGatewayService.recognize(upload.getBytes(), upload.getOriginalFilename(), upload.getContentType()));
+        } catch (OcrOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("success", false, "error", e.getMessage(), "retryAfter", e.getRetryAfterSeconds()));
+        }
+    }
+
+    @GetMapping("/ocr/stats")
+    public ResponseEntity<Map<String, Object>> getOcrStats() {
+        return ResponseEntity.ok(ocrGatewayService.getStats());
+    }
 }
@@ -3,24 +3,45 @@
 import com.example.straffic.dashboard.service.PageViewStatsService;
 import com.example.straffic.parking.entity.ParkingRecordEntity;
 import com.example.straffic.parking.repository.ParkingRecordRepository;
+import com.example.straffic.parking.service.ParkingGateService;
+import com.example.straffic.parking.service.ParkingPlateListService;
+import com.example.straffic.parking.service.ParkingRecordArchiveService;
+import com.example.straffic.parking.service.ParkingRecordPartitioner;
+import com.example.straffic.parking.service.ParkingRecordExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 public class ParkingController {
     private final ParkingRecordRepository parkingRecordRepository;
     private final PageViewStatsService pageViewStatsService;
+    private final ParkingGateService parkingGateService;
+    private final ParkingRecordExportService parkingRecordExportService;
+    private final ParkingRecordArchiveService parkingRecordArchiveService;
+    private final ParkingRecordPartitioner parkingRecordPartitioner;
+    private final ParkingPlateListService parkingPlateListService;
 
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
 
@@ -54,7 +75,7 @@ public String calculateFee(@RequestParam String carNumber,
         }
 
         int fee = calculateBaseFee(minutes);
-        fee = applyDiscount(fee, carType);
+        fee = applyDiscount(fee, carType, carNumber, exitTime);
 
         ParkingRecordEntity record = new ParkingRecordEntity();
         record.setParkingSpot(parkingSpot);
@@ -64,7 +85,7 @@ public String calculateFee(@RequestParam String carNumber,
         record.setExitTime(exitTime);
         record.setDurationMinutes(minutes);
         record.setFee(fee);
-        parkingRecordRepository.save(record);
+        parkingGateService.recordSettled(record);
 
         model.addAttribute("pageTitle", "주차 관리");
         model.addAttribute("spots", getSpots());
@@ -78,6 +99,74 @@ public String calculateFee(@RequestParam String carNumber,
         return "parking/output";
     }
 
+    /**
+     * 주차 기록 CSV 다운로드 (입차일 기준 from~to, lot 은 구역 접두어)
+     * 응답 스트림에 바로 쓰므로 기간이 1년이어도 기록을 메모리에 모으지 않는다 (아카이브된 달은 한 달씩 읽는다).
+     */
+    @GetMapping("/admin/parking/records/export")
+    public void exportRecords(@RequestParam String from,
+                              @RequestParam String to,
+                              @RequestParam(required = false) String lot,
+                              HttpServletResponse response) throws IOException {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "날짜 형식은 yyyy-MM-dd 입니다.");
+            return;
+        }
+        if (toDate.isBefore(fromDate)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "종료일이 시작일보다 빠를 수 없습니다.");
+            return;
+        }
+
+        // 헤더에 그대로 들어가므로 파일 이름에는 영문·숫자·하이픈만 남긴다
+        String safeLot = lot == null ? "" : lot.trim().replaceAll("[^A-Za-z0-9-]", "");
+        String fileName = "parking_records_" + fromDate + "_" + toDate
+                + (safeLot.isEmpty() ? "" : "_" + safeLot) + ".csv";
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        // 엑셀에서 한글이 깨지지 않도록 BOM 을 붙인다
+        writer.write('\uFEFF');
+        parkingRecordExportService.writeCsv(fromDate, toDate, lot, writer);
+    }
+
+    /**
+     * 주차 기록 보관 현황 (아카이브 파일, 테이블 파티션)
+     */
+    @GetMapping("/admin/parking/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveStatus() {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("archives", parkingRecordArchiveService.listArchives());
+            response.put("partitions", parkingRecordPartitioner.listPartitions());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("success", false, "error", "보관 현황 조회 실패: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 기록을 지금 아카이브로 옮긴다 (평소에는 매일 새벽 스케줄로 실행)
+     */
+    @PostMapping("/admin/parking/archive/compact")
+    public ResponseEntity<Map<String, Object>> compactArchive() {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("months", parkingRecordArchiveService.compact());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().body(Map.of("success", false, "error", "아카이브 실패: " + e.getMessage()));
+        }
+    }
+
     private int calculateBaseFee(long minutes) {
         int fee = 1000;
         if (minutes <= 30) {
@@ -89,7 +178,10 @@ private int calculateBaseFee(long minutes) {
         return fee;
     }
 
-    private int applyDiscount(int fee, String carType) {
+    private int applyDiscount(int fee, String carType, String carNumber, LocalDateTime exitTime) {
+        if (parkingPlateListService.isSeasonPass(carNumber, exitTime)) {
+            return 0;
+        }
         if ("경차".equals(carType)) {
             return fee / 2;
         }
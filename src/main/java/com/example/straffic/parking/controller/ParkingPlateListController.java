@@ -0,0 +1,79 @@
+package com.example.straffic.parking.controller;
+
+import com.example.straffic.parking.entity.ParkingPlateListEntity;
+import com.example.straffic.parking.service.ParkingPlateListService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 정기권(SEASON) / 입차 제한(BLOCK) 차량 관리 (관리자)
+ */
+@RestController
+@RequestMapping("/admin/parking/plate-lists")
+@RequiredArgsConstructor
+public class ParkingPlateListController {
+
+    private final ParkingPlateListService parkingPlateListService;
+
+    @PostMapping("/{listType}")
+    public ResponseEntity<Map<String, Object>> register(@PathVariable("listType") String listType,
+                                                        @RequestBody Map<String, String> request) {
+        try {
+            String validUntil = request.get("validUntil");
+            ParkingPlateListEntity row = parkingPlateListService.register(listType, request.get("plateNumber"),
+                    validUntil == null || validUntil.isBlank() ? null : LocalDate.parse(validUntil.trim()),
+                    request.get("note"));
+            return ResponseEntity.ok(Map.of("success", true, "entry", row));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "날짜 형식은 yyyy-MM-dd 입니다."));
+        }
+    }
+
+    @DeleteMapping("/{listType}")
+    public ResponseEntity<Map<String, Object>> unregister(@PathVariable("listType") String listType,
+                                                          @RequestParam("plate") String plate) {
+        try {
+            parkingPlateListService.unregister(listType, plate);
+            return ResponseEntity.ok(Map.of("success", true, "plate", plate));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/check")
+    public ResponseEntity<Map<String, Object>> check(@RequestParam("plate") String plate) {
+        ParkingPlateListEntity blocked = parkingPlateListService.findBlocked(plate);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("plate", plate);
+        response.put("seasonPass", parkingPlateListService.isSeasonPass(plate, LocalDateTime.now()));
+        response.put("blocked", blocked != null);
+        if (blocked != null) {
+            response.put("blockNote", blocked.getNote());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", parkingPlateListService.getStats()));
+    }
+
+    /**
+     * 필터를 DB 에서 다시 만든다 (대량 등록·삭제 후)
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reload() {
+        parkingPlateListService.reload();
+        return ResponseEntity.ok(Map.of("success", true, "stats", parkingPlateListService.getStats()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.straffic.parking.controller;
+
+import com.example.straffic.parking.entity.ParkingReservationEntity;
+import com.example.straffic.parking.service.ParkingReservationService;
+import com.example.straffic.parking.service.SpotLockTimeoutException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주차 구역 사전 예약 API
+ * 시각은 ISO 형식 (예: 2026-10-20T14:00)
+ * 예약 조회·취소는 본인 예약만 (관리자는 전부)
+ */
+@RestController
+@RequestMapping("/api/parking/reservations")
+@RequiredArgsConstructor
+public class ParkingReservationController {
+
+    private final ParkingReservationService parkingReservationService;
+
+    /**
+     * zone 에서 from ~ to 동안 비어 있는 구역
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> availability(@RequestParam("zone") String zone,
+                                                            @RequestParam("from") String from,
+                                                            @RequestParam("to") String to,
+                                                            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        try {
+            List<String> available = parkingReservationService.findAvailable(zone.trim(), parseTime(from), parseTime(to), Math.max(1, limit));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("zone", zone.trim());
+            response.put("from", from);
+            response.put("to", to);
+            response.put("available", available);
+            response.put("count", available.size());
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    /**
+     * 예약. spotId 를 주면 그 구역, 없으면 zone 에서 비어 있는 첫 구역을 예약한다.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> reserve(@RequestBody Map<String, String> request, Authentication authentication) {
+        try {
+            ParkingReservationEntity reservation = parkingReservationService.reserve(request.get("spotId"), request.get("zone"),
+                    request.get("plateNumber"), parseTime(request.get("startTime")), parseTime(request.get("endTime")),
+                    authentication.getName());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", reservation.getSpotId() + " 구역 예약 완료");
+            response.put("reservation", reservation);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "error", "다른 요청이 먼저 처리되었습니다. 다시 시도하세요"));
+        } catch (SpotLockTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list(@RequestParam("spotId") String spotId, Authentication authentication) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("spotId", spotId);
+        response.put("reservations", parkingReservationService.upcoming(spotId.trim(), ownerFilter(authentication)));
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable("id") Long id, Authentication authentication) {
+        try {
+            ParkingReservationEntity reservation = parkingReservationService.cancel(id, ownerFilter(authentication));
+            return ResponseEntity.ok(Map.of("success", true, "message", "예약 취소 완료", "reservation", reservation));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (SpotLockTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    // 관리자는 모든 예약, 그 외에는 본인 예약만
+    private static String ownerFilter(Authentication authentication) {
+        boolean isAdmin = authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        return isAdmin ? null : authentication.getName();
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("예약 시각을 입력하세요");
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("시각 형식이 올바르지 않습니다 (예: 2026-10-20T14:00)");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.straffic.parking.controller;
+
+import com.example.straffic.config.SqlStatementCounter;
+import com.example.straffic.parking.dto.ParkingSimulationConfigDTO;
+import com.example.straffic.parking.dto.ParkingSimulationReportDTO;
+import com.example.straffic.parking.service.ParkingSimulationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 주차장 교통 시뮬레이션 (관리자 / 개발 DB 전용)
+ * POST /run 으로 실행하고, HTTP 모드의 시뮬레이터는 대상 서버의 /lot, /db-stats 를 사용한다.
+ */
+@RestController
+@RequestMapping("/admin/parking/simulation")
+@RequiredArgsConstructor
+public class ParkingSimulationController {
+
+    private final ParkingSimulationService parkingSimulationService;
+
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Object>> run(@RequestBody(required = false) ParkingSimulationConfigDTO config) {
+        try {
+            ParkingSimulationReportDTO report = parkingSimulationService.run(config != null ? config : new ParkingSimulationConfigDTO());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("report", report);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().body(Map.of("success", false, "error", "시뮬레이션 실패: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/lot")
+    public ResponseEntity<Map<String, Object>> prepareLot(@RequestBody Map<String, Object> request) {
+        try {
+            String prefix = String.valueOf(request.get("prefix"));
+            int spots = Integer.parseInt(String.valueOf(request.get("spots")));
+            parkingSimulationService.prepareLot(prefix, spots);
+            return ResponseEntity.ok(Map.of("success", true, "prefix", prefix, "spots", spots));
+        } catch (IllegalStateException | NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/lot")
+    public ResponseEntity<Map<String, Object>> dropLot(@RequestParam String prefix) {
+        try {
+            parkingSimulationService.dropLot(prefix);
+            return ResponseEntity.ok(Map.of("success", true, "prefix", prefix));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/db-stats")
+    public ResponseEntity<Map<String, Object>> getDbStats() {
+        return ResponseEntity.ok(Map.of("success", true, "statements", SqlStatementCounter.snapshot()));
+    }
+}
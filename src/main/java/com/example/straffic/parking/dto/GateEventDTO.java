@@ -0,0 +1,22 @@
+package com.example.straffic.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 게이트 컨트롤러가 NDJSON 한 줄로 보내는 입/출차 이벤트
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class GateEventDTO {
+    private String type; // ENTRY / EXIT
+    private String spotId;
+    private String plateNumber;
+    private String gateId;
+    private String carType; // 출차 시 차종 (없으면 일반)
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,41 @@
+package com.example.straffic.parking.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 일괄 수집 시 이벤트 한 건의 처리 결과 (index 는 요청 본문의 줄 번호, 0부터)
+ */
+@NoArgsConstructor
+@Data
+public class GateEventResultDTO {
+    private int index;
+    private String type;
+    private String spotId;
+    private String plateNumber;
+    private String gateId;
+    private boolean success;
+    private String error;
+    private String time;
+    private Long durationMinutes;
+    private Integer fee;
+
+    public static GateEventResultDTO of(int index, GateEventDTO event) {
+        GateEventResultDTO result = new GateEventResultDTO();
+        result.setIndex(index);
+        if (event != null) {
+            result.setType(event.getType());
+            result.setSpotId(event.getSpotId());
+            result.setPlateNumber(event.getPlateNumber());
+            result.setGateId(event.getGateId());
+        }
+        return result;
+    }
+
+    public static GateEventResultDTO failure(int index, GateEventDTO event, String error) {
+        GateEventResultDTO result = of(index, event);
+        result.setSuccess(false);
+        result.setError(error);
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.straffic.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingHourlyStatsDTO {
+
+    private String date;
+    private List<String> labels;
+    private List<Long> entries;
+    private List<Long> exits;
+    private List<Double> averageOccupancy;
+}
@@ -0,0 +1,22 @@
+package com.example.straffic.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingRevenueStatsDTO {
+
+    private List<String> labels;
+    private List<Long> revenue;
+    private Map<String, List<Long>> revenueByCarType;
+    private List<Double> averageDwellMinutes;
+    private long totalRevenue;
+}
@@ -0,0 +1,61 @@
+package com.example.straffic.parking.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주차장 교통 시뮬레이션 설정
+ * 도착은 시간대별 도착률(기본 도착률 × 출퇴근 피크)을 따르는 포아송 과정, 체류 시간은 로그정규분포로 만든다.
+ */
+@Data
+@NoArgsConstructor
+public class ParkingSimulationConfigDTO {
+
+    // inprocess: 이 서버의 서비스를 직접 호출 / http: baseUrl 의 API 를 호출
+    private String mode = "inprocess";
+    private String baseUrl = "http://localhost:8080";
+    private String username;
+    private String password;
+
+    // 시뮬레이션용 주차장 (spotPrefix + 1..spots). 실제 구역(A-)과 겹치지 않아야 한다
+    private int spots = 100;
+    private String spotPrefix = "SIM-";
+    private boolean cleanup = true;
+
+    // 가상 시간
+    private LocalDateTime startTime;
+    private int hours = 24;
+
+    // 도착 과정
+    private double arrivalsPerHour = 60;
+    private List<Double> rushHours = List.of(8.5, 18.0);
+    private double rushMultiplier = 3.0;
+    private double rushWidthHours = 1.0;
+
+    // 체류 시간 (분): 중앙값과 로그 표준편차, 상한
+    private double dwellMedianMinutes = 90;
+    private double dwellSigma = 0.8;
+    private int maxDwellHours = 24;
+
+    // 차종 비율
+    private Map<String, Double> vehicleMix = new LinkedHashMap<>(Map.of(
+            "일반", 0.8, "경차", 0.1, "전기차", 0.07, "장애인", 0.03));
+
+    // 실행: 동시 게이트 수, 일괄 수집 묶음 크기(0 이면 단건 API), 배속(0 이면 최대 속도)
+    private int concurrency = 8;
+    private int batchSize = 0;
+    private double speedup = 0;
+
+    // 현황 조회: 부하 중 조회 간격(ms, 0 이면 안 함), 부하 후 단독 측정 횟수
+    private long statusIntervalMs = 200;
+    private int statusProbeCount = 20;
+    // 현황을 since=<이전 version> 변경분 조회로 부른다 (키오스크 폴링 방식)
+    private boolean statusDelta;
+
+    private long seed = 42;
+}
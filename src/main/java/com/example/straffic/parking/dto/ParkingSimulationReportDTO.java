@@ -0,0 +1,40 @@
+package com.example.straffic.parking.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주차장 교통 시뮬레이션 결과
+ * 지연 시간은 ms 단위 백분위(p50/p90/p99/max), DB 문 수는 Hibernate 가 실행한 SQL 기준
+ */
+@Data
+@NoArgsConstructor
+public class ParkingSimulationReportDTO {
+    private String mode;
+    private int spots;
+    private int hours;
+
+    // 만들어진 교통
+    private int arrivals;
+    private int rejectedFull;
+    private int peakOccupancy;
+    private List<Integer> arrivalsByHour;
+    private Map<String, Integer> arrivalsByCarType;
+
+    // 실행 결과
+    private long gateEvents;
+    private long succeeded;
+    private long failed;
+    private long wallMillis;
+    private double eventsPerSecond;
+    private Map<String, Map<String, Object>> latency;
+
+    // 현황 API 비용 (부하 중 지연, 단독 측정 지연/응답 크기/DB 문 수)
+    private Map<String, Object> status;
+
+    // 실행 전후 DB 문 수 차이
+    private Map<String, Object> database;
+}
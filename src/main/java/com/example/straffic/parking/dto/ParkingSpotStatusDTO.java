@@ -0,0 +1,25 @@
+package com.example.straffic.parking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 현황 API 의 구역 한 칸 (메모리 상태)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingSpotStatusDTO {
+    private String spotId;
+    private boolean occupied;
+    private String plateNumber;
+    private LocalDateTime entryTime;
+
+    // DB 행의 @Version. 주기적 동기화가 더 오래된 DB 상태로 덮어쓰지 않도록 비교용으로만 쓴다
+    @JsonIgnore
+    private Long rowVersion;
+}
@@ -0,0 +1,25 @@
+package com.example.straffic.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주차 현황 (전체 또는 since 이후 변경분)
+ * full 이 false 면 spots 에는 바뀐 구역만, removed 에는 없어진 구역이 들어 있다.
+ * version 은 "epoch-순번" 토큰이라 클라이언트는 그대로 다음 since 로 돌려보내기만 한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingStatusDTO {
+    private boolean full;
+    private String version;
+    private Map<String, ParkingSpotStatusDTO> spots;
+    private List<String> removed;
+    private long total;
+    private long occupied;
+}
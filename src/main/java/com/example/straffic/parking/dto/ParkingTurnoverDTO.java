@@ -0,0 +1,17 @@
+package com.example.straffic.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingTurnoverDTO {
+
+    private String spotId;
+    private long turnovers;
+    private double averageDwellMinutes;
+}
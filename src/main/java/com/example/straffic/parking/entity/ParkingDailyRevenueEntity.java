@@ -0,0 +1,46 @@
+package com.example.straffic.parking.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 일자 x 차종별 매출/체류 시간 롤업 (출차일 기준)
+ */
+@Entity
+@Table(name = "PARKING_DAILY_REVENUE", indexes = @Index(name = "IDX_PDR_STAT_DATE", columnList = "statDate"))
+@Data
+@NoArgsConstructor
+public class ParkingDailyRevenueEntity {
+
+    @Id
+    @Column(length = 40)
+    private String id; // yyyyMMdd_차종
+
+    @Column(nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false, length = 20)
+    private String carType;
+
+    @Column(nullable = false)
+    private long exits;
+
+    @Column(nullable = false)
+    private long revenue;
+
+    @Column(nullable = false)
+    private long dwellMinutes;
+
+    public ParkingDailyRevenueEntity(String id, LocalDate statDate, String carType) {
+        this.id = id;
+        this.statDate = statDate;
+        this.carType = carType;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.straffic.parking.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 시간대별 주차 롤업 (입/출차 시 증가)
+ * occupiedSeconds 는 출차가 끝난 주차의 체류 시간을 해당 시간대에 나눠 더한 값 → 평균 점유 대수 = occupiedSeconds / 3600
+ */
+@Entity
+@Table(name = "PARKING_HOURLY_OCCUPANCY", indexes = @Index(name = "IDX_PHO_HOUR_START", columnList = "hourStart"))
+@Data
+@NoArgsConstructor
+public class ParkingHourlyOccupancyEntity {
+
+    @Id
+    @Column(length = 10)
+    private String id; // yyyyMMddHH
+
+    @Column(nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(nullable = false)
+    private long entries;
+
+    @Column(nullable = false)
+    private long exits;
+
+    @Column(nullable = false)
+    private long occupiedSeconds;
+
+    public ParkingHourlyOccupancyEntity(String id, LocalDateTime hourStart) {
+        this.id = id;
+        this.hourStart = hourStart;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.straffic.parking.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+// 정기권 / 미납 차량 목록. 게이트는 메모리 블룸 필터(ParkingPlateListService)로 먼저 거르고, 있을 수도 있다고 나올 때만 이 테이블을 본다
+@Table(name = "PARKING_PLATE_LIST", indexes = {
+        @Index(name = "IDX_PARKING_PLATE_LIST_KEY", columnList = "listType, plateKey"),
+        @Index(name = "IDX_PARKING_PLATE_LIST_UPDATED", columnList = "updatedAt")
+})
+@Data
+@NoArgsConstructor
+public class ParkingPlateListEntity {
+
+    public static final String SEASON = "SEASON";
+    public static final String BLOCK = "BLOCK";
+
+    @Id
+    @SequenceGenerator(name = "parking_plate_list_seq", sequenceName = "PARKING_PLATE_LIST_SEQ", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_plate_list_seq")
+    private Long id;
+
+    @Column(nullable = false, length = 10)
+    private String listType;
+
+    @Column(nullable = false, length = 20)
+    private String plateNumber;
+
+    // 공백 제거·OCR 혼동 문자 정규화한 번호 (PlateMatchIndex.normalize)
+    @Column(nullable = false, length = 20)
+    private String plateKey;
+
+    // 정기권 만료일 (포함, null 이면 무기한)
+    @Column
+    private LocalDate validUntil;
+
+    @Column(length = 100)
+    private String note;
+
+    // 삭제 대신 false 로 바꿔서 증분 갱신이 삭제도 볼 수 있게 한다
+    @Column(nullable = false)
+    private boolean active;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -5,6 +5,7 @@
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -13,7 +14,11 @@
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "parking_record")
+// entry_time 기준 월 단위 파티션 (ParkingRecordPartitioner), 보관 기간이 지난 달은 아카이브 파일로 이동 (ParkingRecordArchiveService)
+@Table(name = "parking_record", indexes = {
+        @Index(name = "IDX_PARKING_RECORD_ENTRY", columnList = "entryTime"),
+        @Index(name = "IDX_PARKING_RECORD_EXIT", columnList = "exitTime")
+})
 @Data
 @NoArgsConstructor
 public class ParkingRecordEntity {
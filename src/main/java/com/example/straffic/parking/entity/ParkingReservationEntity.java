@@ -0,0 +1,58 @@
+package com.example.straffic.parking.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+// 예약 가능 여부는 메모리 달력(ParkingReservationService)으로 판단하고, 테이블은 저장과 다른 노드와의 중복 확인에만 쓴다
+@Table(name = "PARKING_RESERVATION", indexes = {
+        @Index(name = "IDX_PARKING_RESERVATION_SPOT", columnList = "spotId, startTime"),
+        @Index(name = "IDX_PARKING_RESERVATION_END", columnList = "endTime")
+})
+@Data
+@NoArgsConstructor
+public class ParkingReservationEntity {
+
+    public static final String RESERVED = "RESERVED";
+    public static final String CHECKED_IN = "CHECKED_IN";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String CANCELLED = "CANCELLED";
+
+    @Id
+    @SequenceGenerator(name = "parking_reservation_seq", sequenceName = "PARKING_RESERVATION_SEQ", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_reservation_seq")
+    private Long id;
+
+    @Column(nullable = false, length = 10)
+    private String spotId;
+
+    @Column(nullable = false, length = 20)
+    private String plateNumber;
+
+    // [startTime, endTime)
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(nullable = false, length = 12)
+    private String status;
+
+    // 예약한 회원 아이디 (조회·취소는 본인과 관리자만)
+    @Column(length = 100)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
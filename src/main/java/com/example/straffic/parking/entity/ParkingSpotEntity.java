@@ -4,6 +4,7 @@
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -28,6 +29,10 @@ public class ParkingSpotEntity {
     @Column
     private LocalDateTime entryTime;
 
+    // 낙관적 락: 다른 게이트(노드)가 먼저 바꾼 구역을 덮어쓰지 않도록 한다
+    @Version
+    private Long version;
+
     public ParkingSpotEntity(String spotId) {
         this.spotId = spotId;
         this.occupied = false;
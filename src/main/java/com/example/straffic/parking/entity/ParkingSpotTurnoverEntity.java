@@ -0,0 +1,43 @@
+package com.example.straffic.parking.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 일자 x 구역별 회전수(출차 건수) 롤업
+ */
+@Entity
+@Table(name = "PARKING_SPOT_TURNOVER", indexes = @Index(name = "IDX_PST_STAT_DATE", columnList = "statDate"))
+@Data
+@NoArgsConstructor
+public class ParkingSpotTurnoverEntity {
+
+    @Id
+    @Column(length = 40)
+    private String id; // yyyyMMdd_구역
+
+    @Column(nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false, length = 20)
+    private String spotId;
+
+    @Column(nullable = false)
+    private long turnovers;
+
+    @Column(nullable = false)
+    private long dwellMinutes;
+
+    public ParkingSpotTurnoverEntity(String id, LocalDate statDate, String spotId) {
+        this.id = id;
+        this.statDate = statDate;
+        this.spotId = spotId;
+    }
+}
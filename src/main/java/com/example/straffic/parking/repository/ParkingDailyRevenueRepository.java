@@ -0,0 +1,39 @@
+package com.example.straffic.parking.repository;
+
+import com.example.straffic.parking.entity.ParkingDailyRevenueEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ParkingDailyRevenueRepository extends JpaRepository<ParkingDailyRevenueEntity, String> {
+
+    List<ParkingDailyRevenueEntity> findByStatDateBetweenOrderByStatDate(LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query("""
+            update ParkingDailyRevenueEntity d
+               set d.exits = d.exits + :exits,
+                   d.revenue = d.revenue + :revenue,
+                   d.dwellMinutes = d.dwellMinutes + :minutes
+             where d.id = :id
+            """)
+    int increment(@Param("id") String id, @Param("exits") long exits,
+                  @Param("revenue") long revenue, @Param("minutes") long minutes);
+
+    /**
+     * 버킷 행이 없을 때만 0 으로 만든다 (이미 있으면 0 건, 다른 세션이 동시에 만들어도 PK 오류 없이 건너뜀)
+     */
+    @Modifying
+    @Query(value = """
+            insert /*+ IGNORE_ROW_ON_DUPKEY_INDEX(PARKING_DAILY_REVENUE(id)) */
+              into PARKING_DAILY_REVENUE (id, stat_date, car_type, exits, revenue, dwell_minutes)
+            values (:id, :statDate, :carType, 0, 0, 0)
+            """, nativeQuery = true)
+    int createIfAbsent(@Param("id") String id, @Param("statDate") LocalDate statDate, @Param("carType") String carType);
+}
@@ -0,0 +1,39 @@
+package com.example.straffic.parking.repository;
+
+import com.example.straffic.parking.entity.ParkingHourlyOccupancyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ParkingHourlyOccupancyRepository extends JpaRepository<ParkingHourlyOccupancyEntity, String> {
+
+    List<ParkingHourlyOccupancyEntity> findByHourStartBetweenOrderByHourStart(LocalDateTime start, LocalDateTime end);
+
+    @Modifying
+    @Query("""
+            update ParkingHourlyOccupancyEntity h
+               set h.entries = h.entries + :entries,
+                   h.exits = h.exits + :exits,
+                   h.occupiedSeconds = h.occupiedSeconds + :seconds
+             where h.id = :id
+            """)
+    int increment(@Param("id") String id, @Param("entries") long entries,
+                  @Param("exits") long exits, @Param("seconds") long seconds);
+
+    /**
+     * 버킷 행이 없을 때만 0 으로 만든다 (이미 있으면 0 건, 다른 세션이 동시에 만들어도 PK 오류 없이 건너뜀)
+     */
+    @Modifying
+    @Query(value = """
+            insert /*+ IGNORE_ROW_ON_DUPKEY_INDEX(PARKING_HOURLY_OCCUPANCY(id)) */
+              into PARKING_HOURLY_OCCUPANCY (id, hour_start, entries, exits, occupied_seconds)
+            values (:id, :hourStart, 0, 0, 0)
+            """, nativeQuery = true)
+    int createIfAbsent(@Param("id") String id, @Param("hourStart") LocalDateTime hourStart);
+}
@@ -0,0 +1,20 @@
+package com.example.straffic.parking.repository;
+
+import com.example.straffic.parking.entity.ParkingPlateListEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ParkingPlateListRepository extends JpaRepository<ParkingPlateListEntity, Long> {
+
+    Optional<ParkingPlateListEntity> findFirstByListTypeAndPlateKeyAndActiveTrue(String listType, String plateKey);
+
+    Optional<ParkingPlateListEntity> findFirstByListTypeAndPlateKey(String listType, String plateKey);
+
+    // 증분 갱신 (삭제된 행도 active=false 로 함께 온다)
+    List<ParkingPlateListEntity> findByUpdatedAtAfterOrderByUpdatedAt(LocalDateTime time);
+}
@@ -2,13 +2,24 @@
 
 import com.example.straffic.parking.entity.ParkingRecordEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface ParkingRecordRepository extends JpaRepository<ParkingRecordEntity, Long> {
 
     long countByEntryTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    // 시뮬레이션 기록 정리 (id 순으로 나눠 읽기)
+    List<ParkingRecordEntity> findTop1000ByParkingSpotStartingWithAndIdGreaterThanOrderById(String prefix, Long id);
+
+    @Modifying
+    @Query("delete from ParkingRecordEntity r where r.parkingSpot like concat(:prefix, '%')")
+    int deleteByParkingSpotPrefix(@Param("prefix") String prefix);
 }
 
@@ -0,0 +1,32 @@
+package com.example.straffic.parking.repository;
+
+import com.example.straffic.parking.entity.ParkingReservationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ParkingReservationRepository extends JpaRepository<ParkingReservationEntity, Long> {
+
+    // 끝나지 않은 예약 + 체크인한 예약 (종료 시각이 지나도 출차 전이면 남긴다)
+    @Query("select r from ParkingReservationEntity r where r.status = 'CHECKED_IN'"
+            + " or (r.status = 'RESERVED' and r.endTime > :time)")
+    List<ParkingReservationEntity> findActive(@Param("time") LocalDateTime time);
+
+    // 저장 직전 다른 노드가 같은 시간대를 먼저 예약했는지 확인 (구역 + 시작 시각 인덱스)
+    @Query("select count(r) from ParkingReservationEntity r where r.spotId = :spotId"
+            + " and r.status in ('RESERVED', 'CHECKED_IN') and r.startTime < :endTime and r.endTime > :startTime")
+    long countOverlapping(@Param("spotId") String spotId,
+                          @Param("startTime") LocalDateTime startTime,
+                          @Param("endTime") LocalDateTime endTime);
+
+    // 현재 상태가 from 일 때만 바꾼다 (취소와 체크인이 엇갈리면 한쪽은 0건)
+    @Modifying
+    @Query("update ParkingReservationEntity r set r.status = :status where r.id = :id and r.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") String from, @Param("status") String status);
+}
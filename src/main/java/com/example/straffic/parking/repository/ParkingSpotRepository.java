@@ -2,8 +2,28 @@
 
 import com.example.straffic.parking.entity.ParkingSpotEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Repository
 public interface ParkingSpotRepository extends JpaRepository<ParkingSpotEntity, String> {
+
+    // version 컬럼 추가 전에 만들어진 행은 NULL 이라 새 엔티티로 취급되므로 0 으로 채운다
+    @Modifying
+    @Transactional
+    @Query("update ParkingSpotEntity s set s.version = 0 where s.version is null")
+    int initializeMissingVersions();
+
+    // 시뮬레이션용 주차장 정리
+    List<ParkingSpotEntity> findBySpotIdStartingWith(String prefix);
+
+    @Modifying
+    @Transactional
+    @Query("delete from ParkingSpotEntity s where s.spotId like concat(:prefix, '%')")
+    int deleteBySpotIdPrefix(@Param("prefix") String prefix);
 }
@@ -0,0 +1,42 @@
+package com.example.straffic.parking.repository;
+
+import com.example.straffic.parking.entity.ParkingSpotTurnoverEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ParkingSpotTurnoverRepository extends JpaRepository<ParkingSpotTurnoverEntity, String> {
+
+    List<ParkingSpotTurnoverEntity> findByStatDateBetween(LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query("""
+            update ParkingSpotTurnoverEntity t
+               set t.turnovers = t.turnovers + :turnovers,
+                   t.dwellMinutes = t.dwellMinutes + :minutes
+             where t.id = :id
+            """)
+    int increment(@Param("id") String id, @Param("turnovers") long turnovers, @Param("minutes") long minutes);
+
+    // 시뮬레이션 구역 정리
+    @Modifying
+    @Query("delete from ParkingSpotTurnoverEntity t where t.spotId like concat(:prefix, '%')")
+    int deleteBySpotIdPrefix(@Param("prefix") String prefix);
+
+    /**
+     * 버킷 행이 없을 때만 0 으로 만든다 (이미 있으면 0 건, 다른 세션이 동시에 만들어도 PK 오류 없이 건너뜀)
+     */
+    @Modifying
+    @Query(value = """
+            insert /*+ IGNORE_ROW_ON_DUPKEY_INDEX(PARKING_SPOT_TURNOVER(id)) */
+              into PARKING_SPOT_TURNOVER (id, stat_date, spot_id, turnovers, dwell_minutes)
+            values (:id, :statDate, :spotId, 0, 0)
+            """, nativeQuery = true)
+    int createIfAbsent(@Param("id") String id, @Param("statDate") LocalDate statDate, @Param("spotId") String spotId);
+}
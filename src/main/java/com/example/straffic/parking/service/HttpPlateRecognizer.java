@@ -0,0 +1,88 @@
+package com.example.straffic.parking.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Flask OCR 서비스(parking_ocr_service.py)로 이미지를 전달하는 인식기 (parking.ocr.mode=http, 기본값)
+ */
+@Component
+@ConditionalOnProperty(name = "parking.ocr.mode", havingValue = "http", matchIfMissing = true)
+public class HttpPlateRecognizer implements PlateRecognizer {
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String recognizeUrl;
+
+    public HttpPlateRecognizer(RestTemplateBuilder builder,
+                               ObjectMapper objectMapper,
+                               @Value("${parking.ocr.url:http://localhost:5000/api/parking/recognize}") String recognizeUrl,
+                               @Value("${parking.ocr.connect-timeout-ms:2000}") long connectTimeoutMs,
+                               @Value("${parking.ocr.read-timeout-ms:30000}") long readTimeoutMs) {
+        this.restTemplate = builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+        this.objectMapper = objectMapper;
+        this.recognizeUrl = recognizeUrl;
+    }
+
+    @Override
+    public Map<String, Object> recognize(byte[] image, String fileName, String contentType) {
+        HttpHeaders partHeaders = new HttpHeaders();
+        partHeaders.setContentType(contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM);
+        ByteArrayResource resource = new ByteArrayResource(image) {
+            @Override
+            public String getFilename() {
+                return fileName != null ? fileName : "image.jpg";
+            }
+        };
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("image", new HttpEntity<>(resource, partHeaders));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        try {
+            Map<String, Object> result = restTemplate.exchange(recognizeUrl, HttpMethod.POST, new HttpEntity<>(body, headers),
+                    new ParameterizedTypeReference<Map<String, Object>>() {}).getBody();
+            return result != null ? result : error("OCR 서버 응답이 비어 있습니다");
+        } catch (HttpStatusCodeException e) {
+            // Flask 는 400/500 에도 JSON 본문을 돌려준다
+            try {
+                return objectMapper.readValue(e.getResponseBodyAsString(), new TypeReference<Map<String, Object>>() {});
+            } catch (Exception parseError) {
+                return error("OCR 서버 오류 (" + e.getStatusCode().value() + ")");
+            }
+        } catch (RestClientException e) {
+            return error("OCR 서버에 연결할 수 없습니다: " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> error(String message) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", false);
+        result.put("error", message);
+        result.put("plateNumber", null);
+        return result;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.dto.GateEventDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 실행 중인 서버의 API 를 HTTP 로 호출한다 (직렬화·보안 필터·커넥터 비용 포함).
+ * /loginProcess 로 로그인한 세션 쿠키를 사용한다.
+ * 단건 입/출차 API 는 서버 시각을 쓰므로 가상 시각은 일괄 수집(batchSize > 0)에서만 반영된다.
+ */
+class HttpSimulationTarget implements ParkingSimulationTarget {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private volatile String lastVersion;
+
+    HttpSimulationTarget(String baseUrl, String username, String password, ObjectMapper objectMapper) throws Exception {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        login(username, password);
+    }
+
+    private void login(String username, String password) throws Exception {
+        if (username == null || username.isBlank()) {
+            throw new IllegalStateException("HTTP 모드는 로그인 계정(username, password)이 필요합니다");
+        }
+        String form = "id=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&pw=" + URLEncoder.encode(password == null ? "" : password, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/loginProcess"))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("로그인에 실패했습니다 (" + response.statusCode() + " " + location + ")");
+        }
+    }
+
+    @Override
+    public void prepareLot(String prefix, int spots) throws Exception {
+        send("POST", "/admin/parking/simulation/lot", "application/json",
+                objectMapper.writeValueAsString(Map.of("prefix", prefix, "spots", spots)), true);
+    }
+
+    @Override
+    public void dropLot(String prefix) throws Exception {
+        send("DELETE", "/admin/parking/simulation/lot?prefix=" + URLEncoder.encode(prefix, StandardCharsets.UTF_8),
+                null, null, true);
+    }
+
+    @Override
+    public boolean entry(ParkingTrafficModel.SimEvent event) throws Exception {
+        Map<String, String> body = Map.of("spotId", event.spotId, "plateNumber", event.plateNumber);
+        return send("POST", "/api/parking/entry", "application/json", objectMapper.writeValueAsString(body), false).statusCode() == 200;
+    }
+
+    @Override
+    public boolean exit(ParkingTrafficModel.SimEvent event) throws Exception {
+        Map<String, String> body = Map.of("spotId", event.spotId, "carType", event.carType);
+        return send("POST", "/api/parking/exit", "application/json", objectMapper.writeValueAsString(body), false).statusCode() == 200;
+    }
+
+    @Override
+    public int ingest(List<ParkingTrafficModel.SimEvent> events) throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (ParkingTrafficModel.SimEvent e : events) {
+            ndjson.append(objectMapper.writeValueAsString(
+                    new GateEventDTO(e.type, e.spotId, e.plateNumber, "SIM", e.carType, e.time))).append('\n');
+        }
+        HttpResponse<String> response = send("POST", "/api/parking/events", "application/x-ndjson", ndjson.toString(), false);
+        if (response.statusCode() != 200) {
+            return 0;
+        }
+        return objectMapper.readTree(response.body()).path("succeeded").asInt();
+    }
+
+    @Override
+    public int status(boolean delta) throws Exception {
+        String path = "/api/parking/status" + (delta && lastVersion != null ? "?since=" + URLEncoder.encode(lastVersion, StandardCharsets.UTF_8) : "");
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("현황 조회 실패 (" + response.statusCode() + ")");
+        }
+        lastVersion = objectMapper.readTree(response.body()).path("version").asText(null);
+        return response.body().length;
+    }
+
+    @Override
+    public Map<String, Long> statementCounts() throws Exception {
+        HttpResponse<String> response = send("GET", "/admin/parking/simulation/db-stats", null, null, true);
+        JsonNode counts = objectMapper.readTree(response.body()).path("statements");
+        return objectMapper.convertValue(counts, new TypeReference<LinkedHashMap<String, Long>>() {});
+    }
+
+    private HttpResponse<String> send(String method, String path, String contentType, String body, boolean required) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (contentType != null) {
+            builder.header("Content-Type", contentType);
+        }
+        builder.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (required && response.statusCode() != 200) {
+            throw new IllegalStateException(method + " " + path + " 실패 (" + response.statusCode() + ")");
+        }
+        return response;
+    }
+}
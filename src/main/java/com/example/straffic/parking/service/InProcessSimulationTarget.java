@@ -0,0 +1,91 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.config.SqlStatementCounter;
+import com.example.straffic.parking.dto.GateEventDTO;
+import com.example.straffic.parking.dto.GateEventResultDTO;
+import com.example.straffic.parking.dto.ParkingStatusDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 같은 프로세스의 입/출차 서비스를 직접 호출한다 (HTTP·보안 필터 비용 제외).
+ * 이벤트의 가상 시각을 그대로 쓰므로 요금과 통계가 실제 체류 시간으로 계산된다.
+ * 현황은 ParkingStatusService.getStatus() 결과를 JSON 으로 직렬화하는 데까지 포함해서 잰다.
+ */
+class InProcessSimulationTarget implements ParkingSimulationTarget {
+
+    private final ParkingSimulationService simulationService;
+    private final ParkingGateService parkingGateService;
+    private final ParkingStatusService parkingStatusService;
+    private final ObjectMapper objectMapper;
+    private volatile String lastVersion;
+
+    InProcessSimulationTarget(ParkingSimulationService simulationService,
+                              ParkingGateService parkingGateService,
+                              ParkingStatusService parkingStatusService,
+                              ObjectMapper objectMapper) {
+        this.simulationService = simulationService;
+        this.parkingGateService = parkingGateService;
+        this.parkingStatusService = parkingStatusService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void prepareLot(String prefix, int spots) {
+        simulationService.prepareLot(prefix, spots);
+    }
+
+    @Override
+    public void dropLot(String prefix) {
+        simulationService.dropLot(prefix);
+    }
+
+    @Override
+    public boolean entry(ParkingTrafficModel.SimEvent event) {
+        try {
+            parkingGateService.entry(event.spotId, event.plateNumber, event.time);
+            return true;
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean exit(ParkingTrafficModel.SimEvent event) {
+        try {
+            parkingGateService.exit(event.spotId, event.carType, event.time);
+            return true;
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int ingest(List<ParkingTrafficModel.SimEvent> events) {
+        Map<Integer, GateEventDTO> batch = new LinkedHashMap<>();
+        for (ParkingTrafficModel.SimEvent e : events) {
+            batch.put(batch.size(), new GateEventDTO(e.type, e.spotId, e.plateNumber, "SIM", e.carType, e.time));
+        }
+        try {
+            return (int) parkingGateService.ingest(batch).stream().filter(GateEventResultDTO::isSuccess).count();
+        } catch (OptimisticLockingFailureException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public int status(boolean delta) throws Exception {
+        ParkingStatusDTO status = parkingStatusService.getStatus(delta ? lastVersion : null);
+        lastVersion = status.getVersion();
+        return objectMapper.writeValueAsBytes(status).length;
+    }
+
+    @Override
+    public Map<String, Long> statementCounts() {
+        return SqlStatementCounter.snapshot();
+    }
+}
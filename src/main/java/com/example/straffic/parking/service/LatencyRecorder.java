@@ -0,0 +1,51 @@
+package com.example.straffic.parking.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 지연 시간 표본을 모아 백분위를 계산한다 (시뮬레이션·벤치마크 한 번 분량이라 전부 보관)
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+
+    public synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    public synchronized Map<String, Object> summary() {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long s : sorted) sum += s;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", size);
+        summary.put("meanMs", size == 0 ? 0.0 : millis(sum / size));
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p90Ms", percentile(sorted, 0.90));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("maxMs", size == 0 ? 0.0 : millis(sorted[size - 1]));
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0.0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return millis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+}
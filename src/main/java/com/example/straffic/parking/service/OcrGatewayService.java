@@ -0,0 +1,113 @@
+package com.example.straffic.parking.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 번호판 인식 게이트웨이
+ * 단일 프로세스 OCR 서버가 감당할 수 있는 동시 요청 수(maxInFlight)만 전달하고,
+ * 나머지는 queueCapacity 까지 queueTimeout 동안 기다리게 한다. 대기열이 가득 찼거나 기다리다 시간이 지나면
+ * OcrOverloadedException 을 던져 429 로 바로 거절한다 (OCR 서버에 요청이 쌓이지 않게).
+ * 캐시에 있는 프레임은 허용량을 쓰지 않고 바로 돌려준다.
+ */
+@Service
+public class OcrGatewayService {
+
+    private final PlateRecognizer plateRecognizer;
+    private final PlateRecognitionCache recognitionCache;
+    private final int maxInFlight;
+    private final int queueCapacity;
+    private final long queueTimeoutMillis;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedTimeout = new AtomicLong();
+
+    @Autowired
+    public OcrGatewayService(PlateRecognizer plateRecognizer,
+                             PlateRecognitionCache recognitionCache,
+                             @Value("${parking.ocr.max-in-flight:2}") int maxInFlight,
+                             @Value("${parking.ocr.queue-capacity:8}") int queueCapacity,
+                             @Value("${parking.ocr.queue-timeout-ms:5000}") long queueTimeoutMillis) {
+        this.plateRecognizer = plateRecognizer;
+        this.recognitionCache = recognitionCache;
+        this.maxInFlight = maxInFlight;
+        this.queueCapacity = queueCapacity;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.permits = new Semaphore(maxInFlight, true);
+    }
+
+    public Map<String, Object> recognize(byte[] image, String fileName, String contentType) {
+        PlateRecognitionCache.ImageKey key = recognitionCache.keyOf(image);
+        Map<String, Object> cached = recognitionCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        acquire();
+        try {
+            Map<String, Object> result = plateRecognizer.recognize(image, fileName, contentType);
+            recognitionCache.put(key, result);
+            return result;
+        } finally {
+            permits.release();
+            completed.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("inFlight", maxInFlight - permits.availablePermits());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("waiting", waiting.get());
+        stats.put("completed", completed.get());
+        stats.put("rejectedQueueFull", rejectedQueueFull.get());
+        stats.put("rejectedTimeout", rejectedTimeout.get());
+        stats.put("cache", recognitionCache.getStats());
+        return stats;
+    }
+
+    private void acquire() {
+        // 인자 없는 tryAcquire() 는 공정 모드에서도 대기열을 새치기하므로, 기다리는 요청이 있으면 양보하는 시간 지정 버전을 쓴다
+        try {
+            if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OcrOverloadedException("번호판 인식 대기 중 중단되었습니다", retryAfterSeconds());
+        }
+        if (waiting.incrementAndGet() > queueCapacity) {
+            waiting.decrementAndGet();
+            rejectedQueueFull.incrementAndGet();
+            throw new OcrOverloadedException("번호판 인식 요청이 많습니다. 잠시 후 다시 시도하세요", retryAfterSeconds());
+        }
+        try {
+            if (!permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedTimeout.incrementAndGet();
+                throw new OcrOverloadedException("번호판 인식 대기 시간이 초과되었습니다. 잠시 후 다시 시도하세요", retryAfterSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OcrOverloadedException("번호판 인식 대기 중 중단되었습니다", retryAfterSeconds());
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queueTimeoutMillis));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.straffic.parking.service;
+
+/**
+ * OCR 게이트웨이가 요청을 받지 못할 때 (대기열 초과 또는 대기 시간 초과) → 429 로 응답한다
+ */
+public class OcrOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OcrOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.dto.ParkingHourlyStatsDTO;
+import com.example.straffic.parking.dto.ParkingRevenueStatsDTO;
+import com.example.straffic.parking.dto.ParkingTurnoverDTO;
+import com.example.straffic.parking.entity.ParkingDailyRevenueEntity;
+import com.example.straffic.parking.entity.ParkingHourlyOccupancyEntity;
+import com.example.straffic.parking.entity.ParkingSpotEntity;
+import com.example.straffic.parking.entity.ParkingSpotTurnoverEntity;
+import com.example.straffic.parking.repository.ParkingDailyRevenueRepository;
+import com.example.straffic.parking.repository.ParkingHourlyOccupancyRepository;
+import com.example.straffic.parking.repository.ParkingSpotRepository;
+import com.example.straffic.parking.repository.ParkingSpotTurnoverRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * 주차 통계 롤업
+ * 입/출차가 일어날 때 시간대별 점유, 일자/차종별 매출·체류 시간, 구역별 회전수를 증가시키고
+ * 관리자 대시보드는 parking_record 를 다시 읽지 않고 롤업 테이블만 조회한다.
+ */
+@Service
+public class ParkingAnalyticsService {
+
+    private static final DateTimeFormatter HOUR_ID = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final int KNOWN_BUCKET_LIMIT = 10_000;
+
+    private final ParkingHourlyOccupancyRepository hourlyRepository;
+    private final ParkingDailyRevenueRepository dailyRepository;
+    private final ParkingSpotTurnoverRepository turnoverRepository;
+    private final ParkingSpotRepository parkingSpotRepository;
+
+    // 이미 행이 만들어진 버킷 ID (매번 존재 여부를 조회하지 않기 위함)
+    private final Set<String> knownBuckets = ConcurrentHashMap.newKeySet();
+
+    public ParkingAnalyticsService(ParkingHourlyOccupancyRepository hourlyRepository,
+                                   ParkingDailyRevenueRepository dailyRepository,
+                                   ParkingSpotTurnoverRepository turnoverRepository,
+                                   ParkingSpotRepository parkingSpotRepository) {
+        this.hourlyRepository = hourlyRepository;
+        this.dailyRepository = dailyRepository;
+        this.turnoverRepository = turnoverRepository;
+        this.parkingSpotRepository = parkingSpotRepository;
+    }
+
+    /**
+     * 증가분을 반영한다. 호출한 쪽의 입/출차 트랜잭션에 참여하므로 입/출차가 롤백되면 통계도 함께 롤백된다.
+     * 증가는 "col = col + ?" UPDATE 로 하므로 여러 게이트가 같은 버킷을 동시에 갱신해도 값이 유실되지 않는다.
+     */
+    @Transactional
+    public void apply(ParkingRollupDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        delta.hourly.forEach((hourStart, v) -> {
+            String id = hourStart.format(HOUR_ID);
+            increment(id, () -> hourlyRepository.createIfAbsent(id, hourStart),
+                    () -> hourlyRepository.increment(id, v[0], v[1], v[2]));
+        });
+        delta.daily.forEach((id, d) -> increment(id, () -> dailyRepository.createIfAbsent(id, d.date, d.carType),
+                () -> dailyRepository.increment(id, d.exits, d.revenue, d.dwellMinutes)));
+        delta.turnover.forEach((id, t) -> increment(id, () -> turnoverRepository.createIfAbsent(id, t.date, t.spotId),
+                () -> turnoverRepository.increment(id, t.turnovers, t.dwellMinutes)));
+    }
+
+    /**
+     * 구역 ID 가 prefix 로 시작하는 회전수 버킷을 잊는다 (시뮬레이션 구역 정리가 커밋된 뒤)
+     */
+    public void forgetTurnoverBuckets(String spotIdPrefix) {
+        // 회전수 버킷 ID: yyyyMMdd_구역ID
+        knownBuckets.removeIf(id -> id.startsWith(spotIdPrefix, id.indexOf('_') + 1));
+    }
+
+    @Transactional(readOnly = true)
+    public ParkingHourlyStatsDTO getHourlyStats(LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        long[] entries = new long[24];
+        long[] exits = new long[24];
+        long[] seconds = new long[24];
+
+        for (ParkingHourlyOccupancyEntity h : hourlyRepository.findByHourStartBetweenOrderByHourStart(start, start.plusHours(23))) {
+            int hour = h.getHourStart().getHour();
+            entries[hour] = h.getEntries();
+            exits[hour] = h.getExits();
+            seconds[hour] = h.getOccupiedSeconds();
+        }
+
+        // 아직 출차하지 않은 차량은 롤업에 없으므로 현재 주차 중인 구역(구역 수만큼)으로 보정한다
+        LocalDateTime now = LocalDateTime.now();
+        for (ParkingSpotEntity spot : parkingSpotRepository.findAll()) {
+            if (!spot.isOccupied() || spot.getEntryTime() == null) {
+                continue;
+            }
+            for (int hour = 0; hour < 24; hour++) {
+                LocalDateTime from = max(spot.getEntryTime(), start.plusHours(hour));
+                LocalDateTime to = min(now, start.plusHours(hour + 1));
+                if (from.isBefore(to)) {
+                    seconds[hour] += Duration.between(from, to).getSeconds();
+                }
+            }
+        }
+
+        List<String> labels = new ArrayList<>();
+        List<Long> entryList = new ArrayList<>();
+        List<Long> exitList = new ArrayList<>();
+        List<Double> occupancy = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            labels.add(hour + "시");
+            entryList.add(entries[hour]);
+            exitList.add(exits[hour]);
+            occupancy.add(Math.round(seconds[hour] / 3600.0 * 100) / 100.0);
+        }
+        return new ParkingHourlyStatsDTO(date.toString(), labels, entryList, exitList, occupancy);
+    }
+
+    @Transactional(readOnly = true)
+    public ParkingRevenueStatsDTO getRevenueStats(LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> dayIndex = new LinkedHashMap<>();
+        List<String> labels = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            dayIndex.put(d, labels.size());
+            labels.add(d.toString());
+        }
+
+        long[] revenue = new long[labels.size()];
+        long[] exits = new long[labels.size()];
+        long[] dwell = new long[labels.size()];
+        Map<String, long[]> byCarType = new TreeMap<>();
+        long total = 0;
+
+        for (ParkingDailyRevenueEntity d : dailyRepository.findByStatDateBetweenOrderByStatDate(from, to)) {
+            int i = dayIndex.get(d.getStatDate());
+            revenue[i] += d.getRevenue();
+            exits[i] += d.getExits();
+            dwell[i] += d.getDwellMinutes();
+            byCarType.computeIfAbsent(d.getCarType(), k -> new long[labels.size()])[i] += d.getRevenue();
+            total += d.getRevenue();
+        }
+
+        List<Long> revenueList = new ArrayList<>();
+        List<Double> averageDwell = new ArrayList<>();
+        for (int i = 0; i < labels.size(); i++) {
+            revenueList.add(revenue[i]);
+            averageDwell.add(exits[i] == 0 ? 0.0 : Math.round(dwell[i] * 10.0 / exits[i]) / 10.0);
+        }
+        Map<String, List<Long>> revenueByCarType = new LinkedHashMap<>();
+        byCarType.forEach((carType, values) -> {
+            List<Long> list = new ArrayList<>();
+            for (long v : values) list.add(v);
+            revenueByCarType.put(carType, list);
+        });
+
+        return new ParkingRevenueStatsDTO(labels, revenueList, revenueByCarType, averageDwell, total);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ParkingTurnoverDTO> getTurnover(LocalDate from, LocalDate to) {
+        Map<String, long[]> bySpot = new TreeMap<>();
+        for (ParkingSpotTurnoverEntity t : turnoverRepository.findByStatDateBetween(from, to)) {
+            long[] v = bySpot.computeIfAbsent(t.getSpotId(), k -> new long[2]);
+            v[0] += t.getTurnovers();
+            v[1] += t.getDwellMinutes();
+        }
+        List<ParkingTurnoverDTO> result = new ArrayList<>();
+        bySpot.forEach((spotId, v) -> result.add(new ParkingTurnoverDTO(spotId, v[0],
+                v[0] == 0 ? 0.0 : Math.round(v[1] * 10.0 / v[0]) / 10.0)));
+        return result;
+    }
+
+    /**
+     * 버킷 행이 없으면 호출한 쪽 트랜잭션 안에서 insert-if-absent 로 만든다 (잠금·별도 커넥션 없음).
+     * 이미 만든 버킷은 knownBuckets 로 건너뛰고, 롤백되면 행도 없어지므로 커밋된 뒤에만 기억한다.
+     */
+    private void increment(String id, Runnable create, IntSupplier increment) {
+        ensureBucket(id, create);
+        if (increment.getAsInt() == 0) {
+            // 기억한 버킷 행이 지워졌다 (시뮬레이션 정리, 다른 노드 포함). 다시 만들고 한 번 더
+            knownBuckets.remove(id);
+            ensureBucket(id, create);
+            increment.getAsInt();
+        }
+    }
+
+    private void ensureBucket(String id, Runnable create) {
+        if (knownBuckets.contains(id)) {
+            return;
+        }
+        create.run();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (knownBuckets.size() >= KNOWN_BUCKET_LIMIT) {
+                    knownBuckets.clear();
+                }
+                knownBuckets.add(id);
+            }
+        });
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
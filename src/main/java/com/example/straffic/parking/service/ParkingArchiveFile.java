@@ -0,0 +1,665 @@
+package com.example.straffic.parking.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 주차 기록 아카이브 파일 (.pra, 한 달 분량)
+ * 행을 GROUP_ROWS 개씩 묶은 행 그룹마다 열 단위로 인코딩한 뒤 열마다 따로 압축한다.
+ * 파일 끝의 디렉터리에 그룹별 입차 시각 범위와 열 위치가 있어서, 필요한 그룹·열만 한 그룹씩 풀어 읽는다.
+ * - 행은 entry_time(초) 순으로 정렬 (같은 초 안의 순서는 쓴 순서)
+ * - id, entry_time: 앞 행과의 차이 (varint)
+ * - exit_time: entry_time 과의 차이 (초)
+ * - 문자열 열(구역, 차량 번호, 차종): 그룹별 사전 + 코드 (코드 0 은 null)
+ * 시각은 LocalDateTime 을 그대로 epoch 초(UTC 기준 벽시계)로 저장한다 (초 미만은 버림).
+ * 버전 1(행 그룹 없이 파일 전체가 한 그룹, null 은 빈 문자열) 파일도 읽을 수 있다.
+ */
+final class ParkingArchiveFile {
+
+    static final int MAGIC = 0x50524131; // "PRA1"
+    static final int VERSION = 2;
+    static final int GROUP_ROWS = 8192;
+
+    static final int ID = 0;
+    static final int SPOT = 1;
+    static final int CAR_NUMBER = 2;
+    static final int CAR_TYPE = 3;
+    static final int ENTRY_TIME = 4;
+    static final int EXIT_TIME = 5;
+    static final int DURATION = 6;
+    static final int FEE = 7;
+    static final Set<Integer> ALL_COLUMNS = Set.of(ID, SPOT, CAR_NUMBER, CAR_TYPE, ENTRY_TIME, EXIT_TIME, DURATION, FEE);
+
+    private static final int COLUMN_COUNT = 8;
+    // magic, version, rows, minEntry, maxEntry, columns, groups, directoryOffset
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 4 + 4 + 8;
+
+    private ParkingArchiveFile() {
+    }
+
+    /**
+     * 열 배열로 담은 기록. GroupReader 로 읽은 경우 요청하지 않은 열은 null
+     */
+    static class Rows {
+        int size;
+        long[] id = new long[16];
+        String[] spot = new String[16];
+        String[] carNumber = new String[16];
+        String[] carType = new String[16];
+        long[] entryTime = new long[16];
+        long[] exitTime = new long[16];
+        long[] duration = new long[16];
+        int[] fee = new int[16];
+
+        void add(long id, String spot, String carNumber, String carType,
+                 LocalDateTime entryTime, LocalDateTime exitTime, long duration, int fee) {
+            addEpoch(id, spot, carNumber, carType, toEpoch(entryTime), toEpoch(exitTime), duration, fee);
+        }
+
+        void addEpoch(long id, String spot, String carNumber, String carType,
+                      long entryTime, long exitTime, long duration, int fee) {
+            if (size == this.id.length) {
+                int capacity = size * 2;
+                this.id = Arrays.copyOf(this.id, capacity);
+                this.spot = Arrays.copyOf(this.spot, capacity);
+                this.carNumber = Arrays.copyOf(this.carNumber, capacity);
+                this.carType = Arrays.copyOf(this.carType, capacity);
+                this.entryTime = Arrays.copyOf(this.entryTime, capacity);
+                this.exitTime = Arrays.copyOf(this.exitTime, capacity);
+                this.duration = Arrays.copyOf(this.duration, capacity);
+                this.fee = Arrays.copyOf(this.fee, capacity);
+            }
+            this.id[size] = id;
+            this.spot[size] = spot;
+            this.carNumber[size] = carNumber;
+            this.carType[size] = carType;
+            this.entryTime[size] = entryTime;
+            this.exitTime[size] = exitTime;
+            this.duration[size] = duration;
+            this.fee[size] = fee;
+            size++;
+        }
+
+        void addAll(Rows other) {
+            for (int i = 0; i < other.size; i++) {
+                addEpoch(other.id[i], other.spot[i], other.carNumber[i], other.carType[i],
+                        other.entryTime[i], other.exitTime[i], other.duration[i], other.fee[i]);
+            }
+        }
+
+        LocalDateTime entryTimeAt(int i) {
+            return toTime(entryTime[i]);
+        }
+
+        LocalDateTime exitTimeAt(int i) {
+            return toTime(exitTime[i]);
+        }
+    }
+
+    static class Header {
+        int rows;
+        long minEntry;
+        long maxEntry;
+        final List<Group> groups = new ArrayList<>();
+
+        LocalDateTime minEntryTime() {
+            return toTime(minEntry);
+        }
+
+        LocalDateTime maxEntryTime() {
+            return toTime(maxEntry);
+        }
+    }
+
+    static class Group {
+        int version;
+        int rows;
+        long minEntry;
+        long maxEntry;
+        final long[] offset = new long[COLUMN_COUNT];
+        final int[] compressed = new int[COLUMN_COUNT];
+        final int[] raw = new int[COLUMN_COUNT];
+    }
+
+    /**
+     * 행 내용 전체의 CRC32 와 행 수 (쓴 순서대로 누적)
+     */
+    static final class Checksum {
+        private final CRC32 crc = new CRC32();
+        private final ByteBuffer buffer = ByteBuffer.allocate(8);
+        private long rows;
+
+        void update(long id, String spot, String carNumber, String carType,
+                    long entryTime, long exitTime, long duration, int fee) {
+            updateLong(id);
+            updateString(spot);
+            updateString(carNumber);
+            updateString(carType);
+            updateLong(entryTime);
+            updateLong(exitTime);
+            updateLong(duration);
+            updateLong(fee);
+            rows++;
+        }
+
+        void update(Rows rows, int i) {
+            update(rows.id[i], rows.spot[i], rows.carNumber[i], rows.carType[i],
+                    rows.entryTime[i], rows.exitTime[i], rows.duration[i], rows.fee[i]);
+        }
+
+        long rows() {
+            return rows;
+        }
+
+        long value() {
+            return crc.getValue();
+        }
+
+        boolean matches(Checksum other) {
+            return rows == other.rows && value() == other.value();
+        }
+
+        private void updateLong(long value) {
+            buffer.clear();
+            buffer.putLong(value);
+            crc.update(buffer.array(), 0, 8);
+        }
+
+        private void updateString(String value) {
+            if (value == null) {
+                crc.update(0);
+                return;
+            }
+            crc.update(1);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            updateLong(bytes.length);
+            crc.update(bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * 메모리에 있는 기록을 한 번에 쓴다 (정렬은 여기서 한다)
+     */
+    static void write(Path path, Rows rows) throws IOException {
+        Integer[] order = new Integer[rows.size];
+        for (int i = 0; i < rows.size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> rows.entryTime[a] != rows.entryTime[b]
+                ? Long.compare(rows.entryTime[a], rows.entryTime[b])
+                : Long.compare(rows.id[a], rows.id[b]));
+        try (Writer writer = new Writer(path)) {
+            for (int i : order) {
+                writer.add(rows.id[i], rows.spot[i], rows.carNumber[i], rows.carType[i],
+                        rows.entryTime[i], rows.exitTime[i], rows.duration[i], rows.fee[i]);
+            }
+            writer.commit();
+        }
+    }
+
+    /**
+     * entry_time 오름차순으로 받은 행을 GROUP_ROWS 개씩 바로 써 나간다 (메모리에는 한 그룹만).
+     * finish 로 임시 파일을 완성하고 commit 에서 바꿔치기하므로, 중간에 실패하거나 commit 전에 닫으면 기존 아카이브는 그대로다.
+     * 그 사이에 finishedFile() 을 읽어 검증할 수 있다.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path path;
+        private final Path tmp;
+        private final DataOutputStream out;
+        private final Header header = new Header();
+        private final Checksum checksum = new Checksum();
+        private Rows group = new Rows();
+        private long position = HEADER_SIZE;
+        private long lastEntry = Long.MIN_VALUE;
+        private boolean finished;
+        private boolean committed;
+
+        Writer(Path path) throws IOException {
+            this.path = path;
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            this.tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024));
+            out.write(new byte[HEADER_SIZE]);
+        }
+
+        void add(long id, String spot, String carNumber, String carType,
+                 long entryTime, long exitTime, long duration, int fee) throws IOException {
+            if (entryTime < lastEntry) {
+                throw new IllegalArgumentException("아카이브 행은 입차 시각 오름차순이어야 합니다 (id " + id + ")");
+            }
+            lastEntry = entryTime;
+            checksum.update(id, spot, carNumber, carType, entryTime, exitTime, duration, fee);
+            group.addEpoch(id, spot, carNumber, carType, entryTime, exitTime, duration, fee);
+            if (group.size == GROUP_ROWS) {
+                flushGroup();
+            }
+        }
+
+        int rows() {
+            return header.rows + group.size;
+        }
+
+        /**
+         * 지금까지 받은 행의 체크섬 (다 쓴 파일을 다시 읽어 비교하는 용도)
+         */
+        Checksum checksum() {
+            return checksum;
+        }
+
+        /**
+         * 임시 파일을 완성한다 (아직 바꿔치기하지 않음)
+         *
+         * @return 완성된 임시 파일
+         */
+        Path finish() throws IOException {
+            if (finished) {
+                return tmp;
+            }
+            if (group.size > 0) {
+                flushGroup();
+            }
+            long directoryOffset = position;
+            for (Group g : header.groups) {
+                out.writeInt(g.rows);
+                out.writeLong(g.minEntry);
+                out.writeLong(g.maxEntry);
+                for (int c = 0; c < COLUMN_COUNT; c++) {
+                    out.writeLong(g.offset[c]);
+                    out.writeInt(g.compressed[c]);
+                    out.writeInt(g.raw[c]);
+                }
+            }
+            out.close();
+            try (RandomAccessFile file = new RandomAccessFile(tmp.toFile(), "rw")) {
+                file.writeInt(MAGIC);
+                file.writeInt(VERSION);
+                file.writeInt(header.rows);
+                file.writeLong(header.minEntry);
+                file.writeLong(header.maxEntry);
+                file.writeInt(COLUMN_COUNT);
+                file.writeInt(header.groups.size());
+                file.writeLong(directoryOffset);
+                file.getFD().sync();
+            }
+            finished = true;
+            return tmp;
+        }
+
+        void commit() throws IOException {
+            finish();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        private void flushGroup() throws IOException {
+            Rows rows = group;
+            int n = rows.size;
+            byte[][] raw = new byte[COLUMN_COUNT][];
+            raw[ID] = encodeDelta(rows.id, n);
+            raw[SPOT] = encodeDictionary(rows.spot, n);
+            raw[CAR_NUMBER] = encodeDictionary(rows.carNumber, n);
+            raw[CAR_TYPE] = encodeDictionary(rows.carType, n);
+            raw[ENTRY_TIME] = encodeDelta(rows.entryTime, n);
+            raw[EXIT_TIME] = encode(o -> {
+                for (int i = 0; i < n; i++) writeVarLong(o, zigzag(rows.exitTime[i] - rows.entryTime[i]));
+            });
+            raw[DURATION] = encode(o -> {
+                for (int i = 0; i < n; i++) writeVarLong(o, zigzag(rows.duration[i]));
+            });
+            raw[FEE] = encode(o -> {
+                for (int i = 0; i < n; i++) writeVarLong(o, zigzag(rows.fee[i]));
+            });
+
+            Group g = new Group();
+            g.rows = n;
+            g.minEntry = rows.entryTime[0];
+            g.maxEntry = rows.entryTime[n - 1];
+            for (int c = 0; c < COLUMN_COUNT; c++) {
+                byte[] block = deflate(raw[c]);
+                g.offset[c] = position;
+                g.compressed[c] = block.length;
+                g.raw[c] = raw[c].length;
+                out.write(block);
+                position += block.length;
+            }
+            if (header.groups.isEmpty()) {
+                header.minEntry = g.minEntry;
+            }
+            header.maxEntry = g.maxEntry;
+            header.rows += n;
+            header.groups.add(g);
+            group = new Rows();
+        }
+    }
+
+    static Header readHeader(Path path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            return readHeader(file);
+        }
+    }
+
+    /**
+     * 파일 전체를 모든 열로 읽는다 (작은 파일·검증용)
+     */
+    static Rows readAll(Path path) throws IOException {
+        Rows all = new Rows();
+        try (GroupReader reader = new GroupReader(path, ALL_COLUMNS, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            for (Rows rows = reader.next(); rows != null; rows = reader.next()) {
+                for (int i = 0; i < rows.size; i++) {
+                    all.addEpoch(rows.id[i], rows.spot[i], rows.carNumber[i], rows.carType[i],
+                            rows.entryTime[i], rows.exitTime[i], rows.duration[i], rows.fee[i]);
+                }
+            }
+        }
+        return all;
+    }
+
+    /**
+     * 입차 시각 [fromEpoch, toEpoch) 와 겹치는 행 그룹을 하나씩 columns 에 있는 열만 풀어서 돌려준다.
+     * 그룹 안의 행은 걸러내지 않으므로 범위 밖 행은 호출한 쪽에서 거른다.
+     */
+    static final class GroupReader implements Closeable {
+
+        private final RandomAccessFile file;
+        private final Header header;
+        private final Set<Integer> columns;
+        private final long fromEpoch;
+        private final long toEpoch;
+        private int next;
+
+        GroupReader(Path path, Set<Integer> columns, long fromEpoch, long toEpoch) throws IOException {
+            this.file = new RandomAccessFile(path.toFile(), "r");
+            try {
+                this.header = readHeader(file);
+            } catch (IOException e) {
+                file.close();
+                throw e;
+            }
+            this.columns = columns;
+            this.fromEpoch = fromEpoch;
+            this.toEpoch = toEpoch;
+        }
+
+        /**
+         * @return 다음 그룹, 없으면 null
+         */
+        Rows next() throws IOException {
+            while (next < header.groups.size()) {
+                Group group = header.groups.get(next++);
+                if (group.maxEntry < fromEpoch || group.minEntry >= toEpoch) {
+                    continue;
+                }
+                return readGroup(file, group, columns);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+
+    private static Rows readGroup(RandomAccessFile file, Group group, Set<Integer> columns) throws IOException {
+        int n = group.rows;
+        Rows rows = new Rows();
+        rows.size = n;
+        rows.id = columns.contains(ID) ? decodeDelta(readColumn(file, group, ID), n) : null;
+        boolean nullCode = group.version >= 2;
+        rows.spot = columns.contains(SPOT) ? decodeDictionary(readColumn(file, group, SPOT), n, nullCode) : null;
+        rows.carNumber = columns.contains(CAR_NUMBER) ? decodeDictionary(readColumn(file, group, CAR_NUMBER), n, nullCode) : null;
+        rows.carType = columns.contains(CAR_TYPE) ? decodeDictionary(readColumn(file, group, CAR_TYPE), n, nullCode) : null;
+        // exit_time 은 entry_time 기준이라 함께 읽는다
+        boolean needEntry = columns.contains(ENTRY_TIME) || columns.contains(EXIT_TIME);
+        rows.entryTime = needEntry ? decodeDelta(readColumn(file, group, ENTRY_TIME), n) : null;
+        if (columns.contains(EXIT_TIME)) {
+            DataInputStream in = stream(readColumn(file, group, EXIT_TIME));
+            rows.exitTime = new long[n];
+            for (int i = 0; i < n; i++) rows.exitTime[i] = rows.entryTime[i] + unzigzag(readVarLong(in));
+        } else {
+            rows.exitTime = null;
+        }
+        if (columns.contains(DURATION)) {
+            DataInputStream in = stream(readColumn(file, group, DURATION));
+            rows.duration = new long[n];
+            for (int i = 0; i < n; i++) rows.duration[i] = unzigzag(readVarLong(in));
+        } else {
+            rows.duration = null;
+        }
+        if (columns.contains(FEE)) {
+            DataInputStream in = stream(readColumn(file, group, FEE));
+            rows.fee = new int[n];
+            for (int i = 0; i < n; i++) rows.fee[i] = (int) unzigzag(readVarLong(in));
+        } else {
+            rows.fee = null;
+        }
+        return rows;
+    }
+
+    private static Header readHeader(RandomAccessFile file) throws IOException {
+        file.seek(0);
+        if (file.readInt() != MAGIC) {
+            throw new IOException("주차 기록 아카이브 파일이 아닙니다");
+        }
+        int version = file.readInt();
+        if (version != 1 && version != VERSION) {
+            throw new IOException("지원하지 않는 아카이브 버전입니다 (" + version + ")");
+        }
+        Header header = new Header();
+        header.rows = file.readInt();
+        header.minEntry = file.readLong();
+        header.maxEntry = file.readLong();
+        int columns = file.readInt();
+        if (version == 1) {
+            // 버전 1: 헤더 바로 뒤에 파일 전체 한 그룹의 열 위치
+            Group group = new Group();
+            group.version = version;
+            group.rows = header.rows;
+            group.minEntry = header.minEntry;
+            group.maxEntry = header.maxEntry;
+            readColumns(file, group, columns);
+            if (header.rows > 0) {
+                header.groups.add(group);
+            }
+            return header;
+        }
+        int groups = file.readInt();
+        file.seek(file.readLong());
+        for (int g = 0; g < groups; g++) {
+            Group group = new Group();
+            group.version = version;
+            group.rows = file.readInt();
+            group.minEntry = file.readLong();
+            group.maxEntry = file.readLong();
+            readColumns(file, group, columns);
+            header.groups.add(group);
+        }
+        return header;
+    }
+
+    private static void readColumns(RandomAccessFile file, Group group, int columns) throws IOException {
+        for (int c = 0; c < columns; c++) {
+            group.offset[c] = file.readLong();
+            group.compressed[c] = file.readInt();
+            group.raw[c] = file.readInt();
+        }
+    }
+
+    private static byte[] readColumn(RandomAccessFile file, Group group, int column) throws IOException {
+        byte[] compressed = new byte[group.compressed[column]];
+        file.seek(group.offset[column]);
+        file.readFully(compressed);
+        return inflate(compressed, group.raw[column]);
+    }
+
+    // ---- 인코딩 ----
+
+    private interface ColumnWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(ColumnWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writer.write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeDelta(long[] values, int n) throws IOException {
+        return encode(out -> {
+            long previous = 0;
+            for (int i = 0; i < n; i++) {
+                writeVarLong(out, zigzag(values[i] - previous));
+                previous = values[i];
+            }
+        });
+    }
+
+    private static long[] decodeDelta(byte[] data, int n) throws IOException {
+        DataInputStream in = stream(data);
+        long[] values = new long[n];
+        long previous = 0;
+        for (int i = 0; i < n; i++) {
+            previous += unzigzag(readVarLong(in));
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static byte[] encodeDictionary(String[] values, int n) throws IOException {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] encoded = new int[n];
+        for (int i = 0; i < n; i++) {
+            encoded[i] = values[i] == null ? 0 : codes.computeIfAbsent(values[i], v -> {
+                dictionary.add(v);
+                return dictionary.size();
+            });
+        }
+        return encode(out -> {
+            writeVarLong(out, dictionary.size());
+            for (String value : dictionary) out.writeUTF(value);
+            for (int code : encoded) writeVarLong(out, code);
+        });
+    }
+
+    /**
+     * @param nullCode true 면 코드 0 이 null 이고 사전은 1 부터 (버전 2), false 면 사전이 0 부터 (버전 1)
+     */
+    private static String[] decodeDictionary(byte[] data, int n, boolean nullCode) throws IOException {
+        DataInputStream in = stream(data);
+        int base = nullCode ? 1 : 0;
+        String[] dictionary = new String[(int) readVarLong(in) + base];
+        for (int i = base; i < dictionary.length; i++) dictionary[i] = in.readUTF();
+        String[] values = new String[n];
+        for (int i = 0; i < n; i++) values[i] = dictionary[(int) readVarLong(in)];
+        return values;
+    }
+
+    private static DataInputStream stream(byte[] data) {
+        return new DataInputStream(new ByteArrayInputStream(data));
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+            shift += 7;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] result = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(result, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("아카이브 열이 잘려 있습니다");
+                }
+                read += n;
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("아카이브 열을 풀 수 없습니다", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
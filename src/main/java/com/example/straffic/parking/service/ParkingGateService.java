@@ -0,0 +1,441 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.dto.GateEventDTO;
+import com.example.straffic.parking.dto.GateEventResultDTO;
+import com.example.straffic.parking.entity.ParkingPlateListEntity;
+import com.example.straffic.parking.entity.ParkingReservationEntity;
+import com.example.straffic.parking.entity.ParkingRecordEntity;
+import com.example.straffic.parking.entity.ParkingSpotEntity;
+import com.example.straffic.parking.repository.ParkingRecordRepository;
+import com.example.straffic.parking.repository.ParkingSpotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 주차 입/출차 처리
+ * 단건 API(/api/parking/entry, /exit)와 게이트 이벤트 일괄 수집(/api/parking/events)이 같은 규칙을 사용한다.
+ * 구역 락을 잡은 뒤 트랜잭션을 시작하고 커밋까지 마친 후 락을 놓는다. 다른 노드와의 경합은 ParkingSpotEntity 의 @Version 으로 막는다.
+ * 커밋된 입/출차는 번호판 검색 인덱스(PlateMatchIndex)에 반영해서, 출차 게이트가 구역 대신 인식된 번호판만 보내도 처리할 수 있다.
+ * 현황 메모리 상태(ParkingStatusService)도 커밋 직후 갱신한다.
+ * 입차는 예약(ParkingReservationService)을 확인해서 곧 시작할 다른 차량의 예약이 있는 구역은 거절하고, 예약한 차량이면 체크인한다.
+ * 체크인한 차량이 출차하면 예약을 끝내서 남은 시간을 다른 예약에 풀어준다.
+ * 미납 차량은 입차를 막고(block-entry), 정기권 차량은 출차 요금을 받지 않는다 (ParkingPlateListService, 대부분 DB 조회 없이 판단).
+ */
+@Service
+@RequiredArgsConstructor
+public class ParkingGateService {
+
+    public static final String ENTRY = "ENTRY";
+    public static final String EXIT = "EXIT";
+
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int FEE_PER_MINUTE = 50;
+
+    @Value("${parking.plate-match.exit-max-distance:1}")
+    private int exitMaxDistance;
+
+    @Value("${parking.plate-list.block-entry:true}")
+    private boolean blockEntry;
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final ParkingRecordRepository parkingRecordRepository;
+    private final ParkingSpotLocks parkingSpotLocks;
+    private final ParkingAnalyticsService parkingAnalyticsService;
+    private final TransactionTemplate transactionTemplate;
+    private final PlateMatchIndex plateMatchIndex;
+    private final ParkingStatusService parkingStatusService;
+    private final ParkingReservationService parkingReservationService;
+    private final ParkingPlateListService parkingPlateListService;
+
+    public ParkingSpotEntity entry(String spotId, String plateNumber, LocalDateTime time) {
+        checkBlocked(plateNumber);
+        return parkingSpotLocks.withLock(spotId, () -> {
+            Long reservationId = parkingReservationService.checkEntry(spotId, plateNumber, time);
+            boolean[] checkedIn = new boolean[1];
+            ParkingSpotEntity saved = transactionTemplate.execute(status -> {
+                ParkingSpotEntity spot = parkingSpotRepository.findById(spotId).orElse(null);
+                if (spot == null) {
+                    spot = createSpot(spotId);
+                }
+                occupy(spot, plateNumber, time);
+                spot = parkingSpotRepository.save(spot);
+                // 다른 노드에서 방금 취소된 예약이면 체크인 없이 일반 입차로 처리한다
+                checkedIn[0] = reservationId != null && parkingReservationService.markStatus(reservationId,
+                        ParkingReservationEntity.RESERVED, ParkingReservationEntity.CHECKED_IN);
+                // 확실한 저장을 위해 flush
+                parkingSpotRepository.flush();
+
+                ParkingRollupDelta delta = new ParkingRollupDelta();
+                delta.entry(time);
+                parkingAnalyticsService.apply(delta);
+                return spot;
+            });
+            plateMatchIndex.parked(saved.getPlateNumber(), saved.getSpotId());
+            parkingStatusService.changed(saved);
+            if (checkedIn[0]) {
+                parkingReservationService.statusChanged(reservationId, ParkingReservationEntity.CHECKED_IN);
+            }
+            return saved;
+        });
+    }
+
+    public ParkingRecordEntity exit(String spotId, LocalDateTime time) {
+        return exit(spotId, null, time);
+    }
+
+    /**
+     * @param carType 게이트가 판별한 차종 (없으면 "일반")
+     */
+    public ParkingRecordEntity exit(String spotId, String carType, LocalDateTime time) {
+        return exit(spotId, null, carType, time);
+    }
+
+    /**
+     * @param plateNumber 있으면 구역 잠금 안에서 주차된 차량 번호와 같은지 확인한다
+     *                    (resolveParked 로 구역을 찾은 뒤 다른 게이트가 먼저 출차·입차시킨 경우 엉뚱한 차를 내보내지 않게)
+     * @param carType     게이트가 판별한 차종 (없으면 "일반")
+     */
+    public ParkingRecordEntity exit(String spotId, String plateNumber, String carType, LocalDateTime time) {
+        return parkingSpotLocks.withLock(spotId, () -> {
+            ParkingSpotEntity[] released = new ParkingSpotEntity[1];
+            Long[] reservationId = new Long[1];
+            ParkingRecordEntity saved = transactionTemplate.execute(status -> {
+                ParkingSpotEntity spot = parkingSpotRepository.findById(spotId)
+                        .orElseThrow(() -> new IllegalStateException("존재하지 않는 구역입니다"));
+                ParkingRecordEntity record = release(spot, plateNumber, carType, time);
+                parkingRecordRepository.save(record);
+                released[0] = parkingSpotRepository.save(spot);
+                reservationId[0] = parkingReservationService.checkedInReservation(spotId, record.getCarNumber());
+                if (reservationId[0] != null && !parkingReservationService.markStatus(reservationId[0],
+                        ParkingReservationEntity.CHECKED_IN, ParkingReservationEntity.COMPLETED)) {
+                    reservationId[0] = null;
+                }
+
+                ParkingRollupDelta delta = new ParkingRollupDelta();
+                delta.exit(record);
+                parkingAnalyticsService.apply(delta);
+                return record;
+            });
+            plateMatchIndex.left(saved.getCarNumber());
+            parkingStatusService.changed(released[0]);
+            if (reservationId[0] != null) {
+                parkingReservationService.statusChanged(reservationId[0], ParkingReservationEntity.COMPLETED);
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * 관리 화면에서 수기로 정산한 기록 (구역 점유와 무관)
+     * 기록 저장과 롤업 반영을 한 트랜잭션으로 묶어 둘 중 하나만 남지 않게 한다.
+     */
+    public ParkingRecordEntity recordSettled(ParkingRecordEntity record) {
+        return transactionTemplate.execute(status -> {
+            ParkingRecordEntity saved = parkingRecordRepository.save(record);
+            ParkingRollupDelta delta = new ParkingRollupDelta();
+            delta.entry(saved.getEntryTime());
+            delta.exit(saved);
+            parkingAnalyticsService.apply(delta);
+            return saved;
+        });
+    }
+
+    /**
+     * 인식된 번호판으로 주차 중인 차량을 찾는다 (OCR 오인식 허용).
+     * exit-max-distance 이내에서 가장 가까운 차량이 하나뿐일 때만 돌려주고, 없거나 애매하면 IllegalStateException
+     */
+    public PlateMatchIndex.Candidate resolveParked(String plateNumber) {
+        List<PlateMatchIndex.Candidate> candidates = plateMatchIndex.suggest(plateNumber, 2, true);
+        if (candidates.isEmpty() || candidates.get(0).getDistance() > exitMaxDistance) {
+            throw new IllegalStateException("일치하는 주차 차량이 없습니다 (" + plateNumber + ")");
+        }
+        if (candidates.size() > 1 && candidates.get(1).getDistance() == candidates.get(0).getDistance()) {
+            throw new IllegalStateException("비슷한 번호판이 여러 대 있습니다. 주차 구역을 선택하세요 ("
+                    + candidates.get(0).getPlateNumber() + ", " + candidates.get(1).getPlateNumber() + ")");
+        }
+        return candidates.get(0);
+    }
+
+    public List<PlateMatchIndex.Candidate> suggestPlates(String plateNumber, int limit, boolean parkedOnly) {
+        return plateMatchIndex.suggest(plateNumber, limit, parkedOnly);
+    }
+
+    /**
+     * 주차 중인 차량으로 번호판 인덱스를 다시 만든다 (기동 시)
+     */
+    public void rebuildPlateIndex() {
+        plateMatchIndex.clear();
+        for (ParkingSpotEntity spot : parkingSpotRepository.findAll()) {
+            if (spot.isOccupied() && spot.getPlateNumber() != null) {
+                plateMatchIndex.parked(spot.getPlateNumber(), spot.getSpotId());
+            }
+        }
+        System.out.println("[INFO] 번호판 인덱스 적재 완료: " + plateMatchIndex.size() + "대");
+    }
+
+    /**
+     * 이벤트 묶음을 하나의 트랜잭션으로 처리한다. 묶음에 등장하는 구역의 락을 모두 잡은 상태에서 실행된다.
+     * 같은 구역의 이벤트는 timestamp 순(같으면 수신 순)으로 적용하고, 구역 조회와 기록 저장은 묶음 단위로 한 번에 한다.
+     *
+     * @param events 요청 본문 줄 번호 → 이벤트 (수신 순서)
+     */
+    public List<GateEventResultDTO> ingest(Map<Integer, GateEventDTO> events) {
+        List<String> spotIds = new ArrayList<>();
+        for (GateEventDTO event : events.values()) {
+            resolveExitSpot(event);
+            if (event.getSpotId() != null) {
+                spotIds.add(event.getSpotId().trim());
+            }
+        }
+        return parkingSpotLocks.withLocks(spotIds, () -> {
+            List<ParkingSpotEntity> touched = new ArrayList<>();
+            Map<Long, String> reservations = new LinkedHashMap<>();
+            List<GateEventResultDTO> results = transactionTemplate.execute(status -> applyBatch(events, touched, reservations));
+            touched.forEach(parkingStatusService::changed);
+            reservations.forEach(parkingReservationService::statusChanged);
+            // 번호판 인덱스는 적용한 순서(timestamp 순)로 반영해야 같은 번호판의 입차·출차가 한 묶음에 있을 때 마지막 상태가 남는다
+            List<GateEventResultDTO> applied = new ArrayList<>();
+            for (GateEventResultDTO result : results) {
+                if (result.isSuccess()) applied.add(result);
+            }
+            applied.sort(Comparator.comparing(r -> events.get(r.getIndex()).getTimestamp()));
+            for (GateEventResultDTO result : applied) {
+                if (ENTRY.equals(result.getType())) {
+                    plateMatchIndex.parked(result.getPlateNumber(), result.getSpotId());
+                } else {
+                    plateMatchIndex.left(result.getPlateNumber());
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * 구역 없이 번호판만 온 출차 이벤트는 인덱스로 구역을 찾아 채운다. 번호판도 주차된 차량의 번호로 바꿔서
+     * 오인식된 번호 때문에 release 의 번호 확인에서 실패하지 않게 한다. 찾지 못하면 그대로 두고 validate 에서 실패 처리
+     */
+    private void resolveExitSpot(GateEventDTO event) {
+        if (event.getType() == null || !EXIT.equalsIgnoreCase(event.getType().trim())
+                || (event.getSpotId() != null && !event.getSpotId().trim().isEmpty())
+                || event.getPlateNumber() == null || event.getPlateNumber().trim().isEmpty()) {
+            return;
+        }
+        try {
+            PlateMatchIndex.Candidate match = resolveParked(event.getPlateNumber());
+            event.setSpotId(match.getSpotId());
+            event.setPlateNumber(match.getPlateNumber());
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    /**
+     * @param touchedSpots 커밋 후 현황에 반영할 구역 (출력)
+     * @param reservations 커밋 후 메모리에 반영할 예약 상태 변경, 예약 id → 최종 상태 (출력)
+     */
+    private List<GateEventResultDTO> applyBatch(Map<Integer, GateEventDTO> events, List<ParkingSpotEntity> touchedSpots,
+                                                Map<Long, String> reservations) {
+        Map<Integer, GateEventResultDTO> results = new HashMap<>();
+        Map<String, List<Integer>> bySpot = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Map.Entry<Integer, GateEventDTO> e : events.entrySet()) {
+            GateEventDTO event = e.getValue();
+            String error = validate(event);
+            if (error != null) {
+                results.put(e.getKey(), GateEventResultDTO.failure(e.getKey(), event, error));
+                continue;
+            }
+            event.setType(event.getType().trim().toUpperCase());
+            event.setSpotId(event.getSpotId().trim());
+            if (event.getTimestamp() == null) {
+                event.setTimestamp(now);
+            }
+            bySpot.computeIfAbsent(event.getSpotId(), k -> new ArrayList<>()).add(e.getKey());
+        }
+
+        Map<String, ParkingSpotEntity> spots = new HashMap<>();
+        parkingSpotRepository.findAllById(bySpot.keySet()).forEach(s -> spots.put(s.getSpotId(), s));
+
+        Map<String, ParkingSpotEntity> touched = new LinkedHashMap<>();
+        // 이 묶음 안에서 체크인한 예약 (메모리에는 커밋 후 반영되므로 같은 묶음의 출차는 여기서 찾는다)
+        Map<String, Long> checkedIn = new HashMap<>();
+        // 예약 id → 묶음 시작 시점의 상태 (DB 조건부 갱신에 쓴다)
+        Map<Long, String> before = new HashMap<>();
+        // 이 묶음 안에서 출차로 끝낸 예약 (메모리 달력에는 아직 남아 있으므로 뒤의 입차에서는 없는 것으로 본다)
+        Set<Long> completed = new HashSet<>();
+        List<ParkingRecordEntity> records = new ArrayList<>();
+        ParkingRollupDelta delta = new ParkingRollupDelta();
+
+        for (Map.Entry<String, List<Integer>> group : bySpot.entrySet()) {
+            List<Integer> indexes = group.getValue();
+            // List.sort 는 안정 정렬이므로 timestamp 가 같으면 수신 순서가 유지된다
+            indexes.sort(Comparator.comparing(i -> events.get(i).getTimestamp()));
+
+            for (Integer index : indexes) {
+                GateEventDTO event = events.get(index);
+                try {
+                    ParkingSpotEntity spot = spots.get(group.getKey());
+                    if (spot == null) {
+                        spot = createSpot(group.getKey());
+                        spots.put(spot.getSpotId(), spot);
+                    }
+                    GateEventResultDTO result = GateEventResultDTO.of(index, event);
+                    if (ENTRY.equals(event.getType())) {
+                        checkBlocked(event.getPlateNumber());
+                        Long reservationId = parkingReservationService.checkEntry(spot.getSpotId(), event.getPlateNumber(),
+                                event.getTimestamp(), completed);
+                        occupy(spot, event.getPlateNumber(), event.getTimestamp());
+                        if (reservationId != null) {
+                            checkedIn.put(spot.getSpotId(), reservationId);
+                            before.putIfAbsent(reservationId, ParkingReservationEntity.RESERVED);
+                            reservations.put(reservationId, ParkingReservationEntity.CHECKED_IN);
+                        }
+                        delta.entry(event.getTimestamp());
+                        result.setPlateNumber(spot.getPlateNumber());
+                    } else {
+                        ParkingRecordEntity record = release(spot, event.getPlateNumber(), event.getCarType(), event.getTimestamp());
+                        Long reservationId = checkedIn.remove(spot.getSpotId());
+                        if (reservationId == null) {
+                            reservationId = parkingReservationService.checkedInReservation(spot.getSpotId(), record.getCarNumber());
+                        }
+                        if (reservationId != null) {
+                            before.putIfAbsent(reservationId, ParkingReservationEntity.CHECKED_IN);
+                            reservations.put(reservationId, ParkingReservationEntity.COMPLETED);
+                            completed.add(reservationId);
+                        }
+                        records.add(record);
+                        delta.exit(record);
+                        result.setPlateNumber(record.getCarNumber());
+                        result.setDurationMinutes(record.getDurationMinutes());
+                        result.setFee(record.getFee());
+                    }
+                    touched.put(spot.getSpotId(), spot);
+                    result.setSuccess(true);
+                    result.setTime(event.getTimestamp().format(formatter));
+                    results.put(index, result);
+                } catch (IllegalStateException ex) {
+                    results.put(index, GateEventResultDTO.failure(index, event, ex.getMessage()));
+                }
+            }
+        }
+
+        // 커밋 시 flush 되면서 @Version 이 올라간 엔티티를 현황에 반영한다
+        touchedSpots.addAll(parkingSpotRepository.saveAll(touched.values()));
+        parkingRecordRepository.saveAll(records);
+        // 다른 노드가 먼저 바꾼 예약은 메모리에도 반영하지 않는다 (다음 reload 에서 맞춰진다)
+        reservations.entrySet().removeIf(e ->
+                !parkingReservationService.markStatus(e.getKey(), before.get(e.getKey()), e.getValue()));
+        parkingAnalyticsService.apply(delta);
+
+        List<GateEventResultDTO> ordered = new ArrayList<>(results.values());
+        ordered.sort(Comparator.comparingInt(GateEventResultDTO::getIndex));
+        return ordered;
+    }
+
+    public boolean isValidSpotId(String spotId) {
+        if (spotId == null || !spotId.startsWith("A-")) return false;
+        try {
+            int num = Integer.parseInt(spotId.substring(2));
+            return num >= 1 && num <= 10;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String validate(GateEventDTO event) {
+        if (event.getType() == null
+                || !(ENTRY.equalsIgnoreCase(event.getType().trim()) || EXIT.equalsIgnoreCase(event.getType().trim()))) {
+            return "알 수 없는 이벤트 유형입니다 (" + event.getType() + ")";
+        }
+        if (event.getSpotId() == null || event.getSpotId().trim().isEmpty()) {
+            if (EXIT.equalsIgnoreCase(event.getType().trim())
+                    && event.getPlateNumber() != null && !event.getPlateNumber().trim().isEmpty()) {
+                return "번호판으로 주차 구역을 찾지 못했습니다 (" + event.getPlateNumber() + ")";
+            }
+            return "주차 구역을 선택하세요";
+        }
+        if (ENTRY.equalsIgnoreCase(event.getType().trim())
+                && (event.getPlateNumber() == null || event.getPlateNumber().trim().isEmpty())) {
+            return "차량 번호를 입력하세요";
+        }
+        return null;
+    }
+
+    private void checkBlocked(String plateNumber) {
+        if (!blockEntry) return;
+        ParkingPlateListEntity blocked = parkingPlateListService.findBlocked(plateNumber);
+        if (blocked != null) {
+            throw new IllegalStateException("입차 제한 차량입니다 (" + blocked.getPlateNumber()
+                    + (blocked.getNote() != null ? ", " + blocked.getNote() : "") + ")");
+        }
+    }
+
+    private ParkingSpotEntity createSpot(String spotId) {
+        // 구역이 DB에 없는 경우, 유효한 구역(A-1 ~ A-10)이면 즉시 생성하여 복구
+        if (!isValidSpotId(spotId)) {
+            throw new IllegalStateException("존재하지 않는 구역입니다 (" + spotId + ")");
+        }
+        System.out.println("[INFO] 구역 [" + spotId + "]이 DB에 없어 새로 생성합니다.");
+        return new ParkingSpotEntity(spotId);
+    }
+
+    private void occupy(ParkingSpotEntity spot, String plateNumber, LocalDateTime time) {
+        if (spot.isOccupied()) {
+            throw new IllegalStateException("이미 주차된 구역입니다 (" + spot.getPlateNumber() + ")");
+        }
+        spot.setOccupied(true);
+        spot.setPlateNumber(plateNumber.trim());
+        spot.setEntryTime(time);
+    }
+
+    /**
+     * 출차 처리 후 저장할 기록을 반환한다. plateNumber 가 주어지면 주차된 차량과 일치해야 한다.
+     */
+    private ParkingRecordEntity release(ParkingSpotEntity spot, String plateNumber, String carType, LocalDateTime time) {
+        if (!spot.isOccupied()) {
+            throw new IllegalStateException("주차된 차량이 없습니다");
+        }
+        if (plateNumber != null && !plateNumber.trim().isEmpty()
+                && !plateNumber.trim().equals(spot.getPlateNumber())) {
+            throw new IllegalStateException("차량 번호가 일치하지 않습니다 (" + spot.getPlateNumber() + ")");
+        }
+
+        // 주차 요금 계산 (분당 50원)
+        LocalDateTime entryTime = spot.getEntryTime();
+        long minutes = Duration.between(entryTime, time).toMinutes();
+        if (minutes < 1) minutes = 1;
+        int fee = (int) (minutes * FEE_PER_MINUTE);
+        if (parkingPlateListService.isSeasonPass(spot.getPlateNumber(), time)) {
+            fee = 0; // 정기권
+        }
+
+        ParkingRecordEntity record = new ParkingRecordEntity();
+        record.setParkingSpot(spot.getSpotId());
+        record.setCarNumber(spot.getPlateNumber());
+        record.setCarType(carType != null && !carType.isBlank() ? carType.trim() : "일반"); // 기본값 일반
+        record.setEntryTime(entryTime);
+        record.setExitTime(time);
+        record.setDurationMinutes(minutes);
+        record.setFee(fee);
+
+        // 출차 처리 (Spot 초기화)
+        spot.setOccupied(false);
+        spot.setPlateNumber(null);
+        spot.setEntryTime(null);
+        return record;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.entity.ParkingPlateListEntity;
+import com.example.straffic.parking.repository.ParkingPlateListRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 정기권 / 미납(차단) 차량 확인
+ * 목록마다 블룸 필터를 메모리에 두고, 필터가 "없다"고 하면 DB 를 보지 않고 바로 돌려준다.
+ * "있을 수도 있다"일 때만 정확한 조회(최근 결과 LRU → DB)를 한다. 수십만 대여도 필터는 대당 약 1.8 byte (fpp 0.1%).
+ * 기동 시 JDBC 커서로 전체를 읽어 만들고, refresh-ms 마다 updatedAt 이후 바뀐 행만 읽어 반영한다.
+ * 필터는 지울 수 없으므로 해제(active=false)가 많이 쌓이거나 용량을 넘으면 전체를 다시 만든다.
+ */
+@Service
+public class ParkingPlateListService {
+
+    private final ParkingPlateListRepository parkingPlateListRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int expectedSize;
+    private final double fpp;
+    private final int cacheSize;
+    private final long refreshOverlapSeconds;
+
+    private volatile Map<String, PlateBloomFilter> filters = Map.of();
+    // 목록별 필터에 넣은 뒤 해제된 수 (이만큼은 필터가 항상 "있을 수도"라고 답한다)
+    private final Map<String, Integer> removedSinceBuild = new HashMap<>();
+    private final Map<String, Integer> addedSinceBuild = new HashMap<>();
+    private LocalDateTime watermark;
+
+    // 정확한 조회 결과 LRU ("목록:번호" → 행, 없으면 Optional.empty)
+    private final Map<String, Optional<ParkingPlateListEntity>> exact = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Optional<ParkingPlateListEntity>> eldest) {
+            return size() > cacheSize;
+        }
+    };
+    // apply()/reload() 가 캐시를 비울 때마다 올린다 (exact 로 보호). DB 조회 중에 바뀌었으면 그 결과는 캐시에 넣지 않는다
+    private long exactGeneration;
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong filterNegatives = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong dbLookups = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    public ParkingPlateListService(ParkingPlateListRepository parkingPlateListRepository,
+                                   DataSource dataSource,
+                                   @Value("${parking.plate-list.expected-size:500000}") int expectedSize,
+                                   @Value("${parking.plate-list.fpp:0.001}") double fpp,
+                                   @Value("${parking.plate-list.cache-size:10000}") int cacheSize,
+                                   @Value("${parking.plate-list.refresh-overlap-seconds:60}") long refreshOverlapSeconds,
+                                   @Value("${parking.export.fetch-size:1000}") int fetchSize) {
+        this.parkingPlateListRepository = parkingPlateListRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.expectedSize = expectedSize;
+        this.fpp = fpp;
+        this.cacheSize = cacheSize;
+        this.refreshOverlapSeconds = refreshOverlapSeconds;
+    }
+
+    /**
+     * time 에 유효한 정기권 차량인지
+     */
+    public boolean isSeasonPass(String plateNumber, LocalDateTime time) {
+        ParkingPlateListEntity pass = lookup(ParkingPlateListEntity.SEASON, plateNumber);
+        return pass != null && (pass.getValidUntil() == null || !time.toLocalDate().isAfter(pass.getValidUntil()));
+    }
+
+    /**
+     * 미납 등으로 입차를 막는 차량이면 그 행, 아니면 null
+     */
+    public ParkingPlateListEntity findBlocked(String plateNumber) {
+        return lookup(ParkingPlateListEntity.BLOCK, plateNumber);
+    }
+
+    public ParkingPlateListEntity lookup(String listType, String plateNumber) {
+        checks.incrementAndGet();
+        String key = PlateMatchIndex.normalize(plateNumber);
+        PlateBloomFilter filter = filters.get(listType);
+        if (key.isEmpty() || filter == null || !filter.mightContain(key)) {
+            filterNegatives.incrementAndGet();
+            return null;
+        }
+
+        String cacheKey = listType + ":" + key;
+        long generation;
+        synchronized (exact) {
+            Optional<ParkingPlateListEntity> cached = exact.get(cacheKey);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                return cached.orElse(null);
+            }
+            generation = exactGeneration;
+        }
+        dbLookups.incrementAndGet();
+        Optional<ParkingPlateListEntity> row = parkingPlateListRepository.findFirstByListTypeAndPlateKeyAndActiveTrue(listType, key);
+        if (row.isEmpty()) {
+            falsePositives.incrementAndGet();
+        }
+        synchronized (exact) {
+            // 조회하는 동안 등록/해제가 반영됐으면 오래된 결과일 수 있으므로 남기지 않는다
+            if (generation == exactGeneration) {
+                exact.put(cacheKey, row);
+            }
+        }
+        return row.orElse(null);
+    }
+
+    /**
+     * 등록(이미 있으면 다시 활성화하고 만료일·메모를 바꾼다). 이 노드에는 바로 반영, 다른 노드는 다음 갱신 때 반영
+     */
+    public ParkingPlateListEntity register(String listType, String plateNumber, LocalDate validUntil, String note) {
+        String type = checkType(listType);
+        if (plateNumber == null || plateNumber.trim().isEmpty()) {
+            throw new IllegalStateException("차량 번호를 입력하세요");
+        }
+        String key = PlateMatchIndex.normalize(plateNumber);
+        ParkingPlateListEntity row = parkingPlateListRepository.findFirstByListTypeAndPlateKey(type, key)
+                .orElseGet(ParkingPlateListEntity::new);
+        row.setListType(type);
+        row.setPlateNumber(plateNumber.trim());
+        row.setPlateKey(key);
+        row.setValidUntil(validUntil);
+        row.setNote(note);
+        row.setActive(true);
+        row.setUpdatedAt(LocalDateTime.now());
+        ParkingPlateListEntity saved = parkingPlateListRepository.save(row);
+        apply(List.of(saved), null);
+        return saved;
+    }
+
+    public void unregister(String listType, String plateNumber) {
+        String type = checkType(listType);
+        ParkingPlateListEntity row = parkingPlateListRepository
+                .findFirstByListTypeAndPlateKey(type, PlateMatchIndex.normalize(plateNumber))
+                .filter(ParkingPlateListEntity::isActive)
+                .orElseThrow(() -> new IllegalStateException("등록되지 않은 차량입니다 (" + plateNumber + ")"));
+        row.setActive(false);
+        row.setUpdatedAt(LocalDateTime.now());
+        apply(List.of(parkingPlateListRepository.save(row)), null);
+    }
+
+    /**
+     * 전체를 다시 읽어 필터를 만든다 (기동 시, 또는 해제가 많이 쌓였을 때)
+     */
+    public synchronized void reload() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Map<String, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT list_type, COUNT(*) FROM parking_plate_list WHERE active = 1 GROUP BY list_type",
+                rs -> {
+                    counts.put(rs.getString(1), rs.getInt(2));
+                });
+
+        Map<String, PlateBloomFilter> next = new HashMap<>();
+        for (String type : List.of(ParkingPlateListEntity.SEASON, ParkingPlateListEntity.BLOCK)) {
+            // 증분으로 늘어날 여유를 두고 만든다
+            next.put(type, new PlateBloomFilter(Math.max(expectedSize, counts.getOrDefault(type, 0) * 2), fpp));
+        }
+        long[] loaded = {0};
+        jdbcTemplate.query("SELECT list_type, plate_key FROM parking_plate_list WHERE active = 1", rs -> {
+            PlateBloomFilter filter = next.get(rs.getString(1));
+            if (filter != null) {
+                filter.add(rs.getString(2));
+                loaded[0]++;
+            }
+        });
+
+        filters = next;
+        removedSinceBuild.clear();
+        addedSinceBuild.clear();
+        counts.forEach(addedSinceBuild::put);
+        watermark = startedAt;
+        synchronized (exact) {
+            exact.clear();
+            exactGeneration++;
+        }
+        System.out.println("[INFO] 정기권/미납 차량 필터 적재 완료: " + loaded[0] + "대 (" + counts + ")");
+    }
+
+    /**
+     * 마지막 갱신 이후 바뀐 행만 반영한다. 커밋이 늦은 행을 놓치지 않도록 refresh-overlap-seconds 만큼 겹쳐 읽는다.
+     */
+    @Scheduled(fixedDelayString = "${parking.plate-list.refresh-ms:30000}", initialDelayString = "${parking.plate-list.refresh-ms:30000}")
+    public synchronized void refresh() {
+        if (watermark == null) {
+            reload();
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<ParkingPlateListEntity> changed = parkingPlateListRepository
+                .findByUpdatedAtAfterOrderByUpdatedAt(watermark.minusSeconds(refreshOverlapSeconds));
+        apply(changed, watermark);
+        watermark = startedAt;
+
+        for (Map.Entry<String, PlateBloomFilter> e : filters.entrySet()) {
+            int added = addedSinceBuild.getOrDefault(e.getKey(), 0);
+            int removed = removedSinceBuild.getOrDefault(e.getKey(), 0);
+            if (added > e.getValue().capacity() || removed > Math.max(1000, added / 4)) {
+                System.out.println("[INFO] " + e.getKey() + " 필터 재생성 (추가 " + added + ", 해제 " + removed + ")");
+                reload();
+                return;
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        filters.forEach((type, filter) -> stats.put(type, Map.of(
+                "capacity", filter.capacity(),
+                "bytes", filter.sizeInBytes(),
+                "hashes", filter.hashes(),
+                "added", addedSinceBuild.getOrDefault(type, 0),
+                "removed", removedSinceBuild.getOrDefault(type, 0))));
+        stats.put("checks", checks.get());
+        stats.put("filterNegatives", filterNegatives.get());
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("dbLookups", dbLookups.get());
+        stats.put("falsePositives", falsePositives.get());
+        stats.put("watermark", watermark);
+        return stats;
+    }
+
+    /**
+     * @param countAfter 이 시각 이후에 바뀐 행만 추가/해제 수에 센다 (겹쳐 읽은 행을 두 번 세지 않도록, null 이면 모두)
+     */
+    private synchronized void apply(List<ParkingPlateListEntity> rows, LocalDateTime countAfter) {
+        for (ParkingPlateListEntity row : rows) {
+            PlateBloomFilter filter = filters.get(row.getListType());
+            if (filter == null) continue;
+            boolean count = countAfter == null || row.getUpdatedAt().isAfter(countAfter);
+            if (row.isActive()) {
+                filter.add(row.getPlateKey());
+                if (count) addedSinceBuild.merge(row.getListType(), 1, Integer::sum);
+            } else if (count) {
+                removedSinceBuild.merge(row.getListType(), 1, Integer::sum);
+            }
+            synchronized (exact) {
+                exact.remove(row.getListType() + ":" + row.getPlateKey());
+                exactGeneration++;
+            }
+        }
+    }
+
+    private static String checkType(String listType) {
+        String type = listType == null ? "" : listType.trim().toUpperCase();
+        if (!ParkingPlateListEntity.SEASON.equals(type) && !ParkingPlateListEntity.BLOCK.equals(type)) {
+            throw new IllegalStateException("목록 종류는 SEASON 또는 BLOCK 입니다");
+        }
+        return type;
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.straffic.parking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 주차 기록 콜드 아카이브
+ * 보관 기간(retention-months)이 지난 달의 parking_record 를 월별 아카이브 파일(ParkingArchiveFile)로 옮기고 DB 에서 지운다.
+ * 최근 기록만 테이블에 남으므로 현황·내보내기 같은 최근 조회는 작은 파티션만 읽는다.
+ * 아카이브 파일을 다 쓰고 다시 읽어 검증한 뒤에 DB 행을 지우며, 이미 아카이브가 있는 달에 늦게 들어온 기록은 합쳐서 다시 쓴다.
+ */
+@Service
+public class ParkingRecordArchiveService {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String FILE_PREFIX = "parking_record_";
+    private static final String FILE_SUFFIX = ".pra";
+    private static final int DELETE_BATCH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path archiveDir;
+    private final int retentionMonths;
+    private final boolean enabled;
+
+    public ParkingRecordArchiveService(DataSource dataSource,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${parking.export.fetch-size:1000}") int fetchSize,
+                                       @Value("${parking.archive.dir:data/parking-archive}") String archiveDir,
+                                       @Value("${parking.archive.retention-months:6}") int retentionMonths,
+                                       @Value("${parking.archive.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveDir = Paths.get(archiveDir);
+        this.retentionMonths = retentionMonths;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(cron = "${parking.archive.cron:0 30 3 * * *}")
+    public void scheduledCompaction() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            compact();
+        } catch (Exception e) {
+            System.out.println("[WARN] 주차 기록 아카이브 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 달을 모두 아카이브한다
+     *
+     * @return 달별 결과 (month, archivedRows, deletedRows, fileBytes)
+     */
+    public synchronized List<Map<String, Object>> compact() throws IOException {
+        LocalDateTime cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(entry_time) FROM parking_record WHERE entry_time < ?", Timestamp.class, Timestamp.valueOf(cutoff));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (oldest == null) {
+            return results;
+        }
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime());
+             month.atDay(1).atStartOfDay().isBefore(cutoff); month = month.plusMonths(1)) {
+            Map<String, Object> result = compactMonth(month);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 한 달을 아카이브한다. DB 커서와 기존 아카이브를 입차 시각 순으로 병합하면서 행 그룹 단위로 바로 쓰므로
+     * 메모리에는 한 그룹과 id 배열(기존 아카이브 id, 이번에 옮길 id)만 둔다.
+     * 다 쓴 임시 파일을 다시 읽어 체크섬(행 수 + 내용 CRC)이 쓴 내용과 같고 옮길 id 가 모두 들어 있는지 확인한 뒤에만
+     * 파일을 바꿔치기하고 DB 행을 지운다.
+     */
+    private Map<String, Object> compactMonth(YearMonth month) throws IOException {
+        Timestamp monthStart = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp monthEnd = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        Path path = pathOf(month);
+
+        // 이전 실행의 아카이브가 있으면 합친다 (파일은 썼지만 삭제 전에 멈춘 경우 같은 id 가 양쪽에 있을 수 있다)
+        long[] archivedIds = Files.exists(path) ? sortedIds(path) : new long[0];
+        IdList freshIds = new IdList();
+        long[] moved;
+
+        try (ParkingArchiveFile.Writer writer = new ParkingArchiveFile.Writer(path);
+             ArchivedRows archived = new ArchivedRows(Files.exists(path) ? path : null)) {
+            try {
+                jdbcTemplate.query("""
+                        SELECT id, parking_spot, car_number, car_type, entry_time, exit_time, duration_minutes, fee
+                          FROM parking_record
+                         WHERE entry_time >= ? AND entry_time < ?
+                         ORDER BY entry_time, id
+                        """, rs -> {
+                    long id = rs.getLong(1);
+                    long entryTime = ParkingArchiveFile.toEpoch(rs.getTimestamp(5).toLocalDateTime());
+                    try {
+                        // 같은 초까지는 아카이브에 있던 행을 먼저 쓴다
+                        archived.copyUntil(entryTime, writer);
+                        if (Arrays.binarySearch(archivedIds, id) < 0) {
+                            writer.add(id, rs.getString(2), rs.getString(3), rs.getString(4), entryTime,
+                                    ParkingArchiveFile.toEpoch(rs.getTimestamp(6).toLocalDateTime()), rs.getLong(7), rs.getInt(8));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    freshIds.add(id);
+                }, monthStart, monthEnd);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (freshIds.size == 0) {
+                return null;
+            }
+            archived.copyUntil(Long.MAX_VALUE, writer);
+            moved = freshIds.sorted();
+            verify(writer.finish(), writer.checksum(), moved);
+            writer.commit();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> batch = new ArrayList<>(DELETE_BATCH);
+            for (int i = 0; i < moved.length; i++) {
+                batch.add(new Object[]{moved[i]});
+                if (batch.size() == DELETE_BATCH || i == moved.length - 1) {
+                    jdbcTemplate.batchUpdate("DELETE FROM parking_record WHERE id = ?", batch);
+                    batch.clear();
+                }
+            }
+        });
+
+        ParkingArchiveFile.Header header = ParkingArchiveFile.readHeader(path);
+        System.out.println("[INFO] 주차 기록 아카이브: " + month + " " + moved.length + "건 → " + path);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("month", month.toString());
+        result.put("archivedRows", header.rows);
+        result.put("deletedRows", moved.length);
+        result.put("fileBytes", Files.size(path));
+        return result;
+    }
+
+    /**
+     * 다 쓴 임시 파일을 처음부터 다시 읽어 쓴 내용과 같은지, DB 에서 지울 id 가 모두 들어 있는지 확인한다
+     */
+    private static void verify(Path written, ParkingArchiveFile.Checksum expected, long[] sortedMovedIds) throws IOException {
+        ParkingArchiveFile.Checksum actual = new ParkingArchiveFile.Checksum();
+        long found = 0;
+        try (ParkingArchiveFile.GroupReader reader = new ParkingArchiveFile.GroupReader(
+                written, ParkingArchiveFile.ALL_COLUMNS, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            for (ParkingArchiveFile.Rows rows = reader.next(); rows != null; rows = reader.next()) {
+                for (int i = 0; i < rows.size; i++) {
+                    actual.update(rows, i);
+                    if (Arrays.binarySearch(sortedMovedIds, rows.id[i]) >= 0) {
+                        found++;
+                    }
+                }
+            }
+        }
+        if (!actual.matches(expected) || found != sortedMovedIds.length) {
+            throw new IOException("아카이브 검증 실패 (" + written + "): 행 " + actual.rows() + "/" + expected.rows()
+                    + ", 옮길 기록 " + found + "/" + sortedMovedIds.length);
+        }
+    }
+
+    private static long[] sortedIds(Path path) throws IOException {
+        long[] ids = new long[ParkingArchiveFile.readHeader(path).rows];
+        int n = 0;
+        try (ParkingArchiveFile.GroupReader reader = new ParkingArchiveFile.GroupReader(
+                path, Set.of(ParkingArchiveFile.ID), Long.MIN_VALUE, Long.MAX_VALUE)) {
+            for (ParkingArchiveFile.Rows rows = reader.next(); rows != null; rows = reader.next()) {
+                System.arraycopy(rows.id, 0, ids, n, rows.size);
+                n += rows.size;
+            }
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static final class IdList {
+        private long[] ids = new long[1024];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * 기존 아카이브를 한 그룹씩 읽으면서 주어진 입차 시각까지의 행을 새 파일로 옮긴다
+     */
+    private static final class ArchivedRows implements Closeable {
+        private final ParkingArchiveFile.GroupReader reader;
+        private ParkingArchiveFile.Rows rows;
+        private int next;
+
+        ArchivedRows(Path path) throws IOException {
+            this.reader = path == null ? null
+                    : new ParkingArchiveFile.GroupReader(path, ParkingArchiveFile.ALL_COLUMNS, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        void copyUntil(long entryTime, ParkingArchiveFile.Writer writer) throws IOException {
+            while (reader != null) {
+                if (rows == null || next == rows.size) {
+                    rows = reader.next();
+                    next = 0;
+                    if (rows == null) {
+                        return;
+                    }
+                    continue;
+                }
+                if (rows.entryTime[next] > entryTime) {
+                    return;
+                }
+                writer.add(rows.id[next], rows.spot[next], rows.carNumber[next], rows.carType[next],
+                        rows.entryTime[next], rows.exitTime[next], rows.duration[next], rows.fee[next]);
+                next++;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * 아카이브 파일 목록 (달, 행 수, 파일 크기, 입차 시각 범위)
+     */
+    public List<Map<String, Object>> listArchives() throws IOException {
+        List<Map<String, Object>> archives = new ArrayList<>();
+        for (YearMonth month : archivedMonths()) {
+            Path path = pathOf(month);
+            ParkingArchiveFile.Header header = ParkingArchiveFile.readHeader(path);
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("month", month.toString());
+            info.put("rows", header.rows);
+            info.put("fileBytes", Files.size(path));
+            info.put("minEntryTime", header.minEntryTime().toString());
+            info.put("maxEntryTime", header.maxEntryTime().toString());
+            archives.add(info);
+        }
+        return archives;
+    }
+
+    /**
+     * 입차일 from~to 에 해당하는 아카이브 기록을 입차 시각 순으로 넘긴다.
+     * 기간에 걸치는 달의 파일만 열고, 그 안에서도 기간과 겹치는 행 그룹만 한 그룹씩 풀어 읽는다.
+     *
+     * @param lot 구역 접두어 (예: "A"), 비어 있으면 전체
+     */
+    public long scan(LocalDate from, LocalDate to, String lot, ArchivedRecordHandler handler) throws IOException {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        String spotPrefix = lot != null && !lot.isBlank() ? lot.trim() + "-" : null;
+        long count = 0;
+
+        for (YearMonth month : archivedMonths()) {
+            if (!month.atDay(1).atStartOfDay().isBefore(end) || !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(start)) {
+                continue;
+            }
+            long startEpoch = ParkingArchiveFile.toEpoch(start);
+            long endEpoch = ParkingArchiveFile.toEpoch(end);
+            try (ParkingArchiveFile.GroupReader reader = new ParkingArchiveFile.GroupReader(
+                    pathOf(month), ParkingArchiveFile.ALL_COLUMNS, startEpoch, endEpoch)) {
+                for (ParkingArchiveFile.Rows rows = reader.next(); rows != null; rows = reader.next()) {
+                    for (int i = 0; i < rows.size; i++) {
+                        if (rows.entryTime[i] < startEpoch || rows.entryTime[i] >= endEpoch) continue;
+                        if (spotPrefix != null && !rows.spot[i].startsWith(spotPrefix)) continue;
+                        handler.handle(rows.id[i], rows.spot[i], rows.carNumber[i], rows.carType[i],
+                                rows.entryTimeAt(i), rows.exitTimeAt(i), rows.duration[i], rows.fee[i]);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private List<YearMonth> archivedMonths() throws IOException {
+        List<YearMonth> months = new ArrayList<>();
+        if (!Files.isDirectory(archiveDir)) {
+            return months;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(archiveDir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    months.add(YearMonth.parse(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()), MONTH));
+                } catch (Exception ignored) {
+                    // 형식이 다른 파일은 무시
+                }
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    private Path pathOf(YearMonth month) {
+        return archiveDir.resolve(FILE_PREFIX + month.format(MONTH) + FILE_SUFFIX);
+    }
+
+    public interface ArchivedRecordHandler {
+        void handle(long id, String parkingSpot, String carNumber, String carType,
+                    LocalDateTime entryTime, LocalDateTime exitTime, long durationMinutes, int fee) throws IOException;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.straffic.parking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 주차 기록 CSV 내보내기
+ * JPA 엔티티를 거치지 않고 JDBC 커서(forward-only)로 fetchSize 만큼씩 읽어 바로 Writer 에 쓴다.
+ * 영속성 컨텍스트에 행이 쌓이지 않으므로 기간이 길어도 메모리 사용량은 일정하다.
+ * 보관 기간이 지나 아카이브로 옮겨진 달은 아카이브 파일에서 먼저 읽어 앞에 붙인다.
+ */
+@Service
+public class ParkingRecordExportService {
+
+    private static final DateTimeFormatter CSV_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String HEADER = "id,parking_spot,car_number,car_type,entry_time,exit_time,duration_minutes,fee";
+    private static final int FLUSH_EVERY = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ParkingRecordArchiveService parkingRecordArchiveService;
+
+    public ParkingRecordExportService(DataSource dataSource,
+                                      ParkingRecordArchiveService parkingRecordArchiveService,
+                                      @Value("${parking.export.fetch-size:1000}") int fetchSize) {
+        this.parkingRecordArchiveService = parkingRecordArchiveService;
+        // 공용 JdbcTemplate 설정을 바꾸지 않도록 내보내기 전용 인스턴스를 만든다
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * @param from 입차일 시작 (포함)
+     * @param to   입차일 끝 (포함)
+     * @param lot  구역 접두어 (예: "A" → A-1, A-2 ...), 비어 있으면 전체
+     * @return 내보낸 행 수
+     */
+    public long writeCsv(LocalDate from, LocalDate to, String lot, Writer writer) throws IOException {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, parking_spot, car_number, car_type, entry_time, exit_time, duration_minutes, fee
+                  FROM parking_record
+                 WHERE entry_time >= ? AND entry_time < ?
+                """);
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.valueOf(from.atStartOfDay()));
+        params.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        if (lot != null && !lot.isBlank()) {
+            sql.append(" AND parking_spot LIKE ? ESCAPE '\\'");
+            params.add(escapeLike(lot.trim()) + "-%");
+        }
+        sql.append(" ORDER BY entry_time, id");
+
+        writer.write(HEADER);
+        writer.write("\n");
+
+        long[] count = {0};
+        StringBuilder line = new StringBuilder(128);
+        parkingRecordArchiveService.scan(from, to, lot, (id, spot, carNumber, carType, entryTime, exitTime, minutes, fee) -> {
+            line.setLength(0);
+            line.append(id).append(',');
+            appendField(line, spot).append(',');
+            appendField(line, carNumber).append(',');
+            appendField(line, carType).append(',');
+            line.append(entryTime.format(CSV_TIME)).append(',');
+            line.append(exitTime.format(CSV_TIME)).append(',');
+            line.append(minutes).append(',');
+            line.append(fee).append('\n');
+            writer.write(line.toString());
+            if (++count[0] % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        });
+        try {
+            jdbcTemplate.query(sql.toString(), rs -> {
+                line.setLength(0);
+                line.append(rs.getLong(1)).append(',');
+                appendField(line, rs.getString(2)).append(',');
+                appendField(line, rs.getString(3)).append(',');
+                appendField(line, rs.getString(4)).append(',');
+                appendTime(line, rs.getTimestamp(5)).append(',');
+                appendTime(line, rs.getTimestamp(6)).append(',');
+                line.append(rs.getLong(7)).append(',');
+                line.append(rs.getInt(8)).append('\n');
+                try {
+                    writer.write(line.toString());
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, params.toArray());
+        } catch (UncheckedIOException e) {
+            // 클라이언트가 다운로드를 중단한 경우
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+
+    /**
+     * LIKE 접두어로 쓸 때 %, _ 가 와일드카드로 해석되지 않게 한다
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static StringBuilder appendTime(StringBuilder sb, Timestamp ts) {
+        if (ts != null) {
+            sb.append(ts.toLocalDateTime().format(CSV_TIME));
+        }
+        return sb;
+    }
+
+    private static StringBuilder appendField(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+        return sb.append(value);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.straffic.parking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * parking_record 를 entry_time 기준 월 단위 인터벌 파티션 테이블로 바꾼다 (기동 시 한 번)
+ * 기간 조건이 있는 조회(CSV 내보내기, 월별 아카이브)는 해당 월 파티션만 읽는다.
+ * entry_time 인덱스는 파티션 키로 시작하므로 변환 시 LOCAL 인덱스가 된다.
+ * 온라인 변환(ALTER TABLE ... MODIFY PARTITION BY ... ONLINE)은 Oracle 12.2 이상에서만 되므로,
+ * 실패하면 경고만 남기고 entry_time/exit_time 인덱스만으로 동작한다.
+ */
+@Component
+public class ParkingRecordPartitioner implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public ParkingRecordPartitioner(JdbcTemplate jdbcTemplate,
+                                    @Value("${parking.record.partitioning.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String partitioned = jdbcTemplate.queryForObject(
+                    "SELECT partitioned FROM user_tables WHERE table_name = 'PARKING_RECORD'", String.class);
+            if ("YES".equals(partitioned)) {
+                return;
+            }
+            System.out.println("[INFO] parking_record 를 월 단위 파티션 테이블로 변환합니다...");
+            jdbcTemplate.execute("""
+                    ALTER TABLE parking_record MODIFY
+                    PARTITION BY RANGE (entry_time) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+                    (PARTITION p_initial VALUES LESS THAN (TIMESTAMP '2020-01-01 00:00:00'))
+                    ONLINE
+                    """);
+            System.out.println("[INFO] parking_record 파티션 변환 완료");
+        } catch (Exception e) {
+            System.out.println("[WARN] parking_record 파티션 변환 실패, 인덱스만 사용합니다: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 현재 파티션 목록 (관리 화면용). 파티션 테이블이 아니면 빈 목록
+     */
+    public List<Map<String, Object>> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT partition_name, high_value, num_rows
+                  FROM user_tab_partitions
+                 WHERE table_name = 'PARKING_RECORD'
+                 ORDER BY partition_position
+                """);
+    }
+}
@@ -0,0 +1,403 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.entity.ParkingReservationEntity;
+import com.example.straffic.parking.repository.ParkingReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 구역 사전 예약
+ * 진행 중이거나 앞으로의 예약을 구역별 달력(SpotBookingCalendar)으로 메모리에 두고, "X 구역에서 14:00~18:00 비어 있는 곳"은
+ * 구역마다 O(log n) 겹침 조회로 답한다. 예약 테이블은 저장용이고, 저장 직전에만 다른 노드의 예약과 겹치는지 한 번 확인한다.
+ * 예약 생성과 입차는 같은 구역 락(ParkingSpotLocks)을 잡으므로 한 노드 안에서는 서로 엇갈리지 않는다.
+ * <ul>
+ *   <li>일반 입차: entry-guard-minutes 안에 다른 차량의 예약이 시작(또는 진행 중)이면 거절, 예약한 차량이면 체크인</li>
+ *   <li>예약: 지금 주차 중인 구역은 walk-in-hold-minutes 뒤부터 예약할 수 있다 (일반 차량의 출차 시각을 모르므로)</li>
+ * </ul>
+ */
+@Service
+public class ParkingReservationService {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("MM-dd HH:mm");
+
+    private final ParkingReservationRepository parkingReservationRepository;
+    private final ParkingStatusService parkingStatusService;
+    private final ParkingSpotLocks parkingSpotLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final long entryGuardMinutes;
+    private final long walkInHoldMinutes;
+    private final long maxHours;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, SpotBookingCalendar> calendars = new HashMap<>();
+    private final Map<Long, ParkingReservationEntity> byId = new HashMap<>();
+    // 예약 생성·상태 변경 횟수 (DB 를 읽는 동안 바뀌었으면 그 재적재는 버린다)
+    private long modifications;
+
+    public ParkingReservationService(ParkingReservationRepository parkingReservationRepository,
+                                     ParkingStatusService parkingStatusService,
+                                     ParkingSpotLocks parkingSpotLocks,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${parking.reservation.entry-guard-minutes:60}") long entryGuardMinutes,
+                                     @Value("${parking.reservation.walk-in-hold-minutes:120}") long walkInHoldMinutes,
+                                     @Value("${parking.reservation.max-hours:24}") long maxHours) {
+        this.parkingReservationRepository = parkingReservationRepository;
+        this.parkingStatusService = parkingStatusService;
+        this.parkingSpotLocks = parkingSpotLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.entryGuardMinutes = entryGuardMinutes;
+        this.walkInHoldMinutes = walkInHoldMinutes;
+        this.maxHours = maxHours;
+    }
+
+    /**
+     * 예약한다. spotId 가 없으면 zone 에서 비어 있는 구역을 골라 예약한다.
+     *
+     * @param owner 예약하는 회원 아이디
+     */
+    public ParkingReservationEntity reserve(String spotId, String zone, String plateNumber,
+                                            LocalDateTime start, LocalDateTime end, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        validate(plateNumber, start, end, now);
+
+        List<String> candidates;
+        if (spotId != null && !spotId.isBlank()) {
+            spotId = spotId.trim();
+            if (!parkingStatusService.spotIds().contains(spotId)) {
+                throw new IllegalStateException("존재하지 않는 구역입니다 (" + spotId + ")");
+            }
+            candidates = List.of(spotId);
+        } else if (zone != null && !zone.isBlank()) {
+            candidates = findAvailable(zone.trim(), start, end, Integer.MAX_VALUE);
+        } else {
+            throw new IllegalStateException("주차 구역이나 구역 그룹(zone)을 선택하세요");
+        }
+
+        // 고른 뒤 락을 잡기 전에 다른 요청이 먼저 예약했을 수 있으므로 락 안에서 다시 확인한다
+        for (String candidate : candidates) {
+            ParkingReservationEntity saved = parkingSpotLocks.withLock(candidate,
+                    () -> tryReserve(candidate, plateNumber.trim(), start, end, now, owner));
+            if (saved != null) {
+                System.out.println("[INFO] 주차 예약 - " + candidate + " : " + saved.getPlateNumber()
+                        + " (" + start.format(TIME) + " ~ " + end.format(TIME) + ")");
+                return saved;
+            }
+        }
+        throw new IllegalStateException(spotId != null && !spotId.isBlank()
+                ? "이미 예약되었거나 주차 중인 시간대입니다 (" + spotId + ")"
+                : "예약 가능한 구역이 없습니다");
+    }
+
+    /**
+     * zone 에서 [start, end) 동안 비어 있는 구역 (구역 번호 순)
+     */
+    public List<String> findAvailable(String zone, LocalDateTime start, LocalDateTime end, int limit) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalStateException("시작 시각이 종료 시각보다 빨라야 합니다");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> spots = new ArrayList<>();
+        for (String spotId : parkingStatusService.spotIds()) {
+            if (zone.equals(zoneOf(spotId))) {
+                spots.add(spotId);
+            }
+        }
+        spots.sort(Comparator.comparingInt(ParkingReservationService::spotNumber).thenComparing(Comparator.naturalOrder()));
+
+        List<String> available = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (String spotId : spots) {
+                if (isFree(spotId, start, end, now)) {
+                    available.add(spotId);
+                    if (available.size() >= limit) break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return available;
+    }
+
+    /**
+     * 구역의 진행 중·예정 예약 (시작 시각 순)
+     *
+     * @param owner 이 회원의 예약만 (null 이면 전부, 관리자용)
+     */
+    public List<ParkingReservationEntity> upcoming(String spotId, String owner) {
+        lock.readLock().lock();
+        try {
+            SpotBookingCalendar calendar = calendars.get(spotId);
+            if (calendar == null) {
+                return List.of();
+            }
+            List<ParkingReservationEntity> result = new ArrayList<>();
+            for (ParkingReservationEntity r : calendar.all()) {
+                if (owner == null || owner.equals(r.getOwner())) result.add(r);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 예약을 취소한다. 입차(체크인)와 같은 구역 락 안에서, DB 상태가 아직 RESERVED 일 때만 바꾼다
+     * (다른 노드에서 먼저 체크인했으면 0건이므로 실패).
+     *
+     * @param owner 취소하는 회원 아이디, 본인 예약이 아니면 실패 (null 이면 확인하지 않음, 관리자용)
+     */
+    public ParkingReservationEntity cancel(Long id, String owner) {
+        ParkingReservationEntity found;
+        lock.readLock().lock();
+        try {
+            found = byId.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+        ParkingReservationEntity reservation = found != null ? found : parkingReservationRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("존재하지 않는 예약입니다"));
+        if (owner != null && !owner.equals(reservation.getOwner())) {
+            throw new IllegalStateException("본인의 예약만 취소할 수 있습니다");
+        }
+        return parkingSpotLocks.withLock(reservation.getSpotId(), () -> {
+            if (!ParkingReservationEntity.RESERVED.equals(reservation.getStatus())) {
+                throw new IllegalStateException("취소할 수 없는 예약입니다 (" + reservation.getStatus() + ")");
+            }
+            Boolean changed = transactionTemplate.execute(status ->
+                    markStatus(id, ParkingReservationEntity.RESERVED, ParkingReservationEntity.CANCELLED));
+            if (!Boolean.TRUE.equals(changed)) {
+                throw new IllegalStateException("이미 체크인했거나 취소된 예약입니다");
+            }
+            statusChanged(id, ParkingReservationEntity.CANCELLED);
+            reservation.setStatus(ParkingReservationEntity.CANCELLED);
+            return reservation;
+        });
+    }
+
+    /**
+     * 일반 입차 전 확인 (구역 락 안에서 호출). [time, time + entry-guard) 에 다른 차량의 예약이 있으면 IllegalStateException.
+     *
+     * @return 입차하는 차량 본인의 예약이면 그 예약 id (체크인 대상), 아니면 null
+     */
+    public Long checkEntry(String spotId, String plateNumber, LocalDateTime time) {
+        return checkEntry(spotId, plateNumber, time, Set.of());
+    }
+
+    /**
+     * @param finished 메모리에는 아직 남아 있지만 이미 끝난 것으로 볼 예약 (일괄 처리에서 같은 묶음 안에서 완료한 예약)
+     */
+    public Long checkEntry(String spotId, String plateNumber, LocalDateTime time, Set<Long> finished) {
+        lock.readLock().lock();
+        try {
+            SpotBookingCalendar calendar = calendars.get(spotId);
+            if (calendar == null) {
+                return null;
+            }
+            Long own = null;
+            String plate = PlateMatchIndex.normalize(plateNumber);
+            for (ParkingReservationEntity r : calendar.overlapping(time, time.plusMinutes(entryGuardMinutes))) {
+                if (finished.contains(r.getId())) continue;
+                if (plate.equals(PlateMatchIndex.normalize(r.getPlateNumber()))) {
+                    if (ParkingReservationEntity.RESERVED.equals(r.getStatus())) own = r.getId();
+                    continue;
+                }
+                throw new IllegalStateException("예약된 구역입니다 (" + r.getStartTime().format(TIME)
+                        + " ~ " + r.getEndTime().format(TIME) + ")");
+            }
+            return own;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 출차하는 차량이 체크인한 예약 (출차 시 예약을 끝내고 남은 시간을 풀어준다)
+     */
+    public Long checkedInReservation(String spotId, String plateNumber) {
+        lock.readLock().lock();
+        try {
+            SpotBookingCalendar calendar = calendars.get(spotId);
+            if (calendar == null) {
+                return null;
+            }
+            String plate = PlateMatchIndex.normalize(plateNumber);
+            for (ParkingReservationEntity r : calendar.all()) {
+                if (ParkingReservationEntity.CHECKED_IN.equals(r.getStatus())
+                        && plate.equals(PlateMatchIndex.normalize(r.getPlateNumber()))) {
+                    return r.getId();
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * DB 상태만 바꾼다 (호출하는 쪽 트랜잭션에 참여). 커밋 후 statusChanged 로 메모리에 반영
+     *
+     * @return DB 상태가 from 이 아니어서(다른 요청·노드가 먼저 바꿈) 바꾸지 못했으면 false
+     */
+    public boolean markStatus(Long id, String from, String status) {
+        return parkingReservationRepository.updateStatus(id, from, status) > 0;
+    }
+
+    public void statusChanged(Long id, String status) {
+        lock.writeLock().lock();
+        try {
+            modifications++;
+            ParkingReservationEntity reservation = byId.get(id);
+            if (reservation == null) {
+                return;
+            }
+            reservation.setStatus(status);
+            if (ParkingReservationEntity.COMPLETED.equals(status) || ParkingReservationEntity.CANCELLED.equals(status)) {
+                byId.remove(id);
+                SpotBookingCalendar calendar = calendars.get(reservation.getSpotId());
+                if (calendar != null) {
+                    calendar.remove(reservation);
+                    if (calendar.isEmpty()) calendars.remove(reservation.getSpotId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 끝나지 않은 예약과 체크인한 예약으로 달력을 다시 만든다 (기동 시, 그리고 reload-ms 마다: 다른 노드의 예약 반영, 끝난 예약 정리)
+     * 종료 시각이 지나도 아직 출차하지 않은 체크인 예약은 남겨 둬야 출차할 때 완료 처리된다.
+     */
+    @Scheduled(fixedDelayString = "${parking.reservation.reload-ms:60000}", initialDelayString = "${parking.reservation.reload-ms:60000}")
+    public void reload() {
+        long startModifications;
+        lock.readLock().lock();
+        try {
+            startModifications = modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ParkingReservationEntity> rows = parkingReservationRepository.findActive(LocalDateTime.now());
+
+        lock.writeLock().lock();
+        try {
+            if (modifications != startModifications) {
+                return; // 읽는 동안 이 노드에서 바뀐 예약이 있으면 다음 주기에 다시 맞춘다
+            }
+            calendars.clear();
+            byId.clear();
+            for (ParkingReservationEntity row : rows) {
+                if (calendars.computeIfAbsent(row.getSpotId(), k -> new SpotBookingCalendar()).add(row)) {
+                    byId.put(row.getId(), row);
+                } else {
+                    System.out.println("[WARN] 겹치는 예약이 있어 달력에서 제외합니다 (id=" + row.getId() + ", " + row.getSpotId() + ")");
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 구역 그룹: 마지막 '-' 앞부분 ("A-3" → "A", "SIM-12" → "SIM")
+     */
+    public static String zoneOf(String spotId) {
+        int dash = spotId.lastIndexOf('-');
+        return dash > 0 ? spotId.substring(0, dash) : spotId;
+    }
+
+    private ParkingReservationEntity tryReserve(String spotId, String plateNumber,
+                                                LocalDateTime start, LocalDateTime end, LocalDateTime now, String owner) {
+        lock.readLock().lock();
+        try {
+            if (!isFree(spotId, start, end, now)) {
+                return null;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        ParkingReservationEntity saved = transactionTemplate.execute(status -> {
+            if (parkingReservationRepository.countOverlapping(spotId, start, end) > 0) {
+                return null;
+            }
+            ParkingReservationEntity reservation = new ParkingReservationEntity();
+            reservation.setSpotId(spotId);
+            reservation.setPlateNumber(plateNumber);
+            reservation.setStartTime(start);
+            reservation.setEndTime(end);
+            reservation.setStatus(ParkingReservationEntity.RESERVED);
+            reservation.setOwner(owner);
+            reservation.setCreatedAt(now);
+            return parkingReservationRepository.save(reservation);
+        });
+        if (saved == null) {
+            return null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            modifications++;
+            calendars.computeIfAbsent(spotId, k -> new SpotBookingCalendar()).add(saved);
+            byId.put(saved.getId(), saved);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return saved;
+    }
+
+    // 읽기 락 안에서 호출
+    private boolean isFree(String spotId, LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        SpotBookingCalendar calendar = calendars.get(spotId);
+        if (calendar != null && calendar.overlaps(start, end)) {
+            return false;
+        }
+        return !(parkingStatusService.isOccupied(spotId) && start.isBefore(now.plusMinutes(walkInHoldMinutes)));
+    }
+
+    private void validate(String plateNumber, LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (plateNumber == null || plateNumber.trim().isEmpty()) {
+            throw new IllegalStateException("차량 번호를 입력하세요");
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalStateException("시작 시각이 종료 시각보다 빨라야 합니다");
+        }
+        if (!end.isAfter(now)) {
+            throw new IllegalStateException("이미 지난 시간대입니다");
+        }
+        if (Duration.between(start, end).toMinutes() > maxHours * 60) {
+            throw new IllegalStateException("예약은 최대 " + maxHours + "시간까지 가능합니다");
+        }
+    }
+
+    private static int spotNumber(String spotId) {
+        try {
+            return Integer.parseInt(spotId.substring(spotId.lastIndexOf('-') + 1));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
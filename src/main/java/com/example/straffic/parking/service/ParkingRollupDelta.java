@@ -0,0 +1,107 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.entity.ParkingRecordEntity;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 입/출차 이벤트를 롤업 버킷별 증가분으로 모아 두는 객체
+ * 일괄 수집처럼 이벤트가 여러 건이어도 버킷마다 UPDATE 한 번으로 반영할 수 있게 한다.
+ */
+public class ParkingRollupDelta {
+
+    // TreeMap: 버킷 갱신 순서를 항상 같게 해서 동시 트랜잭션끼리 행 잠금 순서가 엇갈리지 않게 한다
+    final Map<LocalDateTime, long[]> hourly = new TreeMap<>();          // {entries, exits, occupiedSeconds}
+    final Map<String, DailyBucket> daily = new TreeMap<>();
+    final Map<String, TurnoverBucket> turnover = new TreeMap<>();
+
+    public void entry(LocalDateTime entryTime) {
+        hour(entryTime)[0]++;
+    }
+
+    public void exit(ParkingRecordEntity record) {
+        LocalDateTime entryTime = record.getEntryTime();
+        LocalDateTime exitTime = record.getExitTime();
+        hour(exitTime)[1]++;
+
+        // 체류 시간을 걸쳐 있는 시간대마다 나눠서 더한다
+        LocalDateTime cursor = entryTime;
+        while (cursor.isBefore(exitTime)) {
+            LocalDateTime hourEnd = cursor.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            LocalDateTime segmentEnd = hourEnd.isBefore(exitTime) ? hourEnd : exitTime;
+            hour(cursor)[2] += Duration.between(cursor, segmentEnd).getSeconds();
+            cursor = segmentEnd;
+        }
+
+        LocalDate date = exitTime.toLocalDate();
+        String carType = record.getCarType() != null ? record.getCarType() : "일반";
+        DailyBucket d = daily.computeIfAbsent(bucketId(date, carType), k -> new DailyBucket(date, carType));
+        d.exits++;
+        d.revenue += record.getFee();
+        d.dwellMinutes += record.getDurationMinutes();
+
+        TurnoverBucket t = turnover.computeIfAbsent(bucketId(date, record.getParkingSpot()),
+                k -> new TurnoverBucket(date, record.getParkingSpot()));
+        t.turnovers++;
+        t.dwellMinutes += record.getDurationMinutes();
+    }
+
+    /**
+     * 시간대·일자 버킷을 반대 부호로 되돌리는 증가분 (구역별 회전수는 포함하지 않음)
+     */
+    public ParkingRollupDelta reversedWithoutTurnover() {
+        ParkingRollupDelta reversed = new ParkingRollupDelta();
+        hourly.forEach((hour, v) -> reversed.hourly.put(hour, new long[]{-v[0], -v[1], -v[2]}));
+        daily.forEach((id, d) -> {
+            DailyBucket r = new DailyBucket(d.date, d.carType);
+            r.exits = -d.exits;
+            r.revenue = -d.revenue;
+            r.dwellMinutes = -d.dwellMinutes;
+            reversed.daily.put(id, r);
+        });
+        return reversed;
+    }
+
+    public boolean isEmpty() {
+        return hourly.isEmpty() && daily.isEmpty() && turnover.isEmpty();
+    }
+
+    private long[] hour(LocalDateTime time) {
+        return hourly.computeIfAbsent(time.truncatedTo(ChronoUnit.HOURS), k -> new long[3]);
+    }
+
+    static String bucketId(LocalDate date, String key) {
+        return date.format(DateTimeFormatter.BASIC_ISO_DATE) + "_" + key;
+    }
+
+    static class DailyBucket {
+        final LocalDate date;
+        final String carType;
+        long exits;
+        long revenue;
+        long dwellMinutes;
+
+        DailyBucket(LocalDate date, String carType) {
+            this.date = date;
+            this.carType = carType;
+        }
+    }
+
+    static class TurnoverBucket {
+        final LocalDate date;
+        final String spotId;
+        long turnovers;
+        long dwellMinutes;
+
+        TurnoverBucket(LocalDate date, String spotId) {
+            this.date = date;
+            this.spotId = spotId;
+        }
+    }
+}
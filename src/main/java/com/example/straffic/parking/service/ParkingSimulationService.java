@@ -0,0 +1,322 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.dto.ParkingSimulationConfigDTO;
+import com.example.straffic.parking.dto.ParkingSimulationReportDTO;
+import com.example.straffic.parking.entity.ParkingRecordEntity;
+import com.example.straffic.parking.entity.ParkingSpotEntity;
+import com.example.straffic.parking.repository.ParkingRecordRepository;
+import com.example.straffic.parking.repository.ParkingSpotRepository;
+import com.example.straffic.parking.repository.ParkingSpotTurnoverRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 주차장 교통 시뮬레이터
+ * 설정한 도착 과정으로 입/출차 일정을 만들고, 구역을 concurrency 개의 게이트로 나눠 동시에 실행한다
+ * (같은 구역의 이벤트는 항상 같은 게이트가 시각 순으로 보낸다). 실행하는 동안 현황 API 를 주기적으로 조회하고,
+ * 끝난 뒤에는 단독으로 statusProbeCount 번 조회해서 현황 한 번의 비용을 잰다.
+ * 주차 성능 변경 전후에 같은 seed 로 돌려 비교하는 용도이며, 개발 DB 에서 실행한다.
+ * 시뮬레이션 구역은 접두어(SIM- 등)로 실제 구역과 구분되고, 그 구역에서 생긴 주차 기록과 통계 증가분은
+ * dropLot(cleanup 또는 다음 실행의 prepareLot) 에서 구역과 함께 되돌린다.
+ */
+@Service
+public class ParkingSimulationService {
+
+    // 실제 구역(A-)과 겹치지 않고 spotId 길이(10) 안에 들어가는 접두어
+    private static final Pattern SIM_PREFIX = Pattern.compile("[A-Z]{2,4}-");
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final ParkingRecordRepository parkingRecordRepository;
+    private final ParkingSpotTurnoverRepository turnoverRepository;
+    private final ParkingGateService parkingGateService;
+    private final ParkingStatusService parkingStatusService;
+    private final ParkingAnalyticsService parkingAnalyticsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ParkingSimulationService(ParkingSpotRepository parkingSpotRepository,
+                                    ParkingRecordRepository parkingRecordRepository,
+                                    ParkingSpotTurnoverRepository turnoverRepository,
+                                    ParkingGateService parkingGateService,
+                                    ParkingStatusService parkingStatusService,
+                                    ParkingAnalyticsService parkingAnalyticsService,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.parkingRecordRepository = parkingRecordRepository;
+        this.turnoverRepository = turnoverRepository;
+        this.parkingGateService = parkingGateService;
+        this.parkingStatusService = parkingStatusService;
+        this.parkingAnalyticsService = parkingAnalyticsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 시뮬레이션용 구역(prefix1 ~ prefixN)을 빈 상태로 만든다. 이전 실행에서 남은 구역은 지우고 다시 만든다
+     */
+    public void prepareLot(String prefix, int spots) {
+        checkPrefix(prefix);
+        if (spots < 1 || spots > 99_999) {
+            throw new IllegalStateException("구역 수는 1 ~ 99999 입니다");
+        }
+        dropLot(prefix);
+        List<ParkingSpotEntity> lot = new ArrayList<>(spots);
+        for (int i = 1; i <= spots; i++) {
+            lot.add(new ParkingSpotEntity(prefix + i));
+        }
+        parkingSpotRepository.saveAll(lot);
+        parkingStatusService.reload();
+        System.out.println("[INFO] 시뮬레이션 주차장 생성: " + prefix + "1 ~ " + prefix + spots);
+    }
+
+    /**
+     * 시뮬레이션 구역과 그 구역의 주차 기록을 지우고, 기록이 더했던 통계(시간대·일자 롤업)를 빼고
+     * 구역별 회전수 행은 지운다. 한 트랜잭션이라 중간에 실패하면 아무것도 지워지지 않는다.
+     */
+    public void dropLot(String prefix) {
+        checkPrefix(prefix);
+        int[] deleted = transactionTemplate.execute(status -> {
+            ParkingRollupDelta delta = new ParkingRollupDelta();
+            // 아직 주차 중인 차량은 입차만 더해져 있다
+            for (ParkingSpotEntity spot : parkingSpotRepository.findBySpotIdStartingWith(prefix)) {
+                if (spot.isOccupied() && spot.getEntryTime() != null) {
+                    delta.entry(spot.getEntryTime());
+                }
+            }
+            long lastId = 0;
+            List<ParkingRecordEntity> page;
+            do {
+                page = parkingRecordRepository.findTop1000ByParkingSpotStartingWithAndIdGreaterThanOrderById(prefix, lastId);
+                for (ParkingRecordEntity record : page) {
+                    delta.entry(record.getEntryTime());
+                    delta.exit(record);
+                    lastId = record.getId();
+                }
+            } while (page.size() == 1000);
+
+            parkingAnalyticsService.apply(delta.reversedWithoutTurnover());
+            turnoverRepository.deleteBySpotIdPrefix(prefix);
+            int records = parkingRecordRepository.deleteByParkingSpotPrefix(prefix);
+            int spots = parkingSpotRepository.deleteBySpotIdPrefix(prefix);
+            return new int[]{spots, records};
+        });
+        parkingAnalyticsService.forgetTurnoverBuckets(prefix);
+        if (deleted[0] > 0 || deleted[1] > 0) {
+            parkingGateService.rebuildPlateIndex();
+            parkingStatusService.reload();
+            System.out.println("[INFO] 시뮬레이션 주차장 정리: " + prefix + " 구역 " + deleted[0] + "개, 기록 " + deleted[1] + "건");
+        }
+    }
+
+    public ParkingSimulationReportDTO run(ParkingSimulationConfigDTO config) throws Exception {
+        checkPrefix(config.getSpotPrefix());
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("이미 시뮬레이션이 실행 중입니다");
+        }
+        try (ParkingSimulationTarget target = createTarget(config)) {
+            return execute(config, target);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ParkingSimulationTarget createTarget(ParkingSimulationConfigDTO config) throws Exception {
+        if ("http".equalsIgnoreCase(config.getMode())) {
+            return new HttpSimulationTarget(config.getBaseUrl(), config.getUsername(), config.getPassword(), objectMapper);
+        }
+        return new InProcessSimulationTarget(this, parkingGateService, parkingStatusService, objectMapper);
+    }
+
+    private ParkingSimulationReportDTO execute(ParkingSimulationConfigDTO config, ParkingSimulationTarget target) throws Exception {
+        ParkingTrafficModel.Schedule schedule = ParkingTrafficModel.generate(config, new Random(config.getSeed()));
+        int gates = Math.max(1, config.getConcurrency());
+
+        // 구역 번호로 게이트를 나눈다
+        List<List<ParkingTrafficModel.SimEvent>> perGate = new ArrayList<>();
+        for (int i = 0; i < gates; i++) perGate.add(new ArrayList<>());
+        for (ParkingTrafficModel.SimEvent event : schedule.events) {
+            perGate.get(event.spotNumber % gates).add(event);
+        }
+
+        target.prepareLot(config.getSpotPrefix(), config.getSpots());
+
+        Map<String, LatencyRecorder> latency = new LinkedHashMap<>();
+        latency.put(ParkingGateService.ENTRY, new LatencyRecorder());
+        latency.put(ParkingGateService.EXIT, new LatencyRecorder());
+        latency.put("BATCH", new LatencyRecorder());
+        LatencyRecorder statusUnderLoad = new LatencyRecorder();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicBoolean done = new AtomicBoolean();
+
+        Map<String, Long> statementsBefore = target.statementCounts();
+        ExecutorService executor = Executors.newFixedThreadPool(gates + 1);
+        long wallStart = System.nanoTime();
+        LocalDateTime virtualStart = schedule.events.isEmpty() ? null : schedule.events.get(0).time;
+        try {
+            Future<?> poller = executor.submit(() -> {
+                while (!done.get() && config.getStatusIntervalMs() > 0) {
+                    long t0 = System.nanoTime();
+                    target.status(config.isStatusDelta());
+                    statusUnderLoad.record(System.nanoTime() - t0);
+                    Thread.sleep(config.getStatusIntervalMs());
+                }
+                return null;
+            });
+
+            List<Future<?>> workers = new ArrayList<>();
+            for (List<ParkingTrafficModel.SimEvent> events : perGate) {
+                workers.add(executor.submit(() -> {
+                    runGate(config, target, events, virtualStart, wallStart, latency, succeeded, failed);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            done.set(true);
+            poller.get();
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+        Map<String, Long> statementsAfterRun = target.statementCounts();
+
+        // 부하가 없는 상태에서 현황 한 번의 비용
+        LatencyRecorder statusQuiet = new LatencyRecorder();
+        int statusBytes = 0;
+        for (int i = 0; i < config.getStatusProbeCount(); i++) {
+            long t0 = System.nanoTime();
+            statusBytes = target.status(config.isStatusDelta());
+            statusQuiet.record(System.nanoTime() - t0);
+        }
+        Map<String, Long> statementsAfterProbe = target.statementCounts();
+
+        if (config.isCleanup()) {
+            target.dropLot(config.getSpotPrefix());
+        }
+
+        ParkingSimulationReportDTO report = new ParkingSimulationReportDTO();
+        report.setMode("http".equalsIgnoreCase(config.getMode()) ? "http" : "inprocess");
+        report.setSpots(config.getSpots());
+        report.setHours(config.getHours());
+        report.setArrivals(schedule.arrivals);
+        report.setRejectedFull(schedule.rejectedFull);
+        report.setPeakOccupancy(schedule.peakOccupancy);
+        List<Integer> byHour = new ArrayList<>();
+        for (int n : schedule.arrivalsByHour) byHour.add(n);
+        report.setArrivalsByHour(byHour);
+        report.setArrivalsByCarType(schedule.arrivalsByCarType);
+
+        long events = schedule.events.size();
+        report.setGateEvents(events);
+        report.setSucceeded(succeeded.get());
+        report.setFailed(failed.get());
+        report.setWallMillis(Duration.ofNanos(wallNanos).toMillis());
+        report.setEventsPerSecond(wallNanos == 0 ? 0 : Math.round(events * 1e10 / wallNanos) / 10.0);
+
+        Map<String, Map<String, Object>> latencySummary = new LinkedHashMap<>();
+        latency.forEach((op, recorder) -> {
+            if (recorder.count() > 0) latencySummary.put(op, recorder.summary());
+        });
+        report.setLatency(latencySummary);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("underLoad", statusUnderLoad.summary());
+        status.put("quiet", statusQuiet.summary());
+        status.put("responseBytes", statusBytes);
+        long probeStatements = statementsAfterProbe.get("total") - statementsAfterRun.get("total");
+        status.put("statementsPerCall", config.getStatusProbeCount() == 0 ? 0.0
+                : Math.round(probeStatements * 100.0 / config.getStatusProbeCount()) / 100.0);
+        report.setStatus(status);
+
+        Map<String, Object> database = new LinkedHashMap<>();
+        Map<String, Long> runStatements = new LinkedHashMap<>();
+        statementsAfterRun.forEach((kind, count) -> runStatements.put(kind, count - statementsBefore.getOrDefault(kind, 0L)));
+        database.put("statements", runStatements);
+        database.put("statementsPerGateEvent", events == 0 ? 0.0
+                : Math.round(runStatements.get("total") * 100.0 / events) / 100.0);
+        database.put("note", "부하 중 현황 조회(" + statusUnderLoad.count() + "회)와 같은 DB 를 쓰는 다른 요청의 SQL 도 포함");
+        report.setDatabase(database);
+
+        System.out.println("[INFO] 주차 시뮬레이션 완료: 이벤트 " + events + "건, " + report.getWallMillis() + "ms, "
+                + report.getEventsPerSecond() + " events/s");
+        return report;
+    }
+
+    private void runGate(ParkingSimulationConfigDTO config, ParkingSimulationTarget target,
+                         List<ParkingTrafficModel.SimEvent> events, LocalDateTime virtualStart, long wallStart,
+                         Map<String, LatencyRecorder> latency, AtomicLong succeeded, AtomicLong failed) throws Exception {
+        List<ParkingTrafficModel.SimEvent> batch = new ArrayList<>();
+        for (ParkingTrafficModel.SimEvent event : events) {
+            pace(config, virtualStart, event.time, wallStart);
+
+            if (config.getBatchSize() > 0) {
+                batch.add(event);
+                if (batch.size() >= config.getBatchSize()) {
+                    sendBatch(target, batch, latency, succeeded, failed);
+                    batch = new ArrayList<>();
+                }
+                continue;
+            }
+
+            long t0 = System.nanoTime();
+            boolean ok = ParkingGateService.ENTRY.equals(event.type) ? target.entry(event) : target.exit(event);
+            latency.get(event.type).record(System.nanoTime() - t0);
+            (ok ? succeeded : failed).incrementAndGet();
+        }
+        if (!batch.isEmpty()) {
+            sendBatch(target, batch, latency, succeeded, failed);
+        }
+    }
+
+    private void sendBatch(ParkingSimulationTarget target, List<ParkingTrafficModel.SimEvent> batch,
+                           Map<String, LatencyRecorder> latency, AtomicLong succeeded, AtomicLong failed) throws Exception {
+        long t0 = System.nanoTime();
+        int ok = target.ingest(batch);
+        latency.get("BATCH").record(System.nanoTime() - t0);
+        succeeded.addAndGet(ok);
+        failed.addAndGet(batch.size() - ok);
+    }
+
+    /**
+     * speedup 배속으로 가상 시각에 맞춰 기다린다 (0 이면 기다리지 않음)
+     */
+    private void pace(ParkingSimulationConfigDTO config, LocalDateTime virtualStart, LocalDateTime eventTime, long wallStart)
+            throws InterruptedException {
+        if (config.getSpeedup() <= 0 || virtualStart == null) {
+            return;
+        }
+        long dueNanos = (long) (Duration.between(virtualStart, eventTime).toNanos() / config.getSpeedup());
+        long waitNanos = dueNanos - (System.nanoTime() - wallStart);
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    private void checkPrefix(String prefix) {
+        if (prefix == null || !SIM_PREFIX.matcher(prefix).matches()) {
+            throw new IllegalStateException("시뮬레이션 구역 접두어는 영문 대문자 2~4자 + '-' 입니다 (예: SIM-)");
+        }
+    }
+}
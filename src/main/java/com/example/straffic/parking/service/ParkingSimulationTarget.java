@@ -0,0 +1,36 @@
+package com.example.straffic.parking.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 시뮬레이터가 입/출차를 보내는 대상 (같은 프로세스 또는 HTTP)
+ * 업무 오류(이미 주차됨 등)는 예외가 아니라 false / 실패 건수로 돌려준다.
+ */
+interface ParkingSimulationTarget extends AutoCloseable {
+
+    void prepareLot(String prefix, int spots) throws Exception;
+
+    void dropLot(String prefix) throws Exception;
+
+    boolean entry(ParkingTrafficModel.SimEvent event) throws Exception;
+
+    boolean exit(ParkingTrafficModel.SimEvent event) throws Exception;
+
+    /**
+     * @return 성공한 이벤트 수
+     */
+    int ingest(List<ParkingTrafficModel.SimEvent> events) throws Exception;
+
+    /**
+     * @param delta true 면 직전 조회의 version 이후 변경분만 요청
+     * @return 응답 크기 (byte)
+     */
+    int status(boolean delta) throws Exception;
+
+    Map<String, Long> statementCounts() throws Exception;
+
+    @Override
+    default void close() {
+    }
+}
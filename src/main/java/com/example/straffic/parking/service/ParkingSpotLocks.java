@@ -0,0 +1,83 @@
+package com.example.straffic.parking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 구역(spotId) 단위 스트라이프 락
+ * 같은 구역의 입/출차는 직렬화하고, 다른 구역은 서로 다른 락을 잡도록 구역 ID 해시로 락을 나눈다.
+ * 여러 구역을 한 번에 잡을 때는 항상 스트라이프 번호 오름차순으로 잡아 교착을 피한다.
+ * timeout-ms 안에 잡지 못하면 SpotLockTimeoutException (요청 오류가 아니라 일시적인 경합).
+ */
+@Component
+public class ParkingSpotLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutMillis;
+
+    public ParkingSpotLocks(@Value("${parking.lock.stripes:256}") int stripeCount,
+                            @Value("${parking.lock.timeout-ms:3000}") long timeoutMillis) {
+        int size = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> T withLock(String spotId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(spotId)];
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T withLocks(Collection<String> spotIds, Supplier<T> action) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String spotId : spotIds) {
+            indexes.add(stripeOf(spotId));
+        }
+        int acquired = 0;
+        Integer[] ordered = indexes.toArray(new Integer[0]);
+        try {
+            for (Integer index : ordered) {
+                acquire(stripes[index]);
+                acquired++;
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[ordered[i]].unlock();
+            }
+        }
+    }
+
+    int stripeOf(String spotId) {
+        int h = spotId == null ? 0 : spotId.hashCode();
+        // HashMap 과 같은 방식으로 상위 비트를 섞어 "A-1", "A-2" 처럼 비슷한 키가 몰리지 않게 한다
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SpotLockTimeoutException("다른 게이트에서 같은 구역을 처리 중입니다. 잠시 후 다시 시도하세요");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SpotLockTimeoutException("구역 잠금 대기 중 중단되었습니다");
+        }
+    }
+}
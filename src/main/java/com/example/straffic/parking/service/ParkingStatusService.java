@@ -0,0 +1,186 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.dto.ParkingSpotStatusDTO;
+import com.example.straffic.parking.dto.ParkingStatusDTO;
+import com.example.straffic.parking.entity.ParkingSpotEntity;
+import com.example.straffic.parking.repository.ParkingSpotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * 주차 현황 메모리 상태와 변경 이력
+ * 구역 상태가 바뀔 때마다 버전을 1 올리고 (버전, 구역)을 고정 크기 링 버퍼에 남긴다.
+ * 클라이언트가 since=마지막으로 받은 버전을 보내면 그 뒤에 바뀐 구역만 돌려주고,
+ * 링 버퍼에서 이미 밀려난 버전이거나 다른 프로세스의 버전이면 전체를 돌려준다.
+ * 버전 토큰은 "기동마다 새로 뽑는 epoch-순번" 형식이라, 재시작했거나 다른 노드가 응답해서
+ * epoch 가 다르면 순번 크기와 상관없이 전체를 돌려준다.
+ * 입/출차는 ParkingGateService 가 커밋 후 바로 반영하고, 다른 노드나 관리자 화면에서 바뀐 것은 주기적으로 DB 와 맞춘다.
+ */
+@Service
+public class ParkingStatusService {
+
+    private final ParkingSpotRepository parkingSpotRepository;
+
+    private final Map<String, ParkingSpotStatusDTO> spots = new HashMap<>();
+    // 구역별 마지막 변경 버전
+    private final Map<String, Long> changedAt = new HashMap<>();
+    private long occupied;
+    // 이 프로세스의 버전 공간. 재시작하거나 노드가 다르면 값이 다르다
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private long version;
+
+    // 변경 이력 링 버퍼
+    private final long[] changeVersions;
+    private final String[] changeSpots;
+    private int head;
+    private int count;
+
+    public ParkingStatusService(ParkingSpotRepository parkingSpotRepository,
+                                @Value("${parking.status.history-size:4096}") int historySize) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.changeVersions = new long[Math.max(16, historySize)];
+        this.changeSpots = new String[changeVersions.length];
+    }
+
+    /**
+     * 커밋된 구역 상태를 반영한다. rowVersion 이 메모리보다 오래됐으면 무시
+     */
+    public synchronized void changed(ParkingSpotEntity spot) {
+        ParkingSpotStatusDTO current = spots.get(spot.getSpotId());
+        if (current != null && current.getRowVersion() != null && spot.getVersion() != null
+                && spot.getVersion() < current.getRowVersion()) {
+            return;
+        }
+        ParkingSpotStatusDTO next = new ParkingSpotStatusDTO(spot.getSpotId(), spot.isOccupied(),
+                spot.getPlateNumber(), spot.getEntryTime(), spot.getVersion());
+        if (current != null && sameState(current, next)) {
+            current.setRowVersion(next.getRowVersion());
+            return;
+        }
+        if (current != null && current.isOccupied()) occupied--;
+        if (next.isOccupied()) occupied++;
+        spots.put(next.getSpotId(), next);
+        record(next.getSpotId());
+    }
+
+    /**
+     * DB 와 맞춘다 (기동 시, 그리고 reconcile-ms 마다)
+     */
+    @Scheduled(fixedDelayString = "${parking.status.reconcile-ms:5000}", initialDelayString = "${parking.status.reconcile-ms:5000}")
+    public void reload() {
+        long startVersion;
+        synchronized (this) {
+            startVersion = version;
+        }
+        List<ParkingSpotEntity> rows = parkingSpotRepository.findAll();
+        Set<String> present = new HashSet<>();
+        for (ParkingSpotEntity row : rows) {
+            present.add(row.getSpotId());
+            changed(row);
+        }
+        synchronized (this) {
+            // 조회 이후에 입/출차로 생긴 구역은 지우지 않는다
+            for (String spotId : new ArrayList<>(spots.keySet())) {
+                if (!present.contains(spotId) && changedAt.getOrDefault(spotId, 0L) <= startVersion) {
+                    if (spots.remove(spotId).isOccupied()) occupied--;
+                    record(spotId);
+                    changedAt.remove(spotId);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param since 클라이언트가 마지막으로 받은 버전 토큰 (null 이면 전체)
+     */
+    public synchronized ParkingStatusDTO getStatus(String since) {
+        Long sinceVersion = parseToken(since);
+        if (sinceVersion != null && sinceVersion == version) {
+            return new ParkingStatusDTO(false, token(), Map.of(), List.of(), spots.size(), occupied);
+        }
+        if (sinceVersion == null || sinceVersion > version || count == 0 || sinceVersion < oldestVersion() - 1) {
+            Map<String, ParkingSpotStatusDTO> all = new TreeMap<>();
+            spots.forEach((id, s) -> all.put(id, copyOf(s)));
+            return new ParkingStatusDTO(true, token(), all, List.of(), spots.size(), occupied);
+        }
+
+        Set<String> changedIds = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            int index = (head - count + i + changeVersions.length) % changeVersions.length;
+            if (changeVersions[index] > sinceVersion) {
+                changedIds.add(changeSpots[index]);
+            }
+        }
+        Map<String, ParkingSpotStatusDTO> changedSpots = new TreeMap<>();
+        List<String> removed = new ArrayList<>();
+        for (String spotId : changedIds) {
+            ParkingSpotStatusDTO s = spots.get(spotId);
+            if (s != null) {
+                changedSpots.put(spotId, copyOf(s));
+            } else {
+                removed.add(spotId);
+            }
+        }
+        return new ParkingStatusDTO(false, token(), changedSpots, removed, spots.size(), occupied);
+    }
+
+    public synchronized boolean isOccupied(String spotId) {
+        ParkingSpotStatusDTO s = spots.get(spotId);
+        return s != null && s.isOccupied();
+    }
+
+    public synchronized List<String> spotIds() {
+        return new ArrayList<>(spots.keySet());
+    }
+
+    private void record(String spotId) {
+        version++;
+        changedAt.put(spotId, version);
+        changeVersions[head] = version;
+        changeSpots[head] = spotId;
+        head = (head + 1) % changeVersions.length;
+        if (count < changeVersions.length) count++;
+    }
+
+    private String token() {
+        return epoch + "-" + version;
+    }
+
+    /**
+     * 이 프로세스가 발급한 토큰이면 순번, 아니면 (epoch 가 다르거나 형식이 틀리면) null
+     */
+    private Long parseToken(String token) {
+        if (token == null || !token.startsWith(epoch + "-")) return null;
+        try {
+            return Long.parseLong(token.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private long oldestVersion() {
+        return changeVersions[(head - count + changeVersions.length) % changeVersions.length];
+    }
+
+    private static boolean sameState(ParkingSpotStatusDTO a, ParkingSpotStatusDTO b) {
+        return a.isOccupied() == b.isOccupied()
+                && Objects.equals(a.getPlateNumber(), b.getPlateNumber())
+                && Objects.equals(a.getEntryTime(), b.getEntryTime());
+    }
+
+    private static ParkingSpotStatusDTO copyOf(ParkingSpotStatusDTO s) {
+        return new ParkingSpotStatusDTO(s.getSpotId(), s.isOccupied(), s.getPlateNumber(), s.getEntryTime(), s.getRowVersion());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.dto.ParkingSimulationConfigDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 시뮬레이션용 입/출차 일정 생성기
+ * 도착은 비동차 포아송 과정(thinning)으로 만들고, 빈 구역이 없으면 돌아간 차량(rejectedFull)으로 센다.
+ * 출차는 입차 시각 + 체류 시간이며 가상 시간 범위를 넘더라도 포함해서, 실행이 끝나면 주차장이 비어 있게 한다.
+ */
+class ParkingTrafficModel {
+
+    private static final char[] PLATE_LETTERS = "가나다라마거너더러머버서어저고노도로모보소오조구누두루무부수우주".toCharArray();
+
+    private ParkingTrafficModel() {
+    }
+
+    static Schedule generate(ParkingSimulationConfigDTO config, Random random) {
+        LocalDateTime start = config.getStartTime() != null
+                ? config.getStartTime() : LocalDateTime.now().toLocalDate().atStartOfDay();
+        double startHour = start.getHour() + start.getMinute() / 60.0;
+        double maxFactor = 1 + Math.max(0, config.getRushMultiplier() - 1) * Math.max(1, config.getRushHours().size());
+        double maxRate = config.getArrivalsPerHour() * maxFactor;
+
+        Schedule schedule = new Schedule(config.getHours());
+        if (maxRate <= 0 || config.getSpots() <= 0) {
+            return schedule;
+        }
+
+        List<Integer> freeSpots = new ArrayList<>();
+        for (int i = 1; i <= config.getSpots(); i++) freeSpots.add(i);
+        // {출차 시각(초), 구역 번호}
+        PriorityQueue<long[]> departures = new PriorityQueue<>(Comparator.comparingLong(d -> d[0]));
+        Set<String> parkedPlates = new HashSet<>();
+        Map<Integer, String> plateBySpot = new LinkedHashMap<>();
+        List<String> carTypes = new ArrayList<>(config.getVehicleMix().keySet());
+        double[] carTypeWeights = cumulativeWeights(config.getVehicleMix(), carTypes);
+
+        double t = 0; // 시간 단위
+        while (true) {
+            t += -Math.log(1 - random.nextDouble()) / maxRate;
+            if (t >= config.getHours()) {
+                break;
+            }
+            double hourOfDay = (startHour + t) % 24;
+            if (random.nextDouble() * maxFactor > rushFactor(config, hourOfDay)) {
+                continue;
+            }
+
+            long arrivalSecond = (long) (t * 3600);
+            while (!departures.isEmpty() && departures.peek()[0] <= arrivalSecond) {
+                int spot = (int) departures.poll()[1];
+                parkedPlates.remove(plateBySpot.remove(spot));
+                freeSpots.add(spot);
+            }
+
+            schedule.arrivals++;
+            schedule.arrivalsByHour[(int) t]++;
+            if (freeSpots.isEmpty()) {
+                schedule.rejectedFull++;
+                continue;
+            }
+
+            int pick = random.nextInt(freeSpots.size());
+            int spot = freeSpots.get(pick);
+            freeSpots.set(pick, freeSpots.get(freeSpots.size() - 1));
+            freeSpots.remove(freeSpots.size() - 1);
+
+            String plate;
+            do {
+                plate = randomPlate(random);
+            } while (!parkedPlates.add(plate));
+            plateBySpot.put(spot, plate);
+
+            double dwellMinutes = Math.exp(Math.log(config.getDwellMedianMinutes()) + config.getDwellSigma() * random.nextGaussian());
+            long dwellSeconds = (long) (Math.min(Math.max(1, dwellMinutes), config.getMaxDwellHours() * 60.0) * 60);
+            departures.add(new long[]{arrivalSecond + dwellSeconds, spot});
+
+            String carType = pickCarType(carTypes, carTypeWeights, random);
+            schedule.arrivalsByCarType.merge(carType, 1, Integer::sum);
+            String spotId = config.getSpotPrefix() + spot;
+            schedule.events.add(new SimEvent(start.plusSeconds(arrivalSecond), ParkingGateService.ENTRY, spot, spotId, plate, carType));
+            schedule.events.add(new SimEvent(start.plusSeconds(arrivalSecond + dwellSeconds), ParkingGateService.EXIT, spot, spotId, plate, carType));
+            schedule.peakOccupancy = Math.max(schedule.peakOccupancy, config.getSpots() - freeSpots.size());
+        }
+
+        // 안정 정렬: 같은 시각이면 먼저 만들어진 출차가 다음 차량의 입차보다 앞선다
+        schedule.events.sort(Comparator.comparing(e -> e.time));
+        return schedule;
+    }
+
+    /**
+     * 출퇴근 피크 배수: 1 + (rushMultiplier - 1) × Σ 가우시안(피크 시각, 폭)
+     */
+    static double rushFactor(ParkingSimulationConfigDTO config, double hourOfDay) {
+        double width = Math.max(0.1, config.getRushWidthHours());
+        double bumps = 0;
+        for (double peak : config.getRushHours()) {
+            double diff = Math.abs(hourOfDay - peak);
+            diff = Math.min(diff, 24 - diff);
+            bumps += Math.exp(-0.5 * (diff / width) * (diff / width));
+        }
+        return 1 + Math.max(0, config.getRushMultiplier() - 1) * bumps;
+    }
+
+    private static double[] cumulativeWeights(Map<String, Double> mix, List<String> carTypes) {
+        double[] cumulative = new double[carTypes.size()];
+        double sum = 0;
+        for (int i = 0; i < carTypes.size(); i++) {
+            sum += Math.max(0, mix.get(carTypes.get(i)));
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static String pickCarType(List<String> carTypes, double[] cumulative, Random random) {
+        if (carTypes.isEmpty() || cumulative[cumulative.length - 1] <= 0) {
+            return "일반";
+        }
+        double r = random.nextDouble() * cumulative[cumulative.length - 1];
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) return carTypes.get(i);
+        }
+        return carTypes.get(carTypes.size() - 1);
+    }
+
+    private static String randomPlate(Random random) {
+        return String.format("%02d%c%04d", 10 + random.nextInt(90),
+                PLATE_LETTERS[random.nextInt(PLATE_LETTERS.length)], random.nextInt(10000));
+    }
+
+    static class Schedule {
+        final List<SimEvent> events = new ArrayList<>();
+        final int[] arrivalsByHour;
+        final Map<String, Integer> arrivalsByCarType = new LinkedHashMap<>();
+        int arrivals;
+        int rejectedFull;
+        int peakOccupancy;
+
+        Schedule(int hours) {
+            this.arrivalsByHour = new int[Math.max(0, hours)];
+        }
+    }
+
+    static class SimEvent {
+        final LocalDateTime time;
+        final String type;
+        final int spotNumber;
+        final String spotId;
+        final String plateNumber;
+        final String carType;
+
+        SimEvent(LocalDateTime time, String type, int spotNumber, String spotId, String plateNumber, String carType) {
+            this.time = time;
+            this.type = type;
+            this.spotNumber = spotNumber;
+            this.spotId = spotId;
+            this.plateNumber = plateNumber;
+            this.carType = carType;
+        }
+    }
+}
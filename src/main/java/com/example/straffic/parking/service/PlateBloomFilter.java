@@ -0,0 +1,80 @@
+package com.example.straffic.parking.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 번호판 블룸 필터
+ * mightContain 이 false 면 확실히 없고, true 면 오탐 확률 fpp 로 있을 수도 있다.
+ * 비트 수 m = -n·ln(p) / (ln 2)², 해시 수 k = (m / n)·ln 2 이고, k 개 위치는 64비트 해시 두 개로 만든다 (h1 + i·h2).
+ * 지울 수 없으므로 삭제가 많이 쌓이면 ParkingPlateListService 가 새로 만든다.
+ * 쓰기는 한 스레드(갱신)만 하고, 읽기는 잠금 없이 한다.
+ */
+final class PlateBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final int capacity;
+
+    PlateBloomFilter(int expected, double fpp) {
+        this.capacity = Math.max(expected, 16);
+        long m = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min((m + 63) >>> 6, Integer.MAX_VALUE - 8);
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+    }
+
+    void add(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bits);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = words.get(word);
+            if ((current & mask) == 0) {
+                words.set(word, current | mask);
+            }
+        }
+    }
+
+    boolean mightContain(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long sizeInBytes() {
+        return bits / 8;
+    }
+
+    int hashes() {
+        return hashes;
+    }
+
+    private static long hash(String key, long seed) {
+        long h = seed ^ key.length();
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+            h = Long.rotateLeft(h, 29);
+        }
+        // murmur3 fmix64
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
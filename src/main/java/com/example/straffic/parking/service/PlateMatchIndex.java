@@ -0,0 +1,230 @@
+package com.example.straffic.parking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * OCR 오차를 허용하는 번호판 검색 인덱스 (symmetric delete)
+ * 번호판마다 글자를 최대 maxDistance 개 지운 변형을 미리 색인해 두고, 조회 시 입력의 변형과 겹치는 번호판만
+ * 편집 거리로 확인한다. 후보 검증 건수가 작아서 주차 대수와 관계없이 1ms 안에 끝난다.
+ * 비교 전에 OCR 이 자주 혼동하는 문자(O/0, B/8, I/1 ...)를 같은 문자로 바꾸므로 이런 오인식은 거리 0 으로 본다.
+ * 한글 음절 하나를 잘못 읽은 경우는 거리 1 이다.
+ */
+@Component
+public class PlateMatchIndex {
+
+    private static final Map<Character, Character> CONFUSABLE = Map.ofEntries(
+            Map.entry('O', '0'), Map.entry('Q', '0'), Map.entry('D', '0'),
+            Map.entry('I', '1'), Map.entry('L', '1'), Map.entry('|', '1'),
+            Map.entry('Z', '2'), Map.entry('S', '5'), Map.entry('G', '6'),
+            Map.entry('T', '7'), Map.entry('B', '8')
+    );
+
+    private final int maxDistance;
+    private final int recentCapacity;
+
+    // 정규화된 번호판 → 원래 번호판과 주차 구역 (최근 출차 차량은 spotId null)
+    private final Map<String, Entry> plates = new HashMap<>();
+    // 삭제 변형 → 정규화된 번호판들
+    private final Map<String, Set<String>> deletes = new HashMap<>();
+    // 최근 출차 차량 (오래된 순)
+    private final LinkedHashMap<String, Boolean> recent = new LinkedHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PlateMatchIndex(@Value("${parking.plate-match.max-distance:2}") int maxDistance,
+                           @Value("${parking.plate-match.recent-capacity:5000}") int recentCapacity) {
+        this.maxDistance = maxDistance;
+        this.recentCapacity = recentCapacity;
+    }
+
+    public void parked(String plateNumber, String spotId) {
+        String key = normalize(plateNumber);
+        if (key.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            recent.remove(key);
+            put(key, new Entry(plateNumber.trim(), spotId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 출차한 차량은 주차 목록에서 빼고 최근 차량으로 남긴다 (recentCapacity 를 넘으면 오래된 것부터 삭제)
+     */
+    public void left(String plateNumber) {
+        String key = normalize(plateNumber);
+        if (key.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            put(key, new Entry(plateNumber.trim(), null));
+            recent.put(key, Boolean.TRUE);
+            while (recent.size() > recentCapacity) {
+                String oldest = recent.keySet().iterator().next();
+                recent.remove(oldest);
+                removeKey(oldest);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            plates.clear();
+            deletes.clear();
+            recent.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 편집 거리 maxDistance 이내의 후보를 거리순으로 돌려준다.
+     *
+     * @param parkedOnly true 면 현재 주차 중인 차량만
+     */
+    public List<Candidate> suggest(String plateNumber, int limit, boolean parkedOnly) {
+        String query = normalize(plateNumber);
+        List<Candidate> result = new ArrayList<>();
+        if (query.isEmpty()) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<String> seen = new HashSet<>();
+            for (String variant : deleteVariants(query)) {
+                Set<String> keys = deletes.get(variant);
+                if (keys == null) continue;
+                for (String key : keys) {
+                    if (!seen.add(key)) continue;
+                    Entry entry = plates.get(key);
+                    if (parkedOnly && entry.spotId == null) continue;
+                    int distance = distance(query, key);
+                    if (distance <= maxDistance) {
+                        result.add(new Candidate(entry.plateNumber, entry.spotId, distance));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        result.sort((a, b) -> a.distance != b.distance
+                ? Integer.compare(a.distance, b.distance)
+                : Boolean.compare(b.spotId != null, a.spotId != null));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return plates.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String plateNumber) {
+        if (plateNumber == null) return "";
+        StringBuilder sb = new StringBuilder(plateNumber.length());
+        for (char c : plateNumber.trim().toUpperCase().toCharArray()) {
+            if (Character.isWhitespace(c) || c == '-' || c == '.') continue;
+            sb.append(CONFUSABLE.getOrDefault(c, c));
+        }
+        return sb.toString();
+    }
+
+    private void put(String key, Entry entry) {
+        if (plates.put(key, entry) == null) {
+            for (String variant : deleteVariants(key)) {
+                deletes.computeIfAbsent(variant, k -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    private void removeKey(String key) {
+        if (plates.remove(key) == null) return;
+        for (String variant : deleteVariants(key)) {
+            Set<String> keys = deletes.get(variant);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) deletes.remove(variant);
+            }
+        }
+    }
+
+    private Set<String> deleteVariants(String key) {
+        Set<String> variants = new HashSet<>();
+        variants.add(key);
+        List<String> frontier = List.of(key);
+        for (int d = 0; d < maxDistance; d++) {
+            List<String> next = new ArrayList<>();
+            for (String s : frontier) {
+                for (int i = 0; i < s.length(); i++) {
+                    String v = s.substring(0, i) + s.substring(i + 1);
+                    if (variants.add(v)) next.add(v);
+                }
+            }
+            frontier = next;
+        }
+        return variants;
+    }
+
+    /**
+     * 인접 문자 교환을 1로 세는 편집 거리 (Optimal String Alignment)
+     */
+    static int distance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static class Entry {
+        private final String plateNumber;
+        private final String spotId;
+
+        Entry(String plateNumber, String spotId) {
+            this.plateNumber = plateNumber;
+            this.spotId = spotId;
+        }
+    }
+
+    public static class Candidate {
+        private final String plateNumber;
+        private final String spotId;
+        private final int distance;
+
+        Candidate(String plateNumber, String spotId, int distance) {
+            this.plateNumber = plateNumber;
+            this.spotId = spotId;
+            this.distance = distance;
+        }
+
+        public String getPlateNumber() { return plateNumber; }
+        public String getSpotId() { return spotId; }
+        public int getDistance() { return distance; }
+        public boolean isParked() { return spotId != null; }
+    }
+}
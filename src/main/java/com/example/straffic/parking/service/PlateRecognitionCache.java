@@ -0,0 +1,306 @@
+package com.example.straffic.parking.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 번호판 인식 결과 캐시
+ * 같은 카메라 프레임이 반복해서 들어오면 OCR 을 다시 돌리지 않고 이전 결과를 돌려준다.
+ * - 정확히 같은 이미지: 이미지 바이트의 SHA-256 으로 조회
+ * - 거의 같은 이미지(재인코딩, 미세한 노이즈): perceptual-enabled 일 때 dHash(64비트) 해밍 거리로 조회
+ *   dHash 는 정확 일치가 없을 때만 잠금 밖에서 계산하고, 64비트를 (max-hamming-distance + 1) 조각으로 나눈 조각별 색인
+ *   (multi-index hashing: 거리가 d 이하면 d+1 조각 중 적어도 하나는 똑같다)으로 후보만 찾아 가장 가까운 결과를 돌려준다.
+ * 크기(LRU)와 TTL 로 만료시키며, 인식에 성공한 결과만 저장한다.
+ */
+@Component
+public class PlateRecognitionCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final boolean perceptualEnabled;
+    private final int maxHammingDistance;
+
+    private final LinkedHashMap<String, CachedResult> entries;
+    // 조각 번호 → 조각 값 → 그 값을 가진 항목 (entries 와 같은 잠금으로 보호)
+    private final int chunks;
+    private final List<Map<Long, Set<CachedResult>>> buckets;
+
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong perceptualHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public PlateRecognitionCache(@Value("${parking.ocr.cache.max-size:1000}") int maxSize,
+                                 @Value("${parking.ocr.cache.ttl-seconds:300}") long ttlSeconds,
+                                 @Value("${parking.ocr.cache.perceptual-enabled:false}") boolean perceptualEnabled,
+                                 @Value("${parking.ocr.cache.max-hamming-distance:4}") int maxHammingDistance) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.perceptualEnabled = perceptualEnabled;
+        this.maxHammingDistance = maxHammingDistance;
+        this.chunks = Math.min(64, Math.max(1, maxHammingDistance + 1));
+        this.buckets = new ArrayList<>(chunks);
+        for (int j = 0; j < chunks; j++) {
+            buckets.add(new HashMap<>());
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                if (size() > PlateRecognitionCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    unindex(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 조회 키 계산 (이미지마다 한 번). 캐시를 끈 경우(max-size 0) null
+     * dHash 는 이미지 디코딩이 필요하므로 정확 일치가 없을 때 get 에서 잠금 밖에서 계산한다.
+     */
+    public ImageKey keyOf(byte[] image) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        return new ImageKey(sha256(image), perceptualEnabled ? image : null);
+    }
+
+    public Map<String, Object> get(ImageKey key) {
+        if (key == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedResult exact = entries.get(key.contentHash);
+            if (exact != null) {
+                if (now - exact.createdAt <= ttlMillis) {
+                    exactHits.incrementAndGet();
+                    return copyOf(exact.result, "exact");
+                }
+                remove(key.contentHash);
+            }
+        }
+
+        Long hash = key.perceptualHash();
+        if (hash != null) {
+            synchronized (entries) {
+                CachedResult nearest = nearest(hash, now);
+                if (nearest != null) {
+                    perceptualHits.incrementAndGet();
+                    return copyOf(nearest.result, "perceptual");
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 조각이 하나라도 같은 후보 중 해밍 거리가 가장 작은 항목 (entries 잠금 안에서 호출)
+     */
+    private CachedResult nearest(long hash, long now) {
+        List<CachedResult> expired = new ArrayList<>();
+        CachedResult best = null;
+        int bestDistance = maxHammingDistance + 1;
+        for (int j = 0; j < chunks; j++) {
+            Set<CachedResult> bucket = buckets.get(j).get(chunkOf(hash, j));
+            if (bucket == null) {
+                continue;
+            }
+            for (CachedResult candidate : bucket) {
+                if (now - candidate.createdAt > ttlMillis) {
+                    expired.add(candidate);
+                    continue;
+                }
+                int distance = Long.bitCount(candidate.perceptualHash ^ hash);
+                if (distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+        }
+        for (CachedResult entry : expired) {
+            remove(entry.contentHash);
+        }
+        if (best != null) {
+            // 후보를 보는 동안에는 LRU 순서를 건드리지 않고, 고른 항목만 최근 사용으로 올린다
+            entries.get(best.contentHash);
+        }
+        return best;
+    }
+
+    public void put(ImageKey key, Map<String, Object> result) {
+        if (key == null || result == null || !Boolean.TRUE.equals(result.get("success"))) {
+            return;
+        }
+        Long hash = key.perceptualHash();
+        synchronized (entries) {
+            remove(key.contentHash);
+            CachedResult entry = new CachedResult(key.contentHash, new HashMap<>(result), hash, System.currentTimeMillis());
+            entries.put(key.contentHash, entry);
+            if (hash != null) {
+                for (int j = 0; j < chunks; j++) {
+                    buckets.get(j).computeIfAbsent(chunkOf(hash, j), c -> new HashSet<>()).add(entry);
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hits = exactHits.get() + perceptualHits.get();
+        long total = hits + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("exactHits", exactHits.get());
+        stats.put("perceptualHits", perceptualHits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : Math.round(hits * 1000.0 / total) / 1000.0);
+        return stats;
+    }
+
+    private void remove(String contentHash) {
+        CachedResult removed = entries.remove(contentHash);
+        if (removed != null) {
+            unindex(removed);
+        }
+    }
+
+    private void unindex(CachedResult entry) {
+        if (entry.perceptualHash == null) {
+            return;
+        }
+        for (int j = 0; j < chunks; j++) {
+            Long chunk = chunkOf(entry.perceptualHash, j);
+            Set<CachedResult> bucket = buckets.get(j).get(chunk);
+            if (bucket != null) {
+                bucket.remove(entry);
+                if (bucket.isEmpty()) {
+                    buckets.get(j).remove(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * 64비트를 chunks 조각으로 나눈 j 번째 조각 값
+     */
+    private long chunkOf(long hash, int j) {
+        int from = j * 64 / chunks;
+        int to = (j + 1) * 64 / chunks;
+        int width = to - from;
+        long mask = width == 64 ? -1L : (1L << width) - 1;
+        return (hash >>> from) & mask;
+    }
+
+    private Map<String, Object> copyOf(Map<String, Object> result, String cacheType) {
+        Map<String, Object> copy = new HashMap<>(result);
+        copy.put("cached", cacheType);
+        return copy;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * dHash: 9x8 흑백으로 줄인 뒤 가로로 이웃한 픽셀의 밝기 비교 결과 64비트.
+     * 이미지로 읽을 수 없으면 null (정확 일치만 사용)
+     */
+    static Long differenceHash(byte[] image) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(image));
+            if (source == null) {
+                return null;
+            }
+            BufferedImage small = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = small.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, 9, 8, null);
+            g.dispose();
+
+            long hash = 0;
+            for (int y = 0; y < 8; y++) {
+                for (int x = 0; x < 8; x++) {
+                    int left = small.getRaster().getSample(x, y, 0);
+                    int right = small.getRaster().getSample(x + 1, y, 0);
+                    hash = (hash << 1) | (left < right ? 1 : 0);
+                }
+            }
+            return hash;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static class ImageKey {
+        private final String contentHash;
+        private byte[] image;
+        private Long perceptualHash;
+
+        /**
+         * @param image dHash 를 계산할 이미지 (유사 조회를 쓰지 않으면 null)
+         */
+        ImageKey(String contentHash, byte[] image) {
+            this.contentHash = contentHash;
+            this.image = image;
+        }
+
+        /**
+         * 처음 부를 때 한 번만 디코딩한다 (요청 하나에서만 쓰는 객체)
+         */
+        Long perceptualHash() {
+            if (image != null) {
+                perceptualHash = differenceHash(image);
+                image = null;
+            }
+            return perceptualHash;
+        }
+    }
+
+    private static class CachedResult {
+        private final String contentHash;
+        private final Map<String, Object> result;
+        private final Long perceptualHash;
+        private final long createdAt;
+
+        CachedResult(String contentHash, Map<String, Object> result, Long perceptualHash, long createdAt) {
+            this.contentHash = contentHash;
+            this.result = result;
+            this.perceptualHash = perceptualHash;
+            this.createdAt = createdAt;
+        }
+    }
+}
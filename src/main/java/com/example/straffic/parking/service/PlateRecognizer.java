@@ -0,0 +1,11 @@
+package com.example.straffic.parking.service;
+
+import java.util.Map;
+
+/**
+ * 번호판 인식기
+ * 결과는 Flask OCR 서비스(/api/parking/recognize)와 같은 형태의 Map (success, plateNumber, plates ...)
+ */
+public interface PlateRecognizer {
+    Map<String, Object> recognize(byte[] image, String fileName, String contentType);
+}
@@ -0,0 +1,62 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.entity.ParkingReservationEntity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 한 구역의 예약 달력 (반열린 구간 [start, end))
+ * 같은 구역의 예약은 서로 겹치지 않으므로 시작 시각 순 정렬 트리만으로 구간 트리와 같은 겹침 조회가 된다:
+ * end 보다 먼저 시작한 마지막 예약이 start 뒤에 끝나지 않으면 그 앞의 예약은 모두 더 일찍 끝났다.
+ * 겹침 여부는 O(log n), 겹치는 예약 나열은 O(log n + k). 동기화는 호출하는 쪽(ParkingReservationService)이 한다.
+ */
+final class SpotBookingCalendar {
+
+    private final TreeMap<LocalDateTime, ParkingReservationEntity> byStart = new TreeMap<>();
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, ParkingReservationEntity> last = byStart.lowerEntry(end);
+        return last != null && last.getValue().getEndTime().isAfter(start);
+    }
+
+    List<ParkingReservationEntity> overlapping(LocalDateTime start, LocalDateTime end) {
+        List<ParkingReservationEntity> result = new ArrayList<>();
+        Map.Entry<LocalDateTime, ParkingReservationEntity> before = byStart.floorEntry(start);
+        if (before != null && before.getValue().getEndTime().isAfter(start)) {
+            result.add(before.getValue());
+        }
+        result.addAll(byStart.subMap(start, false, end, false).values());
+        return result;
+    }
+
+    /**
+     * @return 겹치는 예약이 있으면 false (추가하지 않음)
+     */
+    boolean add(ParkingReservationEntity reservation) {
+        if (overlaps(reservation.getStartTime(), reservation.getEndTime())) {
+            return false;
+        }
+        byStart.put(reservation.getStartTime(), reservation);
+        return true;
+    }
+
+    void remove(ParkingReservationEntity reservation) {
+        ParkingReservationEntity current = byStart.get(reservation.getStartTime());
+        if (current != null && current.getId().equals(reservation.getId())) {
+            byStart.remove(reservation.getStartTime());
+        }
+    }
+
+    Collection<ParkingReservationEntity> all() {
+        return byStart.values();
+    }
+
+    boolean isEmpty() {
+        return byStart.isEmpty();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.straffic.parking.service;
+
+/**
+ * 구역 락(ParkingSpotLocks)을 제한 시간 안에 잡지 못했을 때 → 503 으로 응답한다 (잠시 후 재시도하면 되는 경합)
+ */
+public class SpotLockTimeoutException extends RuntimeException {
+
+    public SpotLockTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.straffic.parking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OCR 서버 없이 쓰는 로컬 인식기 (parking.ocr.mode=stub)
+ * 고정 번호판을 지정한 지연 후 돌려준다. 개발 환경과 테스트용.
+ */
+@Component
+@ConditionalOnProperty(name = "parking.ocr.mode", havingValue = "stub")
+public class StubPlateRecognizer implements PlateRecognizer {
+
+    private final String plateNumber;
+    private final long delayMillis;
+
+    public StubPlateRecognizer(@Value("${parking.ocr.stub-plate:12가3456}") String plateNumber,
+                               @Value("${parking.ocr.stub-delay-ms:0}") long delayMillis) {
+        this.plateNumber = plateNumber;
+        this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public Map<String, Object> recognize(byte[] image, String fileName, String contentType) {
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("plates", List.of(Map.of("plate_number", plateNumber)));
+        result.put("plateNumber", plateNumber);
+        result.put("confidence", 1.0);
+        result.put("timestamp", LocalDateTime.now().toString());
+        return result;
+    }
+}
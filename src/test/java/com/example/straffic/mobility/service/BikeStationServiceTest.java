@@ -0,0 +1,119 @@
+package com.example.straffic.mobility.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BikeStationServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private Path feed;
+    private BikeStationService service;
+
+    @BeforeEach
+    void setUp() {
+        feed = dir.resolve("station-status.json");
+        ObjectMapper objectMapper = new ObjectMapper();
+        UpstreamRecordReplay replay = new UpstreamRecordReplay("live", dir.resolve("recordings").toString(), 0, 1, "", "", objectMapper);
+        service = new BikeStationService(feed.toString(), "http://localhost:1", "", objectMapper,
+                new UpstreamGuard(new StandardEnvironment()), replay);
+    }
+
+    @Test
+    void ingestSkipsStationsWithoutCoordinates() throws Exception {
+        useFixture("station-status-1.json");
+
+        Map<String, Object> stats = service.ingest();
+
+        assertThat(stats).containsEntry("stations", 3).containsEntry("bikes", 8).containsEntry("ingests", 1L);
+    }
+
+    @Test
+    void nearestFiltersByModeMinimumAndDistance() throws Exception {
+        useFixture("station-status-1.json");
+        service.ingest();
+
+        // 망원역 2번출구 바로 옆. ST-2 는 자전거가 없어 빠진다
+        assertThat(ids(service.nearest(126.9106, 37.5548, 5, "bike", 1, null))).containsExactly("ST-3", "ST-1");
+        assertThat(ids(service.nearest(126.9106, 37.5548, 5, "bike", 4, null))).containsExactly("ST-1");
+        // 반납: ST-3 은 거치대가 꽉 찼다
+        assertThat(ids(service.nearest(126.9106, 37.5548, 5, "dock", 1, null))).containsExactly("ST-2", "ST-1");
+        assertThat(ids(service.nearest(126.9106, 37.5548, 5, "bike", 1, 100.0))).containsExactly("ST-3");
+        assertThat(ids(service.nearest(126.9106, 37.5548, 1, "bike", 1, null))).containsExactly("ST-3");
+    }
+
+    @Test
+    void diffAgainstPreviousSnapshot() throws Exception {
+        useFixture("station-status-1.json");
+        service.ingest();
+        useFixture("station-status-2.json");
+        service.ingest();
+
+        List<BikeStationSnapshot.Diff> changes = changes();
+        assertThat(changes).hasSize(1);
+        BikeStationSnapshot.Diff diff = changes.get(0);
+        assertThat(diff.added()).isEqualTo(1);
+        assertThat(diff.removed()).isEqualTo(1);
+        assertThat(diff.changed()).isEqualTo(2);
+        assertThat(diff.bikesBefore()).isEqualTo(8);
+        assertThat(diff.bikesAfter()).isEqualTo(13);
+        // 변화가 큰 순: ST-2 0 → 4, ST-1 5 → 2
+        assertThat(diff.changes()).extracting(c -> c.get("id")).containsExactly("ST-2", "ST-1");
+        assertThat(diff.changes().get(0)).containsEntry("before", 0).containsEntry("after", 4);
+    }
+
+    @Test
+    void errorOrEmptyResponsesKeepThePreviousSnapshot() throws Exception {
+        useFixture("station-status-1.json");
+        service.ingest();
+
+        for (String body : List.of(
+                "{\"RESULT\":{\"CODE\":\"INFO-100\",\"MESSAGE\":\"인증키가 유효하지 않습니다.\"}}",
+                "{\"CODE\":\"ERROR-337\",\"MESSAGE\":\"일일 트래픽을 초과했습니다.\"}",
+                "{\"CODE\":\"INFO-200\",\"MESSAGE\":\"해당하는 데이터가 없습니다.\"}",
+                "{\"rentBikeStatus\":{\"list_total_count\":0,\"RESULT\":{\"CODE\":\"INFO-000\"},\"row\":[]}}",
+                "{\"rentBikeStatus\":{\"RESULT\":{\"CODE\":\"INFO-000\"}}}",
+                "{\"stations\":[]}",
+                "[]",
+                "[{\"stationId\":\"ST-9\",\"stationLatitude\":\"0\",\"stationLongitude\":\"0\"}]")) {
+            Files.writeString(feed, body);
+            assertThatThrownBy(() -> service.ingest()).as(body).isInstanceOf(IllegalStateException.class);
+        }
+
+        Map<String, Object> stats = service.getStats();
+        assertThat(stats).containsEntry("stations", 3).containsEntry("failures", 8L);
+        assertThat((String) stats.get("lastError")).isNotBlank();
+        assertThat(changes()).isEmpty();
+        assertThat(ids(service.nearest(126.9106, 37.5548, 5, "bike", 1, null))).containsExactly("ST-3", "ST-1");
+    }
+
+    private void useFixture(String name) throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/bike/" + name)) {
+            Files.copy(in, feed, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BikeStationSnapshot.Diff> changes() {
+        return (List<BikeStationSnapshot.Diff>) service.getChanges(10).get("changes");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> ids(Map<String, Object> response) {
+        return ((List<Map<String, Object>>) response.get("stations")).stream().map(s -> s.get("id")).toList();
+    }
+}
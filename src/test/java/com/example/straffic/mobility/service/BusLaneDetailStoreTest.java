@@ -0,0 +1,201 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BusLaneDetailStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void valuesSurviveReopen() throws Exception {
+        Path file = dir.resolve("bus-lane.log");
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            store.append("1001", json("{\"busNo\":\"7011\"}"), 100L);
+            store.append("1002", json("{\"busNo\":\"N16\"}"), 200L);
+        }
+
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(text(store, "1001")).isEqualTo("{\"busNo\":\"7011\"}");
+            assertThat(store.lookup("1002").fetchedAt()).isEqualTo(200L);
+            assertThat(store.lookup("9999")).isNull();
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedAndEarlierRecordsKept() throws Exception {
+        Path file = dir.resolve("bus-lane.log");
+        long good;
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            store.append("1001", json("{\"busNo\":\"7011\"}"), 100L);
+            good = store.fileBytes();
+            store.append("1002", json("{\"busNo\":\"N16\",\"stations\":[1,2,3]}"), 200L);
+        }
+        // 두 번째 레코드의 JSON 중간에서 끊긴 것처럼 자른다
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(good + 30);
+        }
+
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.lookup("1002")).isNull();
+            assertThat(store.fileBytes()).isEqualTo(good);
+            // 잘라 낸 자리부터 이어 쓴다
+            store.append("1003", json("{\"busNo\":\"143\"}"), 300L);
+        }
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(text(store, "1003")).isEqualTo("{\"busNo\":\"143\"}");
+        }
+    }
+
+    @Test
+    void tornRecordHeaderIsTruncatedToo() throws Exception {
+        Path file = dir.resolve("bus-lane.log");
+        long good;
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            store.append("1001", json("{}"), 100L);
+            good = store.fileBytes();
+        }
+        // type 과 key 길이만 쓰고 끊겼다
+        Files.write(file, new byte[]{1, 0, 4}, StandardOpenOption.APPEND);
+
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.fileBytes()).isEqualTo(good);
+        }
+    }
+
+    @Test
+    void touchReplaysOnlyWhenCrcMatchesCurrentValue() throws Exception {
+        Path file = dir.resolve("bus-lane.log");
+        byte[] value = json("{\"busNo\":\"7011\"}");
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            store.append("1001", value, 100L);
+            assertThat(store.touch("1001", 150L).fetchedAt()).isEqualTo(150L);
+            assertThat(store.touch("9999", 150L)).isNull();
+        }
+        // 다른 내용의 crc 를 가진 TOUCH (값이 바뀐 뒤의 TOUCH 가 남은 경우) 는 무시한다
+        appendRaw(file, touchRecord("1001", 999L, BusLaneDetailStore.crc(json("{\"busNo\":\"other\"}"))));
+
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            BusLaneDetailStore.Slot slot = store.lookup("1001");
+            assertThat(slot.fetchedAt()).isEqualTo(150L);
+            assertThat(slot.crc()).isEqualTo(BusLaneDetailStore.crc(value));
+            assertThat(store.read(slot)).isEqualTo(value);
+        }
+
+        appendRaw(file, touchRecord("1001", 400L, BusLaneDetailStore.crc(value)));
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            assertThat(store.lookup("1001").fetchedAt()).isEqualTo(400L);
+        }
+    }
+
+    @Test
+    void compactionKeepsLiveValuesAndReopens() throws Exception {
+        Path file = dir.resolve("bus-lane.log");
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            store.append("1001", json("{\"v\":1}"), 100L);
+            store.append("1002", json("{\"v\":\"keep\"}"), 100L);
+            // 살아 있는 값이 절반을 넘으면 하지 않는다
+            assertThat(store.compactIfNeeded(0)).isFalse();
+            for (int i = 2; i <= 5; i++) {
+                store.append("1001", json("{\"v\":" + i + "}"), 100L + i);
+            }
+            store.touch("1002", 700L);
+            long before = store.fileBytes();
+            // 파일이 minBytes 보다 작으면 하지 않는다
+            assertThat(store.compactIfNeeded(before + 1)).isFalse();
+
+            assertThat(store.compactIfNeeded(0)).isTrue();
+            assertThat(store.fileBytes()).isLessThan(before).isEqualTo(store.liveBytes() + 8);
+            assertThat(text(store, "1001")).isEqualTo("{\"v\":5}");
+            // compact 뒤에도 같은 채널에 이어 쓴다
+            store.append("1003", json("{\"v\":\"new\"}"), 800L);
+        }
+        assertThat(Files.exists(dir.resolve("bus-lane.log.tmp"))).isFalse();
+
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            assertThat(store.size()).isEqualTo(3);
+            assertThat(text(store, "1001")).isEqualTo("{\"v\":5}");
+            assertThat(store.lookup("1001").fetchedAt()).isEqualTo(105L);
+            assertThat(text(store, "1002")).isEqualTo("{\"v\":\"keep\"}");
+            assertThat(store.lookup("1002").fetchedAt()).isEqualTo(700L);
+            assertThat(text(store, "1003")).isEqualTo("{\"v\":\"new\"}");
+        }
+    }
+
+    @Test
+    void headerVersionMismatchStartsEmpty() throws Exception {
+        Path file = dir.resolve("bus-lane.log");
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            store.append("1001", json("{}"), 100L);
+        }
+        // 같은 magic, 다른 version
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(BusLaneDetailStore.VERSION + 1).flip(), 4);
+        }
+
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            assertThat(store.size()).isZero();
+            assertThat(store.fileBytes()).isEqualTo(8);
+            store.append("1002", json("{}"), 200L);
+        }
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.lookup("1002")).isNotNull();
+        }
+
+        // 헤더보다 짧은 파일도 새로 만든다
+        Path shortFile = dir.resolve("short.log");
+        Files.write(shortFile, new byte[]{0x42, 0x4C});
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(shortFile)) {
+            assertThat(store.size()).isZero();
+            assertThat(store.fileBytes()).isEqualTo(8);
+        }
+    }
+
+    @Test
+    void readReturnsNullWhenValueIsCorrupted() throws Exception {
+        Path file = dir.resolve("bus-lane.log");
+        try (BusLaneDetailStore store = BusLaneDetailStore.open(file)) {
+            BusLaneDetailStore.Slot slot = store.append("1001", json("{\"busNo\":\"7011\"}"), 100L);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{'X'}), slot.offset() + 2);
+            }
+            assertThat(store.read(slot)).isNull();
+        }
+    }
+
+    private static byte[] json(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(BusLaneDetailStore store, String key) throws IOException {
+        return new String(store.read(store.lookup(key)), StandardCharsets.UTF_8);
+    }
+
+    // BusLaneDetailStore.touch 와 같은 형식: type, keyLength, key, fetchedAt, crc, valueLength(0)
+    private static byte[] touchRecord(String key, long fetchedAt, int crc) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 + keyBytes.length + 8 + 4 + 4);
+        buffer.put((byte) 2).putShort((short) keyBytes.length).put(keyBytes).putLong(fetchedAt).putInt(crc).putInt(0);
+        return buffer.array();
+    }
+
+    private static void appendRaw(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.dto.OdsayPathResponse;
+import com.example.straffic.mobility.dto.SeoulSubwayArrivalResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRouteResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void odsayErrorObjectAndArrayShapesBecomeOneMessage() throws Exception {
+        // 잘못된 좌표 등: 객체, 서버 키 오류 등: 배열
+        assertThat(route("{\"error\":{\"code\":\"-98\",\"message\":\"출, 도착지가 700m이내입니다.\"}}"))
+                .containsExactly(Map.entry("error", "[-98] 출, 도착지가 700m이내입니다."));
+        assertThat(route("{\"error\":[{\"code\":\"500\",\"message\":\"[ApiKeyAuthFailed] ApiKey authentication failed.\"}]}"))
+                .containsEntry("error", "[500] [ApiKeyAuthFailed] ApiKey authentication failed.");
+        assertThat(route("{\"error\":{\"msg\":\"요청 한도 초과\"}}")).containsEntry("error", "요청 한도 초과");
+        assertThat(route("{\"error\":[]}")).containsEntry("error", "[]");
+
+        assertThat(route("{}")).containsEntry("error", "검색 결과가 없습니다.");
+        assertThat(route("{\"error\":null,\"result\":{\"path\":[]}}")).doesNotContainKey("error");
+        assertThat(CompactRouteResponses.route(null)).containsEntry("error", "빈 응답");
+        assertThat(CompactRouteResponses.isError(route("{\"error\":{\"code\":\"-99\"}}"))).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void routeKeepsOriginalKeyNamesAndOmitsNullFields() throws Exception {
+        Map<String, Object> body = route("""
+                {"result":{"searchType":0,"busCount":3,"path":[{"pathType":3,
+                  "info":{"totalTime":32,"payment":1500,"busTransitCount":1,"subwayTransitCount":1,"mapObj":"x"},
+                  "subPath":[
+                    {"trafficType":3,"distance":250,"sectionTime":4},
+                    {"trafficType":1,"distance":3200,"sectionTime":6,"stationCount":3,
+                     "lane":[{"name":"수도권 2호선","subwayCode":2}],
+                     "startName":"강남","startX":127.027,"startY":37.497,"startID":222,
+                     "endName":"교대","endID":223,
+                     "passStopList":{"stations":[{"stationName":"강남","x":"127.0"},{"stationName":null}]}},
+                    {"trafficType":2,"lane":[{"busNo":"740","busID":1101,"type":11}],"startName":"교대역"}]}]}}
+                """);
+
+        assertThat(CompactRouteResponses.isError(body)).isFalse();
+        Map<String, Object> result = (Map<String, Object>) body.get("result");
+        assertThat(result.keySet()).containsExactly("searchType", "path");
+        Map<String, Object> path = ((List<Map<String, Object>>) result.get("path")).get(0);
+        assertThat(path.keySet()).containsExactly("pathType", "info", "subPath");
+        assertThat((Map<String, Object>) path.get("info")).containsOnlyKeys(
+                "totalTime", "payment", "busTransitCount", "subwayTransitCount");
+
+        List<Map<String, Object>> subPaths = (List<Map<String, Object>>) path.get("subPath");
+        assertThat(subPaths.get(0)).containsOnlyKeys("trafficType", "distance", "sectionTime");
+        Map<String, Object> subway = subPaths.get(1);
+        assertThat(subway).containsOnlyKeys("trafficType", "distance", "sectionTime", "stationCount", "lane",
+                "startName", "startX", "startY", "startID", "endName", "endID", "passStopList");
+        assertThat((List<Map<String, Object>>) subway.get("lane")).containsExactly(Map.of("name", "수도권 2호선", "subwayCode", 2));
+        // 경유 정류장은 이름만, 이름이 없으면 빈 문자열
+        assertThat(subway.get("passStopList")).isEqualTo(Map.of("stations",
+                List.of(Map.of("stationName", "강남"), Map.of("stationName", ""))));
+        assertThat(subPaths.get(2)).containsOnlyKeys("trafficType", "lane", "startName");
+        assertThat((List<Map<String, Object>>) subPaths.get(2).get("lane"))
+                .containsExactly(Map.of("busNo", "740", "busID", 1101, "type", 11));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void seoulInfo000ListsArrivals() throws Exception {
+        Map<String, Object> body = arrivals("""
+                {"errorMessage":{"status":200,"code":"INFO-000","message":"정상 처리되었습니다.","total":1},
+                 "realtimeArrivalList":[{"subwayId":"1002","updnLine":"내선","trainLineNm":"성수행 - 역삼방면",
+                   "statnNm":"강남","arvlMsg2":"전역 도착","arvlCd":"5","rowNum":1}]}
+                """);
+
+        assertThat(body.keySet()).containsExactly("errorMessage", "realtimeArrivalList");
+        assertThat(body.get("errorMessage")).isEqualTo(Map.of("code", "INFO-000", "message", "정상 처리되었습니다."));
+        List<Map<String, Object>> list = (List<Map<String, Object>>) body.get("realtimeArrivalList");
+        assertThat(list).hasSize(1);
+        assertThat(list.get(0)).containsOnlyKeys("subwayId", "updnLine", "trainLineNm", "statnNm", "arvlMsg2", "arvlCd");
+    }
+
+    @Test
+    void seoulInfo200IsEmptyResultNotError() throws Exception {
+        // 데이터 없음은 errorMessage 없이 최상위에 code 가 온다
+        Map<String, Object> body = arrivals("{\"status\":500,\"code\":\"INFO-200\",\"message\":\"해당하는 데이터가 없습니다.\",\"total\":0}");
+
+        assertThat(CompactRouteResponses.isError(body)).isFalse();
+        assertThat(body.get("errorMessage")).isEqualTo(Map.of("code", "INFO-200", "message", "해당하는 데이터가 없습니다."));
+        assertThat(body.get("realtimeArrivalList")).isEqualTo(List.of());
+    }
+
+    @Test
+    void seoulErrorCodesBecomeError() throws Exception {
+        assertThat(arrivals("{\"status\":500,\"code\":\"ERROR-337\",\"message\":\"일별 트래픽을 초과했습니다.\"}"))
+                .containsExactly(Map.entry("error", "ERROR-337 일별 트래픽을 초과했습니다."));
+        assertThat(arrivals("{\"errorMessage\":{\"status\":500,\"code\":\"ERROR-500\",\"message\":\"서버 오류\"}}"))
+                .containsEntry("error", "ERROR-500 서버 오류");
+        assertThat(CompactRouteResponses.subwayArrivals(null)).containsEntry("error", "빈 응답");
+        // 코드가 없으면 오류로 보지 않는다
+        assertThat(arrivals("{\"realtimeArrivalList\":[]}")).doesNotContainKey("error")
+                .containsEntry("errorMessage", Map.of());
+    }
+
+    private Map<String, Object> route(String json) throws Exception {
+        return CompactRouteResponses.route(objectMapper.readValue(json, OdsayPathResponse.class));
+    }
+
+    private Map<String, Object> arrivals(String json) throws Exception {
+        return CompactRouteResponses.subwayArrivals(objectMapper.readValue(json, SeoulSubwayArrivalResponse.class));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.dto.RouteRequest;
+import com.example.straffic.mobility.entity.KtxTrainEntity;
+import com.example.straffic.mobility.repository.KtxTrainRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.straffic.mobility.service.KtxTimetableTest.train;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DoorToDoorPlannerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 20);
+
+    private final RouteService routeService = mock(RouteService.class);
+    private final KtxTrainRepository repository = mock(KtxTrainRepository.class);
+    // 역 후보 1곳(1km 안), 승차 여유 15분, 하차 5분, 구간마다 최대 20대
+    private final DoorToDoorPlanner planner = new DoorToDoorPlanner(routeService, repository,
+            1, 1, 15, 5, 20, 700, 1000, 600);
+
+    @Test
+    void trainsDepartingAfterTheFifthArrivalAreNotChecked() {
+        timetable(
+                train("KTX 099", "서울", "부산", "07:50", "08:50"),
+                train("KTX 101", "서울", "부산", "08:00", "09:00"),
+                train("KTX 103", "서울", "부산", "08:10", "09:10"),
+                train("KTX 105", "서울", "부산", "08:20", "09:20"),
+                train("KTX 107", "서울", "부산", "08:30", "09:30"),
+                train("KTX 109", "서울", "부산", "08:40", "09:40"),
+                // 늦게 출발해도 빨리 도착하면 들어간다
+                train("KTX 001", "서울", "부산", "09:00", "09:20"),
+                train("KTX 111", "서울", "부산", "09:40", "10:40"),
+                train("KTX 113", "서울", "부산", "09:50", "10:50"),
+                train("KTX 115", "서울", "부산", "10:00", "11:00"));
+
+        // 역 바로 앞이라 first/last mile 은 도보 0분 → 08:00 이후 열차부터
+        Map<String, Object> response = plan(LocalTime.of(7, 45));
+
+        assertThat(response).containsEntry("status", "success").containsEntry("departAfter", "07:45")
+                .containsEntry("date", "2026-10-20").containsEntry("timetableTrains", 10);
+        assertThat(field(itineraries(response), "arriveAt"))
+                .containsExactly("09:05", "09:15", "09:25", "09:25", "09:35");
+        assertThat(trainNos(itineraries(response))).contains("KTX 001").doesNotContain("KTX 099", "KTX 109");
+        // 08:00~08:40 다섯 대 + KTX 001 이후 다섯 번째 도착이 09:35 라서,
+        // 09:40 출발(KTX 111)에서 멈추고 그 뒤 열차는 보지 않는다
+        assertThat(response).containsEntry("trainsChecked", 7);
+        verifyNoInteractions(routeService);
+    }
+
+    @Test
+    void fewerThanFiveCandidatesChecksAllTrainsUpToLimit() {
+        timetable(
+                train("KTX 101", "서울", "부산", "08:00", "10:40"),
+                train("KTX 103", "서울", "부산", "09:00", "11:40"),
+                train("KTX 105", "서울", "부산", "10:00", "12:40"));
+
+        Map<String, Object> response = plan(LocalTime.of(7, 0));
+
+        assertThat(response).containsEntry("trainsChecked", 3);
+        Map<String, Object> first = itineraries(response).get(0);
+        assertThat(first).containsEntry("leaveAt", "07:45").containsEntry("arriveAt", "10:45")
+                .containsEntry("totalMinutes", 180).containsEntry("price", 59800);
+    }
+
+    @Test
+    void itinerariesPastMidnightAreDropped() {
+        timetable(train("KTX 107", "서울", "부산", "21:55", "00:35"),
+                train("KTX 109", "서울", "부산", "22:00", "23:58"));
+
+        Map<String, Object> response = plan(LocalTime.of(21, 30));
+
+        // 자정을 넘겨 도착하거나, 하차 시간을 더해 자정을 넘기는 일정은 다루지 않는다
+        assertThat(itineraries(response)).isEmpty();
+        assertThat(response).containsEntry("trainsChecked", 2)
+                .containsEntry("message", "조건에 맞는 KTX 열차가 없습니다.");
+    }
+
+    // ------------------------------------------------------------------
+
+    private void timetable(KtxTrainEntity... trains) {
+        when(repository.findByTravelDate(any())).thenReturn(List.of(trains));
+    }
+
+    /** 서울역 → 부산역 (좌표가 역 위치와 같다) */
+    private Map<String, Object> plan(LocalTime departAfter) {
+        RouteRequest request = new RouteRequest();
+        request.setStartX("126.9707");
+        request.setStartY("37.5547");
+        request.setEndX("129.0422");
+        request.setEndY("35.1151");
+        return planner.plan(request, DATE, departAfter).block(Duration.ofSeconds(5));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> itineraries(Map<String, Object> response) {
+        return (List<Map<String, Object>>) response.get("itineraries");
+    }
+
+    private static List<Object> field(List<Map<String, Object>> itineraries, String key) {
+        return itineraries.stream().map(i -> i.get(key)).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> trainNos(List<Map<String, Object>> itineraries) {
+        return itineraries.stream()
+                .map(i -> ((List<Map<String, Object>>) i.get("legs")).get(1).get("trainNo"))
+                .toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.entity.KtxTrainEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KtxTimetableTest {
+
+    private final KtxTimetable timetable = new KtxTimetable(List.of(
+            train("KTX 105", "서울", "부산", "09:30", "12:10"),
+            train("KTX 101", "서울", "부산", "06:00", "08:40"),
+            train("KTX 103", "서울", "부산", "08:00", "10:40"),
+            train("KTX 155", "서울", "부산", "08:00", "10:35"),
+            train("KTX 107", "서울", "부산", "21:55", "00:35"),
+            train("KTX 102", "부산", "서울", "06:10", "08:50"),
+            // 시각을 읽을 수 없는 행은 건너뛴다
+            train("KTX 999", "서울", "부산", "미정", "12:00"),
+            train("KTX 998", "서울", "부산", null, "12:00")));
+
+    @Test
+    void departuresAfterStartsAtFirstTrainAtOrAfterMinute() {
+        // 08:00 출발이 두 대, 같은 시각도 포함한다
+        assertThat(trainNos(timetable.departuresAfter("서울", "부산", 8 * 60, 10)))
+                .containsExactlyInAnyOrder("KTX 103", "KTX 155", "KTX 105", "KTX 107")
+                .endsWith("KTX 105", "KTX 107");
+        assertThat(trainNos(timetable.departuresAfter("서울", "부산", 8 * 60 + 1, 10)))
+                .containsExactly("KTX 105", "KTX 107");
+        assertThat(trainNos(timetable.departuresAfter("서울", "부산", 0, 10)).get(0)).isEqualTo("KTX 101");
+        assertThat(timetable.departuresAfter("서울", "부산", 22 * 60, 10)).isEmpty();
+        assertThat(timetable.size).isEqualTo(6);
+    }
+
+    @Test
+    void departuresAfterHonoursLimitAndDirection() {
+        assertThat(trainNos(timetable.departuresAfter("서울", "부산", 0, 2))).hasSize(2).startsWith("KTX 101");
+        assertThat(trainNos(timetable.departuresAfter("부산", "서울", 0, 10))).containsExactly("KTX 102");
+        assertThat(timetable.departuresAfter("서울", "대전", 0, 10)).isEmpty();
+
+        KtxTimetable.Train first = timetable.departuresAfter("서울", "부산", 0, 1).get(0);
+        assertThat(first.departureMinute()).isEqualTo(6 * 60);
+        assertThat(first.arrivalMinute()).isEqualTo(8 * 60 + 40);
+        assertThat(first.price()).isEqualTo(59800);
+    }
+
+    @Test
+    void lowerBoundAndFormat() {
+        int[] minutes = {360, 480, 480, 570};
+        assertThat(KtxTimetable.lowerBound(minutes, 0)).isZero();
+        assertThat(KtxTimetable.lowerBound(minutes, 480)).isEqualTo(1);
+        assertThat(KtxTimetable.lowerBound(minutes, 481)).isEqualTo(3);
+        assertThat(KtxTimetable.lowerBound(minutes, 571)).isEqualTo(4);
+        assertThat(KtxTimetable.lowerBound(new int[0], 10)).isZero();
+        assertThat(KtxTimetable.format(9 * 60 + 5)).isEqualTo("09:05");
+    }
+
+    private static List<String> trainNos(List<KtxTimetable.Train> trains) {
+        return trains.stream().map(KtxTimetable.Train::trainNo).toList();
+    }
+
+    static KtxTrainEntity train(String trainNo, String departure, String arrival, String departureTime, String arrivalTime) {
+        KtxTrainEntity e = new KtxTrainEntity();
+        e.setTrainNo(trainNo);
+        e.setDeparture(departure);
+        e.setArrival(arrival);
+        e.setDepartureTime(departureTime);
+        e.setArrivalTime(arrivalTime);
+        e.setPrice(59800);
+        return e;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.straffic.mobility.service;
+
+import com.example.straffic.mobility.dto.RouteRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfflineRouteServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchReturnsOdsayShapedPathFromLocalFeed() throws Exception {
+        OfflineRouteService service = serviceWithFeed();
+
+        Map<String, Object> response = service.search(request(127.00, 37.500, 127.00, 37.521), "ALL", "07:55");
+
+        assertThat(response).containsEntry("offline", true).doesNotContainKey("error");
+        List<Map<String, Object>> paths = paths(response);
+        assertThat(paths).hasSize(1);
+        Map<String, Object> info = (Map<String, Object>) paths.get(0).get("info");
+        assertThat(info).containsEntry("departureTime", "08:00")
+                .containsEntry("subwayTransitCount", 1)
+                .containsEntry("busTransitCount", 0);
+        List<Map<String, Object>> subPaths = (List<Map<String, Object>>) paths.get(0).get("subPath");
+        assertThat(subPaths).extracting(s -> s.get("trafficType")).containsExactly(3, 1, 3);
+        assertThat(subPaths.get(1)).containsEntry("startName", "A역").containsEntry("endName", "C역");
+    }
+
+    @Test
+    void searchTypeAndDistanceLimitsAreApplied() throws Exception {
+        OfflineRouteService service = serviceWithFeed();
+
+        // 버스만: 지하철 노선만 있으므로 경로가 없다
+        assertThat(service.search(request(127.00, 37.500, 127.00, 37.521), "BUS", "07:55"))
+                .containsEntry("error", "오프라인 경로를 찾지 못했습니다.");
+        // 도착지 근처 800m 안에 정류장이 없다
+        assertThat(service.search(request(127.00, 37.500, 127.20, 37.700), "ALL", "07:55").get("error"))
+                .asString().contains("정류장이 없습니다");
+        assertThat(service.search(request(127.00, 37.500, 127.00, 37.521), "ALL", "7시"))
+                .containsEntry("error", "출발 시각 형식은 HH:mm 입니다.");
+    }
+
+    private OfflineRouteService serviceWithFeed() throws Exception {
+        Files.write(dir.resolve("stops.txt"), List.of(
+                "stop_id,stop_name,stop_lat,stop_lon",
+                "A,A역,37.50,127.00",
+                "B,B역,37.51,127.00",
+                "C,C역,37.52,127.00"));
+        Files.write(dir.resolve("routes.txt"), List.of(
+                "route_id,route_short_name,route_long_name,route_type",
+                "R1,,1호선,1"));
+        Files.write(dir.resolve("trips.txt"), List.of(
+                "route_id,service_id,trip_id",
+                "R1,ALL,t1"));
+        Files.write(dir.resolve("stop_times.txt"), List.of(
+                "trip_id,arrival_time,departure_time,stop_id,stop_sequence",
+                "t1,08:00:00,08:00:00,A,1",
+                "t1,08:10:00,08:10:00,B,2",
+                "t1,08:20:00,08:20:00,C,3"));
+        OfflineRouteService service = new OfflineRouteService("primary", dir.toString(), 800, 1.2, 5, 60, 1400);
+        service.init();
+        assertThat(service.isPrimary()).isTrue();
+        return service;
+    }
+
+    private static RouteRequest request(double startX, double startY, double endX, double endY) {
+        RouteRequest request = new RouteRequest();
+        request.setStartX(String.valueOf(startX));
+        request.setStartY(String.valueOf(startY));
+        request.setEndX(String.valueOf(endX));
+        request.setEndY(String.valueOf(endY));
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> paths(Map<String, Object> response) {
+        return (List<Map<String, Object>>) ((Map<String, Object>) response.get("result")).get("path");
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceSuggestIndexTest {
+
+    private final PlaceSuggestIndex index = PlaceSuggestIndex.build(List.of(
+            place("강남", "SUBWAY", 300),
+            place("강남구청", "SUBWAY", 500),
+            place("강동", "BUS", 100),
+            place("서울역", "KTX", 1000),
+            place("시청", "BUS", 80)));
+
+    @Test
+    void jamoDecompositionSplitsCompoundsInTypingOrder() {
+        assertThat(HangulJamo.decompose("값")).isEqualTo("ㄱㅏㅂㅅ");
+        assertThat(HangulJamo.decompose("갑ㅅ")).isEqualTo(HangulJamo.decompose("값"));
+        assertThat(HangulJamo.decompose("ㄱㅘ")).isEqualTo(HangulJamo.decompose("과"));
+        assertThat(HangulJamo.choseong("강남역")).isEqualTo("ㄱㄴㅇ");
+        assertThat(HangulJamo.normalize(" 강남 - 역! ")).isEqualTo("강남역");
+        assertThat(HangulJamo.isChoseongOnly("ㄱㄴ")).isTrue();
+        assertThat(HangulJamo.isChoseongOnly("강ㄴ")).isFalse();
+    }
+
+    @Test
+    void prefixMatchesByWeightWithExactNameFirst() {
+        assertThat(names(index.suggest("강", 10))).containsExactly("강남구청", "강남", "강동");
+        // 입력 중인 음절도 앞부분으로 찾는다 (남는 자리는 오타 후보가 채운다)
+        List<PlaceSuggestIndex.Suggestion> typing = index.suggest("강ㄴ", 10);
+        assertThat(names(typing, "prefix")).containsExactly("강남구청", "강남");
+        assertThat(names(typing, "fuzzy")).containsExactly("강동");
+        // 이름이 입력과 똑같으면 가중치가 낮아도 맨 앞
+        assertThat(names(index.suggest("강남", 10))).containsExactly("강남", "강남구청");
+        assertThat(index.suggest("강", 1)).hasSize(1);
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void choseongOnlyQueryUsesInitialsTrie() {
+        List<PlaceSuggestIndex.Suggestion> found = index.suggest("ㄱㄴ", 10);
+
+        assertThat(names(found)).containsExactly("강남구청", "강남");
+        assertThat(found).extracting(PlaceSuggestIndex.Suggestion::match).containsOnly("initial");
+        assertThat(names(index.suggest("ㄱㄴㄱㅊ", 10))).containsExactly("강남구청");
+        assertThat(names(index.suggest("ㅅㅇ", 10))).containsExactly("서울역");
+    }
+
+    @Test
+    void typoWithinJamoEditDistanceIsFound() {
+        // 오타 후보는 편집 수, 가중치 순 (앞부분 일치라 강남구청도 한 글자 차이)
+        List<PlaceSuggestIndex.Suggestion> found = index.suggest("강냠", 10);
+        assertThat(names(found)).containsExactly("강남구청", "강남");
+        assertThat(found).extracting(PlaceSuggestIndex.Suggestion::match).containsOnly("fuzzy");
+        assertThat(found).extracting(PlaceSuggestIndex.Suggestion::edits).containsOnly(1);
+
+        assertThat(names(index.suggest("걍남구청", 10))).containsExactly("강남구청");
+        // 자모 4개 미만은 오타를 허용하지 않는다
+        assertThat(index.suggest("깅", 10)).isEmpty();
+    }
+
+    @Test
+    void stationsAreFoundWithAndWithoutStationSuffix() {
+        List<PlaceSuggestIndex.Suggestion> withSuffix = index.suggest("강남역", 10);
+        assertThat(names(withSuffix, "prefix")).containsExactly("강남");
+        assertThat(withSuffix.get(0).place().name()).isEqualTo("강남");
+        assertThat(names(index.suggest("서울", 10))).containsExactly("서울역");
+        // 버스 정류장에는 "역" 별칭을 붙이지 않는다
+        assertThat(names(index.suggest("시청역", 10))).doesNotContain("시청");
+    }
+
+    @Test
+    void trieKeepsTopKByWeightPerNode() {
+        List<PlaceSuggestIndex.Place> many = new ArrayList<>();
+        for (int i = 0; i < PlaceSuggestIndex.TOP_K + 10; i++) {
+            many.add(place("정류장" + i, "BUS", i));
+        }
+        PlaceSuggestIndex big = PlaceSuggestIndex.build(many);
+
+        List<PlaceSuggestIndex.Suggestion> found = big.suggest("정류장", 50);
+        assertThat(found).hasSize(PlaceSuggestIndex.TOP_K);
+        assertThat(found).extracting(s -> s.place().weight()).isSortedAccordingTo((a, b) -> Integer.compare(b, a));
+        assertThat(found.get(0).place().name()).isEqualTo("정류장" + (PlaceSuggestIndex.TOP_K + 9));
+
+        PlaceSuggestIndex.Trie trie = PlaceSuggestIndex.Trie.build(List.of("ab", "ac", "b"), entries(0, 1, 2), new int[]{1, 3, 2});
+        assertThat(trie.find("a")).isPositive();
+        assertThat(trie.find("ad")).isEqualTo(-1);
+        int a = trie.find("a");
+        assertThat(trie.topOffset[a + 1] - trie.topOffset[a]).isEqualTo(2);
+        assertThat(trie.top[trie.topOffset[a]]).isEqualTo(1);
+    }
+
+    private static PlaceSuggestIndex.Place place(String name, String type, int weight) {
+        return new PlaceSuggestIndex.Place(name, type, Double.NaN, Double.NaN, weight);
+    }
+
+    private static GtfsFeed.IntList entries(int... values) {
+        GtfsFeed.IntList list = new GtfsFeed.IntList();
+        for (int v : values) list.add(v);
+        return list;
+    }
+
+    private static List<String> names(List<PlaceSuggestIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(s -> s.place().name()).toList();
+    }
+
+    private static List<String> names(List<PlaceSuggestIndex.Suggestion> suggestions, String match) {
+        return suggestions.stream().filter(s -> s.match().equals(match)).map(s -> s.place().name()).toList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceSuggestServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void selectionsAreCountedOncePerUserAndCappedPerName() throws Exception {
+        Path places = dir.resolve("places.csv");
+        Files.write(places, List.of(
+                "name,type,x,y,weight",
+                "역삼,SUBWAY,127.03,37.50,300",
+                "역곡,SUBWAY,126.81,37.48,320"));
+        PlaceSuggestService service = new PlaceSuggestService(
+                new OfflineRouteService("off", dir.toString(), 800, 1.2, 5, 60, 1400),
+                null, places.toString(), 20, 2);
+        service.init();
+        assertThat(firstName(service.suggest("역", 5))).isEqualTo("역곡");
+
+        // 색인에 없는 이름은 세지 않는다
+        assertThat(service.recordSelection("kim", "아무데나")).isFalse();
+        // 같은 사용자는 주기마다 한 번
+        assertThat(service.recordSelection("kim", "역삼")).isTrue();
+        assertThat(service.recordSelection("kim", " 역 삼 ")).isFalse();
+        assertThat(service.recordSelection("lee", "역삼")).isTrue();
+        // 이름당 상한 2
+        assertThat(service.recordSelection("park", "역삼")).isFalse();
+
+        service.refresh();
+        assertThat(firstName(service.suggest("역", 5))).isEqualTo("역삼");
+        // 주기가 바뀌어도 상한은 그대로
+        assertThat(service.recordSelection("kim", "역삼")).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String firstName(Map<String, Object> response) {
+        List<Map<String, Object>> items = (List<Map<String, Object>>) response.get("suggestions");
+        return (String) items.get(0).get("name");
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RaptorRouterTest {
+
+    private static final int MONDAY = 1;
+    private static final int SUNDAY = 1 << 6;
+
+    @TempDir
+    Path dir;
+
+    private GtfsFeed feed;
+
+    /**
+     * A →(1호선)→ B → C, B →(100번)→ D, B 에서 E 로 걸어서(120초) E →(200번)→ F,
+     * G →(300번)→ H 는 평일/주말 운행이 다르고, Z 는 아무 노선도 서지 않는다
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        write("stops.txt",
+                "stop_id,stop_name,stop_lat,stop_lon",
+                "A,A역,37.50,127.00",
+                "B,B역,37.51,127.00",
+                "C,C역,37.52,127.00",
+                "D,D정류장,37.53,127.00",
+                "E,E정류장,37.51,127.01",
+                "F,F정류장,37.54,127.01",
+                "G,G정류장,37.55,127.02",
+                "H,H정류장,37.56,127.02",
+                "Z,Z정류장,37.60,127.10");
+        write("routes.txt",
+                "route_id,route_short_name,route_long_name,route_type",
+                "R1,,1호선,1",
+                "R2,100,,3",
+                "R3,200,,3",
+                "R4,300,,3");
+        write("calendar.txt",
+                "service_id,monday,tuesday,wednesday,thursday,friday,saturday,sunday,start_date,end_date",
+                "ALL,1,1,1,1,1,1,1,20260101,20261231",
+                "WK,1,1,1,1,1,0,0,20260101,20261231",
+                "WE,0,0,0,0,0,1,1,20260101,20261231");
+        write("trips.txt",
+                "route_id,service_id,trip_id",
+                "R1,ALL,t1",
+                "R2,ALL,t2a",
+                "R2,ALL,t2b",
+                "R3,ALL,t3",
+                "R4,WK,t4wk",
+                "R4,WE,t4we");
+        write("stop_times.txt",
+                "trip_id,arrival_time,departure_time,stop_id,stop_sequence",
+                "t1,08:00:00,08:00:00,A,1",
+                "t1,08:10:00,08:10:00,B,2",
+                "t1,08:20:00,08:20:00,C,3",
+                "t2a,08:10:30,08:10:30,B,1",
+                "t2a,08:20:00,08:20:00,D,2",
+                "t2b,08:15:00,08:15:00,B,1",
+                "t2b,08:25:00,08:25:00,D,2",
+                "t3,08:13:00,08:13:00,E,1",
+                "t3,08:30:00,08:30:00,F,2",
+                "t4wk,09:00:00,09:00:00,G,1",
+                "t4wk,09:30:00,09:30:00,H,2",
+                "t4we,09:10:00,09:10:00,G,1",
+                "t4we,09:20:00,09:20:00,H,2");
+        write("transfers.txt",
+                "from_stop_id,to_stop_id,transfer_type,min_transfer_time",
+                "B,E,2,120");
+        feed = GtfsFeed.load(dir);
+    }
+
+    @Test
+    void directRideLeavesInTimeForTheFirstTrip() {
+        List<RaptorRouter.Journey> journeys = RaptorRouter.route(feed, query("A", "C", time(7, 55), MONDAY, 60));
+
+        assertThat(journeys).hasSize(1);
+        RaptorRouter.Journey journey = journeys.get(0);
+        assertThat(journey.rides()).isEqualTo(1);
+        // 걷는 시간이 0 이므로 첫 차 출발 시각에 나선다
+        assertThat(journey.departure()).isEqualTo(time(8, 0));
+        assertThat(journey.arrival()).isEqualTo(time(8, 20));
+        assertThat(journey.legs()).extracting(RaptorRouter.Leg::walk).containsExactly(true, false, true);
+        RaptorRouter.Leg ride = journey.legs().get(1);
+        assertThat(ride.fromStop()).isEqualTo(stop("A"));
+        assertThat(ride.toStop()).isEqualTo(stop("C"));
+        assertThat(ride.toPos() - ride.fromPos()).isEqualTo(2);
+    }
+
+    @Test
+    void sameStopTransferWaitsForSlack() {
+        // B 에 08:10 도착. 여유 60초면 08:10:30 차는 못 타고 08:15 차
+        RaptorRouter.Journey withSlack = RaptorRouter.route(feed, query("A", "D", time(7, 55), MONDAY, 60)).get(0);
+        assertThat(withSlack.rides()).isEqualTo(2);
+        assertThat(withSlack.legs().get(2).departure()).isEqualTo(time(8, 15));
+        assertThat(withSlack.arrival()).isEqualTo(time(8, 25));
+
+        RaptorRouter.Journey noSlack = RaptorRouter.route(feed, query("A", "D", time(7, 55), MONDAY, 0)).get(0);
+        assertThat(noSlack.legs().get(2).departure()).isEqualTo(time(8, 10) + 30);
+        assertThat(noSlack.arrival()).isEqualTo(time(8, 20));
+    }
+
+    @Test
+    void footpathTransferWalksBetweenStops() {
+        List<RaptorRouter.Journey> journeys = RaptorRouter.route(feed, query("A", "F", time(7, 55), MONDAY, 60));
+
+        assertThat(journeys).hasSize(1);
+        RaptorRouter.Journey journey = journeys.get(0);
+        assertThat(journey.rides()).isEqualTo(2);
+        assertThat(journey.arrival()).isEqualTo(time(8, 30));
+        assertThat(journey.legs()).extracting(RaptorRouter.Leg::walk).containsExactly(true, false, true, false, true);
+        // 걸어서 갈아탄 뒤에는 같은 정류장 여유를 더하지 않으므로 08:12 도착 → 08:13 차
+        RaptorRouter.Leg walk = journey.legs().get(2);
+        assertThat(walk.fromStop()).isEqualTo(stop("B"));
+        assertThat(walk.toStop()).isEqualTo(stop("E"));
+        assertThat(walk.arrival() - walk.departure()).isEqualTo(120);
+        assertThat(journey.legs().get(3).departure()).isEqualTo(time(8, 13));
+    }
+
+    @Test
+    void tripsOnlyRunOnTheirServiceDays() {
+        // 평일에는 09:00 차(09:30 도착), 일요일에는 09:10 차(09:20 도착)
+        assertThat(RaptorRouter.route(feed, query("G", "H", time(8, 50), MONDAY, 60)))
+                .extracting(RaptorRouter.Journey::arrival).containsExactly(time(9, 30));
+        assertThat(RaptorRouter.route(feed, query("G", "H", time(8, 50), SUNDAY, 60)))
+                .extracting(RaptorRouter.Journey::arrival).containsExactly(time(9, 20));
+    }
+
+    @Test
+    void unreachableDestinationHasNoJourney() {
+        assertThat(RaptorRouter.route(feed, query("A", "Z", time(7, 55), MONDAY, 60))).isEmpty();
+        // 막차가 떠난 뒤
+        assertThat(RaptorRouter.route(feed, query("A", "C", time(8, 1), MONDAY, 60))).isEmpty();
+        // 수단 제한: 지하철만으로는 D 에 갈 수 없다
+        RaptorRouter.Query railOnly = new RaptorRouter.Query(new int[]{stop("A")}, new int[]{0},
+                new int[]{stop("D")}, new int[]{0}, time(7, 55), MONDAY, RaptorRouter.MODE_RAIL, 5, 60);
+        assertThat(RaptorRouter.route(feed, railOnly)).isEmpty();
+    }
+
+    @Test
+    void overtakingTripsAreSplitIntoSeparatePatterns() throws Exception {
+        Path express = dir.resolve("express");
+        Files.createDirectories(express);
+        write(express, "stops.txt",
+                "stop_id,stop_name,stop_lat,stop_lon",
+                "X,X역,37.50,127.00",
+                "Y,Y역,37.51,127.00",
+                "W,W역,37.52,127.00");
+        write(express, "routes.txt",
+                "route_id,route_short_name,route_long_name,route_type",
+                "L,,경의선,2");
+        write(express, "trips.txt",
+                "route_id,service_id,trip_id",
+                "L,ALL,local",
+                "L,ALL,express",
+                "L,ALL,late");
+        // 급행은 완행보다 늦게 출발하지만 W 에 먼저 도착한다
+        write(express, "stop_times.txt",
+                "trip_id,arrival_time,departure_time,stop_id,stop_sequence",
+                "local,08:00:00,08:00:00,X,1",
+                "local,08:10:00,08:10:00,Y,2",
+                "local,08:40:00,08:40:00,W,3",
+                "express,08:05:00,08:05:00,X,1",
+                "express,08:12:00,08:12:00,Y,2",
+                "express,08:20:00,08:20:00,W,3",
+                "late,08:30:00,08:30:00,X,1",
+                "late,08:40:00,08:40:00,Y,2",
+                "late,09:10:00,09:10:00,W,3");
+        GtfsFeed split = GtfsFeed.load(express);
+
+        // 완행과 늦은 완행은 한 패턴, 급행은 따로
+        assertThat(split.patternCount).isEqualTo(2);
+        for (int p = 0; p < split.patternCount; p++) {
+            for (int pos = 0; pos < split.patternLength(p); pos++) {
+                for (int t = 1; t < split.patternTripCount[p]; t++) {
+                    assertThat(split.departure(p, t, pos)).isGreaterThanOrEqualTo(split.departure(p, t - 1, pos));
+                    assertThat(split.arrival(p, t, pos)).isGreaterThanOrEqualTo(split.arrival(p, t - 1, pos));
+                }
+            }
+        }
+
+        int x = Arrays.asList(split.stopIds).indexOf("X");
+        int w = Arrays.asList(split.stopIds).indexOf("W");
+        RaptorRouter.Query q = new RaptorRouter.Query(new int[]{x}, new int[]{0}, new int[]{w}, new int[]{0},
+                time(7, 55), MONDAY, RaptorRouter.MODE_ALL, 5, 60);
+        assertThat(RaptorRouter.route(split, q)).extracting(RaptorRouter.Journey::arrival).containsExactly(time(8, 20));
+    }
+
+    private RaptorRouter.Query query(String from, String to, int departure, int dayBit, int slack) {
+        return new RaptorRouter.Query(new int[]{stop(from)}, new int[]{0}, new int[]{stop(to)}, new int[]{0},
+                departure, dayBit, RaptorRouter.MODE_ALL, 5, slack);
+    }
+
+    private int stop(String id) {
+        return Arrays.asList(feed.stopIds).indexOf(id);
+    }
+
+    private static int time(int hour, int minute) {
+        return hour * 3600 + minute * 60;
+    }
+
+    private void write(String file, String... lines) throws Exception {
+        write(dir, file, lines);
+    }
+
+    private static void write(Path target, String file, String... lines) throws Exception {
+        Files.write(target.resolve(file), List.of(lines));
+    }
+}
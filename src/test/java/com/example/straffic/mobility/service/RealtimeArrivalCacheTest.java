@@ -0,0 +1,106 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RealtimeArrivalCacheTest {
+
+    private static final String KEY = "subway:강남";
+
+    @Test
+    void freshHitDoesNotCallUpstream() {
+        RealtimeArrivalCache cache = new RealtimeArrivalCache(60, 120, 300, 100);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(get(cache, KEY, counted(calls, Map.of("v", 1)))).containsEntry("v", 1);
+        assertThat(get(cache, KEY, counted(calls, Map.of("v", 2)))).containsEntry("v", 1);
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cache.getStats()).containsEntry("misses", 1L).containsEntry("freshHits", 1L)
+                .containsEntry("staleHits", 0L).containsEntry("hitRatio", 0.5);
+    }
+
+    @Test
+    void staleHitsServeOldValueAndShareOneBackgroundRefresh() throws Exception {
+        RealtimeArrivalCache cache = new RealtimeArrivalCache(1, 120, 300, 100);
+        get(cache, KEY, () -> Mono.just(Map.of("v", 1)));
+        Thread.sleep(1100);
+
+        Sinks.One<Map<String, Object>> refreshed = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Mono<Map<String, Object>>> slow = () -> {
+            calls.incrementAndGet();
+            return refreshed.asMono();
+        };
+        // 갱신이 끝나기 전에는 모두 이전 값을 바로 받는다
+        for (int i = 0; i < 3; i++) {
+            assertThat(get(cache, KEY, slow)).containsEntry("v", 1);
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cache.getStats()).containsEntry("staleHits", 3L).containsEntry("refreshes", 1L);
+
+        refreshed.tryEmitValue(Map.of("v", 2));
+        assertThat(get(cache, KEY, slow)).containsEntry("v", 2);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cache.getStats()).containsEntry("freshHits", 1L);
+    }
+
+    @Test
+    void errorBodiesAreNotStored() throws Exception {
+        RealtimeArrivalCache cache = new RealtimeArrivalCache(1, 120, 300, 100);
+        AtomicInteger calls = new AtomicInteger();
+
+        // 처음부터 오류면 다음 조회도 외부 API 를 다시 부른다
+        assertThat(get(cache, KEY, counted(calls, Map.of("error", "ERROR-337 key")))).containsKey("error");
+        assertThat(get(cache, KEY, counted(calls, Map.of("error", "ERROR-337 key")))).containsKey("error");
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(cache.getStats()).containsEntry("size", 0).containsEntry("misses", 2L);
+
+        // 백그라운드 갱신이 오류를 받아도 이전 값을 유지한다
+        get(cache, KEY, () -> Mono.just(Map.of("v", 1)));
+        Thread.sleep(1100);
+        assertThat(get(cache, KEY, () -> Mono.just(Map.of("error", "500")))).containsEntry("v", 1);
+        assertThat(get(cache, KEY, () -> Mono.just(Map.of("error", "500")))).containsEntry("v", 1);
+        assertThat(cache.getStats()).containsEntry("refreshes", 2L);
+    }
+
+    @Test
+    void maxEntriesIsEnforcedWhenStoring() throws Exception {
+        RealtimeArrivalCache cache = new RealtimeArrivalCache(60, 120, 300, 2);
+        get(cache, "subway:a", () -> Mono.just(Map.of("v", "a")));
+        Thread.sleep(5);
+        get(cache, "subway:b", () -> Mono.just(Map.of("v", "b")));
+        Thread.sleep(5);
+        // a 를 다시 봐서 b 가 가장 오래 조회되지 않은 항목이 된다
+        get(cache, "subway:a", () -> Mono.just(Map.of("v", "x")));
+        Thread.sleep(5);
+
+        // 데이터 없음(INFO-200) 응답도 저장되지만 sweep 을 기다리지 않고 바로 상한을 지킨다
+        get(cache, "subway:없는역", () -> Mono.just(Map.of("errorMessage", Map.of("code", "INFO-200"))));
+
+        assertThat(cache.getStats()).containsEntry("size", 2).containsEntry("evictions", 1L);
+        AtomicInteger calls = new AtomicInteger();
+        assertThat(get(cache, "subway:a", counted(calls, Map.of("v", "reloaded")))).containsEntry("v", "a");
+        assertThat(get(cache, "subway:b", counted(calls, Map.of("v", "reloaded")))).containsEntry("v", "reloaded");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    private static Map<String, Object> get(RealtimeArrivalCache cache, String key, Supplier<Mono<Map<String, Object>>> loader) {
+        return cache.get(key, loader).block(Duration.ofSeconds(5));
+    }
+
+    private static Supplier<Mono<Map<String, Object>>> counted(AtomicInteger calls, Map<String, Object> value) {
+        return () -> {
+            calls.incrementAndGet();
+            return Mono.just(value);
+        };
+    }
+}
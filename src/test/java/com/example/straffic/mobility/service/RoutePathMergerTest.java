@@ -0,0 +1,159 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutePathMergerTest {
+
+    @Test
+    void samePathFromSeveralSearchesIsMergedIgnoringWalkLegs() {
+        Map<String, Object> fromAll = path(35, 1500, 0, 1,
+                walk(300), ride(1, "2호선", "강남", "교대"), walk(120), ride(2, "740", "교대역", "양재역"), walk(80));
+        // 같은 탑승 구간, 도보 거리·소요 시간만 다르다
+        Map<String, Object> fromBus = path(38, 1500, 0, 1,
+                walk(500), ride(1, "2호선", "강남", "교대"), ride(2, "740", "교대역", "양재역"));
+        // 버스 번호가 다르면 다른 경로
+        Map<String, Object> otherBus = path(36, 1500, 0, 1,
+                walk(300), ride(1, "2호선", "강남", "교대"), ride(2, "4412", "교대역", "양재역"));
+
+        Map<String, Object> merged = RoutePathMerger.merge(List.of(
+                ok("all", fromAll), ok("bus", fromBus, otherBus)), "time", 120);
+
+        List<Map<String, Object>> paths = paths(merged);
+        assertThat(paths).hasSize(2);
+        assertThat(info(paths.get(0))).containsEntry("totalTime", 35);
+        assertThat(paths.get(0)).containsEntry("sources", List.of("all", "bus"));
+        assertThat(paths.get(1)).containsEntry("sources", List.of("bus"));
+        // 캐시에 있는 원래 응답에는 sources 를 넣지 않는다
+        assertThat(fromAll).doesNotContainKey("sources");
+    }
+
+    @Test
+    void walkOnlyPathsAreKeptApartByTime() {
+        Map<String, Object> merged = RoutePathMerger.merge(List.of(
+                ok("all", path(12, 0, 0, 0, walk(900)), path(15, 0, 0, 0, walk(1100)), path(12, 0, 0, 0, walk(950)))),
+                "time", 10);
+
+        assertThat(paths(merged)).hasSize(2);
+    }
+
+    @Test
+    void sortOrdersUseTheOtherCriteriaAsTieBreakers() {
+        Map<String, Object> a = path(30, 1500, 1, 1, ride(1, "2호선", "강남", "교대"));
+        Map<String, Object> b = path(40, 1250, 0, 0, ride(2, "740", "강남역", "양재역"));
+        Map<String, Object> c = path(30, 1400, 1, 0, ride(2, "4412", "강남역", "양재역"));
+        Map<String, Object> d = path(45, 1250, 0, 0, ride(2, "441", "강남역", "양재역"));
+        List<RoutePathMerger.Branch> branches = List.of(ok("all", a, b, c, d));
+
+        // 시간 → 환승 → 요금
+        assertThat(totalTimes(RoutePathMerger.merge(branches, "time", 0))).containsExactly(30, 30, 40, 45);
+        assertThat(payments(RoutePathMerger.merge(branches, "time", 0))).containsExactly(1400, 1500, 1250, 1250);
+        // 요금 → 시간 → 환승
+        assertThat(totalTimes(RoutePathMerger.merge(branches, "fare", 0))).containsExactly(40, 45, 30, 30);
+        assertThat(payments(RoutePathMerger.merge(branches, "FARE", 0))).containsExactly(1250, 1250, 1400, 1500);
+        // 환승 → 시간 → 요금
+        assertThat(totalTimes(RoutePathMerger.merge(branches, "transfers", 0))).containsExactly(40, 45, 30, 30);
+        assertThat(payments(RoutePathMerger.merge(branches, "transfers", 0))).containsExactly(1250, 1250, 1400, 1500);
+
+        // info 가 없는 경로는 뒤로 간다
+        Map<String, Object> noInfo = path(0, 0, 0, 0, ride(1, "9호선", "신논현", "고속터미널"));
+        noInfo.remove("info");
+        assertThat(paths(RoutePathMerger.merge(List.of(ok("all", noInfo, b)), "time", 0)).get(1)).doesNotContainKey("info");
+    }
+
+    @Test
+    void failedOrTimedOutBranchMarksResponsePartial() {
+        Map<String, Object> merged = RoutePathMerger.merge(List.of(
+                ok("all", path(30, 1500, 0, 0, ride(1, "2호선", "강남", "교대"))),
+                new RoutePathMerger.Branch("subway", null, "timeout", 3000),
+                new RoutePathMerger.Branch("bus", Map.of("error", "[-98] 검색 결과 없음"), "error", 40)), "time", 3010);
+
+        assertThat(merged).containsEntry("partial", true).containsEntry("sort", "time").containsEntry("elapsedMs", 3010L);
+        assertThat(paths(merged)).hasSize(1);
+        assertThat(branches(merged).keySet()).containsExactly("all", "subway", "bus");
+        assertThat(branch(merged, "all")).containsEntry("status", "ok").containsEntry("count", 1);
+        assertThat(branch(merged, "subway")).containsEntry("status", "timeout").containsEntry("count", 0)
+                .containsEntry("elapsedMs", 3000L);
+        assertThat(branch(merged, "bus")).containsEntry("status", "error").containsEntry("count", 0);
+
+        // 모두 성공하면 partial 이 아니고, 경로가 하나도 없으면 result 를 넣지 않는다
+        assertThat(RoutePathMerger.merge(List.of(ok("all")), "time", 5))
+                .containsEntry("partial", false).doesNotContainKey("result");
+    }
+
+    // ------------------------------------------------------------------
+
+    @SafeVarargs
+    private static RoutePathMerger.Branch ok(String type, Map<String, Object>... paths) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("searchType", 0);
+        result.put("path", List.of(paths));
+        return new RoutePathMerger.Branch(type, Map.of("result", result), "ok", 100);
+    }
+
+    @SafeVarargs
+    private static Map<String, Object> path(int totalTime, int payment, int busTransit, int subwayTransit,
+                                            Map<String, Object>... subPaths) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("totalTime", totalTime);
+        info.put("payment", payment);
+        info.put("busTransitCount", busTransit);
+        info.put("subwayTransitCount", subwayTransit);
+        Map<String, Object> path = new LinkedHashMap<>();
+        path.put("pathType", 3);
+        path.put("info", info);
+        path.put("subPath", List.of(subPaths));
+        return path;
+    }
+
+    private static Map<String, Object> ride(int trafficType, String lane, String startName, String endName) {
+        Map<String, Object> sub = new LinkedHashMap<>();
+        sub.put("trafficType", trafficType);
+        sub.put("lane", List.of(Map.of(trafficType == 1 ? "name" : "busNo", lane)));
+        sub.put("startName", startName);
+        sub.put("endName", endName);
+        return sub;
+    }
+
+    private static Map<String, Object> walk(int distance) {
+        return Map.of("trafficType", 3, "distance", distance, "sectionTime", distance / 60);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> paths(Map<String, Object> merged) {
+        return (List<Map<String, Object>>) ((Map<String, Object>) merged.get("result")).get("path");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> info(Map<String, Object> path) {
+        return (Map<String, Object>) path.get("info");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> branches(Map<String, Object> merged) {
+        return (Map<String, Object>) merged.get("branches");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> branch(Map<String, Object> merged, String type) {
+        return (Map<String, Object>) branches(merged).get(type);
+    }
+
+    private static List<Object> totalTimes(Map<String, Object> merged) {
+        List<Object> values = new ArrayList<>();
+        paths(merged).forEach(p -> values.add(info(p).get("totalTime")));
+        return values;
+    }
+
+    private static List<Object> payments(Map<String, Object> merged) {
+        List<Object> values = new ArrayList<>();
+        paths(merged).forEach(p -> values.add(info(p).get("payment")));
+        return values;
+    }
+}
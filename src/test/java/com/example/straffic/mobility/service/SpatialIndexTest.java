@@ -0,0 +1,147 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SpatialIndexTest {
+
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * 6_371_000;
+
+    @Test
+    void nearestMatchesBruteForceWithFilterAndMaxMeters() {
+        Random random = new Random(45);
+        double[][] points = randomPoints(random, 5000);
+        SpatialIndex index = SpatialIndex.build(points[0], points[1]);
+        assertThat(index.size()).isEqualTo(countPresent(points));
+
+        IntPredicate even = id -> id % 2 == 0;
+        for (int q = 0; q < 300; q++) {
+            double qLat = 37.40 + random.nextDouble() * 0.30;
+            double qLon = 126.80 + random.nextDouble() * 0.40;
+            int k = 1 + random.nextInt(20);
+            IntPredicate filter = q % 3 == 0 ? even : null;
+            double maxMeters = q % 2 == 0 ? Double.POSITIVE_INFINITY : 200 + random.nextDouble() * 2000;
+
+            int[] ids = new int[k];
+            double[] meters = new double[k];
+            int found = index.nearest(qLat, qLon, k, maxMeters, filter, ids, meters);
+
+            List<double[]> expected = bruteForce(points, qLat, qLon, maxMeters, filter);
+            assertThat(found).isEqualTo(Math.min(k, expected.size()));
+            for (int i = 0; i < found; i++) {
+                // 거리가 같은 점은 순서가 달라도 되므로 거리로 비교하고, 번호는 그 거리의 점인지만 본다
+                assertThat(meters[i]).isCloseTo(expected.get(i)[1], within(1e-6));
+                assertThat(distance(points, ids[i], qLat, qLon)).isCloseTo(meters[i], within(1e-6));
+                assertThat(filter == null || filter.test(ids[i])).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void withinMatchesBruteForce() {
+        Random random = new Random(7);
+        double[][] points = randomPoints(random, 3000);
+        SpatialIndex index = SpatialIndex.build(points[0], points[1]);
+
+        for (int q = 0; q < 200; q++) {
+            double qLat = 37.40 + random.nextDouble() * 0.30;
+            double qLon = 126.80 + random.nextDouble() * 0.40;
+            double radius = random.nextDouble() * 3000;
+
+            Map<Integer, Double> hits = new HashMap<>();
+            int found = index.within(qLat, qLon, radius, (id, meters) -> assertThat(hits.put(id, meters)).isNull());
+
+            List<double[]> expected = bruteForce(points, qLat, qLon, radius, null);
+            assertThat(found).isEqualTo(expected.size()).isEqualTo(hits.size());
+            for (double[] e : expected) {
+                assertThat(hits.get((int) e[0])).isCloseTo(e[1], within(1e-6));
+            }
+        }
+    }
+
+    @Test
+    void sortedGridAndDuplicatePointsAreHandled() {
+        // 정렬된 격자 + 같은 좌표에 여러 점
+        int side = 40;
+        double[] lat = new double[side * side + 50];
+        double[] lon = new double[lat.length];
+        for (int i = 0; i < side * side; i++) {
+            lat[i] = 37.50 + (i / side) * 0.001;
+            lon[i] = 127.00 + (i % side) * 0.001;
+        }
+        for (int i = side * side; i < lat.length; i++) {
+            lat[i] = 37.51;
+            lon[i] = 127.01;
+        }
+        double[][] points = {lat, lon};
+        SpatialIndex index = SpatialIndex.build(lat, lon);
+
+        int[] ids = new int[60];
+        double[] meters = new double[60];
+        int found = index.nearest(37.51, 127.01, 60, Double.POSITIVE_INFINITY, null, ids, meters);
+        List<double[]> expected = bruteForce(points, 37.51, 127.01, Double.POSITIVE_INFINITY, null);
+        assertThat(found).isEqualTo(60);
+        for (int i = 0; i < found; i++) {
+            assertThat(meters[i]).isCloseTo(expected.get(i)[1], within(1e-6));
+        }
+        // 같은 좌표 51개(격자 점 1 + 중복 50)는 모두 거리 0
+        assertThat(index.within(37.51, 127.01, 0.5, (id, m) -> { })).isEqualTo(51);
+        assertThat(index.within(37.51, 127.01, 1000, (id, m) -> { }))
+                .isEqualTo(bruteForce(points, 37.51, 127.01, 1000, null).size());
+
+        assertThat(SpatialIndex.build(new double[0], new double[0]).nearest(37.5, 127.0, 3,
+                Double.POSITIVE_INFINITY, null, new int[3], new double[3])).isZero();
+    }
+
+    /** 서울 부근 무작위 점. 일부는 좌표 없음(NaN) */
+    private static double[][] randomPoints(Random random, int n) {
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (i % 97 == 0) {
+                lat[i] = Double.NaN;
+                lon[i] = Double.NaN;
+            } else {
+                lat[i] = 37.40 + random.nextDouble() * 0.30;
+                lon[i] = 126.80 + random.nextDouble() * 0.40;
+            }
+        }
+        return new double[][]{lat, lon};
+    }
+
+    private static int countPresent(double[][] points) {
+        int n = 0;
+        for (double v : points[0]) {
+            if (!Double.isNaN(v)) n++;
+        }
+        return n;
+    }
+
+    /** (번호, 거리) 를 거리 순으로 */
+    private static List<double[]> bruteForce(double[][] points, double qLat, double qLon, double maxMeters, IntPredicate filter) {
+        List<double[]> result = new ArrayList<>();
+        for (int i = 0; i < points[0].length; i++) {
+            if (Double.isNaN(points[0][i]) || (filter != null && !filter.test(i))) continue;
+            double d = distance(points, i, qLat, qLon);
+            if (d <= maxMeters) result.add(new double[]{i, d});
+        }
+        result.sort(Comparator.comparingDouble(e -> e[1]));
+        return result;
+    }
+
+    private static double distance(double[][] points, int id, double qLat, double qLon) {
+        double dx = (points[1][id] - qLon) * METERS_PER_DEGREE * Math.cos(Math.toRadians(qLat));
+        double dy = (points[0][id] - qLat) * METERS_PER_DEGREE;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamCallCoalescerTest {
+
+    private static final String KEY = "https://api.odsay.com/v1/api/realtimeStation?stationID=1";
+
+    private final UpstreamCallCoalescer coalescer = new UpstreamCallCoalescer();
+    private final Sinks.One<Map<String, Object>> response = Sinks.one();
+    private final AtomicInteger supplied = new AtomicInteger();
+    private final AtomicInteger subscribed = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneUpstreamSubscription() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>();
+        try {
+            List<CompletableFuture<CompletableFuture<Map<String, Object>>>> subscribing = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                subscribing.add(CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return coalescer.call(KEY, upstream()).toFuture();
+                }, pool));
+            }
+            start.countDown();
+            for (CompletableFuture<CompletableFuture<Map<String, Object>>> f : subscribing) {
+                results.add(f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(results).noneMatch(CompletableFuture::isDone);
+
+        Map<String, Object> body = Map.of("result", "ok");
+        response.tryEmitValue(body);
+
+        for (CompletableFuture<Map<String, Object>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(body);
+        }
+        assertThat(supplied.get()).isEqualTo(1);
+        assertThat(subscribed.get()).isEqualTo(1);
+        assertThat(coalescer.getStats()).containsEntry("upstreamCalls", 1L).containsEntry("joined", 7L)
+                .containsEntry("joinRatio", 0.875).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void errorReachesEveryWaiter() {
+        CompletableFuture<Map<String, Object>> first = coalescer.call(KEY, upstream()).toFuture();
+        CompletableFuture<Map<String, Object>> second = coalescer.call(KEY, upstream()).toFuture();
+        // 각자 onErrorResume 으로 처리할 수 있다
+        CompletableFuture<Map<String, Object>> recovered = coalescer.call(KEY, upstream())
+                .onErrorResume(e -> Mono.just(Map.of("error", e.getMessage()))).toFuture();
+
+        IllegalStateException boom = new IllegalStateException("502 Bad Gateway");
+        response.tryEmitError(boom);
+
+        for (CompletableFuture<Map<String, Object>> waiter : List.of(first, second)) {
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class).hasCauseReference(boom);
+        }
+        assertThat(recovered.join()).containsEntry("error", "502 Bad Gateway");
+        assertThat(subscribed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void keyIsReleasedAfterCompletionOrError() {
+        Map<String, Object> body = Map.of("result", "ok");
+        coalescer.call(KEY, upstream()).subscribe();
+        assertThat(coalescer.getStats()).containsEntry("inFlight", 1);
+        response.tryEmitValue(body);
+        assertThat(coalescer.getStats()).containsEntry("inFlight", 0);
+
+        // 끝난 뒤의 호출은 다시 보낸다 (지난 결과를 재사용하지 않는다)
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Mono<Map<String, Object>>> counted = () -> {
+            calls.incrementAndGet();
+            return Mono.just(Map.of("result", calls.get()));
+        };
+        assertThat(coalescer.call(KEY, counted).block(Duration.ofSeconds(5))).containsEntry("result", 1);
+        assertThat(coalescer.call(KEY, counted).block(Duration.ofSeconds(5))).containsEntry("result", 2);
+
+        // 실패한 호출도 키를 지운다
+        assertThatThrownBy(() -> coalescer.call(KEY, () -> Mono.error(new RuntimeException("timeout")))
+                .block(Duration.ofSeconds(5))).hasMessage("timeout");
+        assertThat(coalescer.call(KEY, counted).block(Duration.ofSeconds(5))).containsEntry("result", 3);
+        assertThat(coalescer.getStats()).containsEntry("inFlight", 0).containsEntry("joined", 0L);
+    }
+
+    @Test
+    void cancelledCallersReleaseTheKeyAndOtherKeysAreSeparate() {
+        Disposable only = coalescer.call(KEY, upstream()).subscribe();
+        CompletableFuture<Map<String, Object>> other = coalescer.call(KEY + "2", upstream()).toFuture();
+        assertThat(coalescer.getStats()).containsEntry("inFlight", 2).containsEntry("upstreamCalls", 2L);
+
+        // 기다리던 쪽이 모두 취소하면 호출도 취소되고 키가 지워진다
+        only.dispose();
+        assertThat(coalescer.getStats()).containsEntry("inFlight", 1);
+        assertThat(other).isNotDone();
+        response.tryEmitValue(Map.of("result", "ok"));
+        assertThat(other.join()).containsEntry("result", "ok");
+    }
+
+    private Supplier<Mono<Map<String, Object>>> upstream() {
+        return () -> {
+            supplied.incrementAndGet();
+            return response.asMono().doOnSubscribe(s -> subscribed.incrementAndGet());
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
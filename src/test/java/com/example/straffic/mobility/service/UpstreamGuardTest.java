@@ -0,0 +1,203 @@
+package com.example.straffic.mobility.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamGuardTest {
+
+    private static final String NAME = UpstreamGuard.ODSAY;
+
+    @Test
+    void breakerOpensAtFailureRateAndRejectsWithoutCalling() {
+        UpstreamGuard guard = guard("breaker-window", "4", "breaker-min-calls", "4", "breaker-failure-rate", "0.5");
+        AtomicInteger attempts = new AtomicInteger();
+
+        call(guard, counted(attempts, ok("a")));
+        callFailing(guard, counted(attempts, fail()));
+        call(guard, counted(attempts, ok("b")));
+        // 3번은 breaker-min-calls 미만이라 실패율을 보지 않는다
+        assertThat(stats(guard)).containsEntry("state", "closed");
+
+        callFailing(guard, counted(attempts, fail()));
+        assertThat(guard.isOpen(NAME)).isTrue();
+
+        assertThatThrownBy(() -> call(guard, counted(attempts, ok("c"))))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("circuit open");
+        assertThat(attempts.get()).isEqualTo(4);
+        assertThat(stats(guard)).containsEntry("opens", 1L).containsEntry("rejected", 1L)
+                .containsEntry("succeeded", 2L).containsEntry("failed", 2L);
+    }
+
+    @Test
+    void halfOpenLetsExactlyOneProbeThroughThenCloses() throws Exception {
+        UpstreamGuard guard = openedGuard();
+        Thread.sleep(80);
+
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> probe = guard.call(NAME,
+                counted(attempts, () -> Mono.delay(Duration.ofMillis(200)).thenReturn("probe"))).toFuture();
+        // 시험 호출이 끝나기 전의 호출은 바로 실패한다
+        assertThatThrownBy(() -> call(guard, counted(attempts, ok("x")))).hasMessageContaining("circuit open");
+        assertThat(stats(guard)).containsEntry("state", "half-open");
+
+        assertThat(probe.get(2, TimeUnit.SECONDS)).isEqualTo("probe");
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(stats(guard)).containsEntry("state", "closed");
+        assertThat(call(guard, ok("after"))).isEqualTo("after");
+    }
+
+    @Test
+    void failedProbeReopensTheBreaker() throws Exception {
+        UpstreamGuard guard = openedGuard();
+        Thread.sleep(80);
+
+        callFailing(guard, fail());
+
+        assertThat(stats(guard)).containsEntry("state", "open").containsEntry("opens", 2L);
+        assertThatThrownBy(() -> call(guard, ok("x"))).hasMessageContaining("circuit open");
+    }
+
+    @Test
+    void clientErrorsOtherThan429AreNeutral() throws Exception {
+        UpstreamGuard guard = guard("breaker-window", "2", "breaker-min-calls", "2", "breaker-failure-rate", "0.5",
+                "breaker-open-ms", "50");
+
+        callFailing(guard, status(404));
+        callFailing(guard, status(400));
+        assertThat(stats(guard)).containsEntry("state", "closed")
+                .containsEntry("clientErrors", 2L).containsEntry("failed", 0L);
+
+        // 429 는 외부 API 쪽 문제로 센다
+        callFailing(guard, status(429));
+        callFailing(guard, status(429));
+        assertThat(guard.isOpen(NAME)).isTrue();
+
+        // 4xx 로 끝난 시험 호출은 결과로 치지 않고 다음 호출이 다시 시험한다
+        Thread.sleep(80);
+        callFailing(guard, status(404));
+        assertThat(stats(guard)).containsEntry("state", "half-open");
+        assertThat(call(guard, ok("probe"))).isEqualTo("probe");
+        assertThat(stats(guard)).containsEntry("state", "closed");
+    }
+
+    @Test
+    void primaryErrorIsReturnedWithoutWaitingForHedge() {
+        UpstreamGuard guard = guard("hedge-enabled", "true", "hedge-min-ms", "500", "hedge-max-ratio", "1.0");
+        AtomicInteger attempts = new AtomicInteger();
+        RuntimeException boom = new RuntimeException("boom");
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> call(guard, counted(attempts,
+                () -> Mono.delay(Duration.ofMillis(20)).then(Mono.<String>error(boom))))).isSameAs(boom);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(400));
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(stats(guard)).containsEntry("hedges", 0L).containsEntry("failed", 1L);
+    }
+
+    @Test
+    void hedgeOnlyWinsWithAValue() {
+        UpstreamGuard guard = guard("hedge-enabled", "true", "hedge-min-ms", "50", "hedge-max-ratio", "1.0");
+
+        // 느린 첫 요청 + 빨리 답한 hedge → hedge 값
+        AtomicInteger attempts = new AtomicInteger();
+        long started = System.nanoTime();
+        String fast = call(guard, () -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(1000)).thenReturn("primary")
+                : Mono.just("hedge"));
+        assertThat(fast).isEqualTo("hedge");
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(800));
+
+        // hedge 가 실패하거나 빈 응답이면 첫 요청을 기다린다
+        AtomicInteger failing = new AtomicInteger();
+        assertThat(call(guard, () -> failing.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).thenReturn("primary")
+                : Mono.error(new RuntimeException("hedge failed")))).isEqualTo("primary");
+        AtomicInteger empty = new AtomicInteger();
+        assertThat(call(guard, () -> empty.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).thenReturn("primary")
+                : Mono.<String>empty())).isEqualTo("primary");
+
+        assertThat(failing.get()).isEqualTo(2);
+        assertThat(empty.get()).isEqualTo(2);
+        assertThat(stats(guard)).containsEntry("hedges", 3L).containsEntry("failed", 0L);
+    }
+
+    @Test
+    void hedgesRespectTheRatioCap() {
+        UpstreamGuard guard = guard("hedge-enabled", "true", "hedge-min-ms", "20", "hedge-max-ratio", "0.1");
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(call(guard, counted(attempts, () -> Mono.delay(Duration.ofMillis(80)).thenReturn("v")))).isEqualTo("v");
+        }
+
+        // 10번 중 max(1, 10 * 0.1) = 1번만
+        assertThat(stats(guard)).containsEntry("calls", 10L).containsEntry("hedges", 1L);
+        assertThat(attempts.get()).isEqualTo(11);
+    }
+
+    // ------------------------------------------------------------------
+
+    private static UpstreamGuard guard(String... properties) {
+        MockEnvironment environment = new MockEnvironment();
+        for (int i = 0; i < properties.length; i += 2) {
+            environment.setProperty("route.upstream." + NAME + "." + properties[i], properties[i + 1]);
+        }
+        return new UpstreamGuard(environment);
+    }
+
+    /** 두 번 실패해서 열린 상태, breaker-open-ms 50 */
+    private static UpstreamGuard openedGuard() {
+        UpstreamGuard guard = guard("breaker-window", "2", "breaker-min-calls", "2", "breaker-failure-rate", "0.5",
+                "breaker-open-ms", "50");
+        callFailing(guard, fail());
+        callFailing(guard, fail());
+        assertThat(guard.isOpen(NAME)).isTrue();
+        return guard;
+    }
+
+    private static String call(UpstreamGuard guard, Supplier<Mono<String>> attempt) {
+        return guard.call(NAME, attempt).block(Duration.ofSeconds(5));
+    }
+
+    private static void callFailing(UpstreamGuard guard, Supplier<Mono<String>> attempt) {
+        assertThatThrownBy(() -> call(guard, attempt)).isNotNull();
+    }
+
+    private static Supplier<Mono<String>> counted(AtomicInteger attempts, Supplier<Mono<String>> attempt) {
+        return () -> {
+            attempts.incrementAndGet();
+            return attempt.get();
+        };
+    }
+
+    private static Supplier<Mono<String>> ok(String value) {
+        return () -> Mono.just(value);
+    }
+
+    private static Supplier<Mono<String>> fail() {
+        return () -> Mono.error(new RuntimeException("502"));
+    }
+
+    private static Supplier<Mono<String>> status(int code) {
+        return () -> Mono.error(WebClientResponseException.create(code, "status " + code, null, null, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> stats(UpstreamGuard guard) {
+        return (Map<String, Object>) guard.getStats().get(NAME);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.straffic.parking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OcrGatewayServiceTest {
+
+    @Test
+    void recognizeDelegatesToRecognizer() {
+        OcrGatewayService gateway = new OcrGatewayService(new StubPlateRecognizer("34나5678", 0), noCache(), 1, 1, 100);
+
+        Map<String, Object> result = gateway.recognize(new byte[]{1, 2, 3}, "plate.jpg", "image/jpeg");
+
+        assertThat(result).containsEntry("success", true).containsEntry("plateNumber", "34나5678");
+        assertThat(gateway.getStats()).containsEntry("completed", 1L).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void repeatedFrameIsServedFromCacheWithoutRecognizer() {
+        AtomicInteger calls = new AtomicInteger();
+        PlateRecognizer counting = (image, fileName, contentType) -> {
+            calls.incrementAndGet();
+            return Map.of("success", true, "plateNumber", "12가3456");
+        };
+        OcrGatewayService gateway = new OcrGatewayService(counting, new PlateRecognitionCache(10, 60, false, 4), 1, 0, 100);
+
+        gateway.recognize(new byte[]{7, 7, 7}, null, null);
+        Map<String, Object> second = gateway.recognize(new byte[]{7, 7, 7}, null, null);
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second).containsEntry("plateNumber", "12가3456").containsEntry("cached", "exact");
+    }
+
+    @Test
+    void shedsLoadWhenQueueIsFullAndTimesOutWaiters() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PlateRecognizer blocking = (image, fileName, contentType) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Map.of("success", true);
+        };
+        OcrGatewayService gateway = new OcrGatewayService(blocking, noCache(), 1, 1, 200);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Map<String, Object>> inFlight = executor.submit(() -> gateway.recognize(new byte[0], null, null));
+            assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+
+            // 대기열 한 자리를 차지한 요청은 시간 초과로 거절된다
+            Future<Map<String, Object>> queued = executor.submit(() -> gateway.recognize(new byte[0], null, null));
+            waitUntilWaiting(gateway, 1);
+
+            // 대기열이 가득 찬 상태의 요청은 바로 거절된다
+            assertThatThrownBy(() -> gateway.recognize(new byte[0], null, null))
+                    .isInstanceOf(OcrOverloadedException.class);
+
+            assertThatThrownBy(queued::get).hasCauseInstanceOf(OcrOverloadedException.class);
+
+            release.countDown();
+            assertThat(inFlight.get(2, TimeUnit.SECONDS)).containsEntry("success", true);
+            assertThat(gateway.getStats())
+                    .containsEntry("rejectedQueueFull", 1L)
+                    .containsEntry("rejectedTimeout", 1L)
+                    .containsEntry("waiting", 0);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersAreServedInArrivalOrderAndNewcomersDoNotBarge() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        PlateRecognizer recording = (image, fileName, contentType) -> {
+            if (image[0] == 0) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                order.add((int) image[0]);
+            }
+            return Map.of("success", true);
+        };
+        OcrGatewayService gateway = new OcrGatewayService(recording, noCache(), 1, 4, 2000);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Map<String, Object>>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> gateway.recognize(new byte[]{0}, null, null)));
+            assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i <= 3; i++) {
+                byte label = (byte) i;
+                futures.add(executor.submit(() -> gateway.recognize(new byte[]{label}, null, null)));
+                waitUntilWaiting(gateway, i);
+            }
+
+            // 허용량이 풀리는 순간 도착한 요청도 기다리던 요청 뒤로 선다
+            release.countDown();
+            futures.add(executor.submit(() -> gateway.recognize(new byte[]{4}, null, null)));
+            for (Future<Map<String, Object>> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).containsEntry("success", true);
+            }
+
+            assertThat(order).containsExactly(1, 2, 3, 4);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private PlateRecognitionCache noCache() {
+        return new PlateRecognitionCache(0, 0, false, 0);
+    }
+
+    private void waitUntilWaiting(OcrGatewayService gateway, int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && !Integer.valueOf(expected).equals(gateway.getStats().get("waiting")); i++) {
+            Thread.sleep(5);
+        }
+    }
+}
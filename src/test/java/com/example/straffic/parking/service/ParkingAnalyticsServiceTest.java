@@ -0,0 +1,99 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.entity.ParkingRecordEntity;
+import com.example.straffic.parking.repository.ParkingDailyRevenueRepository;
+import com.example.straffic.parking.repository.ParkingHourlyOccupancyRepository;
+import com.example.straffic.parking.repository.ParkingSpotRepository;
+import com.example.straffic.parking.repository.ParkingSpotTurnoverRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParkingAnalyticsServiceTest {
+
+    private static final String TURNOVER_ID = "20261020_SIM-1";
+
+    private final ParkingHourlyOccupancyRepository hourly = mock(ParkingHourlyOccupancyRepository.class);
+    private final ParkingDailyRevenueRepository daily = mock(ParkingDailyRevenueRepository.class);
+    private final ParkingSpotTurnoverRepository turnover = mock(ParkingSpotTurnoverRepository.class);
+    private final ParkingAnalyticsService service =
+            new ParkingAnalyticsService(hourly, daily, turnover, mock(ParkingSpotRepository.class));
+
+    @BeforeEach
+    void setUp() {
+        when(hourly.increment(anyString(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(daily.increment(anyString(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(turnover.increment(anyString(), anyLong(), anyLong())).thenReturn(1);
+    }
+
+    @Test
+    void knownBucketsSkipCreateAfterCommit() {
+        inTransaction(() -> service.apply(exitDelta()));
+        inTransaction(() -> service.apply(exitDelta()));
+
+        verify(turnover, times(1)).createIfAbsent(eq(TURNOVER_ID), any(LocalDate.class), eq("SIM-1"));
+        verify(turnover, times(2)).increment(eq(TURNOVER_ID), anyLong(), anyLong());
+    }
+
+    @Test
+    void bucketDeletedElsewhereIsRecreatedWhenIncrementMissesIt() {
+        inTransaction(() -> service.apply(exitDelta()));
+        // 다른 노드가 시뮬레이션 구역을 정리해서 행이 없어졌다
+        when(turnover.increment(eq(TURNOVER_ID), anyLong(), anyLong())).thenReturn(0, 1);
+
+        inTransaction(() -> service.apply(exitDelta()));
+
+        verify(turnover, times(2)).createIfAbsent(eq(TURNOVER_ID), any(LocalDate.class), eq("SIM-1"));
+        verify(turnover, times(3)).increment(eq(TURNOVER_ID), anyLong(), anyLong());
+    }
+
+    @Test
+    void forgottenTurnoverBucketsAreCreatedAgain() {
+        inTransaction(() -> service.apply(exitDelta()));
+
+        service.forgetTurnoverBuckets("SIM-");
+        inTransaction(() -> service.apply(exitDelta()));
+
+        verify(turnover, times(2)).createIfAbsent(eq(TURNOVER_ID), any(LocalDate.class), eq("SIM-1"));
+        // 일자 버킷(yyyyMMdd_차종)은 그대로 기억한다
+        verify(daily, times(1)).createIfAbsent(anyString(), any(LocalDate.class), eq("일반"));
+    }
+
+    private static ParkingRollupDelta exitDelta() {
+        ParkingRecordEntity record = new ParkingRecordEntity();
+        record.setParkingSpot("SIM-1");
+        record.setCarNumber("12가3456");
+        record.setCarType("일반");
+        record.setEntryTime(LocalDateTime.of(2026, 10, 20, 9, 0));
+        record.setExitTime(LocalDateTime.of(2026, 10, 20, 10, 0));
+        record.setDurationMinutes(60);
+        record.setFee(3000);
+        ParkingRollupDelta delta = new ParkingRollupDelta();
+        delta.exit(record);
+        return delta;
+    }
+
+    // 커밋된 것처럼 afterCommit 까지 실행한다
+    private static void inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.straffic.parking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParkingArchiveFileTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsNullsAndKoreanText() throws Exception {
+        Path path = dir.resolve("parking_record_202603.pra");
+        ParkingArchiveFile.Rows rows = new ParkingArchiveFile.Rows();
+        rows.add(3, "A-1", "12가3456", "경차", BASE.plusMinutes(30), BASE.plusMinutes(95), 65, 3250);
+        rows.add(1, "A-2", null, "일반", BASE, BASE.plusHours(2), 120, 6000);
+        rows.add(2, "A-3", "서울98나7654", null, BASE, BASE.plusMinutes(1), 1, 0);
+        rows.add(4, "", "", "전기차", BASE.plusDays(3), BASE.plusDays(3).plusMinutes(10), 10, -500);
+
+        ParkingArchiveFile.write(path, rows);
+        ParkingArchiveFile.Rows read = ParkingArchiveFile.readAll(path);
+
+        // (입차 시각, id) 순으로 정렬되어 저장된다
+        assertThat(read.size).isEqualTo(4);
+        assertThat(read.id).startsWith(1L, 2L, 3L, 4L);
+        assertThat(read.carNumber).startsWith(null, "서울98나7654", "12가3456", "");
+        assertThat(read.carType).startsWith("일반", null, "경차", "전기차");
+        assertThat(read.spot).startsWith("A-2", "A-3", "A-1", "");
+        assertThat(read.entryTimeAt(2)).isEqualTo(BASE.plusMinutes(30));
+        assertThat(read.exitTimeAt(2)).isEqualTo(BASE.plusMinutes(95));
+        assertThat(read.duration).startsWith(120L, 1L, 65L, 10L);
+        assertThat(read.fee).startsWith(6000, 0, 3250, -500);
+
+        ParkingArchiveFile.Header header = ParkingArchiveFile.readHeader(path);
+        assertThat(header.rows).isEqualTo(4);
+        assertThat(header.minEntryTime()).isEqualTo(BASE);
+        assertThat(header.maxEntryTime()).isEqualTo(BASE.plusDays(3));
+    }
+
+    @Test
+    void groupReaderSkipsGroupsOutsideRangeAndReadsOnlyRequestedColumns() throws Exception {
+        Path path = dir.resolve("large.pra");
+        int n = ParkingArchiveFile.GROUP_ROWS * 2 + 100;
+        ParkingArchiveFile.Checksum written;
+        try (ParkingArchiveFile.Writer writer = new ParkingArchiveFile.Writer(path)) {
+            for (int i = 0; i < n; i++) {
+                long entry = ParkingArchiveFile.toEpoch(BASE.plusMinutes(i));
+                writer.add(i + 1, "A-" + (i % 10), "차" + i, "일반", entry, entry + 600, 10, 500);
+            }
+            writer.commit();
+            written = writer.checksum();
+        }
+
+        assertThat(ParkingArchiveFile.readHeader(path).groups).hasSize(3);
+
+        // 두 번째 그룹 안쪽 범위만 요청
+        long from = ParkingArchiveFile.toEpoch(BASE.plusMinutes(ParkingArchiveFile.GROUP_ROWS + 10));
+        long to = ParkingArchiveFile.toEpoch(BASE.plusMinutes(ParkingArchiveFile.GROUP_ROWS + 20));
+        int groups = 0;
+        try (ParkingArchiveFile.GroupReader reader = new ParkingArchiveFile.GroupReader(
+                path, Set.of(ParkingArchiveFile.ID), from, to)) {
+            for (ParkingArchiveFile.Rows rows = reader.next(); rows != null; rows = reader.next()) {
+                groups++;
+                assertThat(rows.size).isEqualTo(ParkingArchiveFile.GROUP_ROWS);
+                assertThat(rows.id[0]).isEqualTo(ParkingArchiveFile.GROUP_ROWS + 1);
+                assertThat(rows.spot).isNull();
+                assertThat(rows.entryTime).isNull();
+            }
+        }
+        assertThat(groups).isEqualTo(1);
+
+        // 다시 읽은 내용의 체크섬이 쓴 내용과 같다
+        ParkingArchiveFile.Checksum read = new ParkingArchiveFile.Checksum();
+        ParkingArchiveFile.Rows all = ParkingArchiveFile.readAll(path);
+        for (int i = 0; i < all.size; i++) {
+            read.update(all, i);
+        }
+        assertThat(read.matches(written)).isTrue();
+        assertThat(read.rows()).isEqualTo(n);
+    }
+
+    @Test
+    void writerKeepsExistingFileUntilCommitAndRejectsOutOfOrderRows() throws Exception {
+        Path path = dir.resolve("keep.pra");
+        ParkingArchiveFile.Rows original = new ParkingArchiveFile.Rows();
+        original.add(1, "A-1", "12가3456", "일반", BASE, BASE.plusHours(1), 60, 3000);
+        ParkingArchiveFile.write(path, original);
+
+        long entry = ParkingArchiveFile.toEpoch(BASE.plusHours(5));
+        try (ParkingArchiveFile.Writer writer = new ParkingArchiveFile.Writer(path)) {
+            writer.add(7, "A-7", "77가7777", "일반", entry, entry + 60, 1, 50);
+            assertThatThrownBy(() -> writer.add(8, "A-8", "88가8888", "일반", entry - 1, entry, 1, 50))
+                    .isInstanceOf(IllegalArgumentException.class);
+            writer.finish();
+            // commit 하지 않고 닫는다
+        }
+
+        assertThat(ParkingArchiveFile.readAll(path).id).startsWith(1L);
+        assertThat(ParkingArchiveFile.readHeader(path).rows).isEqualTo(1);
+        assertThat(Files.exists(dir.resolve("keep.pra.tmp"))).isFalse();
+    }
+
+    @Test
+    void checksumDetectsChangedContent() {
+        ParkingArchiveFile.Checksum a = new ParkingArchiveFile.Checksum();
+        ParkingArchiveFile.Checksum b = new ParkingArchiveFile.Checksum();
+        a.update(1, "A-1", null, "일반", 0, 60, 1, 50);
+        b.update(1, "A-1", "", "일반", 0, 60, 1, 50);
+
+        assertThat(a.matches(b)).isFalse();
+    }
+}
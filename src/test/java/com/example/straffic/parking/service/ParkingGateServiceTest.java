@@ -0,0 +1,332 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.dto.GateEventDTO;
+import com.example.straffic.parking.dto.GateEventResultDTO;
+import com.example.straffic.parking.entity.ParkingRecordEntity;
+import com.example.straffic.parking.entity.ParkingReservationEntity;
+import com.example.straffic.parking.entity.ParkingSpotEntity;
+import com.example.straffic.parking.repository.ParkingRecordRepository;
+import com.example.straffic.parking.repository.ParkingReservationRepository;
+import com.example.straffic.parking.repository.ParkingSpotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParkingGateServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 20, 9, 0);
+
+    // 구역 테이블 대신 (조회할 때마다 복사본을 돌려줘서 JPA 처럼 트랜잭션마다 다른 객체)
+    private final Map<String, ParkingSpotEntity> spotTable = new ConcurrentHashMap<>();
+    private final List<ParkingRecordEntity> recordTable = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch findGate;
+
+    private ParkingReservationRepository reservationRepository;
+    private ParkingStatusService statusService;
+    private PlateMatchIndex plateMatchIndex;
+    private ParkingReservationService reservationService;
+    private ParkingGateService gate;
+
+    @BeforeEach
+    void setUp() {
+        ParkingSpotRepository spots = mock(ParkingSpotRepository.class);
+        when(spots.findById(anyString())).thenAnswer(inv -> {
+            CountDownLatch latch = findGate;
+            if (latch != null) {
+                latch.countDown();
+                latch.await(200, TimeUnit.MILLISECONDS);
+            }
+            return Optional.ofNullable(spotTable.get(inv.<String>getArgument(0))).map(ParkingGateServiceTest::copy);
+        });
+        when(spots.findAll()).thenAnswer(inv -> spotTable.values().stream().map(ParkingGateServiceTest::copy).toList());
+        when(spots.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<ParkingSpotEntity> found = new ArrayList<>();
+            for (String id : inv.<Iterable<String>>getArgument(0)) {
+                if (spotTable.containsKey(id)) found.add(copy(spotTable.get(id)));
+            }
+            return found;
+        });
+        when(spots.save(any(ParkingSpotEntity.class))).thenAnswer(inv -> store(inv.getArgument(0)));
+        when(spots.saveAll(anyIterable())).thenAnswer(inv -> {
+            List<ParkingSpotEntity> saved = new ArrayList<>();
+            for (ParkingSpotEntity spot : inv.<Iterable<ParkingSpotEntity>>getArgument(0)) saved.add(store(spot));
+            return saved;
+        });
+
+        ParkingRecordRepository records = mock(ParkingRecordRepository.class);
+        when(records.save(any(ParkingRecordEntity.class))).thenAnswer(inv -> {
+            recordTable.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(records.saveAll(anyIterable())).thenAnswer(inv -> {
+            List<ParkingRecordEntity> saved = new ArrayList<>();
+            inv.<Iterable<ParkingRecordEntity>>getArgument(0).forEach(saved::add);
+            recordTable.addAll(saved);
+            return saved;
+        });
+
+        reservationRepository = mock(ParkingReservationRepository.class);
+        AtomicLong ids = new AtomicLong();
+        when(reservationRepository.save(any())).thenAnswer(inv -> {
+            inv.<ParkingReservationEntity>getArgument(0).setId(ids.incrementAndGet());
+            return inv.getArgument(0);
+        });
+        when(reservationRepository.updateStatus(anyLong(), anyString(), anyString())).thenReturn(1);
+
+        ParkingSpotLocks locks = new ParkingSpotLocks(16, 2000);
+        TransactionTemplate tx = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        statusService = new ParkingStatusService(spots, 16);
+        plateMatchIndex = new PlateMatchIndex(2, 100);
+        reservationService = new ParkingReservationService(reservationRepository, statusService, locks, tx, 60, 120, 24);
+        gate = new ParkingGateService(spots, records, locks, mock(ParkingAnalyticsService.class), tx,
+                plateMatchIndex, statusService, reservationService, mock(ParkingPlateListService.class));
+        ReflectionTestUtils.setField(gate, "exitMaxDistance", 1);
+
+        for (int i = 1; i <= 3; i++) {
+            spotTable.put("A-" + i, spot("A-" + i));
+        }
+        statusService.reload();
+    }
+
+    @Test
+    void entryThenExitChargesByMinuteAndFreesTheSpot() {
+        gate.entry("A-1", "12가3456", T0);
+        assertThat(spotTable.get("A-1").isOccupied()).isTrue();
+        assertThat(statusService.isOccupied("A-1")).isTrue();
+        assertThat(gate.resolveParked("12가3457").getSpotId()).isEqualTo("A-1");
+
+        ParkingRecordEntity record = gate.exit("A-1", T0.plusMinutes(30));
+
+        assertThat(record.getCarNumber()).isEqualTo("12가3456");
+        assertThat(record.getDurationMinutes()).isEqualTo(30);
+        assertThat(record.getFee()).isEqualTo(1500);
+        assertThat(record.getCarType()).isEqualTo("일반");
+        assertThat(recordTable).hasSize(1);
+        assertThat(spotTable.get("A-1").isOccupied()).isFalse();
+        assertThat(statusService.isOccupied("A-1")).isFalse();
+        assertThatThrownBy(() -> gate.resolveParked("12가3456")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void entryAndExitRulesAreChecked() {
+        gate.entry("A-1", "12가3456", T0);
+
+        assertThatThrownBy(() -> gate.entry("A-1", "34나5678", T0)).hasMessageContaining("이미 주차된 구역");
+        assertThatThrownBy(() -> gate.exit("A-1", "34나5678", null, T0.plusMinutes(5)))
+                .hasMessageContaining("차량 번호가 일치하지 않습니다");
+        assertThat(spotTable.get("A-1").getPlateNumber()).isEqualTo("12가3456");
+        assertThatThrownBy(() -> gate.exit("A-2", T0)).hasMessageContaining("주차된 차량이 없습니다");
+        assertThatThrownBy(() -> gate.entry("Z-9", "34나5678", T0)).hasMessageContaining("존재하지 않는 구역");
+        // 1분 미만도 1분 요금
+        assertThat(gate.exit("A-1", T0.plusSeconds(10)).getFee()).isEqualTo(50);
+    }
+
+    @Test
+    void concurrentEntriesOnOneSpotOnlyOneSucceeds() throws Exception {
+        // 두 스레드가 조회 단계에서 서로를 기다리게 해서, 락이 없으면 둘 다 빈 구역을 보고 입차시킨다
+        findGate = new CountDownLatch(2);
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (String plate : List.of("12가3456", "34나5678")) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        gate.entry("A-1", plate, T0);
+                        return "ok";
+                    } catch (IllegalStateException e) {
+                        return e.getMessage();
+                    }
+                }));
+            }
+            List<String> outcomes = new ArrayList<>();
+            for (Future<String> future : futures) {
+                outcomes.add(future.get(5, TimeUnit.SECONDS));
+            }
+
+            assertThat(outcomes).containsOnlyOnce("ok");
+            assertThat(outcomes).anySatisfy(o -> assertThat(o).contains("이미 주차된 구역"));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(spotTable.get("A-1").getVersion()).isEqualTo(1L);
+        assertThat(statusService.getStatus(null).getOccupied()).isEqualTo(1);
+    }
+
+    @Test
+    void reservedCarIsCheckedInOnEntryAndCompletedOnExit() {
+        LocalDateTime start = LocalDateTime.now().plusMinutes(30);
+        Long id = reservationService.reserve("A-1", null, "12가3456", start, start.plusHours(2), "kim").getId();
+
+        // 다른 차량은 예약 시작 60분 안이라 거절
+        assertThatThrownBy(() -> gate.entry("A-1", "34나5678", LocalDateTime.now())).hasMessageContaining("예약된 구역");
+
+        gate.entry("A-1", "12가3456", LocalDateTime.now());
+        assertThat(reservationService.checkedInReservation("A-1", "12가3456")).isEqualTo(id);
+
+        gate.exit("A-1", LocalDateTime.now().plusMinutes(40));
+        assertThat(reservationService.size()).isZero();
+    }
+
+    @Test
+    void batchReportsEachEventAndKeepsValidOnesDespiteInvalidLines() {
+        Map<Integer, GateEventDTO> batch = batch(
+                event("ENTRY", "A-1", "12가3456", T0),
+                event("PARK", "A-2", "34나5678", T0),
+                event("ENTRY", " ", "34나5678", T0),
+                event("ENTRY", "A-2", null, T0),
+                event("EXIT", "A-3", null, T0),
+                event(" entry ", " A-2 ", "56다7890", null),
+                event("ENTRY", "A-1", "78라1234", T0.plusMinutes(1)));
+
+        List<GateEventResultDTO> results = gate.ingest(batch);
+
+        assertThat(results).extracting(GateEventResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(results).extracting(GateEventResultDTO::isSuccess)
+                .containsExactly(true, false, false, false, false, true, false);
+        assertThat(results.get(1).getError()).contains("알 수 없는 이벤트 유형");
+        assertThat(results.get(2).getError()).contains("주차 구역을 선택하세요");
+        assertThat(results.get(3).getError()).contains("차량 번호를 입력하세요");
+        assertThat(results.get(4).getError()).contains("주차된 차량이 없습니다");
+        assertThat(results.get(6).getError()).contains("이미 주차된 구역");
+        // 공백·소문자는 정리하고, timestamp 가 없으면 받은 시각
+        assertThat(results.get(5).getType()).isEqualTo("ENTRY");
+        assertThat(results.get(5).getSpotId()).isEqualTo("A-2");
+        assertThat(results.get(5).getTime()).isNotNull();
+
+        assertThat(spotTable.get("A-1").getPlateNumber()).isEqualTo("12가3456");
+        assertThat(spotTable.get("A-2").getPlateNumber()).isEqualTo("56다7890");
+        assertThat(statusService.getStatus(null).getOccupied()).isEqualTo(2);
+        assertThat(gate.resolveParked("56다7890").getSpotId()).isEqualTo("A-2");
+    }
+
+    @Test
+    void entryAndExitOfOnePlateInOneBatchAreAppliedInTimestampOrder() {
+        // 출차가 먼저 도착했지만 timestamp 는 입차보다 늦다
+        List<GateEventResultDTO> results = gate.ingest(batch(
+                event("EXIT", "A-1", null, T0.plusMinutes(20)),
+                event("ENTRY", "A-1", "12가3456", T0)));
+
+        assertThat(results).allMatch(GateEventResultDTO::isSuccess);
+        assertThat(results.get(0).getPlateNumber()).isEqualTo("12가3456");
+        assertThat(results.get(0).getDurationMinutes()).isEqualTo(20);
+        assertThat(results.get(0).getFee()).isEqualTo(1000);
+        assertThat(recordTable).hasSize(1);
+        assertThat(spotTable.get("A-1").isOccupied()).isFalse();
+        assertThat(statusService.isOccupied("A-1")).isFalse();
+        assertThatThrownBy(() -> gate.resolveParked("12가3456")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void exitWithOnlyARecognizedPlateFindsTheSpot() {
+        gate.entry("A-2", "12가3456", T0);
+
+        // 한 글자 오인식
+        List<GateEventResultDTO> results = gate.ingest(batch(event("EXIT", null, "12가3458", T0.plusMinutes(5))));
+
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(0).getSpotId()).isEqualTo("A-2");
+        assertThat(results.get(0).getPlateNumber()).isEqualTo("12가3456");
+        assertThat(gate.ingest(batch(event("EXIT", null, "99허9999", T0))).get(0).getError())
+                .contains("번호판으로 주차 구역을 찾지 못했습니다");
+    }
+
+    @Test
+    void reservationCompletedInABatchIsNotCheckedInAgainBySameBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        Long id = reservationService.reserve("A-1", null, "12가3456", now.plusMinutes(30), now.plusHours(2), "kim").getId();
+
+        // 입차(체크인) → 출차(완료) → 다시 입차. 메모리 예약 상태는 커밋 후에야 바뀐다
+        List<GateEventResultDTO> results = gate.ingest(batch(
+                event("ENTRY", "A-1", "12가3456", now),
+                event("EXIT", "A-1", null, now.plusMinutes(10)),
+                event("ENTRY", "A-1", "12가3456", now.plusMinutes(20))));
+
+        assertThat(results).allMatch(GateEventResultDTO::isSuccess);
+        verify(reservationRepository).updateStatus(id, ParkingReservationEntity.RESERVED, ParkingReservationEntity.COMPLETED);
+        verify(reservationRepository, never()).updateStatus(id, ParkingReservationEntity.RESERVED, ParkingReservationEntity.CHECKED_IN);
+        assertThat(reservationService.size()).isZero();
+        // 두 번째 입차는 일반 입차라 출차해도 예약과 상관없다
+        assertThat(reservationService.checkedInReservation("A-1", "12가3456")).isNull();
+    }
+
+    @Test
+    void otherCarMayEnterAfterTheReservedCarLeftInTheSameBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        reservationService.reserve("A-1", null, "12가3456", now.plusMinutes(30), now.plusHours(2), "kim");
+
+        List<GateEventResultDTO> results = gate.ingest(batch(
+                event("ENTRY", "A-1", "12가3456", now),
+                event("EXIT", "A-1", null, now.plusMinutes(10)),
+                event("ENTRY", "A-1", "34나5678", now.plusMinutes(20))));
+
+        assertThat(results).allMatch(GateEventResultDTO::isSuccess);
+        assertThat(spotTable.get("A-1").getPlateNumber()).isEqualTo("34나5678");
+    }
+
+    // ------------------------------------------------------------------
+
+    private static Map<Integer, GateEventDTO> batch(GateEventDTO... events) {
+        Map<Integer, GateEventDTO> batch = new LinkedHashMap<>();
+        for (int i = 0; i < events.length; i++) {
+            batch.put(i, events[i]);
+        }
+        return batch;
+    }
+
+    private static GateEventDTO event(String type, String spotId, String plateNumber, LocalDateTime timestamp) {
+        return new GateEventDTO(type, spotId, plateNumber, "G1", null, timestamp);
+    }
+
+    private ParkingSpotEntity store(ParkingSpotEntity spot) {
+        ParkingSpotEntity saved = copy(spot);
+        saved.setVersion(spot.getVersion() == null ? 0L : spot.getVersion() + 1);
+        spotTable.put(saved.getSpotId(), saved);
+        return copy(saved);
+    }
+
+    private static ParkingSpotEntity spot(String spotId) {
+        ParkingSpotEntity spot = new ParkingSpotEntity(spotId);
+        spot.setVersion(0L);
+        return spot;
+    }
+
+    private static ParkingSpotEntity copy(ParkingSpotEntity spot) {
+        ParkingSpotEntity copy = new ParkingSpotEntity(spot.getSpotId());
+        copy.setOccupied(spot.isOccupied());
+        copy.setPlateNumber(spot.getPlateNumber());
+        copy.setEntryTime(spot.getEntryTime());
+        copy.setVersion(spot.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.entity.ParkingPlateListEntity;
+import com.example.straffic.parking.repository.ParkingPlateListRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParkingPlateListServiceTest {
+
+    private static final String SEASON = ParkingPlateListEntity.SEASON;
+    private static final long OVERLAP_SECONDS = 60;
+
+    private final ParkingPlateListRepository repository = mock(ParkingPlateListRepository.class);
+    // parking_plate_list 테이블 대신 (JDBC 적재와 리포지토리 조회가 같이 본다)
+    private final List<ParkingPlateListEntity> table = new CopyOnWriteArrayList<>();
+    private final AtomicInteger fullLoads = new AtomicInteger();
+    private ParkingPlateListService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(repository.findFirstByListTypeAndPlateKey(anyString(), anyString()))
+                .thenAnswer(inv -> find(inv.getArgument(0), inv.getArgument(1), false));
+        when(repository.findFirstByListTypeAndPlateKeyAndActiveTrue(anyString(), anyString()))
+                .thenAnswer(inv -> find(inv.getArgument(0), inv.getArgument(1), true));
+        when(repository.save(any(ParkingPlateListEntity.class))).thenAnswer(inv -> {
+            ParkingPlateListEntity row = inv.getArgument(0);
+            if (!table.contains(row)) table.add(row);
+            return row;
+        });
+        service = new ParkingPlateListService(repository, dataSource(), 1000, 0.001, 100, OVERLAP_SECONDS, 100);
+    }
+
+    @Test
+    void filterNegativeSkipsTheDatabase() {
+        table.add(row(SEASON, "12가3456", true, LocalDateTime.now().minusDays(1)));
+        service.reload();
+
+        assertThat(service.lookup(SEASON, "12 가 3456")).isNotNull();
+        assertThat(service.lookup(SEASON, "99허9999")).isNull();
+        assertThat(service.lookup(ParkingPlateListEntity.BLOCK, "12가3456")).isNull();
+
+        // 필터에 있는 번호만 DB 를 본다, 두 번째부터는 LRU
+        assertThat(service.lookup(SEASON, "12가3456")).isNotNull();
+        verify(repository, times(1)).findFirstByListTypeAndPlateKeyAndActiveTrue(anyString(), anyString());
+        assertThat(service.getStats()).containsEntry("checks", 4L).containsEntry("filterNegatives", 2L)
+                .containsEntry("cacheHits", 1L).containsEntry("dbLookups", 1L);
+    }
+
+    @Test
+    void incrementalRefreshReadsOverlapWindowAndCountsOnlyNewRows() {
+        table.add(row(SEASON, "12가3456", true, LocalDateTime.now().minusDays(1)));
+        service.reload();
+        LocalDateTime watermark = (LocalDateTime) service.getStats().get("watermark");
+
+        // 적재 직전에 커밋이 늦게 된 행(겹침 구간)과 그 뒤에 바뀐 행
+        ParkingPlateListEntity late = row(SEASON, "34나5678", true, watermark.minusSeconds(10));
+        ParkingPlateListEntity fresh = row(SEASON, "56다7890", true, watermark.plusSeconds(1));
+        table.add(late);
+        table.add(fresh);
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(repository.findByUpdatedAtAfterOrderByUpdatedAt(since.capture())).thenReturn(List.of(late, fresh));
+
+        service.refresh();
+
+        assertThat(since.getValue()).isEqualTo(watermark.minusSeconds(OVERLAP_SECONDS));
+        assertThat(service.lookup(SEASON, "34나5678")).isSameAs(late);
+        assertThat(service.lookup(SEASON, "56다7890")).isSameAs(fresh);
+        // 겹쳐 읽은 행은 이미 적재 때 센 것으로 본다
+        assertThat(typeStats()).containsEntry("added", 2).containsEntry("removed", 0);
+        assertThat((LocalDateTime) service.getStats().get("watermark")).isAfterOrEqualTo(watermark);
+        assertThat(fullLoads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void tooManyRemovalsRebuildTheFilter() {
+        List<ParkingPlateListEntity> removed = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            table.add(row(SEASON, plate(i), true, LocalDateTime.now().minusDays(1)));
+        }
+        service.reload();
+        LocalDateTime watermark = (LocalDateTime) service.getStats().get("watermark");
+        for (ParkingPlateListEntity row : table) {
+            row.setActive(false);
+            row.setUpdatedAt(watermark.plusSeconds(1));
+            removed.add(row);
+        }
+        when(repository.findByUpdatedAtAfterOrderByUpdatedAt(any())).thenReturn(removed);
+
+        // 해제 1001 > max(1000, 추가 1001 / 4) 이므로 전체를 다시 읽는다
+        service.refresh();
+
+        assertThat(fullLoads.get()).isEqualTo(2);
+        assertThat(typeStats()).containsEntry("added", 0).containsEntry("removed", 0);
+        assertThat(service.lookup(SEASON, plate(0))).isNull();
+        verify(repository, never()).findFirstByListTypeAndPlateKeyAndActiveTrue(anyString(), anyString());
+    }
+
+    @Test
+    void fewRemovalsKeepTheFilter() {
+        table.add(row(SEASON, "12가3456", true, LocalDateTime.now().minusDays(1)));
+        service.reload();
+        LocalDateTime watermark = (LocalDateTime) service.getStats().get("watermark");
+        ParkingPlateListEntity row = table.get(0);
+        row.setActive(false);
+        row.setUpdatedAt(watermark.plusSeconds(1));
+        when(repository.findByUpdatedAtAfterOrderByUpdatedAt(any())).thenReturn(List.of(row));
+
+        service.refresh();
+
+        assertThat(fullLoads.get()).isEqualTo(1);
+        assertThat(typeStats()).containsEntry("removed", 1);
+        // 필터는 여전히 "있을 수도"라고 하지만 DB 가 없다고 답한다
+        assertThat(service.lookup(SEASON, "12가3456")).isNull();
+        assertThat(service.getStats()).containsEntry("falsePositives", 1L);
+    }
+
+    @Test
+    void lookupRacingWithRegisterDoesNotCacheStaleMiss() throws Exception {
+        ParkingPlateListEntity row = row(SEASON, "12가3456", false, LocalDateTime.now().minusDays(1));
+        table.add(row);
+        service.reload();
+        // 예전에 등록했다 해제된 번호라 필터는 "있을 수도"라고 답한다
+        service.register(SEASON, "12가3456", null, "old");
+        service.unregister(SEASON, "12가3456");
+
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findFirstByListTypeAndPlateKeyAndActiveTrue(eq(SEASON), anyString()))
+                .thenAnswer(inv -> {
+                    reading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.empty();
+                })
+                .thenAnswer(inv -> find(inv.getArgument(0), inv.getArgument(1), true));
+
+        CompletableFuture<ParkingPlateListEntity> stale =
+                CompletableFuture.supplyAsync(() -> service.lookup(SEASON, "12가3456"));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        // DB 를 읽는 사이에 다시 등록됐다
+        service.register(SEASON, "12가3456", null, "again");
+        release.countDown();
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isNull();
+
+        // 늦게 돌아온 "없음"은 캐시에 남지 않아서 다음 조회가 DB 를 다시 본다
+        assertThat(service.lookup(SEASON, "12가3456")).isSameAs(row);
+        assertThat(service.lookup(SEASON, "12가3456")).isSameAs(row);
+        verify(repository, times(2)).findFirstByListTypeAndPlateKeyAndActiveTrue(eq(SEASON), anyString());
+    }
+
+    // ------------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> typeStats() {
+        return (Map<String, Object>) service.getStats().get(SEASON);
+    }
+
+    private Optional<ParkingPlateListEntity> find(String listType, String plateKey, boolean activeOnly) {
+        return table.stream()
+                .filter(r -> r.getListType().equals(listType) && r.getPlateKey().equals(plateKey))
+                .filter(r -> !activeOnly || r.isActive())
+                .findFirst();
+    }
+
+    // JdbcTemplate 이 쓰는 createStatement → executeQuery 만 흉내 낸다
+    private DataSource dataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenAnswer(inv -> {
+            List<ParkingPlateListEntity> active = table.stream().filter(ParkingPlateListEntity::isActive).toList();
+            if (((String) inv.getArgument(0)).contains("COUNT(*)")) {
+                fullLoads.incrementAndGet();
+                return resultSet(active.stream()
+                        .collect(Collectors.groupingBy(ParkingPlateListEntity::getListType, Collectors.counting()))
+                        .entrySet().stream()
+                        .map(e -> new Object[]{e.getKey(), e.getValue().intValue()})
+                        .toList());
+            }
+            return resultSet(active.stream().map(r -> new Object[]{r.getListType(), r.getPlateKey()}).toList());
+        });
+        return dataSource;
+    }
+
+    private static ResultSet resultSet(List<Object[]> rows) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        int[] cursor = {-1};
+        when(resultSet.next()).thenAnswer(inv -> ++cursor[0] < rows.size());
+        when(resultSet.getString(anyInt())).thenAnswer(inv -> rows.get(cursor[0])[(int) inv.getArgument(0) - 1]);
+        when(resultSet.getInt(anyInt())).thenAnswer(inv -> rows.get(cursor[0])[(int) inv.getArgument(0) - 1]);
+        return resultSet;
+    }
+
+    private static ParkingPlateListEntity row(String listType, String plateNumber, boolean active, LocalDateTime updatedAt) {
+        ParkingPlateListEntity row = new ParkingPlateListEntity();
+        row.setListType(listType);
+        row.setPlateNumber(plateNumber);
+        row.setPlateKey(PlateMatchIndex.normalize(plateNumber));
+        row.setActive(active);
+        row.setUpdatedAt(updatedAt);
+        return row;
+    }
+
+    private static String plate(int i) {
+        return String.format("%02d가%04d", i % 100, i);
+    }
+}
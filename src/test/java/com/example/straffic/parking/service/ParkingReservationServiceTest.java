@@ -0,0 +1,176 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.entity.ParkingReservationEntity;
+import com.example.straffic.parking.entity.ParkingSpotEntity;
+import com.example.straffic.parking.repository.ParkingReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParkingReservationServiceTest {
+
+    private static final String PLATE = "12가3456";
+    private static final String OTHER = "34나5678";
+
+    private ParkingReservationRepository repository;
+    private ParkingStatusService statusService;
+    private ParkingReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ParkingReservationRepository.class);
+        AtomicLong ids = new AtomicLong();
+        when(repository.save(any(ParkingReservationEntity.class))).thenAnswer(inv -> {
+            ParkingReservationEntity r = inv.getArgument(0);
+            r.setId(ids.incrementAndGet());
+            return r;
+        });
+        when(repository.updateStatus(anyLong(), anyString(), anyString())).thenReturn(1);
+
+        statusService = new ParkingStatusService(null, 16);
+        for (String spotId : List.of("A-1", "A-2", "A-3", "B-1")) {
+            statusService.changed(new ParkingSpotEntity(spotId));
+        }
+        service = new ParkingReservationService(repository, statusService, new ParkingSpotLocks(16, 1000),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 60, 120, 24);
+    }
+
+    @Test
+    void reserveRejectsOverlapButAllowsTouchingSlots() {
+        service.reserve("A-1", null, PLATE, at(14), at(16), "kim");
+
+        // [14, 16) 뒤에 바로 이어지는 예약은 된다
+        assertThat(service.reserve("A-1", null, OTHER, at(16), at(18), "lee").getSpotId()).isEqualTo("A-1");
+        assertThatThrownBy(() -> service.reserve("A-1", null, OTHER, at(15), at(17), "lee"))
+                .isInstanceOf(IllegalStateException.class);
+
+        // 구역 그룹으로 찾으면 비어 있는 구역 중 번호가 작은 곳
+        assertThat(service.findAvailable("A", at(15), at(17), 10)).containsExactly("A-2", "A-3");
+        assertThat(service.reserve(null, "A", OTHER, at(15), at(17), "lee").getSpotId()).isEqualTo("A-2");
+        assertThat(service.findAvailable("A", at(15), at(17), 10)).containsExactly("A-3");
+    }
+
+    @Test
+    void occupiedSpotIsHeldForWalkInHoldMinutes() {
+        ParkingSpotEntity parked = new ParkingSpotEntity("A-3");
+        parked.setOccupied(true);
+        parked.setPlateNumber(OTHER);
+        parked.setEntryTime(LocalDateTime.now());
+        statusService.changed(parked);
+
+        LocalDateTime now = LocalDateTime.now();
+        assertThatThrownBy(() -> service.reserve("A-3", null, PLATE, now.plusMinutes(30), now.plusMinutes(90), "kim"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(service.reserve("A-3", null, PLATE, now.plusMinutes(150), now.plusMinutes(200), "kim").getSpotId())
+                .isEqualTo("A-3");
+    }
+
+    @Test
+    void entryGuardBlocksOtherCarsButChecksInTheOwner() {
+        Long id = service.reserve("A-1", null, PLATE, at(14), at(16), "kim").getId();
+
+        // 가드 60분: 13:00 입차는 예약 시작과 맞닿기만 한다
+        assertThat(service.checkEntry("A-1", OTHER, at(13))).isNull();
+        assertThatThrownBy(() -> service.checkEntry("A-1", OTHER, at(13).plusMinutes(1)))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("예약된 구역");
+        assertThatThrownBy(() -> service.checkEntry("A-1", OTHER, at(15)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(service.checkEntry("A-1", OTHER, at(16))).isNull();
+        // 예약한 차량이면 체크인 대상
+        assertThat(service.checkEntry("A-1", PLATE, at(13).plusMinutes(30))).isEqualTo(id);
+        assertThat(service.checkEntry("A-2", OTHER, at(14))).isNull();
+    }
+
+    @Test
+    void cancelChecksOwnerAndConditionalUpdate() {
+        Long id = service.reserve("A-1", null, PLATE, at(14), at(16), "kim").getId();
+
+        assertThatThrownBy(() -> service.cancel(id, "lee")).hasMessageContaining("본인의 예약");
+
+        // 다른 노드에서 먼저 체크인해서 DB 는 이미 RESERVED 가 아니다
+        when(repository.updateStatus(id, ParkingReservationEntity.RESERVED, ParkingReservationEntity.CANCELLED)).thenReturn(0);
+        assertThatThrownBy(() -> service.cancel(id, "kim")).isInstanceOf(IllegalStateException.class);
+        assertThat(service.upcoming("A-1", null)).hasSize(1);
+
+        when(repository.updateStatus(id, ParkingReservationEntity.RESERVED, ParkingReservationEntity.CANCELLED)).thenReturn(1);
+        assertThat(service.cancel(id, "kim").getStatus()).isEqualTo(ParkingReservationEntity.CANCELLED);
+        assertThat(service.upcoming("A-1", null)).isEmpty();
+        assertThat(service.findAvailable("A", at(14), at(16), 10)).contains("A-1");
+
+        // 관리자(owner null)는 다른 회원의 예약도 취소한다
+        Long other = service.reserve("A-2", null, OTHER, at(14), at(16), "lee").getId();
+        assertThat(service.cancel(other, null).getStatus()).isEqualTo(ParkingReservationEntity.CANCELLED);
+        verify(repository).updateStatus(other, ParkingReservationEntity.RESERVED, ParkingReservationEntity.CANCELLED);
+    }
+
+    @Test
+    void checkedInReservationIsCompletedOnExit() {
+        Long id = service.reserve("A-1", null, PLATE, at(14), at(16), "kim").getId();
+
+        service.statusChanged(id, ParkingReservationEntity.CHECKED_IN);
+        assertThat(service.checkedInReservation("A-1", PLATE)).isEqualTo(id);
+        assertThat(service.checkedInReservation("A-1", OTHER)).isNull();
+        // 체크인한 예약은 취소할 수 없다
+        assertThatThrownBy(() -> service.cancel(id, "kim")).hasMessageContaining("CHECKED_IN");
+
+        service.statusChanged(id, ParkingReservationEntity.COMPLETED);
+        assertThat(service.size()).isZero();
+        assertThat(service.checkedInReservation("A-1", PLATE)).isNull();
+        assertThat(service.findAvailable("A", at(14), at(16), 10)).contains("A-1");
+    }
+
+    @Test
+    void upcomingIsFilteredByOwner() {
+        service.reserve("A-1", null, PLATE, at(10), at(12), "kim");
+        service.reserve("A-1", null, OTHER, at(14), at(16), "lee");
+
+        assertThat(service.upcoming("A-1", "kim")).extracting(ParkingReservationEntity::getPlateNumber).containsExactly(PLATE);
+        assertThat(service.upcoming("A-1", "park")).isEmpty();
+        assertThat(service.upcoming("A-1", null)).hasSize(2);
+    }
+
+    @Test
+    void reloadKeepsOverdueCheckInsSoExitCanCompleteThem() {
+        LocalDateTime now = LocalDateTime.now();
+        ParkingReservationEntity overdue = row(7L, "A-1", PLATE, now.minusHours(3), now.minusHours(1), ParkingReservationEntity.CHECKED_IN);
+        ParkingReservationEntity upcoming = row(8L, "A-2", OTHER, at(14), at(16), ParkingReservationEntity.RESERVED);
+        when(repository.findActive(any(LocalDateTime.class))).thenReturn(List.of(overdue, upcoming));
+
+        service.reload();
+
+        assertThat(service.size()).isEqualTo(2);
+        assertThat(service.checkedInReservation("A-1", PLATE)).isEqualTo(7L);
+        assertThat(service.upcoming("A-2", null)).extracting(ParkingReservationEntity::getId).containsExactly(8L);
+    }
+
+    private static LocalDateTime at(int hour) {
+        return LocalDate.now().plusDays(1).atTime(hour, 0);
+    }
+
+    private static ParkingReservationEntity row(Long id, String spotId, String plate,
+                                                LocalDateTime start, LocalDateTime end, String status) {
+        ParkingReservationEntity r = new ParkingReservationEntity();
+        r.setId(id);
+        r.setSpotId(spotId);
+        r.setPlateNumber(plate);
+        r.setStartTime(start);
+        r.setEndTime(end);
+        r.setStatus(status);
+        return r;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.straffic.parking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParkingSpotLocksTest {
+
+    @Test
+    void multiLocksInOppositeOrderDoNotDeadlock() throws Exception {
+        ParkingSpotLocks locks = new ParkingSpotLocks(16, 2000);
+        assertThat(locks.stripeOf("A-1")).isNotEqualTo(locks.stripeOf("A-2"));
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // 요청 순서가 반대여도 스트라이프 번호 순으로 잡으므로 교착(시간 초과)이 없다
+            List<Future<?>> futures = List.of(
+                    pool.submit(() -> repeat(locks, List.of("A-1", "A-2"), inside, maxInside)),
+                    pool.submit(() -> repeat(locks, List.of("A-2", "A-1"), inside, maxInside)));
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(maxInside.get()).isEqualTo(1);
+    }
+
+    @Test
+    void tryLockTimeoutRaisesSpotLockTimeoutException() throws Exception {
+        ParkingSpotLocks locks = new ParkingSpotLocks(16, 100);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = pool.submit(() -> locks.withLock("A-1", () -> {
+                held.countDown();
+                await(release);
+                return null;
+            }));
+            assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+
+            long started = System.nanoTime();
+            assertThatThrownBy(() -> locks.withLock("A-1", () -> "never"))
+                    .isInstanceOf(SpotLockTimeoutException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(90);
+            // 다른 스트라이프는 막히지 않는다
+            assertThat(locks.withLock("A-2", () -> "free")).isEqualTo("free");
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            assertThat(locks.withLock("A-1", () -> "after")).isEqualTo("after");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void withLocksReleasesAcquiredStripesWhenALaterOneTimesOut() throws Exception {
+        ParkingSpotLocks locks = new ParkingSpotLocks(16, 100);
+        // A-1(5) 는 비어 있고 A-3(7) 을 다른 스레드가 잡고 있다
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> locks.withLock("A-3", () -> {
+                held.countDown();
+                await(release);
+                return null;
+            }));
+            assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+
+            AtomicInteger ran = new AtomicInteger();
+            assertThatThrownBy(() -> locks.withLocks(List.of("A-3", "A-1"), ran::incrementAndGet))
+                    .isInstanceOf(SpotLockTimeoutException.class);
+            assertThat(ran.get()).isZero();
+
+            // 먼저 잡았던 A-1 은 풀려 있어서 다른 스레드도 바로 잡는다
+            assertThat(CompletableFuture.supplyAsync(() -> locks.withLock("A-1", () -> "ok")).get(1, TimeUnit.SECONDS))
+                    .isEqualTo("ok");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void sameSpotOrStripeIsLockedOnce() {
+        ParkingSpotLocks locks = new ParkingSpotLocks(16, 100);
+        // A-2 와 B-1 은 같은 스트라이프
+        assertThat(locks.stripeOf("A-2")).isEqualTo(locks.stripeOf("B-1"));
+
+        assertThat(locks.withLocks(List.of("A-1", "A-1", "A-2", "B-1"), () -> "ok")).isEqualTo("ok");
+        // 재진입: 같은 스레드에서 안쪽에서 다시 잡아도 된다
+        assertThat(locks.withLock("A-1", () -> locks.withLocks(List.of("A-1", "A-2"), () -> "nested"))).isEqualTo("nested");
+    }
+
+    private static void repeat(ParkingSpotLocks locks, List<String> spotIds, AtomicInteger inside, AtomicInteger maxInside) {
+        for (int i = 0; i < 500; i++) {
+            locks.withLocks(spotIds, () -> {
+                maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                Thread.onSpinWait();
+                return inside.decrementAndGet();
+            });
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.dto.ParkingStatusDTO;
+import com.example.straffic.parking.entity.ParkingSpotEntity;
+import com.example.straffic.parking.repository.ParkingSpotRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParkingStatusServiceTest {
+
+    private final ParkingSpotRepository repository = mock(ParkingSpotRepository.class);
+    // 링 버퍼 최소 크기 16
+    private final ParkingStatusService service = new ParkingStatusService(repository, 16);
+
+    @Test
+    void sinceInsideBufferReturnsOnlyChangedSpots() {
+        service.changed(spot("A-1", false, 0));
+        service.changed(spot("A-2", false, 0));
+        service.changed(spot("A-3", false, 0));
+        String since = service.getStatus(null).getVersion();
+
+        service.changed(spot("A-2", true, 1));
+        service.changed(spot("A-2", false, 2));
+        // 상태가 같으면 버전을 올리지 않는다
+        service.changed(spot("A-3", false, 1));
+
+        ParkingStatusDTO delta = service.getStatus(since);
+        assertThat(delta.isFull()).isFalse();
+        assertThat(delta.getSpots()).containsOnlyKeys("A-2");
+        assertThat(delta.getRemoved()).isEmpty();
+        assertThat(delta.getTotal()).isEqualTo(3);
+        assertThat(delta.getOccupied()).isZero();
+
+        // 최신 버전이면 빈 변경분
+        ParkingStatusDTO same = service.getStatus(delta.getVersion());
+        assertThat(same.isFull()).isFalse();
+        assertThat(same.getSpots()).isEmpty();
+        assertThat(same.getVersion()).isEqualTo(delta.getVersion());
+    }
+
+    @Test
+    void sinceFallenOffTheBufferReturnsFullSnapshot() {
+        service.changed(spot("A-1", false, 0));
+        String first = service.getStatus(null).getVersion();
+        service.changed(spot("A-2", false, 0));
+        String second = service.getStatus(null).getVersion();
+        for (int i = 1; i <= 15; i++) {
+            service.changed(spot("A-1", i % 2 == 1, i));
+        }
+        // 17번 바뀌어서 버퍼에는 2~17 이 남았다. since=1 은 2 부터 빠짐없이 있으므로 변경분
+        ParkingStatusDTO boundary = service.getStatus(first);
+        assertThat(boundary.isFull()).isFalse();
+        assertThat(boundary.getSpots()).containsOnlyKeys("A-1", "A-2");
+
+        service.changed(spot("A-1", false, 16));
+        // 이제 2 가 밀려나서 since=1 은 빠진 변경이 있을 수 있다
+        ParkingStatusDTO full = service.getStatus(first);
+        assertThat(full.isFull()).isTrue();
+        assertThat(full.getSpots()).containsOnlyKeys("A-1", "A-2");
+        assertThat(service.getStatus(second).isFull()).isFalse();
+    }
+
+    @Test
+    void foreignOrMalformedTokensReturnFullSnapshot() {
+        service.changed(spot("A-1", true, 0));
+        String token = service.getStatus(null).getVersion();
+        String epoch = token.substring(0, token.indexOf('-'));
+
+        // 재시작했거나 다른 노드가 발급한 토큰 (epoch 는 16진수라 "zzzzzzzz" 는 나올 수 없다)
+        assertThat(service.getStatus("zzzzzzzz-1").isFull()).isTrue();
+        assertThat(service.getStatus(epoch + "-abc").isFull()).isTrue();
+        assertThat(service.getStatus("1").isFull()).isTrue();
+        // 이 프로세스가 아직 발급하지 않은 순번
+        assertThat(service.getStatus(epoch + "-99").isFull()).isTrue();
+        assertThat(service.getStatus(token).isFull()).isFalse();
+    }
+
+    @Test
+    void reloadReportsRemovedSpotsAndIgnoresOlderRows() {
+        service.changed(spot("A-1", true, 3));
+        service.changed(spot("A-2", false, 0));
+        String since = service.getStatus(null).getVersion();
+
+        // DB 에서 A-2 가 지워졌고, A-1 은 메모리보다 오래된 행이 왔다
+        when(repository.findAll()).thenReturn(List.of(spot("A-1", false, 2)));
+        service.reload();
+
+        ParkingStatusDTO delta = service.getStatus(since);
+        assertThat(delta.isFull()).isFalse();
+        assertThat(delta.getSpots()).isEmpty();
+        assertThat(delta.getRemoved()).containsExactly("A-2");
+        assertThat(delta.getTotal()).isEqualTo(1);
+        assertThat(delta.getOccupied()).isEqualTo(1);
+        assertThat(service.isOccupied("A-1")).isTrue();
+        assertThat(service.spotIds()).containsExactly("A-1");
+    }
+
+    private static ParkingSpotEntity spot(String spotId, boolean occupied, long version) {
+        ParkingSpotEntity spot = new ParkingSpotEntity();
+        spot.setSpotId(spotId);
+        spot.setOccupied(occupied);
+        if (occupied) {
+            spot.setPlateNumber("12가" + (3456 + version));
+            spot.setEntryTime(LocalDateTime.of(2026, 10, 20, 9, 0).plusMinutes(version));
+        }
+        spot.setVersion(version);
+        return spot;
+    }
+}
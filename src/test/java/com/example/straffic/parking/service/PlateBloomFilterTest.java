@@ -0,0 +1,51 @@
+package com.example.straffic.parking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlateBloomFilterTest {
+
+    @Test
+    void addedKeysAreNeverMissed() {
+        PlateBloomFilter filter = new PlateBloomFilter(20_000, 0.001);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add(plate(i));
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(filter.mightContain(plate(i))).as(plate(i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearFpp() {
+        PlateBloomFilter filter = new PlateBloomFilter(20_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add(plate(i));
+        }
+
+        int positives = 0;
+        for (int i = 20_000; i < 120_000; i++) {
+            if (filter.mightContain(plate(i))) positives++;
+        }
+        // 기대값 1% (1000건), 해시가 치우치면 몇 배로 뛴다
+        assertThat(positives).isLessThan(2_000);
+        // m = -n·ln(p) / (ln 2)² ≈ 9.6 bit/대, k ≈ 7
+        assertThat(filter.sizeInBytes()).isBetween(20_000L * 9 / 8, 20_000L * 11 / 8);
+        assertThat(filter.hashes()).isEqualTo(7);
+    }
+
+    @Test
+    void smallCapacityIsRaisedToMinimum() {
+        PlateBloomFilter filter = new PlateBloomFilter(0, 0.001);
+        assertThat(filter.capacity()).isEqualTo(16);
+        assertThat(filter.mightContain("12가3456")).isFalse();
+        filter.add("12가3456");
+        assertThat(filter.mightContain("12가3456")).isTrue();
+    }
+
+    private static String plate(int i) {
+        return String.format("%02d%c%04d", i % 100, "가나다라마거너더러머".charAt((i / 100) % 10), i / 1000 % 10_000);
+    }
+}
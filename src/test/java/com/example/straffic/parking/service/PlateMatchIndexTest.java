@@ -0,0 +1,98 @@
+package com.example.straffic.parking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlateMatchIndexTest {
+
+    @Test
+    void findsParkedPlateWithinEditDistance() {
+        PlateMatchIndex index = new PlateMatchIndex(2, 100);
+        index.parked("12가3456", "A-1");
+        index.parked("98나7654", "A-2");
+
+        // 숫자 하나 오인식 (치환)
+        List<PlateMatchIndex.Candidate> replaced = index.suggest("12가3457", 5, true);
+        assertThat(replaced).hasSize(1);
+        assertThat(replaced.get(0).getPlateNumber()).isEqualTo("12가3456");
+        assertThat(replaced.get(0).getSpotId()).isEqualTo("A-1");
+        assertThat(replaced.get(0).getDistance()).isEqualTo(1);
+
+        // 한 글자 누락 + 한 글자 추가
+        assertThat(index.suggest("12가345", 5, true)).extracting(PlateMatchIndex.Candidate::getDistance).containsExactly(1);
+        assertThat(index.suggest("912가3456", 5, true)).extracting(PlateMatchIndex.Candidate::getDistance).containsExactly(1);
+
+        // 거리 3 은 찾지 않는다
+        assertThat(index.suggest("12가3999", 5, true)).isEmpty();
+    }
+
+    @Test
+    void distanceCountsAdjacentTranspositionAsOne() {
+        assertThat(PlateMatchIndex.distance("123456", "123456")).isZero();
+        assertThat(PlateMatchIndex.distance("123456", "124356")).isEqualTo(1);
+        assertThat(PlateMatchIndex.distance("123456", "12356")).isEqualTo(1);
+        assertThat(PlateMatchIndex.distance("123456", "1234567")).isEqualTo(1);
+        assertThat(PlateMatchIndex.distance("12가3456", "12나3456")).isEqualTo(1);
+        // OSA: 교환한 부분을 다시 편집하지 않으므로 CA → ABC 는 3
+        assertThat(PlateMatchIndex.distance("CA", "ABC")).isEqualTo(3);
+        assertThat(PlateMatchIndex.distance("", "123")).isEqualTo(3);
+    }
+
+    @Test
+    void transposedDigitsAreFoundByIndex() {
+        PlateMatchIndex index = new PlateMatchIndex(1, 100);
+        index.parked("12가3456", "A-3");
+
+        List<PlateMatchIndex.Candidate> found = index.suggest("12가4356", 5, true);
+
+        assertThat(found).extracting(PlateMatchIndex.Candidate::getSpotId).containsExactly("A-3");
+        assertThat(found.get(0).getDistance()).isEqualTo(1);
+    }
+
+    @Test
+    void foldsOcrConfusableCharactersToDistanceZero() {
+        assertThat(PlateMatchIndex.normalize(" 12가 3456 ")).isEqualTo("12가3456");
+        assertThat(PlateMatchIndex.normalize("l2가-B4S6")).isEqualTo("12가8456");
+
+        PlateMatchIndex index = new PlateMatchIndex(1, 100);
+        index.parked("10가3856", "A-4");
+
+        List<PlateMatchIndex.Candidate> found = index.suggest("IO가3B56", 5, true);
+
+        assertThat(found).hasSize(1);
+        assertThat(found.get(0).getPlateNumber()).isEqualTo("10가3856");
+        assertThat(found.get(0).getDistance()).isZero();
+    }
+
+    @Test
+    void leftPlatesAreOnlySuggestedWhenNotParkedOnlyAndOldestAreDropped() {
+        PlateMatchIndex index = new PlateMatchIndex(1, 2);
+        index.parked("11가1111", "A-1");
+        index.left("11가1111");
+
+        assertThat(index.suggest("11가1111", 5, true)).isEmpty();
+        assertThat(index.suggest("11가1111", 5, false))
+                .extracting(PlateMatchIndex.Candidate::isParked).containsExactly(false);
+
+        index.left("22나2222");
+        index.left("33다3333");
+
+        // recentCapacity 2 를 넘어서 가장 오래된 11가1111 이 빠진다
+        assertThat(index.suggest("11가1111", 5, false)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void parkedPlatesRankBeforeRecentOnesAtSameDistance() {
+        PlateMatchIndex index = new PlateMatchIndex(1, 100);
+        index.left("12가3457");
+        index.parked("12가3455", "A-5");
+
+        List<PlateMatchIndex.Candidate> found = index.suggest("12가3456", 5, false);
+
+        assertThat(found).extracting(PlateMatchIndex.Candidate::getPlateNumber).containsExactly("12가3455", "12가3457");
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.straffic.parking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlateRecognitionCacheTest {
+
+    private static final long BASE = 0x0123_4567_89AB_CDEFL;
+
+    @Test
+    void chunkLookupFindsHashesWithinMaxDistance() {
+        // 거리 4 까지 → 5 조각 (비트 0-11, 12-24, 25-37, 38-50, 51-63)
+        PlateRecognitionCache cache = new PlateRecognitionCache(10, 60, true, 4);
+        cache.put(key("stored", BASE), result("12가3456"));
+
+        // 네 조각에 한 비트씩 달라도 마지막 조각이 같아서 후보로 잡힌다
+        assertThat(cache.get(key("q1", flip(BASE, 0, 13, 26, 39)))).containsEntry("plateNumber", "12가3456")
+                .containsEntry("cached", "perceptual");
+        // 한 조각 안에서 네 비트가 달라도 나머지 조각으로 찾는다
+        assertThat(cache.get(key("q2", flip(BASE, 1, 2, 3, 4)))).containsEntry("plateNumber", "12가3456");
+        // 거리 5: 조각마다 한 비트씩이면 후보도 없고, 한 조각에 몰려 있으면 후보지만 거리로 걸러진다
+        assertThat(cache.get(key("q3", flip(BASE, 0, 13, 26, 39, 52)))).isNull();
+        assertThat(cache.get(key("q4", flip(BASE, 1, 2, 3, 4, 5)))).isNull();
+
+        assertThat(cache.getStats()).containsEntry("perceptualHits", 2L).containsEntry("misses", 2L)
+                .containsEntry("exactHits", 0L);
+    }
+
+    @Test
+    void closestCandidateWins() {
+        PlateRecognitionCache cache = new PlateRecognitionCache(10, 60, true, 4);
+        long query = BASE;
+        cache.put(key("far", flip(query, 0, 20, 40)), result("11가1111"));
+        cache.put(key("near", flip(query, 63)), result("22나2222"));
+        cache.put(key("middle", flip(query, 5, 45)), result("33다3333"));
+
+        assertThat(cache.get(key("q", query))).containsEntry("plateNumber", "22나2222");
+        // 정확히 같은 이미지가 있으면 유사 조회보다 먼저
+        assertThat(cache.get(key("far", query))).containsEntry("plateNumber", "11가1111")
+                .containsEntry("cached", "exact");
+    }
+
+    @Test
+    void inspectedCandidatesKeepTheirLruPosition() {
+        PlateRecognitionCache cache = new PlateRecognitionCache(3, 60, true, 4);
+        long query = BASE;
+        cache.put(key("a", flip(query, 1, 30)), result("11가1111"));
+        cache.put(key("b", flip(query, 2)), result("22나2222"));
+        cache.put(key("c", ~query), result("33다3333"));
+
+        // a 와 b 를 후보로 보지만 고른 b 만 최근 사용이 된다 → 순서 a, c, b
+        assertThat(cache.get(key("q", query))).containsEntry("plateNumber", "22나2222");
+
+        cache.put(key("d", 0L), result("44라4444"));
+        assertThat(cache.getStats()).containsEntry("size", 3).containsEntry("evictions", 1L);
+        cache.put(key("e", -1L >>> 1), result("55마5555"));
+
+        // a 다음으로 c 가 밀려나고 b 는 남는다
+        assertThat(cache.get(key("a", null))).isNull();
+        assertThat(cache.get(key("c", null))).isNull();
+        assertThat(cache.get(key("b", null))).containsEntry("plateNumber", "22나2222");
+        // 밀려난 항목은 조각 색인에서도 빠진다
+        assertThat(cache.get(key("q2", flip(query, 1, 30)))).containsEntry("plateNumber", "22나2222");
+    }
+
+    @Test
+    void reencodedImageIsFoundByDifferenceHash() throws Exception {
+        PlateRecognitionCache cache = new PlateRecognitionCache(10, 60, true, 4);
+        BufferedImage image = plateImage();
+        byte[] original = png(image);
+        image.setRGB(3, 3, Color.RED.getRGB());
+        byte[] touched = png(image);
+        assertThat(touched).isNotEqualTo(original);
+
+        cache.put(cache.keyOf(original), result("12가3456"));
+
+        assertThat(cache.get(cache.keyOf(touched))).containsEntry("cached", "perceptual");
+        // 이미지로 읽을 수 없으면 정확 일치만 본다
+        assertThat(PlateRecognitionCache.differenceHash(new byte[]{1, 2, 3})).isNull();
+        assertThat(cache.get(cache.keyOf(new byte[]{1, 2, 3}))).isNull();
+    }
+
+    // ------------------------------------------------------------------
+
+    private static PlateRecognitionCache.ImageKey key(String contentHash, Long perceptualHash) {
+        PlateRecognitionCache.ImageKey key = new PlateRecognitionCache.ImageKey(contentHash, null);
+        ReflectionTestUtils.setField(key, "perceptualHash", perceptualHash);
+        return key;
+    }
+
+    private static long flip(long hash, int... bits) {
+        for (int bit : bits) {
+            hash ^= 1L << bit;
+        }
+        return hash;
+    }
+
+    private static Map<String, Object> result(String plateNumber) {
+        return Map.of("success", true, "plateNumber", plateNumber);
+    }
+
+    private static BufferedImage plateImage() {
+        BufferedImage image = new BufferedImage(180, 60, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        for (int x = 0; x < 180; x++) {
+            g.setColor(new Color(x, x, x));
+            g.drawLine(x, 0, x, 59);
+        }
+        g.setColor(Color.BLACK);
+        g.fillRect(40, 15, 30, 30);
+        g.fillRect(110, 10, 20, 40);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] png(BufferedImage image) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
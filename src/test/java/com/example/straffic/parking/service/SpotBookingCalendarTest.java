@@ -0,0 +1,77 @@
+package com.example.straffic.parking.service;
+
+import com.example.straffic.parking.entity.ParkingReservationEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpotBookingCalendarTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 10, 20, 0, 0);
+
+    @Test
+    void halfOpenIntervalsTouchingAtTheBoundaryDoNotOverlap() {
+        SpotBookingCalendar calendar = new SpotBookingCalendar();
+        assertThat(calendar.add(reservation(1, 10, 12))).isTrue();
+
+        // [10, 12) 와 [12, 14) 는 맞닿기만 한다
+        assertThat(calendar.overlaps(at(12), at(14))).isFalse();
+        assertThat(calendar.overlaps(at(8), at(10))).isFalse();
+        assertThat(calendar.overlaps(at(11), at(13))).isTrue();
+        assertThat(calendar.overlaps(at(9), at(11))).isTrue();
+        // 안에 들어가거나 감싸는 경우
+        assertThat(calendar.overlaps(at(10).plusMinutes(30), at(11))).isTrue();
+        assertThat(calendar.overlaps(at(9), at(13))).isTrue();
+
+        assertThat(calendar.add(reservation(2, 12, 14))).isTrue();
+        assertThat(calendar.add(reservation(3, 8, 10))).isTrue();
+        assertThat(calendar.add(reservation(4, 13, 15))).isFalse();
+        assertThat(calendar.all()).extracting(ParkingReservationEntity::getId).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void overlappingListsReservationStartedBeforeTheWindow() {
+        SpotBookingCalendar calendar = new SpotBookingCalendar();
+        calendar.add(reservation(1, 8, 10));
+        calendar.add(reservation(2, 10, 12));
+        calendar.add(reservation(3, 14, 16));
+
+        // 9시 반 ~ 14시: 8시에 시작한 예약도, 14시에 시작하는 예약은 빠진다
+        assertThat(calendar.overlapping(at(9).plusMinutes(30), at(14)))
+                .extracting(ParkingReservationEntity::getId).containsExactly(1L, 2L);
+        assertThat(calendar.overlapping(at(10), at(11)))
+                .extracting(ParkingReservationEntity::getId).containsExactly(2L);
+        assertThat(calendar.overlapping(at(12), at(14))).isEmpty();
+    }
+
+    @Test
+    void removeOnlyDropsTheSameReservation() {
+        SpotBookingCalendar calendar = new SpotBookingCalendar();
+        calendar.add(reservation(1, 10, 12));
+
+        // 시작 시각만 같은 다른 예약으로는 지워지지 않는다
+        calendar.remove(reservation(9, 10, 11));
+        assertThat(calendar.isEmpty()).isFalse();
+
+        calendar.remove(reservation(1, 10, 12));
+        assertThat(calendar.isEmpty()).isTrue();
+        assertThat(calendar.overlaps(at(10), at(12))).isFalse();
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+
+    private static ParkingReservationEntity reservation(long id, int startHour, int endHour) {
+        ParkingReservationEntity r = new ParkingReservationEntity();
+        r.setId(id);
+        r.setSpotId("A-1");
+        r.setPlateNumber("12가3456");
+        r.setStartTime(at(startHour));
+        r.setEndTime(at(endHour));
+        r.setStatus(ParkingReservationEntity.RESERVED);
+        return r;
+    }
+}